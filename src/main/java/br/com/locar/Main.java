@@ -1,7 +1,10 @@
 package br.com.locar;
 
 import com.formdev.flatlaf.FlatDarkLaf;
+import br.com.locar.core.controller.AuthController;
+import br.com.locar.core.controller.VeiculoController;
 import br.com.locar.util.DumpGenerator;
+import br.com.locar.util.GeradorMiniaturas;
 import br.com.locar.ui.view.LoginScreen;
 
 import javax.swing.*;
@@ -28,6 +31,7 @@ public class Main {
      * <li>Aplica a fonte selecionada a diversos componentes da UI.</li>
      * <li>Chama {@code DumpGenerator.rodarDump()} para garantir que os dados iniciais necessários
      * para a aplicação (como clientes, veículos, etc.) sejam gerados ou carregados.</li>
+     * <li>Gera em segundo plano as miniaturas que faltam para as fotos de veículos e de perfil já salvas.</li>
      * <li>Inicia a {@code LoginScreen} em um thread de despacho de eventos da Swing,
      * tornando-a visível para o usuário.</li>
      * </ol>
@@ -121,6 +125,8 @@ public class Main {
             UIManager.put("OptionPane.font", appFont);
 
             DumpGenerator.rodarDump();
+            GeradorMiniaturas.preencher(VeiculoController.VEHICLE_PICS_DIR, GeradorMiniaturas.TAMANHOS_VEICULO);
+            GeradorMiniaturas.preencher(AuthController.PROFILE_PICS_DIR, GeradorMiniaturas.TAMANHOS_PERFIL);
         } catch (Exception e) {
             System.err.println("Failed to initialize FlatLaf: " + e.getMessage());
             e.printStackTrace();
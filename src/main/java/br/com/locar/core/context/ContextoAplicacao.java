@@ -0,0 +1,177 @@
+package br.com.locar.core.context;
+
+import br.com.locar.core.controller.AuthController;
+import br.com.locar.core.controller.LocacaoController;
+import br.com.locar.core.controller.VeiculoController;
+import br.com.locar.core.persistence.GerenciadorTransacoes;
+
+import java.util.function.Supplier;
+
+/**
+ * A classe `ContextoAplicacao` é o contexto de dados compartilhado por todo o processo.
+ * <p>
+ * Ela cria sob demanda uma única instância de cada controlador ({@link AuthController},
+ * {@link VeiculoController} e {@link LocacaoController}) e a entrega a todas as telas. Assim os veículos
+ * e as locações são lidos do disco uma única vez, e a navegação entre telas não relê os arquivos nem
+ * mantém cópias divergentes dos dados.
+ * </p>
+ * <p>
+ * O contexto registra estatísticas de uso (acertos, carregamentos e tempo gasto carregando),
+ * disponíveis em {@link #getEstatisticas()}.
+ * </p>
+ */
+public final class ContextoAplicacao {
+
+    private static ContextoAplicacao instancia;
+
+    private AuthController authController;
+    private VeiculoController veiculoController;
+    private LocacaoController locacaoController;
+
+    private long acertos;
+    private long carregamentos;
+    private long tempoCarregamentoNanos;
+
+    private ContextoAplicacao() {
+    }
+
+    /**
+     * Retorna o contexto compartilhado da aplicação, criando-o na primeira chamada.
+     *
+     * @return A instância única de {@code ContextoAplicacao}.
+     */
+    public static synchronized ContextoAplicacao getInstancia() {
+        if (instancia == null) {
+            instancia = new ContextoAplicacao();
+        }
+        return instancia;
+    }
+
+    /**
+     * Descarta o contexto compartilhado. A próxima chamada a {@link #getInstancia()} cria um contexto novo,
+     * que carregará novamente os dados do disco.
+     */
+    public static synchronized void redefinir() {
+        instancia = null;
+    }
+
+    /**
+     * @return O controlador de autenticação compartilhado.
+     */
+    public synchronized AuthController getAuthController() {
+        if (authController == null) {
+            authController = carregar(AuthController::new);
+        } else {
+            acertos++;
+        }
+        return authController;
+    }
+
+    /**
+     * @return O controlador de veículos compartilhado, com todos os veículos já carregados. Se houver transações
+     *         interrompidas por uma queda, o controlador de locações é criado em seguida para reaplicá-las.
+     */
+    public synchronized VeiculoController getVeiculoController() {
+        if (veiculoController == null) {
+            veiculoController = carregar(VeiculoController::new);
+            if (locacaoController == null && new GerenciadorTransacoes(GerenciadorTransacoes.DIRETORIO_PADRAO).possuiPendentes()) {
+                getLocacaoController();
+            }
+        } else {
+            acertos++;
+        }
+        return veiculoController;
+    }
+
+    /**
+     * @return O controlador de locações compartilhado, que usa os mesmos controladores de autenticação e de veículos.
+     */
+    public synchronized LocacaoController getLocacaoController() {
+        if (locacaoController == null) {
+            AuthController auth = getAuthController();
+            VeiculoController veiculos = getVeiculoController();
+            // Criar o controlador de veículos pode já ter criado este controlador para reaplicar transações pendentes.
+            if (locacaoController == null) {
+                locacaoController = carregar(() -> new LocacaoController(auth, veiculos, true));
+            }
+        } else {
+            acertos++;
+        }
+        return locacaoController;
+    }
+
+    /**
+     * Descarta os controladores em cache, forçando a releitura dos arquivos no próximo acesso.
+     * Útil quando os arquivos de dados são regenerados por fora da aplicação.
+     */
+    public synchronized void recarregar() {
+        authController = null;
+        veiculoController = null;
+        locacaoController = null;
+    }
+
+    /**
+     * @return Um retrato das estatísticas de uso do contexto.
+     */
+    public synchronized EstatisticasCache getEstatisticas() {
+        return new EstatisticasCache(acertos, carregamentos, tempoCarregamentoNanos);
+    }
+
+    private <T> T carregar(Supplier<T> fabrica) {
+        long inicio = System.nanoTime();
+        T valor = fabrica.get();
+        tempoCarregamentoNanos += System.nanoTime() - inicio;
+        carregamentos++;
+        return valor;
+    }
+
+    /**
+     * Estatísticas de uso do {@link ContextoAplicacao}.
+     */
+    public static final class EstatisticasCache {
+        private final long acertos;
+        private final long carregamentos;
+        private final long tempoCarregamentoNanos;
+
+        EstatisticasCache(long acertos, long carregamentos, long tempoCarregamentoNanos) {
+            this.acertos = acertos;
+            this.carregamentos = carregamentos;
+            this.tempoCarregamentoNanos = tempoCarregamentoNanos;
+        }
+
+        /**
+         * @return Quantas vezes um controlador já carregado foi reaproveitado.
+         */
+        public long getAcertos() {
+            return acertos;
+        }
+
+        /**
+         * @return Quantas vezes um controlador precisou ser criado (e seus dados lidos do disco).
+         */
+        public long getCarregamentos() {
+            return carregamentos;
+        }
+
+        /**
+         * @return O tempo total gasto nos carregamentos, em milissegundos.
+         */
+        public double getTempoCarregamentoMs() {
+            return tempoCarregamentoNanos / 1_000_000.0;
+        }
+
+        /**
+         * @return A fração de acessos atendidos sem leitura do disco, entre 0 e 1.
+         */
+        public double getTaxaAcerto() {
+            long total = acertos + carregamentos;
+            return total == 0 ? 0.0 : (double) acertos / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("acertos=%d, carregamentos=%d, taxaAcerto=%.1f%%, tempoCarregamento=%.1fms",
+                    acertos, carregamentos, getTaxaAcerto() * 100, getTempoCarregamentoMs());
+        }
+    }
+}
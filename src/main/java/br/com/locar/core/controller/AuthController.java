@@ -4,17 +4,34 @@ import br.com.locar.core.entities.Cliente;
 import br.com.locar.core.entities.Funcionario;
 import br.com.locar.core.entities.Pessoa;
 import br.com.locar.core.exceptions.AuthControllerException;
+import br.com.locar.core.index.IndicePessoas;
+import br.com.locar.core.persistence.FilaEscrita;
+import br.com.locar.core.persistence.VersaoArquivo;
+import br.com.locar.util.CacheImagens;
+import br.com.locar.util.GeradorMiniaturas;
 import br.com.locar.util.PasswordHasher;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * A classe AuthController gerencia operações de autenticação e persistência
  * de dados para usuários (Clientes e Funcionários), incluindo carregamento,
  * salvamento, registro e atualização de perfis, bem como o gerenciamento de fotos de perfil.
+ * <p>
+ * Clientes e funcionários são mantidos em índices em memória por email e por CPF ({@link IndicePessoas}),
+ * carregados uma vez e atualizados a cada escrita. Autenticação e verificações de unicidade são consultas
+ * em tempo constante; o arquivo só é relido quando é substituído ou apagado por fora da aplicação.
+ * </p>
  */
 public class AuthController {
     /**
@@ -30,6 +47,9 @@ public class AuthController {
      */
     public static final String PROFILE_PICS_DIR = "dump/profile_pics/";
 
+    private final CachePessoas<Cliente> clientes = new CachePessoas<>(CLIENTS_FILE_PATH, this::lerClientesDoArquivo);
+    private final CachePessoas<Funcionario> funcionarios = new CachePessoas<>(EMPLOYEES_FILE_PATH, this::lerFuncionariosDoArquivo);
+
     /**
      * Construtor da classe AuthController.
      * Garante que os diretórios necessários para persistência de dados (clientes, funcionários, fotos de perfil)
@@ -53,6 +73,7 @@ public class AuthController {
     /**
      * Tenta autenticar um usuário (Cliente ou Funcionario) com base no email e senha fornecidos.
      * A senha fornecida é primeiro hashed para comparação com as senhas armazenadas.
+     * O usuário é localizado pelos índices de email, sem percorrer as listas.
      *
      * @param email O email do usuário.
      * @param password A senha do usuário (texto simples).
@@ -65,24 +86,14 @@ public class AuthController {
             throw new AuthControllerException("Erro ao processar a senha.");
         }
 
-        List<Cliente> clients = loadClients();
-        Optional<Cliente> authenticatedClient = clients.stream()
-                .filter(c -> c.getEmail().equals(email)
-                        && c.getSenha().equals(hashedPassword))
-                .findFirst();
-
-        if (authenticatedClient.isPresent()) {
-            return authenticatedClient.get();
+        Cliente authenticatedClient = clientes.porEmail(email);
+        if (authenticatedClient != null && hashedPassword.equals(authenticatedClient.getSenha())) {
+            return authenticatedClient;
         }
 
-        List<Funcionario> employees = loadEmployees();
-        Optional<Funcionario> authenticatedEmployee = employees.stream()
-                .filter(f -> f.getEmail().equals(email)
-                        && f.getSenha().equals(hashedPassword))
-                .findFirst();
-
-        if (authenticatedEmployee.isPresent()) {
-            return authenticatedEmployee.get();
+        Funcionario authenticatedEmployee = funcionarios.porEmail(email);
+        if (authenticatedEmployee != null && hashedPassword.equals(authenticatedEmployee.getSenha())) {
+            return authenticatedEmployee;
         }
 
         throw new AuthControllerException("Email ou senha incorretos.");
@@ -90,13 +101,15 @@ public class AuthController {
 
     /**
      * Salva a lista de funcionários em um arquivo serializado no caminho {@code EMPLOYEES_FILE_PATH}.
+     * A gravação passa pela {@link FilaEscrita}, para manter a ordem em relação às gravações assíncronas
+     * pendentes, e este método aguarda a sua conclusão.
      *
      * @param employees A lista de objetos Funcionario a ser salva.
      * @return true se a operação de salvamento for bem-sucedida, false caso contrário.
      */
     public boolean saveEmployees(List<Funcionario> employees) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(EMPLOYEES_FILE_PATH))) {
-            oos.writeObject(employees);
+        try {
+            funcionarios.salvar(employees);
             return true;
         } catch (IOException e) {
             System.err.println("Erro ao salvar funcionários no arquivo: ");
@@ -105,6 +118,28 @@ public class AuthController {
         }
     }
 
+    /**
+     * Agenda a gravação da lista de funcionários em segundo plano, sem bloquear a thread chamadora.
+     * Gravações repetidas em sequência são coalescidas e apenas a lista mais recente é escrita.
+     *
+     * @param employees A lista de objetos Funcionario a ser salva.
+     * @return Um futuro concluído quando a lista for gravada, ou concluído com exceção se a gravação falhar.
+     */
+    public CompletableFuture<Void> saveEmployeesAsync(List<Funcionario> employees) {
+        return funcionarios.salvarAsync(employees);
+    }
+
+    /**
+     * Retorna a lista de funcionários, a partir do índice em memória.
+     * O arquivo só é lido na primeira chamada ou quando foi alterado por fora da aplicação; alterações externas
+     * são percebidas em até um segundo, ou imediatamente depois de {@link #recarregar()}.
+     *
+     * @return Uma nova lista com os objetos Funcionario.
+     */
+    public List<Funcionario> loadEmployees() {
+        return funcionarios.listar();
+    }
+
     /**
      * Carrega a lista de funcionários de um arquivo serializado.
      * Se o arquivo não existir, estiver vazio ou houver um erro durante a leitura,
@@ -112,7 +147,7 @@ public class AuthController {
      *
      * @return Uma lista de objetos Funcionario.
      */
-    public List<Funcionario> loadEmployees() {
+    private List<Funcionario> lerFuncionariosDoArquivo() {
         List<Funcionario> employees = new ArrayList<>();
         File file = new File(EMPLOYEES_FILE_PATH);
         if (file.exists() && file.length() > 0) {
@@ -146,12 +181,23 @@ public class AuthController {
         return employees;
     }
 
+    /**
+     * Retorna a lista de clientes, a partir do índice em memória.
+     * O arquivo só é lido na primeira chamada ou quando foi alterado por fora da aplicação; alterações externas
+     * são percebidas em até um segundo, ou imediatamente depois de {@link #recarregar()}.
+     *
+     * @return Uma nova lista com os objetos Cliente.
+     */
+    public List<Cliente> loadClients() {
+        return clientes.listar();
+    }
+
     /**
      * Carrega a lista de clientes de um arquivo serializado no caminho {@code CLIENTS_FILE_PATH}.
      *
      * @return Uma lista de objetos Cliente. Retorna uma lista vazia se o arquivo não existir ou houver erro durante a leitura.
      */
-    public List<Cliente> loadClients() {
+    private List<Cliente> lerClientesDoArquivo() {
         List<Cliente> clients = new ArrayList<>(); // Inicia com uma lista mutável
         File file = new File(CLIENTS_FILE_PATH);
 
@@ -175,13 +221,15 @@ public class AuthController {
 
     /**
      * Salva a lista de clientes em um arquivo serializado no caminho {@code CLIENTS_FILE_PATH}.
+     * A gravação passa pela {@link FilaEscrita}, para manter a ordem em relação às gravações assíncronas
+     * pendentes, e este método aguarda a sua conclusão.
      *
      * @param clients A lista de objetos Cliente a ser salva.
      * @return true se a operação for bem-sucedida, false caso contrário.
      */
     public boolean saveClients(List<Cliente> clients) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(CLIENTS_FILE_PATH))) {
-            oos.writeObject(clients);
+        try {
+            clientes.salvar(clients);
             return true;
         } catch (IOException e) {
             System.err.println("Erro ao salvar clientes no arquivo: ");
@@ -191,37 +239,107 @@ public class AuthController {
     }
 
     /**
-     * Atualiza um cliente existente na lista de clientes e salva a lista atualizada no arquivo.
+     * Agenda a gravação da lista de clientes em segundo plano, sem bloquear a thread chamadora.
+     * Gravações repetidas em sequência são coalescidas e apenas a lista mais recente é escrita.
+     *
+     * @param clients A lista de objetos Cliente a ser salva.
+     * @return Um futuro concluído quando a lista for gravada, ou concluído com exceção se a gravação falhar.
+     */
+    public CompletableFuture<Void> saveClientsAsync(List<Cliente> clients) {
+        return clientes.salvarAsync(clients);
+    }
+
+    /**
+     * Serializa uma lista no arquivo informado. Executado pela thread da {@link FilaEscrita}.
+     * A lista é gravada em um arquivo temporário sincronizado com o disco e depois renomeada sobre o original,
+     * de modo que uma leitura concorrente nunca encontra o arquivo pela metade.
+     *
+     * @param lista   A lista a ser gravada.
+     * @param caminho O caminho do arquivo.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    private static void gravarLista(List<? extends Pessoa> lista, String caminho) throws IOException {
+        Path destino = Path.of(caminho);
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temporario.toFile());
+             ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(fos))) {
+            oos.writeObject(lista);
+            oos.flush();
+            fos.getFD().sync();
+        }
+        try {
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Atualiza um cliente existente na lista de clientes e grava a lista atualizada, aguardando a conclusão.
      * O cliente é identificado pelo seu CPF. Se o cliente não for encontrado, a operação falha.
+     * A gravação passa pela {@link FilaEscrita}, antecipada para não esperar a janela de coalescência; quem não
+     * precisa aguardar o disco deve usar {@link #updateClienteAsync(Cliente)}.
      *
      * @param clienteAtualizado O objeto Cliente com os dados atualizados.
-     * @return true se o cliente foi encontrado, atualizado e a lista salva com sucesso, false caso contrário.
+     * @return true se a lista atualizada foi gravada, false se a gravação falhou.
      */
     public boolean updateCliente(Cliente clienteAtualizado) {
-        List<Cliente> clients = loadClients();
-        boolean removed = clients.removeIf(c -> c.getCpf().equals(clienteAtualizado.getCpf()));
-        if (!removed) {
+        CompletableFuture<Void> gravacao = updateClienteAsync(clienteAtualizado);
+        FilaEscrita.compartilhada().descarregar(CLIENTS_FILE_PATH);
+        try {
+            gravacao.join();
+            return true;
+        } catch (CompletionException e) {
+            System.err.println("Erro ao salvar clientes no arquivo: " + e.getCause().getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Atualiza um cliente existente e agenda a gravação da lista atualizada, sem aguardar o disco.
+     * A escrita é feita em segundo plano pela {@link FilaEscrita} (atualizações seguidas, como débitos de saldo,
+     * são coalescidas); leituras posteriores por {@link #loadClients()} já enxergam a atualização.
+     *
+     * @param clienteAtualizado O objeto Cliente com os dados atualizados.
+     * @return Um futuro concluído quando a lista for gravada, ou concluído com exceção se a gravação falhar.
+     */
+    public CompletableFuture<Void> updateClienteAsync(Cliente clienteAtualizado) {
+        CompletableFuture<Void> gravacao = clientes.substituirAsync(clienteAtualizado);
+        if (gravacao == null) {
             throw new AuthControllerException("Erro: Cliente com CPF '" + clienteAtualizado.getCpf() + "' não encontrado para atualização.");
         }
-        clients.add(clienteAtualizado);
-        return saveClients(clients);
+        return gravacao;
+    }
+
+    /**
+     * Grava imediatamente a lista de clientes ainda pendente na {@link FilaEscrita}, se houver,
+     * garantindo que as atualizações agendadas estejam no disco ao retornar.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    public void sincronizarClientes() throws IOException {
+        clientes.sincronizar();
+    }
+
+    /**
+     * Faz com que a próxima consulta de clientes ou funcionários confira se os arquivos foram alterados por fora
+     * da aplicação, sem esperar o intervalo entre verificações.
+     */
+    public void recarregar() {
+        clientes.recarregar();
+        funcionarios.recarregar();
     }
 
     /**
      * Adiciona um novo cliente à lista e o salva no arquivo.
-     * Antes de adicionar, verifica se o email ou CPF do novo cliente já existe.
+     * Antes de adicionar, verifica pelos índices se o email ou CPF do novo cliente já existe.
      * A senha do cliente é hashed antes de ser salva. A foto de perfil também é salva.
      *
      * @param newClient O novo cliente a ser adicionado.
      * @return true se o cliente foi adicionado e salvo com sucesso, false caso contrário (ex: email/CPF já existe ou falha no hashing/salvamento da foto).
      */
     public boolean registerClient(Cliente newClient) {
-        List<Cliente> clients = loadClients();
-
-        boolean exists = clients.stream().anyMatch(c ->
-                c.getEmail().equals(newClient.getEmail()) || c.getCpf().equals(newClient.getCpf()));
-
-        if (exists) {
+        if (clientes.contemEmailOuCpf(newClient.getEmail(), newClient.getCpf())) {
             throw new AuthControllerException("Email ou CPF já cadastrado.");
         }
 
@@ -233,13 +351,21 @@ public class AuthController {
 
         String savedPhotoPath = saveProfilePicture(newClient.getCaminhoFoto(), newClient.getCpf());
         newClient.setCaminhoFoto(savedPhotoPath);
-        clients.add(newClient);
-        return saveClients(clients);
+        try {
+            clientes.adicionar(newClient);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar clientes no arquivo: ");
+            e.printStackTrace();
+            return false;
+        }
     }
 
     /**
      * Salva uma imagem de perfil em um diretório específico, renomeando-a com o CPF do usuário.
      * Se o caminho da imagem original for nulo ou vazio, ou se houver um erro durante o salvamento, retorna null.
+     * As versões em cache da imagem substituída são descartadas, e as miniaturas nos tamanhos exibidos pela
+     * aplicação são geradas em segundo plano; enquanto isso, a foto original é exibida no lugar delas.
      *
      * @param originalImagePath O caminho absoluto da imagem original a ser copiada.
      * @param cpf O CPF do usuário, usado para nomear o novo arquivo de imagem.
@@ -262,11 +388,187 @@ public class AuthController {
 
         try {
             java.nio.file.Files.copy(originalFile.toPath(), newFile.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-            return newFile.getAbsolutePath();
+            String caminhoSalvo = newFile.getAbsolutePath();
+            CacheImagens.compartilhado().invalidar(caminhoSalvo);
+            GeradorMiniaturas.gerarEmSegundoPlano(newFile, GeradorMiniaturas.TAMANHOS_PERFIL)
+                    .thenRun(() -> CacheImagens.compartilhado().invalidar(caminhoSalvo));
+            return caminhoSalvo;
         } catch (IOException e) {
             System.err.println("Erro ao salvar imagem de perfil para " + cpf + ": " + e.getMessage());
             e.printStackTrace();
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Índice em memória de uma lista de pessoas persistida em arquivo, mantido coerente com as gravações
+     * feitas pela {@link FilaEscrita}.
+     * <p>
+     * Enquanto houver uma gravação pendente para o arquivo, ela é a versão mais recente da lista; se não foi
+     * agendada por este cache (outra instância de {@code AuthController}), o índice é reconstruído a partir dela.
+     * Sem gravação pendente, o índice é válido enquanto o arquivo tiver a mesma {@link VersaoArquivo} registrada
+     * na última leitura ou gravação. Gravações deste processo são percebidas pelo contador de gravações concluídas
+     * da fila, sem acessar o disco; a versão do arquivo só é consultada depois de uma dessas gravações, de
+     * {@link #recarregar()} ou a cada {@value #INTERVALO_VERIFICACAO_MS} ms, para perceber alterações feitas por
+     * outro processo.
+     * </p>
+     */
+    private static final class CachePessoas<T extends Pessoa> {
+        private static final long INTERVALO_VERIFICACAO_MS = 1000;
+
+        private final String caminho;
+        private final Supplier<List<T>> leitor;
+        private final IndicePessoas<T> indice = new IndicePessoas<>();
+        private VersaoArquivo versao;
+        private List<T> origem;
+        private long gravacoesVistas = -1;
+        private long verificadoEm;
+
+        private CachePessoas(String caminho, Supplier<List<T>> leitor) {
+            this.caminho = caminho;
+            this.leitor = leitor;
+        }
+
+        synchronized List<T> listar() {
+            return atualizado().valores();
+        }
+
+        synchronized T porEmail(String email) {
+            return atualizado().porEmail(email);
+        }
+
+        synchronized boolean contemEmailOuCpf(String email, String cpf) {
+            return atualizado().contemEmailOuCpf(email, cpf);
+        }
+
+        /**
+         * Substitui a lista inteira e aguarda a gravação.
+         */
+        void salvar(List<? extends T> lista) throws IOException {
+            List<T> copia;
+            synchronized (this) {
+                indice.carregar(lista);
+                copia = novaOrigem();
+            }
+            gravarAgora(copia);
+        }
+
+        /**
+         * Substitui a lista inteira e agenda a gravação.
+         */
+        synchronized CompletableFuture<Void> salvarAsync(List<? extends T> lista) {
+            indice.carregar(lista);
+            return agendar();
+        }
+
+        /**
+         * Acrescenta uma pessoa e aguarda a gravação.
+         */
+        void adicionar(T pessoa) throws IOException {
+            List<T> copia;
+            synchronized (this) {
+                atualizado().registrar(pessoa);
+                copia = novaOrigem();
+            }
+            gravarAgora(copia);
+        }
+
+        /**
+         * Substitui a pessoa com o mesmo CPF e agenda a gravação.
+         *
+         * @return O futuro da gravação, ou null se não houver pessoa com esse CPF.
+         */
+        synchronized CompletableFuture<Void> substituirAsync(T pessoa) {
+            if (atualizado().porCpf(pessoa.getCpf()) == null) {
+                return null;
+            }
+            indice.registrar(pessoa);
+            return agendar();
+        }
+
+        /**
+         * Força a consulta da versão do arquivo na próxima leitura.
+         */
+        synchronized void recarregar() {
+            gravacoesVistas = -1;
+        }
+
+        /**
+         * Grava imediatamente a lista pendente deste arquivo, se houver.
+         */
+        void sincronizar() throws IOException {
+            List<T> pendentes = FilaEscrita.compartilhada().valorMaisRecente(caminho);
+            if (pendentes != null) {
+                FilaEscrita.compartilhada().gravarAgora(caminho, pendentes, this::gravar);
+            }
+        }
+
+        private IndicePessoas<T> atualizado() {
+            List<T> pendentes = FilaEscrita.compartilhada().valorMaisRecente(caminho);
+            if (pendentes != null) {
+                if (pendentes != origem) {
+                    indice.carregar(pendentes);
+                    origem = pendentes;
+                    versao = null;
+                }
+                return indice;
+            }
+            long gravacoes = FilaEscrita.compartilhada().gravacoesConcluidas(caminho);
+            long agora = System.nanoTime();
+            if (versao != null && gravacoes == gravacoesVistas
+                    && agora - verificadoEm < TimeUnit.MILLISECONDS.toNanos(INTERVALO_VERIFICACAO_MS)) {
+                return indice;
+            }
+            VersaoArquivo atual = VersaoArquivo.de(caminho);
+            if (!atual.equals(versao)) {
+                indice.carregar(leitor.get());
+                versao = atual;
+                origem = null;
+            }
+            gravacoesVistas = gravacoes;
+            verificadoEm = agora;
+            return indice;
+        }
+
+        private List<T> novaOrigem() {
+            origem = indice.valores();
+            return origem;
+        }
+
+        private CompletableFuture<Void> agendar() {
+            CompletableFuture<Void> gravacao = FilaEscrita.compartilhada().agendar(caminho, novaOrigem(), this::gravar);
+            gravacao.whenComplete((ok, erro) -> {
+                if (erro != null) {
+                    invalidar();
+                }
+            });
+            return gravacao;
+        }
+
+        private void gravarAgora(List<T> copia) throws IOException {
+            try {
+                FilaEscrita.compartilhada().gravarAgora(caminho, copia, this::gravar);
+            } catch (IOException e) {
+                invalidar();
+                throw e;
+            }
+        }
+
+        private void gravar(List<T> lista) throws IOException {
+            gravarLista(lista, caminho);
+            synchronized (this) {
+                if (origem == lista) {
+                    versao = VersaoArquivo.de(caminho);
+                }
+            }
+        }
+
+        /**
+         * Descarta o índice após uma gravação com falha, para que a próxima consulta releia o arquivo.
+         */
+        private synchronized void invalidar() {
+            versao = null;
+            origem = null;
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package br.com.locar.core.controller;
 
+import br.com.locar.core.context.ContextoAplicacao;
 import br.com.locar.core.entities.Cliente;
 import br.com.locar.core.entities.Locacao;
 import br.com.locar.core.entities.Veiculo;
 import br.com.locar.core.exceptions.LocacaoControllerException;
+import br.com.locar.core.persistence.FilaEscrita;
+import br.com.locar.core.persistence.GerenciadorTransacoes;
+import br.com.locar.core.persistence.JournalLocacoes;
+import br.com.locar.core.persistence.UnidadeDeTrabalho;
+import br.com.locar.util.TravasPorChave;
 
 import java.io.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A classe LocacaoController gerencia as operações relacionadas a locações de veículos,
  * incluindo o registro de novos aluguéis, carregamento, salvamento e finalização de locações,
  * além de interagir com os controladores de autenticação e veículos para manter a consistência dos dados.
+ * <p>
+ * Locações e devoluções podem ser feitas de várias threads. A verificação de disponibilidade e o registro de uma
+ * locação acontecem com as travas do veículo e do cliente ({@link TravasPorChave}), de modo que dois pedidos para o
+ * mesmo veículo nunca são aprovados juntos, enquanto pedidos para veículos e clientes diferentes seguem em paralelo.
+ * </p>
  */
 public class LocacaoController {
 
@@ -22,69 +34,151 @@ public class LocacaoController {
      * Caminho do arquivo onde os dados das locações são serializados.
      */
     private static final String LOCACOES_FILE_PATH = "dump/locacoes/locacoes.dat";
+    /**
+     * Caminho do journal onde cada locação ou devolução é acrescentada como um registro.
+     * É reaplicado sobre o snapshot {@code LOCACOES_FILE_PATH} no carregamento.
+     */
+    private static final String LOCACOES_JOURNAL_PATH = "dump/locacoes/locacoes.journal";
+
+    private static final String PARTICIPANTE_LOCACAO = "locacao";
+    private static final String PARTICIPANTE_DEVOLUCAO = "devolucao";
+    private static final String PARTICIPANTE_CLIENTE = "cliente";
+    private static final String PARTICIPANTE_VEICULO = "veiculo";
+
+    /**
+     * As locações em memória, em uma lista sincronizada, carregada na construção e depois apenas alterada pelas
+     * locações e devoluções. Consultas à locação ativa de um veículo usam o índice do {@link VeiculoController}.
+     */
     public List<Locacao> locacoes;
 
     private AuthController authController;
     private VeiculoController veiculoController;
+    private final JournalLocacoes journal = new JournalLocacoes(LOCACOES_FILE_PATH, LOCACOES_JOURNAL_PATH);
+    private final GerenciadorTransacoes transacoes = new GerenciadorTransacoes(GerenciadorTransacoes.DIRETORIO_PADRAO);
+    private final TravasPorChave travas = new TravasPorChave();
 
     /**
      * Construtor da classe LocacaoController.
-     * Garante que o diretório de persistência de locações exista e inicializa as listas
-     * de locações e as instâncias dos controladores dependentes.
+     * Garante que o diretório de persistência de locações exista, carrega as locações e usa os controladores
+     * de autenticação e de veículos compartilhados pelo {@link ContextoAplicacao}, em vez de criar cópias próprias.
      */
     public LocacaoController() {
-        File dir = new File("dump/locacoes/");
-        if (!dir.exists()) {
-            dir.mkdirs();
-        }
-        this.locacoes = loadLocacoes();
-        this.authController = new AuthController();
-        this.veiculoController = new VeiculoController();
+        this(ContextoAplicacao.getInstancia().getAuthController(), ContextoAplicacao.getInstancia().getVeiculoController(), true);
     }
 
     public LocacaoController(AuthController authController, VeiculoController veiculoController) {
+        this(authController, veiculoController, false);
+    }
+
+    /**
+     * Construtor da classe LocacaoController com controladores dependentes explícitos.
+     *
+     * @param authController    O controlador de autenticação a ser usado.
+     * @param veiculoController O controlador de veículos a ser usado.
+     * @param carregarLocacoes  Se true, garante o diretório de persistência, reaplica as transações interrompidas
+     *                          por uma queda e carrega as locações do disco; caso contrário, inicia com uma lista vazia.
+     */
+    public LocacaoController(AuthController authController, VeiculoController veiculoController, boolean carregarLocacoes) {
         this.authController = authController;
         this.veiculoController = veiculoController;
-        this.locacoes = new ArrayList<>();
+        registrarParticipantes();
+        if (carregarLocacoes) {
+            File dir = new File("dump/locacoes/");
+            if (!dir.exists()) {
+                dir.mkdirs();
+            }
+            int reaplicadas = transacoes.recuperar();
+            if (reaplicadas > 0) {
+                System.err.println("Aviso: " + reaplicadas + " transação(ões) interrompida(s) reaplicada(s).");
+            }
+            this.locacoes = Collections.synchronizedList(new ArrayList<>(loadLocacoes()));
+        } else {
+            this.locacoes = Collections.synchronizedList(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Registra os armazenamentos afetados por uma locação ou devolução como participantes das transações.
+     * Cada aplicação grava sem sincronizar; a durabilidade vem do registro de intenção e do checkpoint.
+     */
+    private void registrarParticipantes() {
+        transacoes.registrarParticipante(PARTICIPANTE_LOCACAO,
+                dados -> journal.acrescentarSemSincronizar(JournalLocacoes.TIPO_LOCACAO, (Locacao) dados),
+                journal::sincronizar);
+        transacoes.registrarParticipante(PARTICIPANTE_DEVOLUCAO,
+                dados -> journal.acrescentarSemSincronizar(JournalLocacoes.TIPO_DEVOLUCAO, (Locacao) dados),
+                journal::sincronizar);
+        transacoes.registrarParticipante(PARTICIPANTE_CLIENTE,
+                dados -> authController.updateClienteAsync((Cliente) dados),
+                () -> authController.sincronizarClientes());
+        transacoes.registrarParticipante(PARTICIPANTE_VEICULO,
+                dados -> {
+                    if (!veiculoController.atualizarVeiculo((Veiculo) dados, false)) {
+                        throw new IOException("Falha ao gravar o veículo " + ((Veiculo) dados).getPlaca() + ".");
+                    }
+                },
+                () -> {
+                    if (!veiculoController.sincronizarArquivos()) {
+                        throw new IOException("Falha ao sincronizar os arquivos de veículos.");
+                    }
+                });
+    }
+
+    /**
+     * Confirma as mutações de uma operação de negócio em uma única escrita durável
+     * (ver {@link GerenciadorTransacoes#confirmar(UnidadeDeTrabalho)}).
+     *
+     * @param unidade A unidade de trabalho com as mutações da operação.
+     * @return true se a transação foi confirmada, false se o registro de intenção não pôde ser gravado.
+     */
+    public boolean confirmar(UnidadeDeTrabalho unidade) {
+        try {
+            transacoes.confirmar(unidade);
+            compactarSeNecessario();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Erro ao confirmar transação: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Retorna o controlador de veículos usado por este controlador, cujo índice de locações ativas
+     * é mantido atualizado a cada locação e devolução.
+     *
+     * @return A instância de {@link VeiculoController} associada.
+     */
+    public VeiculoController getVeiculoController() {
+        return veiculoController;
     }
 
     /**
-     * Carrega a lista de locações de um arquivo serializado.
+     * Carrega a lista de locações a partir do último snapshot, reaplicando os registros do journal.
      *
      * @return Uma lista de objetos Locacao. Retorna uma lista vazia se o arquivo não existir ou houver erro durante a leitura.
      */
     public List<Locacao> loadLocacoes() {
-        List<Locacao> loadedLocacoes = new ArrayList<>();
-        File file = new File(LOCACOES_FILE_PATH);
-
-        if (file.exists() && file.length() > 0) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                Object obj = ois.readObject();
-                if (obj instanceof List) {
-                    List<?> rawList = (List<?>) obj;
-                    for (Object item : rawList) {
-                        if (item instanceof Locacao) {
-                            loadedLocacoes.add((Locacao) item);
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("Erro ao ler locações do arquivo: " + e.getMessage());
-            } catch (ClassNotFoundException e) {
-                System.err.println("Classe Locacao não encontrada durante a desserialização: " + e.getMessage());
-            }
+        try {
+            return journal.carregar();
+        } catch (IOException e) {
+            System.err.println("Erro ao ler locações do arquivo: " + e.getMessage());
+        } catch (ClassNotFoundException e) {
+            System.err.println("Classe Locacao não encontrada durante a desserialização: " + e.getMessage());
         }
-        return loadedLocacoes;
+        return new ArrayList<>();
     }
 
     /**
-     * Salva a lista completa de locações em um arquivo serializado.
+     * Salva a lista completa de locações como um novo snapshot e esvazia o journal.
+     * Usado na compactação periódica do journal; as operações do dia a dia usam
+     * {@link #salvarLocacao(Locacao)} e {@link #salvarDevolucao(Locacao)}.
+     * A gravação passa pela {@link FilaEscrita} e este método aguarda a sua conclusão.
      *
      * @return true se a operação de salvamento for bem-sucedida, false caso contrário.
      */
     public boolean saveAllLocacoes(List<Locacao> novasLocacoes) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(LOCACOES_FILE_PATH))) {
-            oos.writeObject(novasLocacoes);
+        try {
+            FilaEscrita.compartilhada().gravarAgora(LOCACOES_FILE_PATH, new ArrayList<>(novasLocacoes), journal::compactar);
             return true;
         } catch (IOException e) {
             System.err.println("Erro ao salvar locações no arquivo: " + e.getMessage());
@@ -94,10 +188,76 @@ public class LocacaoController {
     }
 
     /**
-     * Realiza a operação de aluguel de um veículo.
-     * Este método valida a disponibilidade do veículo e o saldo do cliente,
-     * cria uma nova locação, a persiste, debita o saldo do cliente e
-     * atualiza o contador de locações do veículo.
+     * Agenda a gravação da lista completa de locações como um novo snapshot, sem bloquear a thread chamadora.
+     * Gravações repetidas em sequência são coalescidas e apenas a lista mais recente é escrita.
+     *
+     * @param novasLocacoes A lista completa de locações.
+     * @return Um futuro concluído quando o snapshot for gravado, ou concluído com exceção se a gravação falhar.
+     */
+    public CompletableFuture<Void> saveAllLocacoesAsync(List<Locacao> novasLocacoes) {
+        return FilaEscrita.compartilhada().agendar(LOCACOES_FILE_PATH, new ArrayList<>(novasLocacoes), journal::compactar);
+    }
+
+    /**
+     * Acrescenta uma nova locação ao journal, sem regravar o histórico.
+     * Quando o journal atinge o limite de registros, o estado atual é compactado em um novo snapshot.
+     *
+     * @param novaLocacao A locação a ser persistida.
+     * @return true se o registro foi gravado com sucesso, false caso contrário.
+     */
+    public boolean salvarLocacao(Locacao novaLocacao) {
+        try {
+            journal.registrarLocacao(novaLocacao);
+        } catch (IOException e) {
+            System.err.println("Erro ao registrar locação no journal: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+        compactarSeNecessario();
+        return true;
+    }
+
+    /**
+     * Acrescenta a devolução de uma locação ao journal, sem regravar o histórico.
+     *
+     * @param locacaoDevolvida A locação devolvida, com a data de devolução preenchida.
+     * @return true se o registro foi gravado com sucesso, false caso contrário.
+     */
+    public boolean salvarDevolucao(Locacao locacaoDevolvida) {
+        try {
+            journal.registrarDevolucao(locacaoDevolvida);
+        } catch (IOException e) {
+            System.err.println("Erro ao registrar devolução no journal: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+        compactarSeNecessario();
+        return true;
+    }
+
+    /**
+     * Agenda a compactação do journal em um novo snapshot quando ele atinge o limite de registros.
+     * A compactação roda na thread da {@link FilaEscrita}, fora da thread de eventos; o snapshot é reconstruído
+     * a partir do disco, e uma falha na compactação não invalida o registro já gravado no journal.
+     */
+    private void compactarSeNecessario() {
+        if (!journal.precisaCompactar()) {
+            return;
+        }
+        FilaEscrita.compartilhada().agendar(LOCACOES_JOURNAL_PATH, journal, j -> {
+            try {
+                j.compactar();
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Classe não encontrada ao compactar o journal de locações: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Realiza a operação de aluguel de um veículo a partir de agora.
+     * Este método valida a disponibilidade do veículo e o saldo do cliente, cria uma nova locação, debita o saldo
+     * do cliente e atualiza o contador de locações do veículo. As três mutações são confirmadas juntas em uma
+     * {@link UnidadeDeTrabalho}: ou todas sobrevivem a uma queda, ou nenhuma é aplicada.
      *
      * @param cliente O cliente que está alugando.
      * @param veiculo O veículo a ser alugado.
@@ -106,63 +266,95 @@ public class LocacaoController {
      * @return true se o aluguel foi bem-sucedido, false caso contrário.
      */
     public boolean realizarLocacao(Cliente cliente, Veiculo veiculo, int dias, double valorTotal) {
-        if (veiculoController.estaLocado(veiculo)) {
+        return reservar(cliente, veiculo, LocalDateTime.now(), dias, valorTotal);
+    }
+
+    /**
+     * Reserva um veículo para um período que começa em {@code inicio}, que pode ser agora ou uma data futura.
+     * O período não pode se sobrepor a outra locação ou reserva do veículo; a verificação é feita na agenda de
+     * reservas ({@link VeiculoController#estaReservado(Veiculo, LocalDateTime, LocalDateTime)}), em O(log n).
+     * O saldo é debitado e a reserva é confirmada como em {@link #realizarLocacao(Cliente, Veiculo, int, double)};
+     * a reserva passa a contar como locação ativa quando a data de início chega. O contador de locações do veículo
+     * é incrementado já na reserva, na mesma transação que o débito do saldo, e por isso inclui reservas futuras;
+     * os rankings de 7 e 30 dias só contam a reserva quando ela começa.
+     * <p>
+     * Da verificação de disponibilidade até o registro na agenda, o pedido mantém as travas do veículo e do
+     * cliente: outro pedido para o mesmo veículo só faz a verificação depois que este tiver sido registrado ou
+     * recusado, e o saldo do cliente não é debitado por dois pedidos ao mesmo tempo.
+     * </p>
+     *
+     * @param cliente    O cliente que está reservando.
+     * @param veiculo    O veículo a ser reservado.
+     * @param inicio     O início da reserva.
+     * @param dias       Quantidade de dias de aluguel.
+     * @param valorTotal Valor total do aluguel.
+     * @return true se a reserva foi bem-sucedida.
+     */
+    public boolean reservar(Cliente cliente, Veiculo veiculo, LocalDateTime inicio, int dias, double valorTotal) {
+        if (dias <= 0) {
+            throw new LocacaoControllerException("A locação deve ter ao menos um dia.");
+        }
+        return travas.executar(() -> reservarComTravas(cliente, veiculo, inicio, dias, valorTotal),
+                chaveVeiculo(veiculo), chaveCliente(cliente));
+    }
+
+    private boolean reservarComTravas(Cliente cliente, Veiculo veiculo, LocalDateTime inicio, int dias, double valorTotal) {
+        LocalDateTime fim = inicio.plusDays(dias);
+        boolean imediata = !inicio.isAfter(LocalDateTime.now());
+        if (imediata && veiculoController.estaLocado(veiculo)) {
             throw new LocacaoControllerException("Veículo já locado.");
         }
+        if (veiculoController.estaReservado(veiculo, inicio, fim)) {
+            throw new LocacaoControllerException("Veículo já reservado no período.");
+        }
 
         if (cliente.getSaldo() < valorTotal) {
             throw new LocacaoControllerException("Saldo insuficiente.");
         }
 
         Locacao novaLocacao = new Locacao(
-                LocalDateTime.now(),
-                LocalDateTime.now().plusDays(dias),
+                inicio,
+                fim,
                 veiculo,
                 cliente
         );
 
-        this.locacoes.add(novaLocacao);
-
-        boolean locacaoSalva = saveAllLocacoes(locacoes);
-        if (!locacaoSalva) {
-            this.locacoes.remove(novaLocacao);
-            throw new LocacaoControllerException("Falha ao salvar locação.");
-        }
-
         cliente.debitarSaldo(valorTotal);
-        boolean clienteAtualizado = authController.updateCliente(cliente);
-        if (!clienteAtualizado) {
-            throw new LocacaoControllerException("Erro ao atualizar saldo do cliente após locação.");
-        }
-
         veiculo.adicionarLocacao();
-        boolean veiculoAtualizado = veiculoController.atualizarVeiculo(veiculo);
-        if (!veiculoAtualizado) {
-            throw new LocacaoControllerException("Erro ao atualizar veículo após locação.");
-        }
 
+        UnidadeDeTrabalho unidade = transacoes.iniciar()
+                .registrar(PARTICIPANTE_LOCACAO, novaLocacao)
+                .registrar(PARTICIPANTE_CLIENTE, cliente)
+                .registrar(PARTICIPANTE_VEICULO, veiculo);
+        if (!confirmar(unidade)) {
+            cliente.adicionarSaldo(valorTotal);
+            veiculo.setLocacoes(veiculo.getLocacoes() - 1);
+            throw new LocacaoControllerException("Falha ao salvar locação.");
+        }
+        this.locacoes.add(novaLocacao);
+        veiculoController.registrarLocacaoAtiva(novaLocacao);
         return true;
     }
 
     /**
-     * Encontra a locação ativa (aquela que ainda não possui uma data de devolução) para um veículo específico.
-     * Este método recarrega a lista de locações do armazenamento para garantir que os dados estejam atualizados.
+     * Encontra a locação ativa (aquela que já começou e ainda não possui uma data de devolução) para um veículo
+     * específico. Reservas que ainda não começaram são ignoradas.
+     * A consulta é feita no índice de locações ativas do {@link VeiculoController}, mantido a cada locação e
+     * devolução, sem reler o arquivo nem bloquear as locações e devoluções em andamento.
      *
      * @param veiculo O veículo cuja locação ativa está sendo procurada.
      * @return O objeto Locacao ativa se encontrada, ou {@code null} se não houver uma locação ativa para o veículo.
      */
     public Locacao encontrarLocacaoAtiva(Veiculo veiculo) {
-        this.locacoes = loadLocacoes();
-        Optional<Locacao> locacaoAtiva = this.locacoes.stream()
-                .filter(loc -> loc.getVeiculo().getPlaca().equals(veiculo.getPlaca()) && loc.getDataDevolucao() == null)
-                .findFirst();
-        return locacaoAtiva.orElse(null);
+        return veiculoController.getLocacaoAtiva(veiculo);
     }
 
     /**
      * Registra a devolução de um veículo, finalizando a locação ativa.
-     * Este método define a data de devolução para a locação, calcula e aplica multas ao saldo do cliente,
-     * e persiste as atualizações tanto na locação quanto no cliente.
+     * Este método define a data de devolução para a locação, calcula e aplica multas ao saldo do cliente
+     * e confirma a devolução e o novo saldo juntos em uma {@link UnidadeDeTrabalho}.
+     * A devolução é feita com as travas do veículo e do cliente, como em
+     * {@link #reservar(Cliente, Veiculo, LocalDateTime, int, double)}.
      *
      * @param locacaoDevolvida A locação a ser finalizada (devolvida).
      * @return true se a devolução foi registrada e persistida com sucesso, false caso contrário.
@@ -171,32 +363,62 @@ public class LocacaoController {
         if (locacaoDevolvida == null || locacaoDevolvida.getDataDevolucao() != null) {
             throw new LocacaoControllerException("Locação inválida ou já devolvida.");
         }
+        return travas.executar(() -> devolverComTravas(locacaoDevolvida),
+                chaveVeiculo(locacaoDevolvida.getVeiculo()), chaveCliente(locacaoDevolvida.getCliente()));
+    }
+
+    private boolean devolverComTravas(Locacao locacaoDevolvida) {
+        // Outra thread pode ter devolvido a mesma locação enquanto esta esperava as travas.
+        if (locacaoDevolvida.getDataDevolucao() != null) {
+            throw new LocacaoControllerException("Locação inválida ou já devolvida.");
+        }
+        int indice = -1;
+        for (int i = 0; i < this.locacoes.size(); i++) {
+            Locacao l = this.locacoes.get(i);
+            if (l.getVeiculo().getPlaca().equals(locacaoDevolvida.getVeiculo().getPlaca()) &&
+                    l.getDataLocacao().equals(locacaoDevolvida.getDataLocacao())) {
+                indice = i;
+                break;
+            }
+        }
+        if (indice < 0) {
+            throw new LocacaoControllerException("Erro: Locação a ser devolvida não encontrada na lista para atualização.");
+        }
 
         locacaoDevolvida.setDataDevolucao(LocalDateTime.now());
         double multa = locacaoDevolvida.calcularMulta();
 
         Cliente cliente = locacaoDevolvida.getCliente();
+        UnidadeDeTrabalho unidade = transacoes.iniciar().registrar(PARTICIPANTE_DEVOLUCAO, locacaoDevolvida);
         if (multa > 0) {
             cliente.debitarSaldo(multa);
-            boolean clienteAtualizado = authController.updateCliente(cliente);
-            if (!clienteAtualizado) {
-                throw new LocacaoControllerException("Erro ao atualizar saldo do cliente com multa após devolução.");
-            }
+            unidade.registrar(PARTICIPANTE_CLIENTE, cliente);
         }
 
-        boolean removed = this.locacoes.removeIf(l ->
-                l.getVeiculo().getPlaca().equals(locacaoDevolvida.getVeiculo().getPlaca()) &&
-                        l.getDataLocacao().equals(locacaoDevolvida.getDataLocacao()));
-
-        if (!removed) {
-            throw new LocacaoControllerException("Erro: Locação a ser devolvida não encontrada na lista para atualização.");
-        }
-
-        this.locacoes.add(locacaoDevolvida);
-        boolean salvo = saveAllLocacoes(locacoes);
-        if (!salvo) {
+        if (!confirmar(unidade)) {
+            if (multa > 0) {
+                cliente.adicionarSaldo(multa);
+            }
+            locacaoDevolvida.setDataDevolucao(null);
             throw new LocacaoControllerException("Erro ao salvar locações após devolução.");
         }
+
+        this.locacoes.set(indice, locacaoDevolvida);
+        veiculoController.registrarDevolucao(locacaoDevolvida);
         return true;
     }
+
+    /**
+     * A chave da trava de um veículo.
+     */
+    private static String chaveVeiculo(Veiculo veiculo) {
+        return veiculo == null ? null : "veiculo:" + veiculo.getPlaca();
+    }
+
+    /**
+     * A chave da trava de um cliente, que protege o saldo debitado pelas locações e multas.
+     */
+    private static String chaveCliente(Cliente cliente) {
+        return cliente == null || cliente.getCpf() == null ? null : "cliente:" + cliente.getCpf();
+    }
 }
\ No newline at end of file
@@ -7,15 +7,34 @@ import br.com.locar.terrestre.entities.Caminhao;
 import br.com.locar.core.entities.Locacao;
 import br.com.locar.core.entities.enums.Cor;
 import br.com.locar.core.exceptions.VeiculoControllerException;
+import br.com.locar.core.index.AgendaReservas;
+import br.com.locar.core.index.AtributoNumerico;
+import br.com.locar.core.index.ContagemFacetas;
+import br.com.locar.core.index.CursorVeiculos;
+import br.com.locar.core.index.FiltroAtributos;
+import br.com.locar.core.index.IndiceAtributosVeiculos;
+import br.com.locar.core.index.IndiceLocacoesAtivas;
+import br.com.locar.core.index.IndiceTextoVeiculos;
+import br.com.locar.core.index.MapaOcupacao;
+import br.com.locar.core.index.OrdemVeiculos;
+import br.com.locar.core.index.PaginaVeiculos;
+import br.com.locar.core.index.RankingLocacoes;
+import br.com.locar.core.persistence.ArquivoRegistrosVeiculos;
+import br.com.locar.core.persistence.FilaEscrita;
+import br.com.locar.core.persistence.JournalLocacoes;
+import br.com.locar.util.CacheImagens;
+import br.com.locar.util.GeradorMiniaturas;
 
 import java.io.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * A classe VeiculoController gerencia as operações relacionadas a veículos,
@@ -26,31 +45,96 @@ public class VeiculoController {
 
     private List<Veiculo> veiculos;
 
+    /**
+     * Índice em memória das locações ativas por placa, carregado sob demanda na primeira consulta.
+     * Este índice, a agenda e o mapa de ocupação são carregados e atualizados com a trava do controlador, pois o
+     * {@link LocacaoController} registra locações de veículos diferentes em paralelo.
+     */
+    private IndiceLocacoesAtivas indiceLocacoesAtivas;
+
+    /**
+     * Períodos reservados de cada veículo (locações em andamento e reservas futuras), carregados sob demanda na
+     * primeira consulta de disponibilidade por período.
+     */
+    private AgendaReservas agendaReservas;
+
+    /**
+     * Horas ocupadas de cada veículo, em bitmaps, carregadas do histórico de locações na primeira consulta de
+     * calendário ou utilização.
+     */
+    private MapaOcupacao mapaOcupacao;
+
+    /**
+     * Índice invertido sobre nome, marca, modelo e ano, mantido junto com a lista de veículos e usado na busca textual.
+     */
+    private final IndiceTextoVeiculos indiceTexto = new IndiceTextoVeiculos();
+
+    /**
+     * Bitmaps por valor de cor, tipo, combustível, função, tração e itens opcionais, usados nos filtros e nas contagens.
+     */
+    private final IndiceAtributosVeiculos indiceAtributos = new IndiceAtributosVeiculos();
+
+    /**
+     * Ranking incremental dos veículos mais alugados, por tipo e por período. As janelas de 7 e 30 dias são
+     * carregadas do histórico de locações na primeira consulta que as usa.
+     */
+    private final RankingLocacoes rankingLocacoes = new RankingLocacoes();
+    private boolean historicoRankingCarregado;
+
     public void setVeiculos(List<Veiculo> veiculos) {
         this.veiculos = veiculos;
+        indiceTexto.carregar(veiculos);
+        indiceAtributos.carregar(veiculos);
+        rankingLocacoes.carregar(veiculos);
     }
 
     public void addVeiculo(Veiculo veiculo) {
         this.veiculos.add(veiculo);
+        indexar(veiculo);
     }
 
     public void limparVeiculos(){
         this.veiculos.clear();
+        indiceTexto.limpar();
+        indiceAtributos.limpar();
+        rankingLocacoes.carregar(List.of());
     }
 
     public void addAllVeiculos(List<Veiculo> veiculos) {
         this.veiculos.addAll(veiculos);
+        for (Veiculo veiculo : veiculos) {
+            indexar(veiculo);
+        }
+    }
+
+    /**
+     * Indexa (ou reindexa) o veículo nos índices de busca textual e de atributos e no ranking de locações.
+     *
+     * @param veiculo O veículo incluído ou alterado.
+     */
+    private void indexar(Veiculo veiculo) {
+        indiceTexto.adicionar(veiculo);
+        indiceAtributos.adicionar(veiculo);
+        rankingLocacoes.atualizarVeiculo(veiculo);
     }
 
     /**
      * Diretório onde as imagens dos veículos são armazenadas.
      */
-    private static final String VEHICLE_PICS_DIR = "dump/vehicle_pics/";
+    public static final String VEHICLE_PICS_DIR = "dump/vehicle_pics/";
     /**
      * Caminho do arquivo onde os dados das locações são serializados.
      * Usado para verificar a disponibilidade dos veículos.
      */
     private static final String LOCACOES_FILE_PATH = "dump/locacoes/locacoes.dat";
+    /**
+     * Caminho do journal de locações, reaplicado sobre o snapshot {@code LOCACOES_FILE_PATH}.
+     */
+    private static final String LOCACOES_JOURNAL_PATH = "dump/locacoes/locacoes.journal";
+    /**
+     * Quantos dias à frente o filtro "Próximos de Devolução" considera.
+     */
+    private static final int DIAS_PROXIMOS_DE_DEVOLUCAO = 3;
 
     /**
      * Construtor da classe VeiculoController.
@@ -61,11 +145,12 @@ public class VeiculoController {
         if (!vehiclePicDir.exists()) {
             vehiclePicDir.mkdirs();
         }
-        this.veiculos = carregarTodosVeiculos();
+        setVeiculos(carregarTodosVeiculos());
     }
 
     /**
-     * Exclui um veículo da lista em memória e persiste a alteração no arquivo correspondente ao tipo do veículo.
+     * Exclui um veículo da lista em memória e remove seu registro do arquivo correspondente ao tipo do veículo.
+     * Apenas o registro da placa é alterado; os demais veículos do arquivo não são regravados.
      *
      * @param veiculoParaExcluir O objeto Veiculo a ser excluído.
      * @return true se o veículo foi removido com sucesso da memória e do arquivo, false caso contrário.
@@ -74,15 +159,17 @@ public class VeiculoController {
         boolean removedFromMemory = veiculos.removeIf(v -> v.getPlaca().equals(veiculoParaExcluir.getPlaca()));
 
         if (removedFromMemory) {
-            if (veiculoParaExcluir instanceof Carro) {
-                List<Carro> carrosAtualizados = veiculos.stream().filter(v -> v instanceof Carro).map(v -> (Carro) v).collect(Collectors.toList());
-                return salvarListaDeVeiculosEmArquivo(carrosAtualizados, "dump/carros/carros.dat");
-            } else if (veiculoParaExcluir instanceof Moto) {
-                List<Moto> motosAtualizadas = veiculos.stream().filter(v -> v instanceof Moto).map(v -> (Moto) v).collect(Collectors.toList());
-                return salvarListaDeVeiculosEmArquivo(motosAtualizadas, "dump/moto/motos.dat");
-            } else if (veiculoParaExcluir instanceof Caminhao) {
-                List<Caminhao> caminhoesAtualizados = veiculos.stream().filter(v -> v instanceof Caminhao).map(v -> (Caminhao) v).collect(Collectors.toList());
-                return salvarListaDeVeiculosEmArquivo(caminhoesAtualizados, "dump/caminhao/caminhoes.dat");
+            indiceTexto.remover(veiculoParaExcluir.getPlaca());
+            indiceAtributos.remover(veiculoParaExcluir.getPlaca());
+            rankingLocacoes.removerVeiculo(veiculoParaExcluir.getPlaca());
+            synchronized (this) {
+                if (mapaOcupacao != null) {
+                    mapaOcupacao.removerVeiculo(veiculoParaExcluir.getPlaca());
+                }
+            }
+            String caminho = caminhoDoArquivo(veiculoParaExcluir);
+            if (caminho != null) {
+                return excluirVeiculoDoArquivo(veiculoParaExcluir.getPlaca(), caminho);
             }
         }
         return false;
@@ -90,33 +177,78 @@ public class VeiculoController {
 
     /**
      * Atualiza os dados de um veículo existente na lista em memória e no arquivo de persistência.
-     * O veículo é identificado pela sua placa.
+     * O veículo é identificado pela sua placa e apenas o seu registro é regravado no arquivo.
      *
      * @param veiculoAtualizado O objeto Veiculo com os dados a serem atualizados.
      * @return true se o veículo foi encontrado, atualizado e salvo com sucesso, false caso contrário.
      */
     public boolean atualizarVeiculo(Veiculo veiculoAtualizado) {
+        return atualizarVeiculo(veiculoAtualizado, true);
+    }
+
+    /**
+     * Atualiza os dados de um veículo existente, opcionalmente sem forçar a escrita do registro para o disco.
+     * Usado dentro de uma transação já protegida por um registro de intenção; a durabilidade é obtida
+     * depois por {@link #sincronizarArquivos()}.
+     *
+     * @param veiculoAtualizado O objeto Veiculo com os dados a serem atualizados.
+     * @param sincronizar       Se true, força a escrita para o disco antes de retornar.
+     * @return true se o veículo foi encontrado, atualizado e salvo com sucesso, false caso contrário.
+     */
+    public boolean atualizarVeiculo(Veiculo veiculoAtualizado, boolean sincronizar) {
         boolean removed = veiculos.removeIf(v -> v.getPlaca().equals(veiculoAtualizado.getPlaca()));
         if (!removed) {
             throw new VeiculoControllerException("Erro ao atualizar: Veículo com placa '" + veiculoAtualizado.getPlaca() + "' não encontrado.");
         }
         veiculos.add(veiculoAtualizado);
-        if (veiculoAtualizado instanceof Carro) {
-            List<Carro> carrosAtualizados = veiculos.stream().filter(v -> v instanceof Carro).map(v -> (Carro) v).collect(Collectors.toList());
-            return salvarListaDeVeiculosEmArquivo(carrosAtualizados, "dump/carros/carros.dat");
-        } else if (veiculoAtualizado instanceof Moto) {
-            List<Moto> motosAtualizadas = veiculos.stream().filter(v -> v instanceof Moto).map(v -> (Moto) v).collect(Collectors.toList());
-            return salvarListaDeVeiculosEmArquivo(motosAtualizadas, "dump/moto/motos.dat");
-        } else if (veiculoAtualizado instanceof Caminhao) {
-            List<Caminhao> caminhoesAtualizados = veiculos.stream().filter(v -> v instanceof Caminhao).map(v -> (Caminhao) v).collect(Collectors.toList());
-            return salvarListaDeVeiculosEmArquivo(caminhoesAtualizados, "dump/caminhao/caminhoes.dat");
+        indexar(veiculoAtualizado);
+        String caminho = caminhoDoArquivo(veiculoAtualizado);
+        if (caminho != null) {
+            return salvarVeiculoEmArquivo(veiculoAtualizado, caminho, sincronizar);
         }
         return false;
     }
 
+    /**
+     * Força para o disco as atualizações de veículos gravadas sem sincronização.
+     *
+     * @return true se todos os arquivos foram sincronizados, false caso contrário.
+     */
+    public boolean sincronizarArquivos() {
+        boolean sucesso = true;
+        for (String caminho : new String[]{"dump/carros/carros.dat", "dump/moto/motos.dat", "dump/caminhao/caminhoes.dat"}) {
+            try {
+                ArquivoRegistrosVeiculos.abrir(caminho).sincronizar();
+            } catch (IOException e) {
+                System.err.println("Erro ao sincronizar " + caminho + ": " + e.getMessage());
+                sucesso = false;
+            }
+        }
+        return sucesso;
+    }
+
+    /**
+     * Retorna o caminho do arquivo de persistência correspondente ao tipo do veículo.
+     *
+     * @param veiculo O veículo.
+     * @return O caminho do arquivo .dat, ou null se o tipo não for suportado.
+     */
+    private String caminhoDoArquivo(Veiculo veiculo) {
+        if (veiculo instanceof Carro) {
+            return "dump/carros/carros.dat";
+        } else if (veiculo instanceof Moto) {
+            return "dump/moto/motos.dat";
+        } else if (veiculo instanceof Caminhao) {
+            return "dump/caminhao/caminhoes.dat";
+        }
+        return null;
+    }
+
     /**
      * Salva uma imagem de veículo em um diretório específico, renomeando-a com a placa do veículo.
-     * Caracteres inválidos na placa são substituídos por '_'.
+     * Caracteres inválidos na placa são substituídos por '_'. As versões em cache da imagem substituída são
+     * descartadas, e as miniaturas nos tamanhos exibidos pela aplicação são geradas em segundo plano; enquanto isso,
+     * a foto original é exibida no lugar delas.
      *
      * @param originalImagePath O caminho absoluto da imagem original a ser copiada.
      * @param placaVeiculo      A placa do veículo, usada para nomear o novo arquivo de imagem.
@@ -139,7 +271,11 @@ public class VeiculoController {
 
         try {
             java.nio.file.Files.copy(originalFile.toPath(), newFile.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-            return newFile.getAbsolutePath();
+            String caminhoSalvo = newFile.getAbsolutePath();
+            CacheImagens.compartilhado().invalidar(caminhoSalvo);
+            GeradorMiniaturas.gerarEmSegundoPlano(newFile, GeradorMiniaturas.TAMANHOS_VEICULO)
+                    .thenRun(() -> CacheImagens.compartilhado().invalidar(caminhoSalvo));
+            return caminhoSalvo;
         } catch (IOException e) {
             throw new VeiculoControllerException("Erro ao salvar imagem do veículo '" + placaVeiculo + "': " + e.getMessage());
         }
@@ -176,6 +312,7 @@ public class VeiculoController {
         }
         novoVeiculo.setCaminhoFoto(savedPhotoPath);
         veiculos.add(novoVeiculo);
+        indexar(novoVeiculo);
         if (novoVeiculo instanceof Carro) {
             return salvarVeiculoEmArquivo((Carro) novoVeiculo, "dump/carros/carros.dat");
         } else if (novoVeiculo instanceof Moto) {
@@ -188,8 +325,9 @@ public class VeiculoController {
     }
 
     /**
-     * Salva um veículo específico em seu respectivo arquivo serializado.
-     * Este método carrega a lista existente, adiciona o novo veículo e sobrescreve o arquivo.
+     * Salva um veículo específico em seu respectivo arquivo.
+     * O veículo é gravado como um único registro no {@link ArquivoRegistrosVeiculos}, substituindo o registro
+     * anterior com a mesma placa, se houver.
      *
      * @param <T>               O tipo de veículo (deve estender Veiculo).
      * @param veiculoParaSalvar O objeto do veículo a ser salvo.
@@ -197,31 +335,52 @@ public class VeiculoController {
      * @return true se o veículo foi salvo com sucesso, false caso contrário.
      */
     public <T extends Veiculo> boolean salvarVeiculoEmArquivo(T veiculoParaSalvar, String caminhoDoArquivo) {
-        List<T> listaAtualizada = new ArrayList<>();
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(caminhoDoArquivo))) {
-            while (true) {
-                Object obj = ois.readObject();
-                if (obj.getClass().equals(veiculoParaSalvar.getClass())) {
-                    listaAtualizada.add((T) obj);
-                }
-            }
-        } catch (java.io.EOFException ignored) {
-        } catch (Exception e) {
-            System.err.println("Aviso: Erro ao carregar lista existente de " + caminhoDoArquivo + " para atualização: " + e.getMessage());
-        }
-        listaAtualizada.add(veiculoParaSalvar);
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(caminhoDoArquivo))) {
-            oos.writeObject(listaAtualizada);
+        return salvarVeiculoEmArquivo(veiculoParaSalvar, caminhoDoArquivo, true);
+    }
+
+    /**
+     * Salva um veículo específico em seu respectivo arquivo, opcionalmente sem forçar a escrita para o disco.
+     *
+     * @param <T>               O tipo de veículo (deve estender Veiculo).
+     * @param veiculoParaSalvar O objeto do veículo a ser salvo.
+     * @param caminhoDoArquivo  O caminho do arquivo .dat onde o veículo será salvo.
+     * @param sincronizar       Se true, força a escrita para o disco antes de retornar.
+     * @return true se o veículo foi salvo com sucesso, false caso contrário.
+     */
+    public <T extends Veiculo> boolean salvarVeiculoEmArquivo(T veiculoParaSalvar, String caminhoDoArquivo, boolean sincronizar) {
+        try {
+            ArquivoRegistrosVeiculos.abrir(caminhoDoArquivo).salvar(veiculoParaSalvar, sincronizar);
             return true;
-        } catch (Exception e) {
+        } catch (IOException e) {
             System.err.println("Erro ao salvar veículo em " + caminhoDoArquivo + ": " + e.getMessage());
-            e.printStackTrace();
-            return false;
+        } catch (ClassNotFoundException e) {
+            System.err.println("Classe não encontrada ao converter " + caminhoDoArquivo + ": " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Remove o registro de um veículo do seu respectivo arquivo.
+     *
+     * @param placa            A placa do veículo a ser removido.
+     * @param caminhoDoArquivo O caminho do arquivo .dat do tipo do veículo.
+     * @return true se o registro foi removido com sucesso, false caso contrário.
+     */
+    public boolean excluirVeiculoDoArquivo(String placa, String caminhoDoArquivo) {
+        try {
+            return ArquivoRegistrosVeiculos.abrir(caminhoDoArquivo).excluir(placa);
+        } catch (IOException e) {
+            System.err.println("Erro ao excluir veículo de " + caminhoDoArquivo + ": " + e.getMessage());
+        } catch (ClassNotFoundException e) {
+            System.err.println("Classe não encontrada ao converter " + caminhoDoArquivo + ": " + e.getMessage());
         }
+        return false;
     }
 
     /**
-     * Carrega uma lista de veículos de um tipo específico a partir de um arquivo serializado.
+     * Carrega uma lista de veículos de um tipo específico a partir de um arquivo.
+     * Além do formato de registros do {@link ArquivoRegistrosVeiculos}, arquivos antigos (lista do {@link br.com.locar.core.persistence.VeiculoCodec}
+     * ou serialização Java legada) continuam sendo lidos.
      *
      * @param <T>     O tipo de veículo (deve estender Veiculo).
      * @param caminho O caminho do arquivo .dat de onde os veículos serão carregados.
@@ -230,57 +389,38 @@ public class VeiculoController {
      */
     public <T extends Veiculo> List<T> carregarVeiculosDeArquivo(String caminho, Class<T> tipo) {
         List<T> lista = new ArrayList<>();
-        File file = new File(caminho);
-
-        if (file.exists() && file.length() > 0) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                Object obj = ois.readObject();
-                if (obj instanceof List) {
-                    List<?> l = (List<?>) obj;
-                    for (Object item : l) {
-                        if (tipo.isInstance(item)) {
-                            lista.add(tipo.cast(item));
-                        }
-                    }
+        try {
+            for (Veiculo item : ArquivoRegistrosVeiculos.abrir(caminho).listar()) {
+                if (tipo.isInstance(item)) {
+                    lista.add(tipo.cast(item));
                 }
-            } catch (IOException e) {
-                System.err.println("Erro ao ler veículos de " + caminho + ": " + e.getMessage());
-            } catch (ClassNotFoundException e) {
-                System.err.println("Classe não encontrada ao carregar veículos de " + caminho + ": " + e.getMessage());
             }
+        } catch (IOException e) {
+            System.err.println("Erro ao ler veículos de " + caminho + ": " + e.getMessage());
+        } catch (ClassNotFoundException e) {
+            System.err.println("Classe não encontrada ao carregar veículos de " + caminho + ": " + e.getMessage());
         }
         return lista;
     }
 
     /**
-     * Carrega a lista de todas as locações registradas a partir do arquivo de locações.
+     * Carrega a lista de todas as locações registradas a partir do snapshot de locações e de seu journal.
      * Este método é usado para garantir que a verificação de disponibilidade de veículos
      * e outras operações relacionadas a locações utilizem os dados mais recentes.
      *
      * @return Uma lista de objetos Locacao. Retorna uma lista vazia se o arquivo não existir, estiver vazio ou houver erro.
      */
     public List<Locacao> carregarLocacoes() {
-        List<Locacao> lista = new ArrayList<>();
-        File file = new File(LOCACOES_FILE_PATH);
-
-        if (file.exists() && file.length() > 0) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                Object obj = ois.readObject();
-                if (obj instanceof List) {
-                    List<?> rawList = (List<?>) obj;
-                    for (Object item : rawList) {
-                        if (item instanceof Locacao) {
-                            lista.add((Locacao) item);
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("Erro ao carregar locações: " + e.getMessage());
-            } catch (ClassNotFoundException e) {
-                System.err.println("Classe Locacao não encontrada durante a desserialização: " + e.getMessage());
-            }
+        FilaEscrita.compartilhada().aguardar(LOCACOES_FILE_PATH);
+        FilaEscrita.compartilhada().aguardar(LOCACOES_JOURNAL_PATH);
+        try {
+            return new JournalLocacoes(LOCACOES_FILE_PATH, LOCACOES_JOURNAL_PATH).carregar();
+        } catch (IOException e) {
+            System.err.println("Erro ao carregar locações: " + e.getMessage());
+        } catch (ClassNotFoundException e) {
+            System.err.println("Classe Locacao não encontrada durante a desserialização: " + e.getMessage());
         }
-        return lista;
+        return new ArrayList<>();
     }
 
     /**
@@ -292,26 +432,53 @@ public class VeiculoController {
         return new ArrayList<>(veiculos);
     }
 
+    /**
+     * Retorna os veículos em destaque para o carrossel da tela inicial: os mais alugados, até o limite informado.
+     * A consulta lê apenas a primeira página da coluna ordenada de locações, sem ordenar a frota inteira.
+     *
+     * @param limite A quantidade máxima de veículos em destaque.
+     * @return Os veículos em destaque, do mais alugado para o menos alugado.
+     */
+    public List<Veiculo> listarDestaques(int limite) {
+        return consultarVeiculos(null, "Todos", null, OrdemVeiculos.MAIS_ALUGADOS, null, limite).getVeiculos();
+    }
+
     /**
      * Retorna uma lista dos veículos mais alugados, ordenada pelo número de locações em ordem decrescente,
-     * e limitada pela quantidade especificada.
+     * e limitada pela quantidade especificada. A lista é lida do ranking mantido incrementalmente, sem ordenar a frota.
      *
      * @param limit O número máximo de veículos a serem retornados.
      * @return Uma lista de Veiculo representando os veículos mais alugados.
      */
     public List<Veiculo> getVeiculosMaisAlugados(int limit) {
-        return veiculos.stream()
-                .sorted(Comparator.comparingInt(Veiculo::getLocacoes).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        return rankingLocacoes.maisAlugados(limit, null, RankingLocacoes.Periodo.SEMPRE);
+    }
+
+    /**
+     * Retorna os veículos mais alugados de um tipo em um período, do mais para o menos alugado. Nos períodos de
+     * 7 e 30 dias, contam as locações iniciadas dentro da janela, e apenas veículos alugados nela são retornados.
+     *
+     * @param limite  O número máximo de veículos a serem retornados.
+     * @param tipo    O tipo de veículo ("Carro", "Moto", "Caminhão"), ou null para todos os tipos.
+     * @param periodo O período considerado.
+     * @return Até {@code limite} veículos, em ordem decrescente de locações no período.
+     */
+    public List<Veiculo> getVeiculosMaisAlugados(int limite, String tipo, RankingLocacoes.Periodo periodo) {
+        if (periodo != RankingLocacoes.Periodo.SEMPRE && !historicoRankingCarregado) {
+            rankingLocacoes.carregarHistorico(carregarLocacoes());
+            historicoRankingCarregado = true;
+        }
+        return rankingLocacoes.maisAlugados(limite, tipo, periodo);
     }
 
     /**
      * Filtra a lista de veículos com base em vários critérios, como termo de busca geral, preço máximo, cor,
      * status de disponibilidade, ano de fabricação e tipo de veículo.
-     * A disponibilidade do veículo é verificada consultando a lista de locações ativas.
+     * Cor, tipo, preço e ano são resolvidos pelo índice de atributos (bitmaps e colunas ordenadas); a disponibilidade
+     * do veículo é verificada consultando o índice de locações ativas.
      *
-     * @param termoBuscaGeral       Termo para buscar em nome, marca, modelo e ano (insensível a maiúsculas/minúsculas).
+     * @param termoBuscaGeral       Termos para buscar em nome, marca, modelo e ano, consultados no índice textual: cada termo
+     *                              é comparado como prefixo, sem acentos e sem diferenciar maiúsculas de minúsculas.
      * @param precoMax              Preço diário máximo do veículo.
      * @param cor                   Cor do veículo.
      * @param statusDisponibilidade Status de disponibilidade ("Disponíveis", "Próximos de Devolução", "Todos").
@@ -321,61 +488,109 @@ public class VeiculoController {
      * @return Uma lista de Veiculo que corresponde aos critérios de filtro.
      */
     public List<Veiculo> filtrarVeiculos(String termoBuscaGeral, Double precoMax, Cor cor, String statusDisponibilidade, Integer anoMin, Integer anoMax, String tipoVeiculo) {
-        Stream<Veiculo> resultadoStream = veiculos.stream();
-        List<Locacao> locacoesAtuais = carregarLocacoes();
-        if (termoBuscaGeral != null && !termoBuscaGeral.trim().isEmpty()) {
-            String[] termosIndividuais = termoBuscaGeral.toLowerCase().split("\\s+");
-
-            resultadoStream = resultadoStream.filter(veiculo -> {
-                String infoVeiculo = (veiculo.getNome() + " " +
-                        veiculo.getMarca() + " " +
-                        veiculo.getModelo() + " " +
-                        veiculo.getAno()).toLowerCase();
-                return Arrays.stream(termosIndividuais).allMatch(termo -> infoVeiculo.contains(termo));
-            });
+        FiltroAtributos filtro = new FiltroAtributos()
+                .faixa(AtributoNumerico.VALOR_DIARIO, null, precoMax)
+                .faixa(AtributoNumerico.ANO, anoMin == null ? null : anoMin.doubleValue(), anoMax == null ? null : anoMax.doubleValue());
+        if (cor != null && cor != Cor.TODAS) {
+            filtro.cores(cor);
         }
-        if (precoMax != null) {
-            resultadoStream = resultadoStream.filter(v -> v.getValorDiario() <= precoMax);
+        if (tipoVeiculo != null && IndiceAtributosVeiculos.TIPOS.contains(tipoVeiculo)) {
+            filtro.tipos(tipoVeiculo);
         }
-        if (cor != null && cor != Cor.TODAS) {
-            resultadoStream = resultadoStream.filter(v -> v.getCor() == cor);
-        }
-        if (statusDisponibilidade != null) {
-            switch (statusDisponibilidade) {
-                case "Disponíveis":
-                    resultadoStream = resultadoStream.filter(v -> locacoesAtuais.stream().noneMatch(loc -> loc.getVeiculo().getPlaca().equals(v.getPlaca()) && loc.getDataDevolucao() == null));
-                    break;
-                case "Próximos de Devolução":
-                    resultadoStream = resultadoStream.filter(v -> {
-                        LocalDateTime agora = LocalDateTime.now();
-                        LocalDateTime limiteSuperior = agora.plusDays(3);
-
-                        return locacoesAtuais.stream().anyMatch(loc -> loc.getVeiculo().getPlaca().equals(v.getPlaca()) && loc.getDataDevolucao() == null && loc.getDataPrevistaDevolucao() != null && !loc.getDataPrevistaDevolucao().isBefore(agora.toLocalDate().atStartOfDay()) && loc.getDataPrevistaDevolucao().isBefore(limiteSuperior));
-                    });
-                    break;
-                case "Todos":
-                    break;
-            }
+        return filtrarVeiculos(termoBuscaGeral, statusDisponibilidade, filtro);
+    }
+
+    /**
+     * Filtra a lista de veículos combinando a busca textual, a disponibilidade e um filtro de atributos
+     * (cor, tipo, combustível, função, tração, itens opcionais e faixas numéricas como preço e ano).
+     * O filtro de atributos, a busca textual e a disponibilidade são resolvidos como operações entre bitmaps.
+     *
+     * @param termoBuscaGeral       Termos para buscar em nome, marca, modelo e ano.
+     * @param statusDisponibilidade Status de disponibilidade ("Disponíveis", "Próximos de Devolução", "Todos").
+     * @param filtro                Os valores e faixas selecionados em cada atributo.
+     * @return Uma lista de Veiculo que corresponde aos critérios de filtro, na ordem da listagem.
+     */
+    public List<Veiculo> filtrarVeiculos(String termoBuscaGeral, String statusDisponibilidade, FiltroAtributos filtro) {
+        return indiceAtributos.veiculos(selecionar(termoBuscaGeral, statusDisponibilidade, filtro));
+    }
+
+    /**
+     * Consulta uma página dos veículos que atendem aos filtros, na ordem escolhida. A página é lida diretamente da
+     * coluna ordenada do índice de atributos a partir do cursor, sem materializar nem ordenar o resultado completo.
+     *
+     * @param termoBuscaGeral       Termos para buscar em nome, marca, modelo e ano.
+     * @param statusDisponibilidade Status de disponibilidade ("Disponíveis", "Próximos de Devolução", "Todos").
+     * @param filtro                Os valores e faixas selecionados em cada atributo.
+     * @param ordem                 A ordem da listagem.
+     * @param apos                  O cursor devolvido pela página anterior, ou null para a primeira página.
+     * @param tamanhoPagina         A quantidade máxima de veículos da página.
+     * @return A página de veículos e o cursor da seguinte, se houver.
+     */
+    public PaginaVeiculos consultarVeiculos(String termoBuscaGeral, String statusDisponibilidade, FiltroAtributos filtro,
+                                           OrdemVeiculos ordem, CursorVeiculos apos, int tamanhoPagina) {
+        BitSet selecionados = selecionar(termoBuscaGeral, statusDisponibilidade, filtro);
+        return indiceAtributos.paginar(selecionados, ordem == null ? OrdemVeiculos.PADRAO : ordem, apos, tamanhoPagina);
+    }
+
+    /**
+     * Conta quantos veículos seriam exibidos para cada opção dos filtros de atributos, mantidas a busca textual,
+     * a disponibilidade e as demais seleções. As contagens vêm da cardinalidade das interseções entre os bitmaps
+     * do índice de atributos.
+     *
+     * @param termoBuscaGeral       Termos da busca textual.
+     * @param statusDisponibilidade Status de disponibilidade ("Disponíveis", "Próximos de Devolução", "Todos").
+     * @param filtro                A seleção atual dos filtros de atributos.
+     * @return As contagens por opção de cada filtro.
+     */
+    public ContagemFacetas contarFacetas(String termoBuscaGeral, String statusDisponibilidade, FiltroAtributos filtro) {
+        return indiceAtributos.contarFacetas(filtro, selecionar(termoBuscaGeral, statusDisponibilidade, null));
+    }
+
+    /**
+     * Resolve a busca textual, a disponibilidade e o filtro de atributos no bitmap dos veículos selecionados.
+     * Os veículos locados são descontados pelas placas do índice de locações ativas.
+     *
+     * @param filtro O filtro de atributos, ou null para não restringir atributos.
+     */
+    private BitSet selecionar(String termoBuscaGeral, String statusDisponibilidade, FiltroAtributos filtro) {
+        BitSet selecionados = indiceAtributos.filtrar(filtro);
+        if (termoBuscaGeral != null && !termoBuscaGeral.trim().isEmpty()) {
+            selecionados.and(indiceAtributos.idsDe(indiceTexto.buscar(termoBuscaGeral)));
         }
-        if (tipoVeiculo != null && !tipoVeiculo.equals("Todos os Modelos")) {
-            switch (tipoVeiculo) {
-                case "Carro":
-                    resultadoStream = resultadoStream.filter(v -> v instanceof Carro);
-                    break;
-                case "Moto":
-                    resultadoStream = resultadoStream.filter(v -> v instanceof Moto);
-                    break;
-                case "Caminhão":
-                    resultadoStream = resultadoStream.filter(v -> v instanceof Caminhao);
-                    break;
-            }
+        if ("Disponíveis".equals(statusDisponibilidade)) {
+            selecionados.andNot(indiceAtributos.idsDePlacas(getIndiceLocacoesAtivas().placasLocadas()));
+        } else if ("Próximos de Devolução".equals(statusDisponibilidade)) {
+            LocalDateTime agora = LocalDateTime.now();
+            selecionados.and(indiceAtributos.idsDePlacas(getIndiceLocacoesAtivas()
+                    .placasComDevolucaoEntre(agora.toLocalDate().atStartOfDay(), agora.plusDays(DIAS_PROXIMOS_DE_DEVOLUCAO))));
         }
+        return selecionados;
+    }
 
-        return resultadoStream.collect(Collectors.toList());
+    /**
+     * Retorna as locações ativas com devolução prevista a partir do início de hoje até daqui a {@code dias} dias,
+     * da mais próxima para a mais distante. A consulta é uma varredura de faixa no índice de locações ativas.
+     *
+     * @param dias A quantidade de dias a partir de agora.
+     * @return As locações com devolução prevista no período.
+     */
+    public List<Locacao> getLocacoesComDevolucaoNosProximosDias(int dias) {
+        LocalDateTime agora = LocalDateTime.now();
+        return getIndiceLocacoesAtivas().devolucoesPrevistasEntre(agora.toLocalDate().atStartOfDay(), agora.plusDays(dias));
+    }
+
+    /**
+     * Retorna as locações ativas cuja devolução prevista já passou, da mais atrasada para a menos atrasada.
+     *
+     * @return As locações atrasadas.
+     */
+    public List<Locacao> getLocacoesAtrasadas() {
+        return getIndiceLocacoesAtivas().atrasadas(LocalDateTime.now());
     }
 
     /**
-     * Salva uma lista de veículos de um tipo específico em um arquivo serializado, sobrescrevendo o conteúdo existente.
+     * Salva uma lista de veículos de um tipo específico em um arquivo de registros ({@link ArquivoRegistrosVeiculos}),
+     * sobrescrevendo o conteúdo existente.
      *
      * @param <T>              O tipo de veículo (deve estender Veiculo).
      * @param lista            A lista de objetos Veiculo a ser salva.
@@ -383,8 +598,8 @@ public class VeiculoController {
      * @return true se a lista foi salva com sucesso, false caso contrário.
      */
     public <T extends Veiculo> boolean salvarListaDeVeiculosEmArquivo(List<T> lista, String caminhoDoArquivo) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(caminhoDoArquivo))) {
-            oos.writeObject(lista);
+        try {
+            ArquivoRegistrosVeiculos.abrir(caminhoDoArquivo).substituirTodos(lista);
             return true;
         } catch (IOException e) {
             System.err.println("Erro ao salvar lista de veículos em " + caminhoDoArquivo + ": " + e.getMessage());
@@ -393,15 +608,281 @@ public class VeiculoController {
         }
     }
 
+    /**
+     * Retorna o índice de locações ativas, carregando-o a partir do arquivo de locações na primeira chamada.
+     * As chamadas seguintes reutilizam o índice em memória, que é mantido pelo {@link LocacaoController}.
+     *
+     * @return O índice {@code placa -> Locacao ativa}.
+     */
+    public synchronized IndiceLocacoesAtivas getIndiceLocacoesAtivas() {
+        if (indiceLocacoesAtivas == null) {
+            IndiceLocacoesAtivas indice = new IndiceLocacoesAtivas();
+            indice.carregar(carregarLocacoes());
+            indiceLocacoesAtivas = indice;
+        }
+        return indiceLocacoesAtivas;
+    }
+
+    /**
+     * Descarta o índice de locações ativas, forçando sua reconstrução a partir do arquivo na próxima consulta.
+     */
+    public synchronized void recarregarIndiceLocacoes() {
+        indiceLocacoesAtivas = null;
+        agendaReservas = null;
+        mapaOcupacao = null;
+        historicoRankingCarregado = false;
+    }
+
+    /**
+     * Registra uma nova locação ativa no índice em memória e no ranking de veículos mais alugados.
+     *
+     * @param locacao A locação recém-realizada.
+     */
+    public synchronized void registrarLocacaoAtiva(Locacao locacao) {
+        getIndiceLocacoesAtivas().registrarLocacao(locacao);
+        if (agendaReservas != null) {
+            agendaReservas.registrar(locacao);
+        }
+        if (mapaOcupacao != null) {
+            mapaOcupacao.registrarLocacao(locacao);
+        }
+        if (historicoRankingCarregado) {
+            rankingLocacoes.registrarLocacao(locacao);
+        } else if (locacao != null && locacao.getVeiculo() != null) {
+            rankingLocacoes.reposicionar(locacao.getVeiculo());
+        }
+    }
+
+    /**
+     * Remove do índice em memória a locação ativa correspondente a uma devolução e libera o período dela na agenda
+     * de reservas.
+     *
+     * @param locacao A locação que foi devolvida.
+     */
+    public synchronized void registrarDevolucao(Locacao locacao) {
+        getIndiceLocacoesAtivas().registrarDevolucao(locacao);
+        if (agendaReservas != null) {
+            agendaReservas.remover(locacao);
+        }
+        if (mapaOcupacao != null) {
+            mapaOcupacao.registrarDevolucao(locacao);
+        }
+    }
+
+    /**
+     * Retorna a agenda de reservas, carregando-a a partir do arquivo de locações na primeira chamada.
+     * As chamadas seguintes reutilizam a agenda em memória, mantida a cada locação e devolução.
+     *
+     * @return A agenda com os períodos reservados de cada veículo.
+     */
+    public synchronized AgendaReservas getAgendaReservas() {
+        if (agendaReservas == null) {
+            AgendaReservas agenda = new AgendaReservas();
+            agenda.carregar(carregarLocacoes());
+            agendaReservas = agenda;
+        }
+        return agendaReservas;
+    }
+
+    /**
+     * Verifica se um veículo tem alguma locação ou reserva no período {@code [inicio, fim)}. Um veículo com a
+     * devolução atrasada continua ocupado até ser devolvido, qualquer que seja o período.
+     *
+     * @param veiculo O veículo a ser verificado.
+     * @param inicio  O início do período, inclusivo.
+     * @param fim     O fim do período, exclusivo.
+     * @return true se o veículo não estiver livre no período.
+     */
+    public boolean estaReservado(Veiculo veiculo, LocalDateTime inicio, LocalDateTime fim) {
+        validarPeriodo(inicio, fim);
+        return getAgendaReservas().estaOcupado(veiculo.getPlaca(), inicio, fim) || estaAtrasado(veiculo.getPlaca());
+    }
+
+    /**
+     * Retorna os veículos que atendem à busca e aos filtros de atributos e que estão livres durante todo o
+     * período {@code [inicio, fim)}.
+     *
+     * @param termoBuscaGeral Termo de busca geral (nome, marca, modelo, ano).
+     * @param filtro          O filtro de atributos, ou null para não restringir atributos.
+     * @param inicio          O início do período, inclusivo.
+     * @param fim             O fim do período, exclusivo.
+     * @return Uma lista de veículos livres no período.
+     */
+    public List<Veiculo> filtrarVeiculosLivres(String termoBuscaGeral, FiltroAtributos filtro, LocalDateTime inicio, LocalDateTime fim) {
+        return indiceAtributos.veiculos(selecionarLivres(termoBuscaGeral, filtro, inicio, fim));
+    }
+
+    /**
+     * Retorna uma página dos veículos que atendem à busca e aos filtros de atributos e que estão livres durante
+     * todo o período {@code [inicio, fim)}.
+     *
+     * @param termoBuscaGeral Termo de busca geral (nome, marca, modelo, ano).
+     * @param filtro          O filtro de atributos, ou null para não restringir atributos.
+     * @param inicio          O início do período, inclusivo.
+     * @param fim             O fim do período, exclusivo.
+     * @param ordem           A ordenação desejada.
+     * @param apos            O cursor da página anterior, ou null para a primeira página.
+     * @param tamanho         A quantidade máxima de veículos na página.
+     * @return A página de veículos livres e o cursor da próxima página.
+     */
+    public PaginaVeiculos consultarVeiculosLivres(String termoBuscaGeral, FiltroAtributos filtro, LocalDateTime inicio, LocalDateTime fim,
+                                                  OrdemVeiculos ordem, CursorVeiculos apos, int tamanho) {
+        return indiceAtributos.paginar(selecionarLivres(termoBuscaGeral, filtro, inicio, fim), ordem, apos, tamanho);
+    }
+
+    /**
+     * Resolve a busca e os filtros no bitmap e desconta os veículos ocupados no período. A agenda é consultada
+     * apenas para o menor conjunto entre os candidatos e os veículos com reservas.
+     */
+    private BitSet selecionarLivres(String termoBuscaGeral, FiltroAtributos filtro, LocalDateTime inicio, LocalDateTime fim) {
+        validarPeriodo(inicio, fim);
+        BitSet selecionados = selecionar(termoBuscaGeral, "Todos", filtro);
+        AgendaReservas agenda = getAgendaReservas();
+        Set<String> ocupados;
+        if (selecionados.cardinality() < agenda.veiculosComReservas()) {
+            List<String> candidatos = new ArrayList<>();
+            for (Veiculo veiculo : indiceAtributos.veiculos(selecionados)) {
+                candidatos.add(veiculo.getPlaca());
+            }
+            ocupados = agenda.ocupadosEntre(candidatos, inicio, fim);
+        } else {
+            ocupados = agenda.ocupadosEntre(inicio, fim);
+        }
+        for (Locacao atrasada : getIndiceLocacoesAtivas().atrasadas(LocalDateTime.now())) {
+            ocupados.add(atrasada.getVeiculo().getPlaca());
+        }
+        selecionados.andNot(indiceAtributos.idsDePlacas(ocupados));
+        return selecionados;
+    }
+
+    /**
+     * Retorna o mapa de ocupação por hora, carregando-o a partir do histórico de locações na primeira chamada.
+     * As chamadas seguintes reutilizam o mapa em memória, mantido a cada locação e devolução.
+     *
+     * @return O mapa com as horas ocupadas de cada veículo.
+     */
+    public synchronized MapaOcupacao getMapaOcupacao() {
+        if (mapaOcupacao == null) {
+            MapaOcupacao mapa = new MapaOcupacao();
+            mapa.carregar(carregarLocacoes());
+            mapaOcupacao = mapa;
+        }
+        return mapaOcupacao;
+    }
+
+    /**
+     * Calcula a fração das horas do período em que cada veículo de um tipo esteve locado, por exemplo "quanto
+     * cada caminhão rodou no último trimestre".
+     *
+     * @param tipoVeiculo O tipo de veículo ("Carro", "Moto", "Caminhão"), ou null para todos os tipos.
+     * @param inicio      O início do período.
+     * @param fim         O fim do período.
+     * @return Um mapa {@code veículo -> utilização entre 0 e 1}, na ordem da lista de veículos.
+     */
+    public Map<Veiculo, Double> getUtilizacao(String tipoVeiculo, LocalDateTime inicio, LocalDateTime fim) {
+        validarPeriodo(inicio, fim);
+        MapaOcupacao mapa = getMapaOcupacao();
+        Map<Veiculo, Double> utilizacao = new LinkedHashMap<>();
+        for (Veiculo veiculo : veiculosDoTipo(tipoVeiculo)) {
+            utilizacao.put(veiculo, mapa.utilizacao(veiculo.getPlaca(), inicio, fim));
+        }
+        return utilizacao;
+    }
+
+    /**
+     * Conta, para cada hora do período, quantos veículos de um tipo estavam locados, para o mapa de calor da frota.
+     *
+     * @param tipoVeiculo O tipo de veículo ("Carro", "Moto", "Caminhão"), ou null para todos os tipos.
+     * @param inicio      O início do período.
+     * @param fim         O fim do período.
+     * @return Um vetor com uma posição por hora, a partir da hora de {@code inicio}.
+     */
+    public int[] getOcupacaoDaFrota(String tipoVeiculo, LocalDateTime inicio, LocalDateTime fim) {
+        validarPeriodo(inicio, fim);
+        List<String> placas = new ArrayList<>();
+        for (Veiculo veiculo : veiculosDoTipo(tipoVeiculo)) {
+            placas.add(veiculo.getPlaca());
+        }
+        return getMapaOcupacao().mapaDeCalor(placas, inicio, fim);
+    }
+
+    /**
+     * Retorna o calendário de disponibilidade de um veículo: o bit {@code i} indica se a hora {@code i}, contada a
+     * partir da hora de {@code inicio}, está ocupada.
+     *
+     * @param veiculo O veículo.
+     * @param inicio  O início do período.
+     * @param fim     O fim do período.
+     * @return As horas ocupadas no período.
+     */
+    public BitSet getCalendarioOcupacao(Veiculo veiculo, LocalDateTime inicio, LocalDateTime fim) {
+        validarPeriodo(inicio, fim);
+        return getMapaOcupacao().calendario(veiculo.getPlaca(), inicio, fim);
+    }
+
+    /**
+     * Procura o primeiro horário, em hora cheia, a partir do qual o veículo fica livre pela duração desejada.
+     *
+     * @param veiculo   O veículo.
+     * @param aPartirDe O instante a partir do qual procurar.
+     * @param horas     A duração desejada, em horas.
+     * @return O início do primeiro horário livre.
+     */
+    public LocalDateTime getProximoHorarioLivre(Veiculo veiculo, LocalDateTime aPartirDe, int horas) {
+        return getMapaOcupacao().proximoHorarioLivre(veiculo.getPlaca(), aPartirDe, horas);
+    }
+
+    private List<Veiculo> veiculosDoTipo(String tipoVeiculo) {
+        FiltroAtributos filtro = tipoVeiculo == null ? null : new FiltroAtributos().tipos(tipoVeiculo);
+        return indiceAtributos.veiculos(indiceAtributos.filtrar(filtro));
+    }
+
+    private boolean estaAtrasado(String placa) {
+        Locacao ativa = getIndiceLocacoesAtivas().getLocacaoAtiva(placa);
+        return ativa != null && ativa.getDataPrevistaDevolucao() != null
+                && ativa.getDataPrevistaDevolucao().isBefore(LocalDateTime.now());
+    }
+
+    private static void validarPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio == null || fim == null || !inicio.isBefore(fim)) {
+            throw new VeiculoControllerException("Período inválido: o início deve ser anterior ao fim.");
+        }
+    }
+
     /**
      * Verifica se um determinado veículo está atualmente locado.
-     * Este método recarrega a lista de locações para garantir que a verificação use os dados mais recentes.
+     * A consulta é feita no índice de locações ativas, sem reler o arquivo de locações.
      *
      * @param veiculo O veículo a ser verificado.
      * @return true se o veículo estiver locado (tiver uma locação ativa), false caso contrário.
      */
     public boolean estaLocado(Veiculo veiculo) {
-        List<Locacao> locacoesAtuais = carregarLocacoes();
-        return locacoesAtuais.stream().anyMatch(loc -> loc.getVeiculo().getPlaca().equals(veiculo.getPlaca()) && loc.getDataDevolucao() == null);
+        return getIndiceLocacoesAtivas().estaLocado(veiculo.getPlaca());
+    }
+
+    /**
+     * Retorna a locação ativa de um veículo: a que já começou e ainda não foi devolvida. Reservas que ainda não
+     * começaram são ignoradas. A consulta é feita no índice de locações ativas, sem reler o arquivo de locações.
+     *
+     * @param veiculo O veículo.
+     * @return A locação ativa, ou null se o veículo estiver disponível.
+     */
+    public Locacao getLocacaoAtiva(Veiculo veiculo) {
+        return getIndiceLocacoesAtivas().getLocacaoAtiva(veiculo.getPlaca());
+    }
+
+    /**
+     * Verifica o status de locação de vários veículos de uma só vez, por exemplo todos os cartões de uma página.
+     *
+     * @param veiculos Os veículos a serem verificados.
+     * @return Um mapa {@code placa -> locado} com uma entrada para cada veículo informado.
+     */
+    public Map<String, Boolean> estaLocado(Collection<? extends Veiculo> veiculos) {
+        IndiceLocacoesAtivas indice = getIndiceLocacoesAtivas();
+        Map<String, Boolean> status = new HashMap<>();
+        for (Veiculo veiculo : veiculos) {
+            status.put(veiculo.getPlaca(), indice.estaLocado(veiculo.getPlaca()));
+        }
+        return status;
     }
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.Locacao;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A classe `AgendaReservas` mantém, para cada veículo, uma {@link ArvoreIntervalos} com os períodos já reservados:
+ * as locações em andamento e as reservas futuras, isto é, todas as locações ainda sem data de devolução. Cada
+ * locação ocupa o período {@code [dataLocacao, dataPrevistaDevolucao)}.
+ * <p>
+ * Verificar se um veículo está livre em um período custa O(log n) no número de reservas do veículo. Para saber
+ * quais veículos estão ocupados em um período, a agenda percorre apenas os veículos que têm reservas, e o
+ * {@link #ocupadosEntre(Collection, LocalDateTime, LocalDateTime)} percorre apenas os candidatos informados:
+ * quem consulta escolhe o menor dos dois conjuntos.
+ * </p>
+ * <p>
+ * As datas são guardadas em segundos desde a época, tomando a data local como UTC apenas para ordenar, como no
+ * {@link IndiceLocacoesAtivas}. Os métodos são sincronizados, pois locações de veículos diferentes são
+ * registradas em paralelo.
+ * </p>
+ */
+public class AgendaReservas {
+
+    private final Map<String, ArvoreIntervalos<Locacao>> reservasPorPlaca = new HashMap<>();
+
+    /**
+     * Reconstrói a agenda a partir do histórico de locações, descartando o conteúdo anterior.
+     * Apenas as locações sem data de devolução são incluídas.
+     *
+     * @param locacoes O histórico de locações.
+     */
+    public synchronized void carregar(Collection<Locacao> locacoes) {
+        reservasPorPlaca.clear();
+        for (Locacao locacao : locacoes) {
+            registrar(locacao);
+        }
+    }
+
+    /**
+     * Inclui o período de uma locação ou reserva na agenda do veículo. Locações já devolvidas ou sem datas são
+     * ignoradas.
+     *
+     * @param locacao A locação ou reserva.
+     */
+    public synchronized void registrar(Locacao locacao) {
+        if (!reservavel(locacao)) {
+            return;
+        }
+        long inicio = segundos(locacao.getDataLocacao());
+        long fim = Math.max(inicio + 1, segundos(locacao.getDataPrevistaDevolucao()));
+        reservasPorPlaca.computeIfAbsent(locacao.getVeiculo().getPlaca(), placa -> new ArvoreIntervalos<>())
+                .inserir(inicio, fim, locacao);
+    }
+
+    /**
+     * Libera o período de uma locação devolvida ou de uma reserva cancelada. A locação é reconhecida pela placa e
+     * pela data de locação, como no journal, pois a instância devolvida pode ter sido relida do disco.
+     *
+     * @param locacao A locação devolvida ou a reserva cancelada.
+     * @return true se o período estava na agenda.
+     */
+    public synchronized boolean remover(Locacao locacao) {
+        if (locacao == null || locacao.getVeiculo() == null || locacao.getDataLocacao() == null) {
+            return false;
+        }
+        String placa = locacao.getVeiculo().getPlaca();
+        ArvoreIntervalos<Locacao> reservas = reservasPorPlaca.get(placa);
+        if (reservas == null || !reservas.remover(segundos(locacao.getDataLocacao()),
+                reservada -> reservada.getDataLocacao().equals(locacao.getDataLocacao()))) {
+            return false;
+        }
+        if (reservas.vazia()) {
+            reservasPorPlaca.remove(placa);
+        }
+        return true;
+    }
+
+    /**
+     * Verifica se um veículo tem alguma reserva no período {@code [inicio, fim)}.
+     *
+     * @param placa  A placa do veículo.
+     * @param inicio O início do período, inclusivo.
+     * @param fim    O fim do período, exclusivo.
+     * @return true se alguma reserva do veículo se sobrepõe ao período.
+     */
+    public synchronized boolean estaOcupado(String placa, LocalDateTime inicio, LocalDateTime fim) {
+        ArvoreIntervalos<Locacao> reservas = reservasPorPlaca.get(placa);
+        return reservas != null && reservas.sobrepoe(segundos(inicio), segundos(fim));
+    }
+
+    /**
+     * Retorna as reservas de um veículo que se sobrepõem ao período {@code [inicio, fim)}, em ordem de início.
+     *
+     * @param placa  A placa do veículo.
+     * @param inicio O início do período, inclusivo.
+     * @param fim    O fim do período, exclusivo.
+     * @return As reservas em conflito com o período.
+     */
+    public synchronized List<Locacao> conflitos(String placa, LocalDateTime inicio, LocalDateTime fim) {
+        ArvoreIntervalos<Locacao> reservas = reservasPorPlaca.get(placa);
+        return reservas == null ? List.of() : reservas.sobrepostos(segundos(inicio), segundos(fim));
+    }
+
+    /**
+     * Retorna as reservas de um veículo, em ordem de início.
+     *
+     * @param placa A placa do veículo.
+     * @return As locações em andamento e as reservas futuras do veículo.
+     */
+    public synchronized List<Locacao> reservas(String placa) {
+        ArvoreIntervalos<Locacao> reservas = reservasPorPlaca.get(placa);
+        return reservas == null ? List.of() : reservas.valores();
+    }
+
+    /**
+     * Retorna as placas de todos os veículos com alguma reserva no período {@code [inicio, fim)}. Percorre apenas
+     * os veículos que têm reservas.
+     *
+     * @param inicio O início do período, inclusivo.
+     * @param fim    O fim do período, exclusivo.
+     * @return As placas dos veículos ocupados.
+     */
+    public synchronized Set<String> ocupadosEntre(LocalDateTime inicio, LocalDateTime fim) {
+        return ocupadosEntre(reservasPorPlaca.keySet(), inicio, fim);
+    }
+
+    /**
+     * Retorna, entre as placas candidatas, as dos veículos com alguma reserva no período {@code [inicio, fim)}.
+     * Percorre apenas os candidatos.
+     *
+     * @param placas As placas candidatas.
+     * @param inicio O início do período, inclusivo.
+     * @param fim    O fim do período, exclusivo.
+     * @return As placas candidatas que estão ocupadas.
+     */
+    public synchronized Set<String> ocupadosEntre(Collection<String> placas, LocalDateTime inicio, LocalDateTime fim) {
+        long segundoInicial = segundos(inicio);
+        long segundoFinal = segundos(fim);
+        Set<String> ocupados = new HashSet<>();
+        for (String placa : placas) {
+            ArvoreIntervalos<Locacao> reservas = reservasPorPlaca.get(placa);
+            if (reservas != null && reservas.sobrepoe(segundoInicial, segundoFinal)) {
+                ocupados.add(placa);
+            }
+        }
+        return ocupados;
+    }
+
+    /**
+     * @return A quantidade de veículos com ao menos uma reserva.
+     */
+    public synchronized int veiculosComReservas() {
+        return reservasPorPlaca.size();
+    }
+
+    private static boolean reservavel(Locacao locacao) {
+        return locacao != null && locacao.getVeiculo() != null && locacao.getDataDevolucao() == null
+                && locacao.getDataLocacao() != null && locacao.getDataPrevistaDevolucao() != null;
+    }
+
+    private static long segundos(LocalDateTime data) {
+        return data.toEpochSecond(ZoneOffset.UTC);
+    }
+}
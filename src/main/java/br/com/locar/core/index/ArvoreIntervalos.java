@@ -0,0 +1,263 @@
+package br.com.locar.core.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A classe `ArvoreIntervalos` guarda intervalos semiabertos {@code [inicio, fim)} em uma árvore AVL ordenada pelo
+ * início, em que cada nó conhece o maior fim da sua subárvore. Com isso, saber se algum intervalo se sobrepõe a um
+ * período custa O(log n), e listar os k intervalos sobrepostos custa O(log n + k).
+ * <p>
+ * Os limites são números inteiros (por exemplo, segundos desde a época) para que as comparações não criem objetos.
+ * Intervalos repetidos ou sobrepostos são aceitos; cabe a quem usa a árvore recusar conflitos. A classe não é
+ * sincronizada.
+ * </p>
+ *
+ * @param <T> O tipo do valor associado a cada intervalo.
+ */
+public class ArvoreIntervalos<T> {
+
+    private No<T> raiz;
+    private int tamanho;
+
+    /**
+     * Inclui um intervalo na árvore.
+     *
+     * @param inicio O início do intervalo, inclusivo.
+     * @param fim    O fim do intervalo, exclusivo; deve ser maior que o início.
+     * @param valor  O valor associado ao intervalo.
+     * @throws IllegalArgumentException Se o fim não for maior que o início.
+     */
+    public void inserir(long inicio, long fim, T valor) {
+        if (fim <= inicio) {
+            throw new IllegalArgumentException("O fim do intervalo deve ser maior que o início.");
+        }
+        raiz = inserir(raiz, new No<>(inicio, fim, valor));
+        tamanho++;
+    }
+
+    /**
+     * Remove o primeiro intervalo encontrado com o início informado cujo valor atende ao critério.
+     *
+     * @param inicio   O início do intervalo.
+     * @param criterio O critério que identifica o valor a remover.
+     * @return true se um intervalo foi removido.
+     */
+    public boolean remover(long inicio, Predicate<? super T> criterio) {
+        Remocao<T> remocao = new Remocao<>(inicio, criterio);
+        raiz = remover(raiz, remocao);
+        if (remocao.removido) {
+            tamanho--;
+        }
+        return remocao.removido;
+    }
+
+    /**
+     * Verifica se algum intervalo se sobrepõe ao período {@code [inicio, fim)}.
+     *
+     * @param inicio O início do período, inclusivo.
+     * @param fim    O fim do período, exclusivo.
+     * @return true se ao menos um intervalo tiver algum instante dentro do período.
+     */
+    public boolean sobrepoe(long inicio, long fim) {
+        No<T> no = raiz;
+        while (no != null) {
+            if (no.inicio < fim && inicio < no.fim) {
+                return true;
+            }
+            // Se a subárvore esquerda alcança o início do período, ou ela contém um intervalo sobreposto, ou
+            // nenhum intervalo à direita (que começam ainda mais tarde) pode se sobrepor.
+            no = no.esquerda != null && no.esquerda.maiorFim > inicio ? no.esquerda : no.direita;
+        }
+        return false;
+    }
+
+    /**
+     * Retorna os valores dos intervalos que se sobrepõem ao período {@code [inicio, fim)}, em ordem de início.
+     *
+     * @param inicio O início do período, inclusivo.
+     * @param fim    O fim do período, exclusivo.
+     * @return Os valores dos intervalos sobrepostos.
+     */
+    public List<T> sobrepostos(long inicio, long fim) {
+        List<T> resultado = new ArrayList<>();
+        coletar(raiz, inicio, fim, resultado);
+        return resultado;
+    }
+
+    /**
+     * Retorna todos os valores, em ordem de início.
+     *
+     * @return Os valores de todos os intervalos.
+     */
+    public List<T> valores() {
+        return sobrepostos(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * @return A quantidade de intervalos na árvore.
+     */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * @return A altura da árvore, para verificar o balanceamento; 0 para uma árvore vazia.
+     */
+    public int altura() {
+        return altura(raiz);
+    }
+
+    /**
+     * @return true se a árvore não tiver intervalos.
+     */
+    public boolean vazia() {
+        return tamanho == 0;
+    }
+
+    private static <T> void coletar(No<T> no, long inicio, long fim, List<T> resultado) {
+        if (no == null || no.maiorFim <= inicio) {
+            return;
+        }
+        coletar(no.esquerda, inicio, fim, resultado);
+        if (no.inicio >= fim) {
+            return;
+        }
+        if (inicio < no.fim) {
+            resultado.add(no.valor);
+        }
+        coletar(no.direita, inicio, fim, resultado);
+    }
+
+    private static <T> No<T> inserir(No<T> no, No<T> novo) {
+        if (no == null) {
+            return novo;
+        }
+        if (novo.inicio < no.inicio) {
+            no.esquerda = inserir(no.esquerda, novo);
+        } else {
+            no.direita = inserir(no.direita, novo);
+        }
+        return balancear(no);
+    }
+
+    private static <T> No<T> remover(No<T> no, Remocao<T> remocao) {
+        if (no == null) {
+            return null;
+        }
+        if (remocao.inicio < no.inicio) {
+            no.esquerda = remover(no.esquerda, remocao);
+        } else if (remocao.inicio > no.inicio) {
+            no.direita = remover(no.direita, remocao);
+        } else if (remocao.criterio.test(no.valor)) {
+            remocao.removido = true;
+            if (no.esquerda == null || no.direita == null) {
+                return no.esquerda != null ? no.esquerda : no.direita;
+            }
+            No<T> sucessor = no.direita;
+            while (sucessor.esquerda != null) {
+                sucessor = sucessor.esquerda;
+            }
+            no.direita = removerMenor(no.direita);
+            sucessor.esquerda = no.esquerda;
+            sucessor.direita = no.direita;
+            return balancear(sucessor);
+        } else {
+            // Intervalos com o mesmo início podem ter ido para qualquer lado após as rotações.
+            no.esquerda = remover(no.esquerda, remocao);
+            if (!remocao.removido) {
+                no.direita = remover(no.direita, remocao);
+            }
+        }
+        return balancear(no);
+    }
+
+    private static <T> No<T> removerMenor(No<T> no) {
+        if (no.esquerda == null) {
+            return no.direita;
+        }
+        no.esquerda = removerMenor(no.esquerda);
+        return balancear(no);
+    }
+
+    private static <T> No<T> balancear(No<T> no) {
+        atualizar(no);
+        int fator = altura(no.esquerda) - altura(no.direita);
+        if (fator > 1) {
+            if (altura(no.esquerda.esquerda) < altura(no.esquerda.direita)) {
+                no.esquerda = girarEsquerda(no.esquerda);
+            }
+            return girarDireita(no);
+        }
+        if (fator < -1) {
+            if (altura(no.direita.direita) < altura(no.direita.esquerda)) {
+                no.direita = girarDireita(no.direita);
+            }
+            return girarEsquerda(no);
+        }
+        return no;
+    }
+
+    private static <T> No<T> girarDireita(No<T> no) {
+        No<T> esquerda = no.esquerda;
+        no.esquerda = esquerda.direita;
+        esquerda.direita = no;
+        atualizar(no);
+        atualizar(esquerda);
+        return esquerda;
+    }
+
+    private static <T> No<T> girarEsquerda(No<T> no) {
+        No<T> direita = no.direita;
+        no.direita = direita.esquerda;
+        direita.esquerda = no;
+        atualizar(no);
+        atualizar(direita);
+        return direita;
+    }
+
+    private static <T> void atualizar(No<T> no) {
+        no.altura = 1 + Math.max(altura(no.esquerda), altura(no.direita));
+        long maiorFim = no.fim;
+        if (no.esquerda != null) {
+            maiorFim = Math.max(maiorFim, no.esquerda.maiorFim);
+        }
+        if (no.direita != null) {
+            maiorFim = Math.max(maiorFim, no.direita.maiorFim);
+        }
+        no.maiorFim = maiorFim;
+    }
+
+    private static int altura(No<?> no) {
+        return no == null ? 0 : no.altura;
+    }
+
+    private static final class No<T> {
+        private final long inicio;
+        private final long fim;
+        private final T valor;
+        private long maiorFim;
+        private int altura = 1;
+        private No<T> esquerda;
+        private No<T> direita;
+
+        private No(long inicio, long fim, T valor) {
+            this.inicio = inicio;
+            this.fim = fim;
+            this.valor = valor;
+            this.maiorFim = fim;
+        }
+    }
+
+    private static final class Remocao<T> {
+        private final long inicio;
+        private final Predicate<? super T> criterio;
+        private boolean removido;
+
+        private Remocao(long inicio, Predicate<? super T> criterio) {
+            this.inicio = inicio;
+            this.criterio = criterio;
+        }
+    }
+}
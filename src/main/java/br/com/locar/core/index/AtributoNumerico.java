@@ -0,0 +1,32 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.Veiculo;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Atributos numéricos de um veículo que podem ser filtrados por faixa de valores ou usados para ordenar a listagem.
+ * Cada constante sabe ler o respectivo valor do {@link Veiculo}.
+ */
+public enum AtributoNumerico {
+    VALOR_DIARIO(Veiculo::getValorDiario),
+    ANO(Veiculo::getAno),
+    QUILOMETRAGEM(Veiculo::getQuilometragem),
+    POTENCIA(Veiculo::getPotencia),
+    VELOCIDADE_MAXIMA(Veiculo::getVelocidadeMax),
+    LOCACOES(Veiculo::getLocacoes);
+
+    private final ToDoubleFunction<Veiculo> leitor;
+
+    AtributoNumerico(ToDoubleFunction<Veiculo> leitor) {
+        this.leitor = leitor;
+    }
+
+    /**
+     * @param veiculo O veículo.
+     * @return O valor do atributo no veículo.
+     */
+    public double valorEm(Veiculo veiculo) {
+        return leitor.applyAsDouble(veiculo);
+    }
+}
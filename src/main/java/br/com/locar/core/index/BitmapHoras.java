@@ -0,0 +1,265 @@
+package br.com.locar.core.index;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A classe `BitmapHoras` é um bitmap esparso com um bit por hora, numerado em horas desde a época. As horas são
+ * agrupadas em blocos de {@value #HORAS_POR_BLOCO} bits (64 palavras de 64 bits), e só existem em memória os blocos
+ * com alguma hora marcada: um veículo alugado algumas semanas por ano ocupa poucos blocos, qualquer que seja o
+ * período coberto.
+ * <p>
+ * Contagens são feitas com {@link Long#bitCount(long)} sobre palavras inteiras, com máscaras apenas nas pontas do
+ * intervalo. A classe não é sincronizada.
+ * </p>
+ */
+public class BitmapHoras {
+
+    /**
+     * Quantidade de horas em cada bloco (cerca de 170 dias).
+     */
+    public static final int HORAS_POR_BLOCO = 4096;
+    private static final int PALAVRAS_POR_BLOCO = HORAS_POR_BLOCO / 64;
+    /**
+     * Indica que não há hora marcada adiante; horas antes da época são negativas, então -1 é uma hora válida.
+     */
+    private static final long NENHUMA = Long.MIN_VALUE;
+
+    private final TreeMap<Long, long[]> blocos = new TreeMap<>();
+
+    /**
+     * Marca as horas do intervalo {@code [de, ate)}.
+     *
+     * @param de  A primeira hora, inclusiva.
+     * @param ate A última hora, exclusiva.
+     */
+    public void marcar(long de, long ate) {
+        alterar(de, ate, true);
+    }
+
+    /**
+     * Desmarca as horas do intervalo {@code [de, ate)}. Blocos que ficam vazios são descartados.
+     *
+     * @param de  A primeira hora, inclusiva.
+     * @param ate A última hora, exclusiva.
+     */
+    public void desmarcar(long de, long ate) {
+        alterar(de, ate, false);
+    }
+
+    /**
+     * Verifica se uma hora está marcada.
+     *
+     * @param hora A hora.
+     * @return true se a hora estiver marcada.
+     */
+    public boolean marcada(long hora) {
+        return (palavra(Math.floorDiv(hora, 64)) & (1L << Math.floorMod(hora, 64))) != 0;
+    }
+
+    /**
+     * Conta as horas marcadas no intervalo {@code [de, ate)}.
+     *
+     * @param de  A primeira hora, inclusiva.
+     * @param ate A última hora, exclusiva.
+     * @return A quantidade de horas marcadas.
+     */
+    public int contar(long de, long ate) {
+        if (ate <= de) {
+            return 0;
+        }
+        int total = 0;
+        long primeira = Math.floorDiv(de, 64);
+        long ultima = Math.floorDiv(ate - 1, 64);
+        Map<Long, long[]> faixa = blocos.subMap(Math.floorDiv(primeira, PALAVRAS_POR_BLOCO), true,
+                Math.floorDiv(ultima, PALAVRAS_POR_BLOCO), true);
+        for (Map.Entry<Long, long[]> bloco : faixa.entrySet()) {
+            long base = bloco.getKey() * PALAVRAS_POR_BLOCO;
+            long[] palavras = bloco.getValue();
+            int inicio = (int) Math.max(0, primeira - base);
+            int fim = (int) Math.min(PALAVRAS_POR_BLOCO - 1, ultima - base);
+            for (int i = inicio; i <= fim; i++) {
+                total += Long.bitCount(palavras[i] & mascara(base + i, de, ate));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Retorna as horas do intervalo {@code [de, ate)} como um {@link BitSet} em que o bit {@code i} corresponde à
+     * hora {@code de + i}.
+     *
+     * @param de  A primeira hora, inclusiva.
+     * @param ate A última hora, exclusiva.
+     * @return As horas marcadas no intervalo.
+     */
+    public BitSet copiar(long de, long ate) {
+        return BitSet.valueOf(alinhar(de, ate));
+    }
+
+    /**
+     * Retorna as horas do intervalo {@code [de, ate)} em palavras de 64 bits, deslocadas para que o bit 0 da
+     * primeira palavra seja a hora {@code de}. As horas depois de {@code ate} vêm desmarcadas.
+     *
+     * @param de  A primeira hora, inclusiva.
+     * @param ate A última hora, exclusiva.
+     * @return As palavras do intervalo.
+     */
+    public long[] alinhar(long de, long ate) {
+        if (ate <= de) {
+            return new long[0];
+        }
+        long horas = ate - de;
+        long[] resultado = new long[(int) ((horas + 63) / 64)];
+        long primeira = Math.floorDiv(de, 64);
+        int deslocamento = Math.floorMod(de, 64);
+        long indiceBloco = Long.MIN_VALUE;
+        long[] bloco = null;
+        long atual = 0;
+        for (int i = 0; i <= resultado.length; i++) {
+            long indicePalavra = primeira + i;
+            if (Math.floorDiv(indicePalavra, PALAVRAS_POR_BLOCO) != indiceBloco) {
+                indiceBloco = Math.floorDiv(indicePalavra, PALAVRAS_POR_BLOCO);
+                bloco = blocos.get(indiceBloco);
+            }
+            long proxima = bloco == null ? 0 : bloco[Math.floorMod(indicePalavra, PALAVRAS_POR_BLOCO)];
+            if (i > 0) {
+                resultado[i - 1] = (atual >>> deslocamento) | (deslocamento == 0 ? 0 : proxima << (64 - deslocamento));
+            }
+            atual = proxima;
+        }
+        int sobra = (int) (horas % 64);
+        if (sobra != 0) {
+            resultado[resultado.length - 1] &= (1L << sobra) - 1;
+        }
+        return resultado;
+    }
+
+    /**
+     * Procura a primeira sequência de {@code horas} horas desmarcadas que começa em {@code de} ou depois.
+     *
+     * @param de    A hora a partir da qual procurar.
+     * @param horas O tamanho da sequência; deve ser positivo.
+     * @return A primeira hora da sequência.
+     */
+    public long proximaSequenciaLivre(long de, long horas) {
+        long candidata = proximaDesmarcada(de);
+        while (true) {
+            long ocupada = proximaMarcada(candidata);
+            if (ocupada == NENHUMA || ocupada - candidata >= horas) {
+                return candidata;
+            }
+            candidata = proximaDesmarcada(ocupada);
+        }
+    }
+
+    /**
+     * @return true se nenhuma hora estiver marcada.
+     */
+    public boolean vazio() {
+        return blocos.isEmpty();
+    }
+
+    /**
+     * @return A quantidade de blocos alocados, para estimar o uso de memória.
+     */
+    public int blocosAlocados() {
+        return blocos.size();
+    }
+
+    /**
+     * A próxima hora marcada a partir de {@code hora}, ou {@link #NENHUMA} se não houver.
+     */
+    private long proximaMarcada(long hora) {
+        long indicePalavra = Math.floorDiv(hora, 64);
+        long bits = palavra(indicePalavra) & (-1L << Math.floorMod(hora, 64));
+        while (bits == 0) {
+            indicePalavra++;
+            long indiceBloco = Math.floorDiv(indicePalavra, PALAVRAS_POR_BLOCO);
+            if (!blocos.containsKey(indiceBloco)) {
+                // Pula direto para o próximo bloco alocado.
+                Long proximoBloco = blocos.higherKey(indiceBloco);
+                if (proximoBloco == null) {
+                    return NENHUMA;
+                }
+                indicePalavra = proximoBloco * PALAVRAS_POR_BLOCO;
+            }
+            bits = palavra(indicePalavra);
+        }
+        return indicePalavra * 64 + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * A próxima hora desmarcada a partir de {@code hora}.
+     */
+    private long proximaDesmarcada(long hora) {
+        long indicePalavra = Math.floorDiv(hora, 64);
+        long bits = ~palavra(indicePalavra) & (-1L << Math.floorMod(hora, 64));
+        while (bits == 0) {
+            indicePalavra++;
+            bits = ~palavra(indicePalavra);
+        }
+        return indicePalavra * 64 + Long.numberOfTrailingZeros(bits);
+    }
+
+    private long palavra(long indicePalavra) {
+        long[] bloco = blocos.get(Math.floorDiv(indicePalavra, PALAVRAS_POR_BLOCO));
+        return bloco == null ? 0 : bloco[Math.floorMod(indicePalavra, PALAVRAS_POR_BLOCO)];
+    }
+
+    private void alterar(long de, long ate, boolean marcar) {
+        if (ate <= de) {
+            return;
+        }
+        long primeira = Math.floorDiv(de, 64);
+        long ultima = Math.floorDiv(ate - 1, 64);
+        for (long indicePalavra = primeira; indicePalavra <= ultima; indicePalavra++) {
+            long indiceBloco = Math.floorDiv(indicePalavra, PALAVRAS_POR_BLOCO);
+            long[] bloco = blocos.get(indiceBloco);
+            if (bloco == null) {
+                if (!marcar) {
+                    // Bloco inteiro já desmarcado: segue para o próximo.
+                    indicePalavra = (indiceBloco + 1) * PALAVRAS_POR_BLOCO - 1;
+                    continue;
+                }
+                bloco = new long[PALAVRAS_POR_BLOCO];
+                blocos.put(indiceBloco, bloco);
+            }
+            int posicao = Math.floorMod(indicePalavra, PALAVRAS_POR_BLOCO);
+            long mascara = mascara(indicePalavra, de, ate);
+            if (marcar) {
+                bloco[posicao] |= mascara;
+            } else {
+                bloco[posicao] &= ~mascara;
+                if (posicao == PALAVRAS_POR_BLOCO - 1 || indicePalavra == ultima) {
+                    descartarSeVazio(indiceBloco, bloco);
+                }
+            }
+        }
+    }
+
+    private void descartarSeVazio(long indiceBloco, long[] bloco) {
+        for (long palavra : bloco) {
+            if (palavra != 0) {
+                return;
+            }
+        }
+        blocos.remove(indiceBloco);
+    }
+
+    /**
+     * A máscara dos bits da palavra {@code indicePalavra} que ficam dentro de {@code [de, ate)}.
+     */
+    private static long mascara(long indicePalavra, long de, long ate) {
+        long inicioPalavra = indicePalavra * 64;
+        long mascara = -1L;
+        if (de > inicioPalavra) {
+            mascara &= -1L << (de - inicioPalavra);
+        }
+        if (ate < inicioPalavra + 64) {
+            mascara &= (1L << (ate - inicioPalavra)) - 1;
+        }
+        return mascara;
+    }
+}
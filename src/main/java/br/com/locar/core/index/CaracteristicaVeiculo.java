@@ -0,0 +1,44 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.Veiculo;
+
+import java.util.function.Predicate;
+
+/**
+ * Itens opcionais de um veículo que podem ser usados como filtro na listagem.
+ * Cada constante sabe ler o respectivo atributo booleano do {@link Veiculo}.
+ */
+public enum CaracteristicaVeiculo {
+    AUTOMATICO("Automático", Veiculo::isAutomatico),
+    AIR_BAG("Air bag", Veiculo::isAirBag),
+    AR_CONDICIONADO("Ar-condicionado", Veiculo::isArCondicionado),
+    DIRECAO_HIDRAULICA("Direção hidráulica", Veiculo::isDirecaoHidraulica),
+    VIDRO_ELETRICO("Vidro elétrico", Veiculo::isVidroEletrico),
+    VIDRO_FUME("Vidro fumê", Veiculo::isVidroFume),
+    MULTIMIDIA("Multimídia", Veiculo::isMultimidia),
+    ENTRADA_USB("Entrada USB", Veiculo::isEntradaUSB),
+    ENGATE("Engate", Veiculo::isEngate);
+
+    private final String descricao;
+    private final Predicate<Veiculo> leitor;
+
+    CaracteristicaVeiculo(String descricao, Predicate<Veiculo> leitor) {
+        this.descricao = descricao;
+        this.leitor = leitor;
+    }
+
+    /**
+     * @return O nome do item para exibição na interface.
+     */
+    public String getDescricao() {
+        return descricao;
+    }
+
+    /**
+     * @param veiculo O veículo a ser verificado.
+     * @return true se o veículo possui o item.
+     */
+    public boolean presenteEm(Veiculo veiculo) {
+        return leitor.test(veiculo);
+    }
+}
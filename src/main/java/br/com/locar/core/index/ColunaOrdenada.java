@@ -0,0 +1,174 @@
+package br.com.locar.core.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Coluna de um atributo numérico mantida em dois vetores primitivos paralelos, ordenados por
+ * {@code (valor, identificador)}. Uma consulta por faixa localiza os extremos por busca binária e devolve os
+ * identificadores do intervalo como um {@link BitSet}, pronto para ser combinado com os demais filtros.
+ */
+class ColunaOrdenada {
+
+    private double[] valores = new double[16];
+    private int[] ids = new int[16];
+    private int tamanho;
+
+    /**
+     * Reconstrói a coluna de uma só vez, ordenando os pares em vez de inseri-los um a um.
+     *
+     * @param valoresPorId O valor de cada identificador; posições fora de {@code presentes} são ignoradas.
+     * @param presentes    Os identificadores a incluir.
+     */
+    void construir(double[] valoresPorId, BitSet presentes) {
+        int quantidade = presentes.cardinality();
+        int[] idsPresentes = new int[quantidade];
+        int n = 0;
+        for (int id = presentes.nextSetBit(0); id >= 0; id = presentes.nextSetBit(id + 1)) {
+            idsPresentes[n++] = id;
+        }
+        Integer[] posicoes = new Integer[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            posicoes[i] = i;
+        }
+        Arrays.sort(posicoes, (a, b) -> {
+            int comparacao = Double.compare(valoresPorId[idsPresentes[a]], valoresPorId[idsPresentes[b]]);
+            return comparacao != 0 ? comparacao : Integer.compare(idsPresentes[a], idsPresentes[b]);
+        });
+        valores = new double[Math.max(16, quantidade)];
+        ids = new int[Math.max(16, quantidade)];
+        for (int i = 0; i < quantidade; i++) {
+            int id = idsPresentes[posicoes[i]];
+            ids[i] = id;
+            valores[i] = valoresPorId[id];
+        }
+        tamanho = quantidade;
+    }
+
+    void limpar() {
+        tamanho = 0;
+    }
+
+    void inserir(double valor, int id) {
+        if (tamanho == valores.length) {
+            valores = Arrays.copyOf(valores, tamanho * 2);
+            ids = Arrays.copyOf(ids, tamanho * 2);
+        }
+        int posicao = -(posicao(valor, id) + 1);
+        if (posicao < 0) {
+            return;
+        }
+        System.arraycopy(valores, posicao, valores, posicao + 1, tamanho - posicao);
+        System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+        valores[posicao] = valor;
+        ids[posicao] = id;
+        tamanho++;
+    }
+
+    boolean remover(double valor, int id) {
+        int posicao = posicao(valor, id);
+        if (posicao < 0) {
+            return false;
+        }
+        System.arraycopy(valores, posicao + 1, valores, posicao, tamanho - posicao - 1);
+        System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+        tamanho--;
+        return true;
+    }
+
+    /**
+     * Seleciona os identificadores cujo valor está na faixa fechada {@code [minimo, maximo]}.
+     *
+     * @param minimo O limite inferior, ou {@code null} para não limitar.
+     * @param maximo O limite superior, ou {@code null} para não limitar.
+     * @return Um novo bitmap com os identificadores da faixa.
+     */
+    BitSet faixa(Double minimo, Double maximo) {
+        int inicio = minimo == null ? 0 : primeiraPosicaoMaiorOuIgual(minimo);
+        int fim = maximo == null ? tamanho : primeiraPosicaoMaiorQue(maximo);
+        BitSet resultado = new BitSet();
+        for (int i = inicio; i < fim; i++) {
+            resultado.set(ids[i]);
+        }
+        return resultado;
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    double valorNa(int posicao) {
+        return valores[posicao];
+    }
+
+    int idNa(int posicao) {
+        return ids[posicao];
+    }
+
+    /**
+     * @return A primeira posição cujo par é maior que {@code (valor, id)}.
+     */
+    int posicaoApos(double valor, int id) {
+        int posicao = posicao(valor, id);
+        return posicao >= 0 ? posicao + 1 : -(posicao + 1);
+    }
+
+    /**
+     * @return A última posição cujo par é menor que {@code (valor, id)}, ou {@code -1} se não houver.
+     */
+    int posicaoAntes(double valor, int id) {
+        int posicao = posicao(valor, id);
+        return posicao >= 0 ? posicao - 1 : -(posicao + 1) - 1;
+    }
+
+    /**
+     * Busca binária pelo par {@code (valor, id)}, no formato de {@link Arrays#binarySearch(int[], int)}.
+     */
+    private int posicao(double valor, int id) {
+        int baixo = 0;
+        int alto = tamanho - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            int comparacao = Double.compare(valores[meio], valor);
+            if (comparacao == 0) {
+                comparacao = Integer.compare(ids[meio], id);
+            }
+            if (comparacao < 0) {
+                baixo = meio + 1;
+            } else if (comparacao > 0) {
+                alto = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -(baixo + 1);
+    }
+
+    private int primeiraPosicaoMaiorOuIgual(double limite) {
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (Double.compare(valores[meio], limite) < 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    private int primeiraPosicaoMaiorQue(double limite) {
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (Double.compare(valores[meio], limite) <= 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.enums.Combustivel;
+import br.com.locar.core.entities.enums.Cor;
+import br.com.locar.core.entities.enums.Funcao;
+import br.com.locar.core.entities.enums.Tracao;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A classe `ContagemFacetas` guarda, para cada opção dos filtros de atributos, quantos veículos seriam exibidos
+ * se aquela opção fosse escolhida, mantidas as demais seleções.
+ * <p>
+ * Como as opções de um mesmo atributo são alternativas, a contagem de uma cor desconsidera a cor já selecionada
+ * e respeita todos os outros filtros. Os itens opcionais são cumulativos, então sua contagem é feita sobre o
+ * resultado atual.
+ * </p>
+ */
+public class ContagemFacetas {
+
+    private final int total;
+    private final Map<Cor, Integer> cores = new EnumMap<>(Cor.class);
+    private final Map<String, Integer> tipos = new LinkedHashMap<>();
+    private final Map<Combustivel, Integer> combustiveis = new EnumMap<>(Combustivel.class);
+    private final Map<Funcao, Integer> funcoes = new EnumMap<>(Funcao.class);
+    private final Map<Tracao, Integer> tracoes = new EnumMap<>(Tracao.class);
+    private final Map<CaracteristicaVeiculo, Integer> caracteristicas = new EnumMap<>(CaracteristicaVeiculo.class);
+
+    ContagemFacetas(int total) {
+        this.total = total;
+    }
+
+    void contarCor(Cor cor, int quantidade) {
+        cores.put(cor, quantidade);
+    }
+
+    void contarTipo(String tipo, int quantidade) {
+        tipos.put(tipo, quantidade);
+    }
+
+    void contarCombustivel(Combustivel combustivel, int quantidade) {
+        combustiveis.put(combustivel, quantidade);
+    }
+
+    void contarFuncao(Funcao funcao, int quantidade) {
+        funcoes.put(funcao, quantidade);
+    }
+
+    void contarTracao(Tracao tracao, int quantidade) {
+        tracoes.put(tracao, quantidade);
+    }
+
+    void contarCaracteristica(CaracteristicaVeiculo caracteristica, int quantidade) {
+        caracteristicas.put(caracteristica, quantidade);
+    }
+
+    /**
+     * @return A quantidade de veículos que atendem a todos os filtros selecionados.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCor(Cor cor) {
+        return cores.getOrDefault(cor, 0);
+    }
+
+    public int getTipo(String tipo) {
+        return tipos.getOrDefault(tipo, 0);
+    }
+
+    public int getCombustivel(Combustivel combustivel) {
+        return combustiveis.getOrDefault(combustivel, 0);
+    }
+
+    public int getFuncao(Funcao funcao) {
+        return funcoes.getOrDefault(funcao, 0);
+    }
+
+    public int getTracao(Tracao tracao) {
+        return tracoes.getOrDefault(tracao, 0);
+    }
+
+    public int getCaracteristica(CaracteristicaVeiculo caracteristica) {
+        return caracteristicas.getOrDefault(caracteristica, 0);
+    }
+
+    public Map<Cor, Integer> getCores() {
+        return Collections.unmodifiableMap(cores);
+    }
+
+    public Map<String, Integer> getTipos() {
+        return Collections.unmodifiableMap(tipos);
+    }
+
+    public Map<Combustivel, Integer> getCombustiveis() {
+        return Collections.unmodifiableMap(combustiveis);
+    }
+
+    public Map<Funcao, Integer> getFuncoes() {
+        return Collections.unmodifiableMap(funcoes);
+    }
+
+    public Map<Tracao, Integer> getTracoes() {
+        return Collections.unmodifiableMap(tracoes);
+    }
+
+    public Map<CaracteristicaVeiculo, Integer> getCaracteristicas() {
+        return Collections.unmodifiableMap(caracteristicas);
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.locar.core.index;
+
+/**
+ * Posição de continuação de uma consulta paginada de veículos: o valor de ordenação e o identificador do último
+ * veículo entregue. A próxima página começa no primeiro veículo posterior a esse par, sem contar nem pular os
+ * anteriores, de modo que inclusões e exclusões entre uma página e outra não deslocam o resultado.
+ * <p>
+ * O cursor só é válido para a mesma {@link OrdemVeiculos}. Se o índice tiver sido reconstruído desde então, os
+ * identificadores mudaram e a consulta continua a partir do primeiro veículo com valor de ordenação posterior.
+ * </p>
+ */
+public final class CursorVeiculos {
+
+    private final OrdemVeiculos ordem;
+    private final double valor;
+    private final int id;
+    private final long geracao;
+
+    CursorVeiculos(OrdemVeiculos ordem, double valor, int id, long geracao) {
+        this.ordem = ordem;
+        this.valor = valor;
+        this.id = id;
+        this.geracao = geracao;
+    }
+
+    OrdemVeiculos getOrdem() {
+        return ordem;
+    }
+
+    double getValor() {
+        return valor;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    long getGeracao() {
+        return geracao;
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.enums.Combustivel;
+import br.com.locar.core.entities.enums.Cor;
+import br.com.locar.core.entities.enums.Funcao;
+import br.com.locar.core.entities.enums.Tracao;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A classe `FiltroAtributos` descreve a seleção dos filtros de atributos discretos da listagem de veículos:
+ * cor, tipo, combustível, função, tração e itens opcionais, além das faixas de valores dos atributos numéricos.
+ * <p>
+ * Dentro de um mesmo atributo os valores selecionados são alternativas (um veículo preto <em>ou</em> branco);
+ * entre atributos diferentes, e entre os itens opcionais, todas as condições precisam ser atendidas.
+ * Um atributo sem valores selecionados não restringe o resultado. As faixas são fechadas e também se somam às
+ * demais condições.
+ * </p>
+ */
+public class FiltroAtributos {
+
+    private final Set<Cor> cores = EnumSet.noneOf(Cor.class);
+    private final Set<String> tipos = new LinkedHashSet<>();
+    private final Set<Combustivel> combustiveis = EnumSet.noneOf(Combustivel.class);
+    private final Set<Funcao> funcoes = EnumSet.noneOf(Funcao.class);
+    private final Set<Tracao> tracoes = EnumSet.noneOf(Tracao.class);
+    private final Set<CaracteristicaVeiculo> caracteristicas = EnumSet.noneOf(CaracteristicaVeiculo.class);
+    private final Map<AtributoNumerico, Double[]> faixas = new EnumMap<>(AtributoNumerico.class);
+
+    public FiltroAtributos cores(Cor... valores) {
+        cores.addAll(Arrays.asList(valores));
+        return this;
+    }
+
+    /**
+     * @param valores Os tipos de veículo ("Carro", "Moto", "Caminhão").
+     */
+    public FiltroAtributos tipos(String... valores) {
+        tipos.addAll(Arrays.asList(valores));
+        return this;
+    }
+
+    public FiltroAtributos combustiveis(Combustivel... valores) {
+        combustiveis.addAll(Arrays.asList(valores));
+        return this;
+    }
+
+    public FiltroAtributos funcoes(Funcao... valores) {
+        funcoes.addAll(Arrays.asList(valores));
+        return this;
+    }
+
+    public FiltroAtributos tracoes(Tracao... valores) {
+        tracoes.addAll(Arrays.asList(valores));
+        return this;
+    }
+
+    /**
+     * @param valores Os itens opcionais que o veículo deve possuir.
+     */
+    public FiltroAtributos com(CaracteristicaVeiculo... valores) {
+        caracteristicas.addAll(Arrays.asList(valores));
+        return this;
+    }
+
+    /**
+     * Restringe um atributo numérico à faixa fechada {@code [minimo, maximo]}, substituindo uma faixa anterior.
+     * Sem nenhum dos limites, o atributo deixa de ser restringido.
+     *
+     * @param atributo O atributo numérico.
+     * @param minimo   O limite inferior, ou {@code null} para não limitar.
+     * @param maximo   O limite superior, ou {@code null} para não limitar.
+     */
+    public FiltroAtributos faixa(AtributoNumerico atributo, Double minimo, Double maximo) {
+        if (minimo == null && maximo == null) {
+            faixas.remove(atributo);
+        } else {
+            faixas.put(atributo, new Double[]{minimo, maximo});
+        }
+        return this;
+    }
+
+    public Set<Cor> getCores() {
+        return Collections.unmodifiableSet(cores);
+    }
+
+    public Set<String> getTipos() {
+        return Collections.unmodifiableSet(tipos);
+    }
+
+    public Set<Combustivel> getCombustiveis() {
+        return Collections.unmodifiableSet(combustiveis);
+    }
+
+    public Set<Funcao> getFuncoes() {
+        return Collections.unmodifiableSet(funcoes);
+    }
+
+    public Set<Tracao> getTracoes() {
+        return Collections.unmodifiableSet(tracoes);
+    }
+
+    public Set<CaracteristicaVeiculo> getCaracteristicas() {
+        return Collections.unmodifiableSet(caracteristicas);
+    }
+
+    /**
+     * @return As faixas selecionadas, cada uma como {@code {minimo, maximo}} com limites possivelmente nulos.
+     */
+    public Map<AtributoNumerico, Double[]> getFaixas() {
+        return Collections.unmodifiableMap(faixas);
+    }
+}
@@ -0,0 +1,490 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.Veiculo;
+import br.com.locar.core.entities.enums.Combustivel;
+import br.com.locar.core.entities.enums.Cor;
+import br.com.locar.core.entities.enums.Funcao;
+import br.com.locar.core.entities.enums.Tracao;
+import br.com.locar.terrestre.entities.Caminhao;
+import br.com.locar.terrestre.entities.Carro;
+import br.com.locar.terrestre.entities.Moto;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A classe `IndiceAtributosVeiculos` mantém um bitmap ({@link BitSet}) por valor de cada atributo discreto dos
+ * veículos — cor, tipo, combustível, função, tração e itens opcionais. Filtros combinados viram operações
+ * {@code OR} entre os valores de um atributo e {@code AND} entre atributos, e as contagens por opção exibidas
+ * nos filtros são obtidas pela cardinalidade dessas interseções, sem percorrer os veículos.
+ * <p>
+ * Os atributos numéricos ({@link AtributoNumerico}) ficam em colunas ordenadas ({@link ColunaOrdenada}); uma faixa
+ * de valores é resolvida por busca binária em um bitmap que entra na mesma interseção. As mesmas colunas
+ * servem à listagem paginada ({@link #paginar}), que percorre a coluna da ordem escolhida a partir de um cursor
+ * sem ordenar o resultado completo.
+ * </p>
+ * <p>
+ * Os identificadores seguem a mesma regra do {@link IndiceTextoVeiculos}: cada veículo indexado recebe o próximo
+ * número, e reindexá-lo o move para o final, acompanhando a ordem da lista do {@code VeiculoController}.
+ * </p>
+ */
+public class IndiceAtributosVeiculos {
+
+    /**
+     * Tipos de veículo reconhecidos pelo filtro de tipo.
+     */
+    public static final List<String> TIPOS = List.of("Carro", "Moto", "Caminhão");
+
+    /**
+     * Quantidade mínima de posições vagas antes de o índice ser compactado.
+     */
+    private static final int MINIMO_VAGAS_COMPACTACAO = 64;
+
+    private final Map<String, Integer> idPorPlaca = new HashMap<>();
+    private final List<Veiculo> veiculosPorId = new ArrayList<>();
+    private final BitSet presentes = new BitSet();
+    private int vagas;
+
+    private final Map<Cor, BitSet> porCor = new EnumMap<>(Cor.class);
+    private final Map<String, BitSet> porTipo = new HashMap<>();
+    private final Map<Combustivel, BitSet> porCombustivel = new EnumMap<>(Combustivel.class);
+    private final Map<Funcao, BitSet> porFuncao = new EnumMap<>(Funcao.class);
+    private final Map<Tracao, BitSet> porTracao = new EnumMap<>(Tracao.class);
+    private final Map<CaracteristicaVeiculo, BitSet> porCaracteristica = new EnumMap<>(CaracteristicaVeiculo.class);
+
+    private final Map<AtributoNumerico, ColunaOrdenada> colunas = new EnumMap<>(AtributoNumerico.class);
+    /**
+     * Valores numéricos de cada identificador no momento da indexação, necessários para localizá-lo nas colunas
+     * ao removê-lo mesmo que o objeto tenha sido alterado depois.
+     */
+    private final List<double[]> valoresPorId = new ArrayList<>();
+    /**
+     * Durante uma carga completa as colunas não são mantidas a cada inclusão, mas ordenadas uma única vez no final.
+     */
+    private boolean carregando;
+    /**
+     * Incrementada sempre que os identificadores são renumerados, invalidando os cursores emitidos antes.
+     */
+    private long geracao;
+
+    public IndiceAtributosVeiculos() {
+        for (AtributoNumerico atributo : AtributoNumerico.values()) {
+            colunas.put(atributo, new ColunaOrdenada());
+        }
+    }
+
+    /**
+     * Reconstrói o índice a partir de uma coleção de veículos, descartando o conteúdo anterior.
+     *
+     * @param veiculos Os veículos a serem indexados, na ordem da listagem.
+     */
+    public synchronized void carregar(Collection<? extends Veiculo> veiculos) {
+        limpar();
+        carregando = true;
+        try {
+            for (Veiculo veiculo : veiculos) {
+                adicionar(veiculo);
+            }
+        } finally {
+            carregando = false;
+        }
+        AtributoNumerico[] atributos = AtributoNumerico.values();
+        for (int a = 0; a < atributos.length; a++) {
+            double[] coluna = new double[valoresPorId.size()];
+            for (int id = presentes.nextSetBit(0); id >= 0; id = presentes.nextSetBit(id + 1)) {
+                coluna[id] = valoresPorId.get(id)[a];
+            }
+            colunas.get(atributos[a]).construir(coluna, presentes);
+        }
+    }
+
+    /**
+     * Remove todos os veículos do índice.
+     */
+    public synchronized void limpar() {
+        idPorPlaca.clear();
+        veiculosPorId.clear();
+        presentes.clear();
+        vagas = 0;
+        geracao++;
+        porCor.clear();
+        porTipo.clear();
+        porCombustivel.clear();
+        porFuncao.clear();
+        porTracao.clear();
+        porCaracteristica.clear();
+        valoresPorId.clear();
+        for (ColunaOrdenada coluna : colunas.values()) {
+            coluna.limpar();
+        }
+    }
+
+    /**
+     * Indexa um veículo. Se já houver um veículo indexado com a mesma placa, ele é substituído.
+     *
+     * @param veiculo O veículo a ser indexado.
+     */
+    public synchronized void adicionar(Veiculo veiculo) {
+        if (veiculo == null || veiculo.getPlaca() == null) {
+            return;
+        }
+        remover(veiculo.getPlaca());
+        int id = veiculosPorId.size();
+        veiculosPorId.add(veiculo);
+        idPorPlaca.put(veiculo.getPlaca(), id);
+        presentes.set(id);
+        marcar(porCor, veiculo.getCor(), id);
+        marcar(porTipo, tipoDe(veiculo), id);
+        marcar(porCombustivel, veiculo.getCombustivel(), id);
+        marcar(porFuncao, veiculo.getFuncao(), id);
+        marcar(porTracao, veiculo.getTracao(), id);
+        for (CaracteristicaVeiculo caracteristica : CaracteristicaVeiculo.values()) {
+            if (caracteristica.presenteEm(veiculo)) {
+                marcar(porCaracteristica, caracteristica, id);
+            }
+        }
+        AtributoNumerico[] atributos = AtributoNumerico.values();
+        double[] valores = new double[atributos.length];
+        for (int a = 0; a < atributos.length; a++) {
+            valores[a] = atributos[a].valorEm(veiculo);
+            if (!carregando) {
+                colunas.get(atributos[a]).inserir(valores[a], id);
+            }
+        }
+        valoresPorId.add(valores);
+    }
+
+    /**
+     * Remove do índice o veículo com a placa informada.
+     * O bit é apagado em todos os bitmaps, pois o objeto indexado pode ter sido alterado depois da indexação.
+     *
+     * @param placa A placa do veículo.
+     * @return true se o veículo estava indexado, false caso contrário.
+     */
+    public synchronized boolean remover(String placa) {
+        Integer id = placa == null ? null : idPorPlaca.remove(placa);
+        if (id == null) {
+            return false;
+        }
+        presentes.clear(id);
+        veiculosPorId.set(id, null);
+        double[] valores = valoresPorId.set(id, null);
+        AtributoNumerico[] atributos = AtributoNumerico.values();
+        for (int a = 0; a < atributos.length; a++) {
+            colunas.get(atributos[a]).remover(valores[a], id);
+        }
+        for (Map<?, BitSet> bitmaps : List.of(porCor, porTipo, porCombustivel, porFuncao, porTracao, porCaracteristica)) {
+            for (BitSet bitmap : bitmaps.values()) {
+                bitmap.clear(id);
+            }
+        }
+        vagas++;
+        if (vagas >= MINIMO_VAGAS_COMPACTACAO && vagas > idPorPlaca.size()) {
+            List<Veiculo> veiculos = veiculos(presentes);
+            carregar(veiculos);
+        }
+        return true;
+    }
+
+    /**
+     * Seleciona os veículos que atendem ao filtro de atributos.
+     *
+     * @param filtro Os valores selecionados em cada atributo; {@code null} seleciona todos os veículos.
+     * @return Um novo bitmap com os identificadores dos veículos selecionados.
+     */
+    public synchronized BitSet filtrar(FiltroAtributos filtro) {
+        BitSet resultado = (BitSet) presentes.clone();
+        if (filtro != null) {
+            for (BitSet restricao : restricoes(filtro)) {
+                if (restricao != null) {
+                    resultado.and(restricao);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Converte uma coleção de veículos, por exemplo o resultado da busca textual, no bitmap dos seus identificadores.
+     * Veículos que não estão indexados são ignorados.
+     *
+     * @param veiculos Os veículos.
+     * @return Um novo bitmap com os identificadores dos veículos.
+     */
+    public synchronized BitSet idsDe(Collection<? extends Veiculo> veiculos) {
+        BitSet ids = new BitSet(veiculosPorId.size());
+        for (Veiculo veiculo : veiculos) {
+            Integer id = idPorPlaca.get(veiculo.getPlaca());
+            if (id != null) {
+                ids.set(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Converte uma coleção de placas no bitmap dos identificadores correspondentes.
+     * Placas que não estão indexadas são ignoradas.
+     *
+     * @param placas As placas.
+     * @return Um novo bitmap com os identificadores dos veículos.
+     */
+    public synchronized BitSet idsDePlacas(Collection<String> placas) {
+        BitSet ids = new BitSet(veiculosPorId.size());
+        for (String placa : placas) {
+            Integer id = idPorPlaca.get(placa);
+            if (id != null) {
+                ids.set(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Retorna uma página dos veículos selecionados na ordem pedida. A coluna da ordem é percorrida a partir da
+     * posição do cursor, e cada veículo é testado no bitmap de selecionados; nenhuma ordenação é feita, então o
+     * custo é proporcional ao tamanho da página (dividido pela fração de veículos selecionados).
+     *
+     * @param selecionados Os identificadores que atendem aos filtros.
+     * @param ordem        A ordem da listagem.
+     * @param apos         O cursor devolvido pela página anterior, ou null para a primeira página.
+     * @param tamanho      A quantidade máxima de veículos da página.
+     * @return A página, com o cursor da seguinte caso existam mais veículos.
+     */
+    public synchronized PaginaVeiculos paginar(BitSet selecionados, OrdemVeiculos ordem, CursorVeiculos apos, int tamanho) {
+        if (tamanho <= 0) {
+            throw new IllegalArgumentException("O tamanho da página deve ser positivo.");
+        }
+        if (apos != null && apos.getOrdem() != ordem) {
+            throw new IllegalArgumentException("O cursor pertence à ordem " + apos.getOrdem().name() + ", não a " + ordem.name() + ".");
+        }
+        BitSet filtrados = (BitSet) selecionados.clone();
+        filtrados.and(presentes);
+        List<Veiculo> pagina = new ArrayList<>(Math.min(tamanho, filtrados.cardinality()));
+        if (ordem.getAtributo() == null) {
+            int inicio = apos == null ? 0 : (apos.getGeracao() == geracao ? apos.getId() + 1 : 0);
+            int ultimo = -1;
+            for (int id = filtrados.nextSetBit(inicio); id >= 0; id = filtrados.nextSetBit(id + 1)) {
+                if (pagina.size() == tamanho) {
+                    return new PaginaVeiculos(pagina, new CursorVeiculos(ordem, ultimo, ultimo, geracao));
+                }
+                pagina.add(veiculosPorId.get(id));
+                ultimo = id;
+            }
+            return new PaginaVeiculos(pagina, null);
+        }
+
+        ColunaOrdenada coluna = colunas.get(ordem.getAtributo());
+        boolean crescente = ordem.isCrescente();
+        int posicao;
+        if (apos == null) {
+            posicao = crescente ? 0 : coluna.tamanho() - 1;
+        } else if (apos.getGeracao() == geracao) {
+            posicao = crescente ? coluna.posicaoApos(apos.getValor(), apos.getId()) : coluna.posicaoAntes(apos.getValor(), apos.getId());
+        } else {
+            posicao = crescente ? coluna.posicaoApos(apos.getValor(), Integer.MAX_VALUE) : coluna.posicaoAntes(apos.getValor(), Integer.MIN_VALUE);
+        }
+        int passo = crescente ? 1 : -1;
+        int ultimaPosicao = -1;
+        for (; posicao >= 0 && posicao < coluna.tamanho(); posicao += passo) {
+            int id = coluna.idNa(posicao);
+            if (!filtrados.get(id)) {
+                continue;
+            }
+            if (pagina.size() == tamanho) {
+                return new PaginaVeiculos(pagina, new CursorVeiculos(ordem, coluna.valorNa(ultimaPosicao), coluna.idNa(ultimaPosicao), geracao));
+            }
+            pagina.add(veiculosPorId.get(id));
+            ultimaPosicao = posicao;
+        }
+        return new PaginaVeiculos(pagina, null);
+    }
+
+    /**
+     * @return Um novo bitmap com todos os veículos indexados.
+     */
+    public synchronized BitSet todos() {
+        return (BitSet) presentes.clone();
+    }
+
+    /**
+     * Converte um bitmap de identificadores na lista de veículos correspondente.
+     *
+     * @param ids Os identificadores selecionados.
+     * @return Os veículos, na ordem da listagem.
+     */
+    public synchronized List<Veiculo> veiculos(BitSet ids) {
+        List<Veiculo> veiculos = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0 && id < veiculosPorId.size(); id = ids.nextSetBit(id + 1)) {
+            Veiculo veiculo = veiculosPorId.get(id);
+            if (veiculo != null) {
+                veiculos.add(veiculo);
+            }
+        }
+        return veiculos;
+    }
+
+    /**
+     * Conta, para cada opção dos filtros de atributos, quantos veículos dentre os candidatos seriam selecionados
+     * se aquela opção fosse escolhida. A contagem de um atributo ignora a seleção atual do próprio atributo e
+     * respeita a dos demais; os itens opcionais são contados sobre o resultado completo.
+     *
+     * @param filtro     A seleção atual dos filtros de atributos.
+     * @param candidatos Os veículos que atendem aos demais filtros da tela (busca, preço, disponibilidade).
+     * @return As contagens por opção.
+     */
+    public synchronized ContagemFacetas contarFacetas(FiltroAtributos filtro, BitSet candidatos) {
+        BitSet[] restricoes = restricoes(filtro == null ? new FiltroAtributos() : filtro);
+        BitSet base = (BitSet) candidatos.clone();
+        base.and(presentes);
+
+        BitSet resultado = semRestricao(base, restricoes, -1);
+        ContagemFacetas contagem = new ContagemFacetas(resultado.cardinality());
+        BitSet semCor = semRestricao(base, restricoes, 0);
+        for (Cor cor : Cor.values()) {
+            if (cor != Cor.TODAS) {
+                contagem.contarCor(cor, cardinalidade(semCor, porCor.get(cor)));
+            }
+        }
+        BitSet semTipo = semRestricao(base, restricoes, 1);
+        for (String tipo : TIPOS) {
+            contagem.contarTipo(tipo, cardinalidade(semTipo, porTipo.get(tipo)));
+        }
+        BitSet semCombustivel = semRestricao(base, restricoes, 2);
+        for (Combustivel combustivel : Combustivel.values()) {
+            contagem.contarCombustivel(combustivel, cardinalidade(semCombustivel, porCombustivel.get(combustivel)));
+        }
+        BitSet semFuncao = semRestricao(base, restricoes, 3);
+        for (Funcao funcao : Funcao.values()) {
+            contagem.contarFuncao(funcao, cardinalidade(semFuncao, porFuncao.get(funcao)));
+        }
+        BitSet semTracao = semRestricao(base, restricoes, 4);
+        for (Tracao tracao : Tracao.values()) {
+            contagem.contarTracao(tracao, cardinalidade(semTracao, porTracao.get(tracao)));
+        }
+        for (CaracteristicaVeiculo caracteristica : CaracteristicaVeiculo.values()) {
+            contagem.contarCaracteristica(caracteristica, cardinalidade(resultado, porCaracteristica.get(caracteristica)));
+        }
+        return contagem;
+    }
+
+    /**
+     * @return A quantidade de veículos indexados.
+     */
+    public synchronized int tamanho() {
+        return idPorPlaca.size();
+    }
+
+    /**
+     * Classifica o veículo em um dos {@link #TIPOS}.
+     *
+     * @param veiculo O veículo.
+     * @return O tipo do veículo, ou null se o tipo não for reconhecido.
+     */
+    public static String tipoDe(Veiculo veiculo) {
+        if (veiculo instanceof Carro) {
+            return "Carro";
+        } else if (veiculo instanceof Moto) {
+            return "Moto";
+        } else if (veiculo instanceof Caminhao) {
+            return "Caminhão";
+        }
+        return null;
+    }
+
+    private static <K> void marcar(Map<K, BitSet> bitmaps, K valor, int id) {
+        if (valor != null) {
+            bitmaps.computeIfAbsent(valor, v -> new BitSet()).set(id);
+        }
+    }
+
+    /**
+     * Monta, na ordem cor, tipo, combustível, função, tração, itens e faixas numéricas, o bitmap que cada atributo
+     * impõe ao resultado; {@code null} quando o atributo não tem seleção.
+     */
+    private BitSet[] restricoes(FiltroAtributos filtro) {
+        return new BitSet[]{
+                uniao(porCor, filtro.getCores()),
+                uniao(porTipo, filtro.getTipos()),
+                uniao(porCombustivel, filtro.getCombustiveis()),
+                uniao(porFuncao, filtro.getFuncoes()),
+                uniao(porTracao, filtro.getTracoes()),
+                intersecao(porCaracteristica, filtro.getCaracteristicas()),
+                faixas(filtro.getFaixas())
+        };
+    }
+
+    private BitSet faixas(Map<AtributoNumerico, Double[]> faixas) {
+        BitSet resultado = null;
+        for (Map.Entry<AtributoNumerico, Double[]> faixa : faixas.entrySet()) {
+            BitSet ids = colunas.get(faixa.getKey()).faixa(faixa.getValue()[0], faixa.getValue()[1]);
+            if (resultado == null) {
+                resultado = ids;
+            } else {
+                resultado.and(ids);
+            }
+        }
+        return resultado;
+    }
+
+    private static <K> BitSet uniao(Map<K, BitSet> bitmaps, Set<K> valores) {
+        if (valores.isEmpty()) {
+            return null;
+        }
+        BitSet resultado = new BitSet();
+        for (K valor : valores) {
+            BitSet bitmap = bitmaps.get(valor);
+            if (bitmap != null) {
+                resultado.or(bitmap);
+            }
+        }
+        return resultado;
+    }
+
+    private static <K> BitSet intersecao(Map<K, BitSet> bitmaps, Set<K> valores) {
+        BitSet resultado = null;
+        for (K valor : valores) {
+            BitSet bitmap = bitmaps.get(valor);
+            if (bitmap == null) {
+                return new BitSet();
+            }
+            if (resultado == null) {
+                resultado = (BitSet) bitmap.clone();
+            } else {
+                resultado.and(bitmap);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Aplica à base todas as restrições, exceto a de índice {@code ignorada} ({@code -1} aplica todas).
+     */
+    private static BitSet semRestricao(BitSet base, BitSet[] restricoes, int ignorada) {
+        BitSet resultado = (BitSet) base.clone();
+        for (int i = 0; i < restricoes.length; i++) {
+            if (i != ignorada && restricoes[i] != null) {
+                resultado.and(restricoes[i]);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Cardinalidade de {@code conjunto AND opcao}, sem alocar um bitmap intermediário quando a opção não existe.
+     */
+    private static int cardinalidade(BitSet conjunto, BitSet opcao) {
+        if (opcao == null || !conjunto.intersects(opcao)) {
+            return 0;
+        }
+        BitSet resultado = (BitSet) conjunto.clone();
+        resultado.and(opcao);
+        return resultado.cardinality();
+    }
+}
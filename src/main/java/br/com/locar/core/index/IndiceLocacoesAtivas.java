@@ -0,0 +1,321 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.Locacao;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A classe `IndiceLocacoesAtivas` mantém em memória um índice {@code placa -> Locacao ativa},
+ * permitindo verificar a disponibilidade de um veículo em tempo constante, sem reler
+ * o arquivo de locações a cada consulta.
+ * <p>
+ * Uma locação é considerada ativa enquanto não possui data de devolução. O índice é carregado
+ * uma única vez a partir do histórico completo e depois mantido pelas operações de locação e devolução.
+ * </p>
+ * <p>
+ * As locações ativas também ficam ordenadas pela data prevista de devolução, em segundos desde a época, de modo
+ * que "devoluções previstas em um intervalo" e "locações atrasadas" são varreduras de faixa em O(log n + k).
+ * </p>
+ * <p>
+ * Reservas, isto é, locações cuja data de locação ainda não chegou, ficam à parte, ordenadas pelo início, e só
+ * passam a contar como locações ativas quando a data de locação chega; a passagem é feita na consulta seguinte.
+ * Uma reserva que começa enquanto a locação anterior do veículo ainda não foi devolvida (uma locação atrasada)
+ * fica aguardando a devolução: a locação atrasada continua sendo a locação ativa da placa, e a reserva só passa a
+ * ativa quando a anterior é devolvida. Devoluções removem exatamente a locação devolvida, reconhecida pela placa e
+ * pela data de locação.
+ * Como as consultas também alteram o índice, todos os métodos são sincronizados.
+ * </p>
+ */
+public class IndiceLocacoesAtivas {
+
+    private final Map<String, Locacao> locacoesPorPlaca = new HashMap<>();
+    /**
+     * Locações ativas com data prevista de devolução, por segundo previsto e placa.
+     */
+    private final TreeMap<Long, Map<String, Locacao>> porDevolucaoPrevista = new TreeMap<>();
+    /**
+     * Reservas que ainda não começaram, pelo segundo de início.
+     */
+    private final TreeMap<Long, List<Locacao>> reservasFuturas = new TreeMap<>();
+    /**
+     * Reservas que já começaram, mas cujo veículo ainda está com uma locação anterior não devolvida, por placa.
+     */
+    private final Map<String, List<Locacao>> aguardandoDevolucao = new HashMap<>();
+    private final Clock relogio;
+
+    /**
+     * Construtor da classe IndiceLocacoesAtivas, com o início das reservas medido pelo relógio do sistema.
+     */
+    public IndiceLocacoesAtivas() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Construtor da classe IndiceLocacoesAtivas.
+     *
+     * @param relogio O relógio usado para decidir se uma reserva já começou.
+     */
+    public IndiceLocacoesAtivas(Clock relogio) {
+        this.relogio = relogio;
+    }
+
+    /**
+     * Reconstrói o índice a partir de uma coleção de locações, descartando o conteúdo anterior.
+     * Apenas as locações sem data de devolução são indexadas.
+     *
+     * @param locacoes O histórico de locações a ser indexado.
+     */
+    public synchronized void carregar(Collection<Locacao> locacoes) {
+        locacoesPorPlaca.clear();
+        porDevolucaoPrevista.clear();
+        reservasFuturas.clear();
+        aguardandoDevolucao.clear();
+        for (Locacao locacao : locacoes) {
+            registrarLocacao(locacao);
+        }
+    }
+
+    /**
+     * Registra uma locação no índice, caso ela esteja ativa. Uma reserva que ainda não começou é guardada até a
+     * sua data de locação.
+     *
+     * @param locacao A locação recém-criada.
+     */
+    public synchronized void registrarLocacao(Locacao locacao) {
+        if (locacao == null || locacao.getVeiculo() == null || locacao.getDataDevolucao() != null) {
+            return;
+        }
+        if (locacao.getDataLocacao() != null && locacao.getDataLocacao().isAfter(LocalDateTime.now(relogio))) {
+            reservasFuturas.computeIfAbsent(chave(locacao.getDataLocacao()), segundo -> new ArrayList<>()).add(locacao);
+            return;
+        }
+        ativar(locacao);
+    }
+
+    private void ativar(Locacao locacao) {
+        String placa = locacao.getVeiculo().getPlaca();
+        removerDevolucaoPrevista(placa, locacoesPorPlaca.put(placa, locacao));
+        if (locacao.getDataPrevistaDevolucao() != null) {
+            porDevolucaoPrevista.computeIfAbsent(chave(locacao.getDataPrevistaDevolucao()), segundo -> new LinkedHashMap<>())
+                    .put(placa, locacao);
+        }
+    }
+
+    /**
+     * Remove do índice a locação devolvida, reconhecida pela placa e pela data de locação. Se ela era a locação
+     * ativa do veículo, a reserva mais antiga que aguardava a devolução passa a ser a locação ativa. Se a locação for
+     * uma reserva que ainda não começou, ou que aguardava a devolução, apenas a reserva é descartada.
+     *
+     * @param locacao A locação que acabou de ser finalizada, ou a reserva cancelada.
+     */
+    public synchronized void registrarDevolucao(Locacao locacao) {
+        if (locacao == null || locacao.getVeiculo() == null) {
+            return;
+        }
+        String placa = locacao.getVeiculo().getPlaca();
+        Locacao ativa = locacoesPorPlaca.get(placa);
+        if (ativa != null && (locacao.getDataLocacao() == null || mesmaLocacao(ativa, locacao))) {
+            removerDevolucaoPrevista(placa, locacoesPorPlaca.remove(placa));
+            ativarAguardando(placa);
+            return;
+        }
+        if (locacao.getDataLocacao() != null && !removerReservaFutura(locacao)) {
+            removerAguardando(placa, locacao);
+        }
+    }
+
+    /**
+     * Ativa a reserva mais antiga que aguardava a devolução do veículo.
+     */
+    private void ativarAguardando(String placa) {
+        List<Locacao> aguardando = aguardandoDevolucao.get(placa);
+        if (aguardando == null) {
+            return;
+        }
+        Locacao proxima = aguardando.get(0);
+        for (Locacao locacao : aguardando) {
+            if (locacao.getDataLocacao().isBefore(proxima.getDataLocacao())) {
+                proxima = locacao;
+            }
+        }
+        aguardando.remove(proxima);
+        if (aguardando.isEmpty()) {
+            aguardandoDevolucao.remove(placa);
+        }
+        ativar(proxima);
+    }
+
+    private void removerAguardando(String placa, Locacao locacao) {
+        List<Locacao> aguardando = aguardandoDevolucao.get(placa);
+        if (aguardando != null && aguardando.removeIf(reservada -> mesmaLocacao(reservada, locacao)) && aguardando.isEmpty()) {
+            aguardandoDevolucao.remove(placa);
+        }
+    }
+
+    /**
+     * Duas instâncias representam a mesma locação quando têm a mesma placa e a mesma data de locação, como no
+     * journal, pois a instância devolvida pode ter sido relida do disco.
+     */
+    private static boolean mesmaLocacao(Locacao a, Locacao b) {
+        return a.getVeiculo().getPlaca().equals(b.getVeiculo().getPlaca())
+                && Objects.equals(a.getDataLocacao(), b.getDataLocacao());
+    }
+
+    private boolean removerReservaFutura(Locacao locacao) {
+        long segundo = chave(locacao.getDataLocacao());
+        List<Locacao> reservas = reservasFuturas.get(segundo);
+        if (reservas == null || !reservas.removeIf(reservada -> mesmaLocacao(reservada, locacao))) {
+            return false;
+        }
+        if (reservas.isEmpty()) {
+            reservasFuturas.remove(segundo);
+        }
+        return true;
+    }
+
+    /**
+     * Passa para as locações ativas as reservas cuja data de locação já chegou.
+     */
+    private void promoverReservas() {
+        if (reservasFuturas.isEmpty()) {
+            return;
+        }
+        NavigableMap<Long, List<Locacao>> iniciadas = reservasFuturas.headMap(chave(LocalDateTime.now(relogio)), true);
+        for (List<Locacao> reservas : iniciadas.values()) {
+            for (Locacao reserva : reservas) {
+                String placa = reserva.getVeiculo().getPlaca();
+                Locacao anterior = locacoesPorPlaca.get(placa);
+                if (anterior != null && !mesmaLocacao(anterior, reserva)) {
+                    // A locação anterior ainda não foi devolvida: ela continua ativa e a reserva aguarda.
+                    aguardandoDevolucao.computeIfAbsent(placa, p -> new ArrayList<>()).add(reserva);
+                } else {
+                    ativar(reserva);
+                }
+            }
+        }
+        iniciadas.clear();
+    }
+
+    private void removerDevolucaoPrevista(String placa, Locacao anterior) {
+        if (anterior == null || anterior.getDataPrevistaDevolucao() == null) {
+            return;
+        }
+        long segundo = chave(anterior.getDataPrevistaDevolucao());
+        Map<String, Locacao> locacoes = porDevolucaoPrevista.get(segundo);
+        if (locacoes != null && locacoes.remove(placa) != null && locacoes.isEmpty()) {
+            porDevolucaoPrevista.remove(segundo);
+        }
+    }
+
+    /**
+     * Retorna as locações ativas com devolução prevista no intervalo {@code [inicio, fim)}, da mais próxima para a
+     * mais distante.
+     *
+     * @param inicio O início do intervalo, inclusivo.
+     * @param fim    O fim do intervalo, exclusivo.
+     * @return As locações com devolução prevista no intervalo.
+     */
+    public synchronized List<Locacao> devolucoesPrevistasEntre(LocalDateTime inicio, LocalDateTime fim) {
+        promoverReservas();
+        if (!inicio.isBefore(fim)) {
+            return new ArrayList<>();
+        }
+        return listar(porDevolucaoPrevista.subMap(chave(inicio), true, chave(fim), false));
+    }
+
+    /**
+     * Retorna as locações ativas cuja devolução prevista já passou, da mais atrasada para a menos atrasada.
+     *
+     * @param agora O instante de referência.
+     * @return As locações atrasadas em relação a {@code agora}.
+     */
+    public synchronized List<Locacao> atrasadas(LocalDateTime agora) {
+        promoverReservas();
+        return listar(porDevolucaoPrevista.headMap(chave(agora), false));
+    }
+
+    /**
+     * Retorna as placas dos veículos cujas locações ativas têm devolução prevista no intervalo {@code [inicio, fim)}.
+     *
+     * @param inicio O início do intervalo, inclusivo.
+     * @param fim    O fim do intervalo, exclusivo.
+     * @return As placas, na ordem da devolução prevista.
+     */
+    public synchronized Set<String> placasComDevolucaoEntre(LocalDateTime inicio, LocalDateTime fim) {
+        Set<String> placas = new LinkedHashSet<>();
+        for (Locacao locacao : devolucoesPrevistasEntre(inicio, fim)) {
+            placas.add(locacao.getVeiculo().getPlaca());
+        }
+        return placas;
+    }
+
+    private static List<Locacao> listar(NavigableMap<Long, Map<String, Locacao>> faixa) {
+        List<Locacao> locacoes = new ArrayList<>();
+        for (Map<String, Locacao> noSegundo : faixa.values()) {
+            locacoes.addAll(noSegundo.values());
+        }
+        return locacoes;
+    }
+
+    /**
+     * A chave de uma data no índice de devoluções: os segundos desde a época, tomando a data local como UTC apenas
+     * para ordenar.
+     */
+    private static long chave(LocalDateTime data) {
+        return data.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Verifica se existe uma locação ativa para a placa informada.
+     *
+     * @param placa A placa do veículo.
+     * @return true se o veículo estiver locado, false caso contrário.
+     */
+    public synchronized boolean estaLocado(String placa) {
+        promoverReservas();
+        return locacoesPorPlaca.containsKey(placa);
+    }
+
+    /**
+     * Retorna a locação ativa de uma placa.
+     *
+     * @param placa A placa do veículo.
+     * @return A locação ativa, ou {@code null} se o veículo estiver disponível.
+     */
+    public synchronized Locacao getLocacaoAtiva(String placa) {
+        promoverReservas();
+        return locacoesPorPlaca.get(placa);
+    }
+
+    /**
+     * @return Uma cópia das placas dos veículos atualmente locados.
+     */
+    public synchronized Set<String> placasLocadas() {
+        promoverReservas();
+        return new HashSet<>(locacoesPorPlaca.keySet());
+    }
+
+    /**
+     * Retorna a quantidade de veículos atualmente locados.
+     *
+     * @return O número de locações ativas indexadas.
+     */
+    public synchronized int tamanho() {
+        promoverReservas();
+        return locacoesPorPlaca.size();
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.Pessoa;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A classe `IndicePessoas` mantém em memória os índices {@code email -> pessoa} e {@code CPF -> pessoa}
+ * de uma lista de clientes ou funcionários, permitindo autenticar e verificar unicidade em tempo constante,
+ * sem desserializar e percorrer o arquivo a cada operação.
+ * <p>
+ * O CPF identifica a pessoa: registrar uma pessoa com um CPF já indexado a substitui, e o email antigo
+ * deixa de apontar para ela. A ordem de inserção é preservada em {@link #valores()}, que é a lista gravada em disco.
+ * </p>
+ *
+ * @param <T> O tipo de pessoa indexada ({@code Cliente} ou {@code Funcionario}).
+ */
+public class IndicePessoas<T extends Pessoa> {
+
+    private final Map<String, T> pessoasPorCpf = new LinkedHashMap<>();
+    private final Map<String, String> emailIndexadoPorCpf = new HashMap<>();
+    private final Map<String, T> pessoasPorEmail = new HashMap<>();
+
+    /**
+     * Reconstrói o índice a partir de uma coleção de pessoas, descartando o conteúdo anterior.
+     *
+     * @param pessoas As pessoas a serem indexadas.
+     */
+    public void carregar(Collection<? extends T> pessoas) {
+        pessoasPorCpf.clear();
+        emailIndexadoPorCpf.clear();
+        pessoasPorEmail.clear();
+        for (T pessoa : pessoas) {
+            registrar(pessoa);
+        }
+    }
+
+    /**
+     * Insere a pessoa no índice ou substitui a pessoa com o mesmo CPF, atualizando o índice de email
+     * caso o email tenha mudado.
+     *
+     * @param pessoa A pessoa a ser indexada.
+     */
+    public void registrar(T pessoa) {
+        if (pessoa == null || pessoa.getCpf() == null) {
+            return;
+        }
+        String cpf = pessoa.getCpf();
+        String emailAnterior = emailIndexadoPorCpf.remove(cpf);
+        if (emailAnterior != null && pessoasPorEmail.get(emailAnterior) == pessoasPorCpf.get(cpf)) {
+            pessoasPorEmail.remove(emailAnterior);
+        }
+        pessoasPorCpf.put(cpf, pessoa);
+        if (pessoa.getEmail() != null) {
+            emailIndexadoPorCpf.put(cpf, pessoa.getEmail());
+            pessoasPorEmail.put(pessoa.getEmail(), pessoa);
+        }
+    }
+
+    /**
+     * Remove do índice a pessoa com o CPF informado.
+     *
+     * @param cpf O CPF da pessoa.
+     * @return A pessoa removida, ou {@code null} se não estava indexada.
+     */
+    public T remover(String cpf) {
+        T removida = pessoasPorCpf.remove(cpf);
+        String email = emailIndexadoPorCpf.remove(cpf);
+        if (email != null && pessoasPorEmail.get(email) == removida) {
+            pessoasPorEmail.remove(email);
+        }
+        return removida;
+    }
+
+    /**
+     * @param email O email procurado.
+     * @return A pessoa com o email informado, ou {@code null} se não houver.
+     */
+    public T porEmail(String email) {
+        return email == null ? null : pessoasPorEmail.get(email);
+    }
+
+    /**
+     * @param cpf O CPF procurado.
+     * @return A pessoa com o CPF informado, ou {@code null} se não houver.
+     */
+    public T porCpf(String cpf) {
+        return cpf == null ? null : pessoasPorCpf.get(cpf);
+    }
+
+    /**
+     * Verifica se já existe uma pessoa com o email ou o CPF informados.
+     *
+     * @param email O email a verificar.
+     * @param cpf   O CPF a verificar.
+     * @return true se algum dos dois já estiver indexado.
+     */
+    public boolean contemEmailOuCpf(String email, String cpf) {
+        return porEmail(email) != null || porCpf(cpf) != null;
+    }
+
+    /**
+     * @return Uma cópia da lista de pessoas indexadas, na ordem de inserção.
+     */
+    public List<T> valores() {
+        return new ArrayList<>(pessoasPorCpf.values());
+    }
+
+    /**
+     * @return A quantidade de pessoas indexadas.
+     */
+    public int tamanho() {
+        return pessoasPorCpf.size();
+    }
+}
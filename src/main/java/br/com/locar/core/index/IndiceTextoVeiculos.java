@@ -0,0 +1,302 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.Veiculo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * A classe `IndiceTextoVeiculos` mantém um índice invertido {@code termo -> veículos} sobre o nome, a marca,
+ * o modelo e o ano dos veículos, permitindo a busca textual da listagem sem montar e percorrer uma string
+ * por veículo a cada consulta.
+ * <p>
+ * Os termos são normalizados sem acentos e em minúsculas, de modo que "caminhao" encontra "Caminhão".
+ * Cada termo da consulta é tratado como prefixo de um termo indexado ("civ" encontra "Civic"), e uma consulta
+ * com vários termos retorna apenas os veículos que atendem a todos eles, pela interseção das listas ordenadas
+ * de cada termo.
+ * </p>
+ * <p>
+ * Cada veículo recebe um identificador sequencial ao ser indexado, e as listas de cada termo guardam esses
+ * identificadores em ordem crescente. Como reindexar um veículo lhe atribui um novo identificador, a ordem dos
+ * resultados acompanha a ordem da lista de veículos do {@code VeiculoController}, onde um veículo atualizado
+ * passa para o final.
+ * </p>
+ */
+public class IndiceTextoVeiculos {
+
+    private static final Pattern MARCAS_COMBINANTES = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Quantidade mínima de posições vagas antes de o índice ser compactado.
+     */
+    private static final int MINIMO_VAGAS_COMPACTACAO = 64;
+
+    private final TreeMap<String, ListaPostagens> postagensPorTermo = new TreeMap<>();
+    private final Map<String, Integer> idPorPlaca = new HashMap<>();
+    private final List<Veiculo> veiculosPorId = new ArrayList<>();
+    private final List<String[]> termosPorId = new ArrayList<>();
+    private int vagas;
+
+    /**
+     * Reconstrói o índice a partir de uma coleção de veículos, descartando o conteúdo anterior.
+     *
+     * @param veiculos Os veículos a serem indexados, na ordem da listagem.
+     */
+    public synchronized void carregar(Collection<? extends Veiculo> veiculos) {
+        limpar();
+        for (Veiculo veiculo : veiculos) {
+            adicionar(veiculo);
+        }
+    }
+
+    /**
+     * Remove todos os veículos do índice.
+     */
+    public synchronized void limpar() {
+        postagensPorTermo.clear();
+        idPorPlaca.clear();
+        veiculosPorId.clear();
+        termosPorId.clear();
+        vagas = 0;
+    }
+
+    /**
+     * Indexa um veículo. Se já houver um veículo indexado com a mesma placa, ele é substituído.
+     *
+     * @param veiculo O veículo a ser indexado.
+     */
+    public synchronized void adicionar(Veiculo veiculo) {
+        if (veiculo == null || veiculo.getPlaca() == null) {
+            return;
+        }
+        remover(veiculo.getPlaca());
+        int id = veiculosPorId.size();
+        String[] termos = termosDe(veiculo);
+        veiculosPorId.add(veiculo);
+        termosPorId.add(termos);
+        idPorPlaca.put(veiculo.getPlaca(), id);
+        for (String termo : termos) {
+            postagensPorTermo.computeIfAbsent(termo, t -> new ListaPostagens()).acrescentar(id);
+        }
+    }
+
+    /**
+     * Remove do índice o veículo com a placa informada.
+     *
+     * @param placa A placa do veículo.
+     * @return true se o veículo estava indexado, false caso contrário.
+     */
+    public synchronized boolean remover(String placa) {
+        Integer id = placa == null ? null : idPorPlaca.remove(placa);
+        if (id == null) {
+            return false;
+        }
+        for (String termo : termosPorId.get(id)) {
+            ListaPostagens postagens = postagensPorTermo.get(termo);
+            if (postagens != null && postagens.remover(id) && postagens.tamanho() == 0) {
+                postagensPorTermo.remove(termo);
+            }
+        }
+        veiculosPorId.set(id, null);
+        termosPorId.set(id, null);
+        vagas++;
+        if (vagas >= MINIMO_VAGAS_COMPACTACAO && vagas > idPorPlaca.size()) {
+            compactar();
+        }
+        return true;
+    }
+
+    /**
+     * Busca os veículos que atendem a todos os termos da consulta. Cada termo é comparado, sem acentos e sem
+     * diferenciar maiúsculas de minúsculas, como prefixo dos termos indexados.
+     *
+     * @param consulta O texto digitado na busca.
+     * @return Os veículos encontrados, na ordem da listagem; todos os veículos se a consulta não tiver termos.
+     */
+    public synchronized List<Veiculo> buscar(String consulta) {
+        String[] termos = tokenizar(consulta);
+        if (termos.length == 0) {
+            return veiculosIndexados();
+        }
+        List<int[]> listas = new ArrayList<>(termos.length);
+        for (String termo : termos) {
+            int[] ids = idsComPrefixo(termo);
+            if (ids.length == 0) {
+                return new ArrayList<>();
+            }
+            listas.add(ids);
+        }
+        listas.sort(Comparator.comparingInt(ids -> ids.length));
+        int[] resultado = listas.get(0);
+        for (int i = 1; i < listas.size() && resultado.length > 0; i++) {
+            resultado = intersecao(resultado, listas.get(i));
+        }
+        List<Veiculo> veiculos = new ArrayList<>(resultado.length);
+        for (int id : resultado) {
+            veiculos.add(veiculosPorId.get(id));
+        }
+        return veiculos;
+    }
+
+    /**
+     * @return A quantidade de veículos indexados.
+     */
+    public synchronized int tamanho() {
+        return idPorPlaca.size();
+    }
+
+    /**
+     * Normaliza um texto para comparação: remove acentos e converte para minúsculas.
+     *
+     * @param texto O texto original.
+     * @return O texto normalizado, ou uma string vazia se o texto for nulo.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return MARCAS_COMBINANTES.matcher(decomposto).replaceAll("").toLowerCase();
+    }
+
+    /**
+     * Separa um texto em termos normalizados, sem repetições.
+     *
+     * @param texto O texto original.
+     * @return Os termos do texto, na ordem em que aparecem.
+     */
+    public static String[] tokenizar(String texto) {
+        Set<String> termos = new LinkedHashSet<>();
+        for (String termo : SEPARADORES.split(normalizar(texto))) {
+            if (!termo.isEmpty()) {
+                termos.add(termo);
+            }
+        }
+        return termos.toArray(new String[0]);
+    }
+
+    private static String[] termosDe(Veiculo veiculo) {
+        return tokenizar(veiculo.getNome() + " " + veiculo.getMarca() + " " + veiculo.getModelo() + " " + veiculo.getAno());
+    }
+
+    private List<Veiculo> veiculosIndexados() {
+        List<Veiculo> veiculos = new ArrayList<>(idPorPlaca.size());
+        for (Veiculo veiculo : veiculosPorId) {
+            if (veiculo != null) {
+                veiculos.add(veiculo);
+            }
+        }
+        return veiculos;
+    }
+
+    /**
+     * Une as listas de todos os termos indexados que começam com o prefixo informado.
+     */
+    private int[] idsComPrefixo(String prefixo) {
+        Map<String, ListaPostagens> faixa = postagensPorTermo.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false);
+        if (faixa.isEmpty()) {
+            return new int[0];
+        }
+        if (faixa.size() == 1) {
+            return faixa.values().iterator().next().copia();
+        }
+        int total = 0;
+        for (ListaPostagens postagens : faixa.values()) {
+            total += postagens.tamanho();
+        }
+        int[] ids = new int[total];
+        int n = 0;
+        for (ListaPostagens postagens : faixa.values()) {
+            n = postagens.copiarPara(ids, n);
+        }
+        Arrays.sort(ids);
+        int unicos = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (unicos == 0 || ids[i] != ids[unicos - 1]) {
+                ids[unicos++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, unicos);
+    }
+
+    private static int[] intersecao(int[] a, int[] b) {
+        int[] resultado = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                resultado[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    /**
+     * Renumera os veículos indexados, descartando as posições deixadas pelos veículos removidos.
+     */
+    private void compactar() {
+        List<Veiculo> veiculos = veiculosIndexados();
+        limpar();
+        for (Veiculo veiculo : veiculos) {
+            adicionar(veiculo);
+        }
+    }
+
+    /**
+     * Lista ordenada e sem repetições de identificadores de veículos que contêm um termo.
+     */
+    private static final class ListaPostagens {
+
+        private int[] ids = new int[4];
+        private int tamanho;
+
+        /**
+         * Acrescenta um identificador maior que todos os já presentes.
+         */
+        void acrescentar(int id) {
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+            }
+            ids[tamanho++] = id;
+        }
+
+        boolean remover(int id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+
+        int tamanho() {
+            return tamanho;
+        }
+
+        int[] copia() {
+            return Arrays.copyOf(ids, tamanho);
+        }
+
+        int copiarPara(int[] destino, int inicio) {
+            System.arraycopy(ids, 0, destino, inicio, tamanho);
+            return inicio + tamanho;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.Locacao;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A classe `MapaOcupacao` mantém, para cada veículo, um {@link BitmapHoras} com as horas em que ele esteve, está ou
+ * estará locado. Calendários de disponibilidade, taxas de utilização e mapas de calor da frota saem de contagens de
+ * bits e operações sobre palavras de 64 bits, sem aritmética de datas sobre as locações.
+ * <p>
+ * Uma locação ocupa toda hora que ela toca: de {@code dataLocacao} até {@code dataDevolucao} se já foi devolvida,
+ * ou até {@code dataPrevistaDevolucao} se está em andamento ou é uma reserva futura. Na devolução antecipada são
+ * liberadas apenas as horas inteiras entre a devolução e a data prevista, para não apagar a hora compartilhada com
+ * a locação seguinte do veículo.
+ * </p>
+ * <p>
+ * As horas são contadas desde a época, tomando a data local como UTC, para que cada bit corresponda a uma hora do
+ * relógio local. Os métodos são sincronizados; os {@link BitmapHoras} só são acessados com a trava do mapa.
+ * </p>
+ */
+public class MapaOcupacao {
+
+    private static final long SEGUNDOS_POR_HORA = 3600;
+
+    private final Map<String, BitmapHoras> ocupacaoPorPlaca = new HashMap<>();
+
+    /**
+     * Reconstrói o mapa a partir do histórico de locações, descartando o conteúdo anterior.
+     *
+     * @param locacoes O histórico de locações, incluindo as devolvidas.
+     */
+    public synchronized void carregar(Collection<Locacao> locacoes) {
+        ocupacaoPorPlaca.clear();
+        for (Locacao locacao : locacoes) {
+            registrarLocacao(locacao);
+        }
+    }
+
+    /**
+     * Marca as horas de uma locação: até a devolução, se já houver, ou até a data prevista.
+     *
+     * @param locacao A locação, reserva ou locação do histórico.
+     */
+    public synchronized void registrarLocacao(Locacao locacao) {
+        if (locacao == null || locacao.getVeiculo() == null || locacao.getDataLocacao() == null) {
+            return;
+        }
+        LocalDateTime fim = locacao.getDataDevolucao() != null ? locacao.getDataDevolucao() : locacao.getDataPrevistaDevolucao();
+        if (fim == null) {
+            return;
+        }
+        ocupacaoPorPlaca.computeIfAbsent(locacao.getVeiculo().getPlaca(), placa -> new BitmapHoras())
+                .marcar(hora(locacao.getDataLocacao()), horaSeguinte(fim));
+    }
+
+    /**
+     * Ajusta as horas de uma locação devolvida: libera as horas inteiras entre a devolução e a data prevista, ou
+     * marca as horas do atraso.
+     *
+     * @param locacao A locação devolvida, com a data de devolução preenchida.
+     */
+    public synchronized void registrarDevolucao(Locacao locacao) {
+        if (locacao == null || locacao.getVeiculo() == null || locacao.getDataDevolucao() == null
+                || locacao.getDataPrevistaDevolucao() == null) {
+            return;
+        }
+        BitmapHoras ocupacao = ocupacaoPorPlaca.get(locacao.getVeiculo().getPlaca());
+        if (ocupacao == null) {
+            registrarLocacao(locacao);
+            return;
+        }
+        LocalDateTime devolucao = locacao.getDataDevolucao();
+        LocalDateTime prevista = locacao.getDataPrevistaDevolucao();
+        if (devolucao.isBefore(prevista)) {
+            LocalDateTime inicio = locacao.getDataLocacao() != null && devolucao.isBefore(locacao.getDataLocacao())
+                    ? locacao.getDataLocacao() : devolucao;
+            ocupacao.desmarcar(horaSeguinte(inicio), hora(prevista));
+        } else {
+            ocupacao.marcar(hora(prevista), horaSeguinte(devolucao));
+        }
+    }
+
+    /**
+     * Descarta as horas de um veículo excluído.
+     *
+     * @param placa A placa do veículo.
+     */
+    public synchronized void removerVeiculo(String placa) {
+        ocupacaoPorPlaca.remove(placa);
+    }
+
+    /**
+     * Conta as horas em que um veículo esteve ocupado no período {@code [inicio, fim)}, contado em horas cheias.
+     *
+     * @param placa  A placa do veículo.
+     * @param inicio O início do período.
+     * @param fim    O fim do período.
+     * @return A quantidade de horas ocupadas.
+     */
+    public synchronized int horasOcupadas(String placa, LocalDateTime inicio, LocalDateTime fim) {
+        BitmapHoras ocupacao = ocupacaoPorPlaca.get(placa);
+        return ocupacao == null ? 0 : ocupacao.contar(hora(inicio), horaSeguinte(fim));
+    }
+
+    /**
+     * Retorna a fração das horas do período {@code [inicio, fim)} em que o veículo esteve ocupado.
+     *
+     * @param placa  A placa do veículo.
+     * @param inicio O início do período.
+     * @param fim    O fim do período.
+     * @return Um valor entre 0 e 1; 0 para um período vazio.
+     */
+    public synchronized double utilizacao(String placa, LocalDateTime inicio, LocalDateTime fim) {
+        long horas = horaSeguinte(fim) - hora(inicio);
+        return horas <= 0 ? 0 : (double) horasOcupadas(placa, inicio, fim) / horas;
+    }
+
+    /**
+     * Retorna o calendário de um veículo no período {@code [inicio, fim)}: o bit {@code i} indica se a hora
+     * {@code i}, contada a partir da hora de {@code inicio}, está ocupada.
+     *
+     * @param placa  A placa do veículo.
+     * @param inicio O início do período.
+     * @param fim    O fim do período.
+     * @return As horas ocupadas no período.
+     */
+    public synchronized BitSet calendario(String placa, LocalDateTime inicio, LocalDateTime fim) {
+        BitmapHoras ocupacao = ocupacaoPorPlaca.get(placa);
+        return ocupacao == null ? new BitSet() : ocupacao.copiar(hora(inicio), horaSeguinte(fim));
+    }
+
+    /**
+     * Procura o primeiro horário, a partir de {@code aPartirDe}, em que o veículo fica livre por {@code horas}
+     * horas seguidas.
+     *
+     * @param placa     A placa do veículo.
+     * @param aPartirDe O instante a partir do qual procurar; a busca começa na hora cheia seguinte se ele não
+     *                  for uma hora cheia.
+     * @param horas     A duração desejada, em horas.
+     * @return O início do primeiro horário livre, sempre em hora cheia.
+     */
+    public synchronized LocalDateTime proximoHorarioLivre(String placa, LocalDateTime aPartirDe, int horas) {
+        long inicio = horaSeguinte(aPartirDe);
+        BitmapHoras ocupacao = ocupacaoPorPlaca.get(placa);
+        long livre = ocupacao == null ? inicio : ocupacao.proximaSequenciaLivre(inicio, Math.max(1, horas));
+        return LocalDateTime.ofEpochSecond(livre * SEGUNDOS_POR_HORA, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Conta, para cada hora do período {@code [inicio, fim)}, quantos dos veículos informados estavam ocupados.
+     * <p>
+     * As contagens são acumuladas em contadores verticais: o plano {@code k} guarda o bit {@code k} da contagem
+     * de cada hora, e somar um veículo é uma soma binária com propagação de "vai um" palavra a palavra, em
+     * poucas operações lógicas por palavra de 64 horas. As contagens só são extraídas no final.
+     * </p>
+     *
+     * @param placas As placas dos veículos considerados.
+     * @param inicio O início do período.
+     * @param fim    O fim do período.
+     * @return Um vetor com uma posição por hora, a partir da hora de {@code inicio}.
+     */
+    public synchronized int[] mapaDeCalor(Collection<String> placas, LocalDateTime inicio, LocalDateTime fim) {
+        long de = hora(inicio);
+        long ate = horaSeguinte(fim);
+        int horas = (int) Math.max(0, ate - de);
+        int palavras = (horas + 63) / 64;
+        long[][] planos = new long[32 - Integer.numberOfLeadingZeros(Math.max(1, placas.size()))][palavras];
+        for (String placa : placas) {
+            BitmapHoras ocupacao = ocupacaoPorPlaca.get(placa);
+            if (ocupacao == null) {
+                continue;
+            }
+            long[] ocupadas = ocupacao.alinhar(de, ate);
+            for (int i = 0; i < palavras; i++) {
+                long vaiUm = ocupadas[i];
+                for (int k = 0; vaiUm != 0; k++) {
+                    long proximo = planos[k][i] & vaiUm;
+                    planos[k][i] ^= vaiUm;
+                    vaiUm = proximo;
+                }
+            }
+        }
+        int[] contagens = new int[horas];
+        for (int k = 0; k < planos.length; k++) {
+            for (int i = 0; i < palavras; i++) {
+                long bits = planos[k][i];
+                while (bits != 0) {
+                    contagens[i * 64 + Long.numberOfTrailingZeros(bits)] += 1 << k;
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return contagens;
+    }
+
+    /**
+     * A hora que contém o instante.
+     */
+    private static long hora(LocalDateTime data) {
+        return Math.floorDiv(data.toEpochSecond(ZoneOffset.UTC), SEGUNDOS_POR_HORA);
+    }
+
+    /**
+     * A primeira hora cheia a partir do instante: a própria hora, se o instante for uma hora cheia, ou a seguinte.
+     */
+    private static long horaSeguinte(LocalDateTime data) {
+        long segundos = data.toEpochSecond(ZoneOffset.UTC);
+        long hora = Math.floorDiv(segundos, SEGUNDOS_POR_HORA);
+        return hora * SEGUNDOS_POR_HORA == segundos && data.getNano() == 0 ? hora : hora + 1;
+    }
+}
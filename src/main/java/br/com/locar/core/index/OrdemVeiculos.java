@@ -0,0 +1,42 @@
+package br.com.locar.core.index;
+
+/**
+ * Ordens disponíveis para a listagem paginada de veículos. Cada ordem percorre uma coluna já ordenada do
+ * {@link IndiceAtributosVeiculos}, em sentido crescente ou decrescente; {@link #PADRAO} mantém a ordem da lista
+ * de veículos.
+ */
+public enum OrdemVeiculos {
+    PADRAO("Padrão", null, true),
+    MENOR_PRECO("Menor preço", AtributoNumerico.VALOR_DIARIO, true),
+    MAIOR_PRECO("Maior preço", AtributoNumerico.VALOR_DIARIO, false),
+    MAIS_NOVOS("Mais novos", AtributoNumerico.ANO, false),
+    MAIS_ANTIGOS("Mais antigos", AtributoNumerico.ANO, true),
+    MAIS_ALUGADOS("Mais alugados", AtributoNumerico.LOCACOES, false),
+    MENOR_QUILOMETRAGEM("Menor quilometragem", AtributoNumerico.QUILOMETRAGEM, true);
+
+    private final String descricao;
+    private final AtributoNumerico atributo;
+    private final boolean crescente;
+
+    OrdemVeiculos(String descricao, AtributoNumerico atributo, boolean crescente) {
+        this.descricao = descricao;
+        this.atributo = atributo;
+        this.crescente = crescente;
+    }
+
+    /**
+     * @return O atributo que define a ordem, ou null para a ordem da lista de veículos.
+     */
+    public AtributoNumerico getAtributo() {
+        return atributo;
+    }
+
+    public boolean isCrescente() {
+        return crescente;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
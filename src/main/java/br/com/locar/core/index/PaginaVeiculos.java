@@ -0,0 +1,38 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.Veiculo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Uma página do resultado de uma consulta de veículos e o cursor para buscar a seguinte.
+ */
+public final class PaginaVeiculos {
+
+    private final List<Veiculo> veiculos;
+    private final CursorVeiculos proxima;
+
+    PaginaVeiculos(List<Veiculo> veiculos, CursorVeiculos proxima) {
+        this.veiculos = Collections.unmodifiableList(veiculos);
+        this.proxima = proxima;
+    }
+
+    /**
+     * @return Os veículos da página, na ordem solicitada.
+     */
+    public List<Veiculo> getVeiculos() {
+        return veiculos;
+    }
+
+    /**
+     * @return O cursor da próxima página, ou null se esta for a última.
+     */
+    public CursorVeiculos getProxima() {
+        return proxima;
+    }
+
+    public boolean possuiProxima() {
+        return proxima != null;
+    }
+}
@@ -0,0 +1,362 @@
+package br.com.locar.core.index;
+
+import br.com.locar.core.entities.Locacao;
+import br.com.locar.core.entities.Veiculo;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A classe `RankingLocacoes` mantém, de forma incremental, os veículos ordenados por quantidade de locações, para
+ * que a tela inicial obtenha os K mais alugados percorrendo apenas os K primeiros, sem ordenar a frota inteira.
+ * <p>
+ * Há um ranking por {@link Periodo}: o de todo o período usa o contador {@link Veiculo#getLocacoes()}; os de
+ * 7 e 30 dias contam as locações do histórico iniciadas dentro da janela. Cada ranking guarda um conjunto
+ * ordenado por tipo de veículo ({@link IndiceAtributosVeiculos#tipoDe(Veiculo)}) e um com todos os tipos.
+ * Empates seguem a ordem em que os veículos foram incluídos.
+ * </p>
+ * <p>
+ * As locações das janelas ficam ordenadas pelo início. Uma reserva futura só é contada quando a sua data de
+ * locação chega, e as locações que saem da janela são descontadas na consulta seguinte, cada uma uma única vez,
+ * qualquer que seja a ordem em que foram registradas.
+ * </p>
+ * <p>
+ * O contador de todo o período é o do veículo, incrementado quando a locação ou reserva é confirmada; por isso
+ * ele inclui as reservas futuras.
+ * </p>
+ */
+public class RankingLocacoes {
+
+    /**
+     * Os períodos em que o ranking pode ser consultado.
+     */
+    public enum Periodo {
+        /**
+         * Todas as locações, pelo contador de cada veículo, incluindo as reservas já confirmadas.
+         */
+        SEMPRE(null),
+        /**
+         * Locações iniciadas nos últimos 7 dias.
+         */
+        ULTIMOS_7_DIAS(Duration.ofDays(7)),
+        /**
+         * Locações iniciadas nos últimos 30 dias.
+         */
+        ULTIMOS_30_DIAS(Duration.ofDays(30));
+
+        private final Duration janela;
+
+        Periodo(Duration janela) {
+            this.janela = janela;
+        }
+
+        public Duration getJanela() {
+            return janela;
+        }
+    }
+
+    private static final String TODOS = "";
+
+    private final Clock relogio;
+    private final Map<String, Veiculo> veiculos = new HashMap<>();
+    /**
+     * Ordem de inclusão de cada placa, usada para desempatar.
+     */
+    private final Map<String, Long> sequencias = new HashMap<>();
+    private long proximaSequencia;
+    private final Map<Periodo, Ranking> rankings = new EnumMap<>(Periodo.class);
+    private final Map<Periodo, Janela> janelas = new EnumMap<>(Periodo.class);
+
+    /**
+     * Construtor da classe RankingLocacoes, com as janelas medidas pelo relógio do sistema.
+     */
+    public RankingLocacoes() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Construtor da classe RankingLocacoes.
+     *
+     * @param relogio O relógio usado para calcular o início das janelas de 7 e 30 dias.
+     */
+    public RankingLocacoes(Clock relogio) {
+        this.relogio = relogio;
+        for (Periodo periodo : Periodo.values()) {
+            rankings.put(periodo, new Ranking(periodo == Periodo.SEMPRE));
+            if (periodo.getJanela() != null) {
+                janelas.put(periodo, new Janela(periodo));
+            }
+        }
+    }
+
+    /**
+     * Reconstrói o ranking a partir dos veículos cadastrados, descartando os veículos anteriores. As contagens das
+     * janelas já carregadas são mantidas.
+     *
+     * @param frota Os veículos cadastrados.
+     */
+    public synchronized void carregar(Collection<? extends Veiculo> frota) {
+        veiculos.clear();
+        sequencias.clear();
+        rankings.values().forEach(Ranking::limpar);
+        for (Veiculo veiculo : frota) {
+            atualizarVeiculo(veiculo);
+        }
+    }
+
+    /**
+     * Reconstrói as janelas de 7 e 30 dias a partir do histórico de locações, descartando as contagens anteriores.
+     *
+     * @param historico O histórico de locações, em qualquer ordem.
+     */
+    public synchronized void carregarHistorico(Collection<Locacao> historico) {
+        for (Janela janela : janelas.values()) {
+            janela.limpar();
+            rankings.get(janela.periodo).limpar();
+        }
+        for (Locacao locacao : historico) {
+            if (locacao == null || locacao.getVeiculo() == null || locacao.getDataLocacao() == null) {
+                continue;
+            }
+            for (Janela janela : janelas.values()) {
+                janela.adicionar(locacao.getVeiculo().getPlaca(), locacao.getDataLocacao());
+            }
+        }
+    }
+
+    /**
+     * Inclui um veículo, ou reposiciona um veículo já incluído após uma alteração em seus dados ou em seu contador
+     * de locações.
+     *
+     * @param veiculo O veículo incluído ou alterado.
+     */
+    public synchronized void atualizarVeiculo(Veiculo veiculo) {
+        String placa = veiculo.getPlaca();
+        veiculos.put(placa, veiculo);
+        sequencias.computeIfAbsent(placa, p -> proximaSequencia++);
+        rankings.get(Periodo.SEMPRE).definir(placa, veiculo.getLocacoes());
+        for (Janela janela : janelas.values()) {
+            rankings.get(janela.periodo).definir(placa, janela.contagem(placa));
+        }
+    }
+
+    /**
+     * Remove um veículo de todos os rankings.
+     *
+     * @param placa A placa do veículo excluído.
+     */
+    public synchronized void removerVeiculo(String placa) {
+        veiculos.remove(placa);
+        sequencias.remove(placa);
+        rankings.values().forEach(ranking -> ranking.remover(placa));
+    }
+
+    /**
+     * Registra uma locação recém-realizada: reposiciona o veículo pelo seu contador, já incrementado por
+     * {@link Veiculo#adicionarLocacao()}, e conta a locação nas janelas de 7 e 30 dias.
+     *
+     * @param locacao A locação realizada.
+     */
+    public synchronized void registrarLocacao(Locacao locacao) {
+        if (locacao == null || locacao.getVeiculo() == null) {
+            return;
+        }
+        Veiculo veiculo = locacao.getVeiculo();
+        reposicionar(veiculo);
+        if (locacao.getDataLocacao() != null) {
+            for (Janela janela : janelas.values()) {
+                janela.adicionar(veiculo.getPlaca(), locacao.getDataLocacao());
+            }
+        }
+    }
+
+    /**
+     * Reposiciona, no ranking de todo o período, um veículo já incluído cujo contador de locações mudou. Veículos
+     * que não foram incluídos são ignorados.
+     *
+     * @param veiculo O veículo cujo contador mudou.
+     */
+    public synchronized void reposicionar(Veiculo veiculo) {
+        if (veiculos.containsKey(veiculo.getPlaca())) {
+            rankings.get(Periodo.SEMPRE).definir(veiculo.getPlaca(), veiculo.getLocacoes());
+        }
+    }
+
+    /**
+     * Retorna os veículos mais alugados, do mais para o menos alugado. No período {@link Periodo#SEMPRE} todos os
+     * veículos participam; nas janelas, apenas os que foram alugados dentro delas.
+     *
+     * @param limite  A quantidade máxima de veículos.
+     * @param tipo    O tipo de veículo ("Carro", "Moto", "Caminhão"), ou null para todos os tipos.
+     * @param periodo O período considerado.
+     * @return Até {@code limite} veículos, em ordem decrescente de locações no período.
+     */
+    public synchronized List<Veiculo> maisAlugados(int limite, String tipo, Periodo periodo) {
+        Janela janela = janelas.get(periodo);
+        if (janela != null) {
+            janela.expirar(LocalDateTime.now(relogio));
+        }
+        TreeSet<Posicao> ordenados = rankings.get(periodo).porTipo.get(tipo == null ? TODOS : tipo);
+        List<Veiculo> resultado = new ArrayList<>(Math.max(0, limite));
+        if (ordenados == null) {
+            return resultado;
+        }
+        Iterator<Posicao> iterator = ordenados.iterator();
+        while (resultado.size() < limite && iterator.hasNext()) {
+            resultado.add(veiculos.get(iterator.next().placa));
+        }
+        return resultado;
+    }
+
+    /**
+     * Retorna quantas locações de um veículo contam no período.
+     *
+     * @param placa   A placa do veículo.
+     * @param periodo O período considerado.
+     * @return A quantidade de locações no período.
+     */
+    public synchronized int contagem(String placa, Periodo periodo) {
+        Janela janela = janelas.get(periodo);
+        if (janela != null) {
+            janela.expirar(LocalDateTime.now(relogio));
+            return janela.contagem(placa);
+        }
+        Veiculo veiculo = veiculos.get(placa);
+        return veiculo == null ? 0 : veiculo.getLocacoes();
+    }
+
+    /**
+     * A posição de um veículo em um ranking: a contagem no período e a ordem de inclusão, para desempate.
+     */
+    private static final class Posicao {
+        private final String placa;
+        private final int contagem;
+        private final long sequencia;
+
+        private Posicao(String placa, int contagem, long sequencia) {
+            this.placa = placa;
+            this.contagem = contagem;
+            this.sequencia = sequencia;
+        }
+    }
+
+    private static final Comparator<Posicao> ORDEM = Comparator.comparingInt((Posicao posicao) -> posicao.contagem).reversed()
+            .thenComparingLong(posicao -> posicao.sequencia);
+
+    /**
+     * Os veículos de um período, ordenados por contagem, em um conjunto por tipo e um com todos os tipos.
+     */
+    private final class Ranking {
+        private final boolean incluirSemLocacoes;
+        private final Map<String, Posicao> posicoes = new HashMap<>();
+        private final Map<String, TreeSet<Posicao>> porTipo = new HashMap<>();
+
+        private Ranking(boolean incluirSemLocacoes) {
+            this.incluirSemLocacoes = incluirSemLocacoes;
+        }
+
+        private void definir(String placa, int contagem) {
+            remover(placa);
+            Veiculo veiculo = veiculos.get(placa);
+            if (veiculo == null || (contagem <= 0 && !incluirSemLocacoes)) {
+                return;
+            }
+            Posicao posicao = new Posicao(placa, contagem, sequencias.get(placa));
+            posicoes.put(placa, posicao);
+            porTipo.computeIfAbsent(TODOS, t -> new TreeSet<>(ORDEM)).add(posicao);
+            String tipo = IndiceAtributosVeiculos.tipoDe(veiculo);
+            if (tipo != null) {
+                porTipo.computeIfAbsent(tipo, t -> new TreeSet<>(ORDEM)).add(posicao);
+            }
+        }
+
+        private void remover(String placa) {
+            Posicao anterior = posicoes.remove(placa);
+            if (anterior != null) {
+                porTipo.values().forEach(ordenados -> ordenados.remove(anterior));
+            }
+        }
+
+        private void limpar() {
+            posicoes.clear();
+            porTipo.clear();
+        }
+    }
+
+    /**
+     * As locações iniciadas dentro de uma janela de tempo e a contagem por placa. As locações que ainda não
+     * começaram ficam à parte e só entram na contagem quando a data de locação chega.
+     */
+    private final class Janela {
+        private final Periodo periodo;
+        private final TreeMap<LocalDateTime, List<String>> contadas = new TreeMap<>();
+        private final TreeMap<LocalDateTime, List<String>> futuras = new TreeMap<>();
+        private final Map<String, Integer> contagens = new HashMap<>();
+
+        private Janela(Periodo periodo) {
+            this.periodo = periodo;
+        }
+
+        private void adicionar(String placa, LocalDateTime data) {
+            LocalDateTime agora = LocalDateTime.now(relogio);
+            if (data.isAfter(agora)) {
+                futuras.computeIfAbsent(data, d -> new ArrayList<>()).add(placa);
+                return;
+            }
+            if (!data.isAfter(agora.minus(periodo.getJanela()))) {
+                return;
+            }
+            contadas.computeIfAbsent(data, d -> new ArrayList<>()).add(placa);
+            alterar(placa, 1);
+        }
+
+        /**
+         * Conta as locações que começaram até {@code agora} e desconta as que saíram da janela.
+         */
+        private void expirar(LocalDateTime agora) {
+            NavigableMap<LocalDateTime, List<String>> iniciadas = futuras.headMap(agora, true);
+            for (Map.Entry<LocalDateTime, List<String>> entrada : iniciadas.entrySet()) {
+                contadas.computeIfAbsent(entrada.getKey(), d -> new ArrayList<>()).addAll(entrada.getValue());
+                entrada.getValue().forEach(placa -> alterar(placa, 1));
+            }
+            iniciadas.clear();
+            NavigableMap<LocalDateTime, List<String>> expiradas = contadas.headMap(agora.minus(periodo.getJanela()), true);
+            for (List<String> placas : expiradas.values()) {
+                placas.forEach(placa -> alterar(placa, -1));
+            }
+            expiradas.clear();
+        }
+
+        private void alterar(String placa, int delta) {
+            int contagem = contagens.merge(placa, delta, Integer::sum);
+            if (contagem <= 0) {
+                contagens.remove(placa);
+            }
+            if (veiculos.containsKey(placa)) {
+                rankings.get(periodo).definir(placa, Math.max(0, contagem));
+            }
+        }
+
+        private int contagem(String placa) {
+            return contagens.getOrDefault(placa, 0);
+        }
+
+        private void limpar() {
+            contadas.clear();
+            futuras.clear();
+            contagens.clear();
+        }
+    }
+}
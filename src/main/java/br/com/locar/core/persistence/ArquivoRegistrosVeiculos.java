@@ -0,0 +1,516 @@
+package br.com.locar.core.persistence;
+
+import br.com.locar.core.entities.Veiculo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * A classe `ArquivoRegistrosVeiculos` implementa um arquivo de veículos endereçável por placa,
+ * no qual cada veículo ocupa um slot próprio. Atualizar ou excluir um veículo custa a escrita de
+ * um único registro, e não a regravação de todos os veículos do tipo.
+ * <p>
+ * Formato: {@code ['L','C','V','R'][byte versao]} seguido dos slots, cada um no formato
+ * {@code [int capacidade][byte estado][long sequencia][int tamanho][int crc32][payload com capacidade bytes]},
+ * onde o payload é o registro do {@link VeiculoCodec} e o CRC cobre a sequência, o tamanho e o payload.
+ * Um índice em memória {@code placa -> slot} é montado na abertura, varrendo o arquivo uma única vez.
+ * </p>
+ * <p>
+ * As atualizações são feitas por cópia: o novo registro é gravado em um slot livre (ou no final do arquivo)
+ * e só depois o slot antigo é marcado como livre. Se houver uma queda entre as duas escritas, a leitura
+ * mantém o registro de maior sequência; um slot com CRC inválido é ignorado. Slots livres são reaproveitados
+ * por capacidade e o arquivo é compactado quando o espaço livre passa da metade.
+ * </p>
+ * <p>
+ * Arquivos no formato de lista do {@link VeiculoCodec} ou na serialização Java legada continuam legíveis
+ * e são convertidos para este formato na primeira escrita.
+ * </p>
+ * <p>
+ * Há uma única instância por caminho no processo, obtida por {@link #abrir(String)}; todos os métodos
+ * são sincronizados. Alterações externas no arquivo (remoção ou substituição) são detectadas antes de cada
+ * operação e o índice é reconstruído.
+ * </p>
+ */
+public final class ArquivoRegistrosVeiculos {
+
+    private static final byte[] CABECALHO = {'L', 'C', 'V', 'R'};
+    /**
+     * Versão do formato gravada por esta classe.
+     */
+    public static final byte VERSAO_ATUAL = 1;
+
+    private static final int TAMANHO_CABECALHO = CABECALHO.length + 1;
+    private static final int TAMANHO_CABECALHO_SLOT = 4 + 1 + 8 + 4 + 4;
+    private static final int DESLOCAMENTO_ESTADO = 4;
+    private static final byte SLOT_LIVRE = 0;
+    private static final byte SLOT_OCUPADO = 1;
+    private static final long TAMANHO_MINIMO_COMPACTACAO = 64 * 1024;
+
+    private static final Map<Path, ArquivoRegistrosVeiculos> ABERTOS = new HashMap<>();
+
+    private final Path caminho;
+
+    private FileChannel canal;
+    private Object chaveArquivo;
+    private long fimArquivo;
+    private boolean carregado;
+    private boolean formatoAntigo;
+
+    private final Map<String, Slot> indice = new HashMap<>();
+    private final TreeMap<Integer, ArrayDeque<Long>> slotsLivres = new TreeMap<>();
+    private long bytesLivres;
+    private long proximaSequencia = 1;
+
+    private static final class Slot {
+        final long posicao;
+        final int capacidade;
+        final long sequencia;
+
+        Slot(long posicao, int capacidade, long sequencia) {
+            this.posicao = posicao;
+            this.capacidade = capacidade;
+            this.sequencia = sequencia;
+        }
+    }
+
+    private ArquivoRegistrosVeiculos(Path caminho) {
+        this.caminho = caminho;
+    }
+
+    /**
+     * Retorna a instância compartilhada do arquivo de registros para o caminho informado.
+     *
+     * @param caminho O caminho do arquivo (ex: {@code dump/carros/carros.dat}).
+     * @return O arquivo de registros correspondente.
+     */
+    public static ArquivoRegistrosVeiculos abrir(String caminho) {
+        Path chave = Path.of(caminho).toAbsolutePath().normalize();
+        synchronized (ABERTOS) {
+            return ABERTOS.computeIfAbsent(chave, ArquivoRegistrosVeiculos::new);
+        }
+    }
+
+    /**
+     * Lê todos os veículos do arquivo, na ordem dos slots.
+     *
+     * @return A lista de veículos. Retorna uma lista vazia se o arquivo não existir ou estiver vazio.
+     * @throws IOException Se ocorrer um erro de leitura ou um registro não puder ser decodificado.
+     * @throws ClassNotFoundException Se uma classe do formato legado não for encontrada.
+     */
+    public synchronized List<Veiculo> listar() throws IOException, ClassNotFoundException {
+        garantirAtualizado();
+        if (formatoAntigo) {
+            return VeiculoCodec.carregarArquivo(caminho.toString());
+        }
+        List<Veiculo> veiculos = new ArrayList<>();
+        if (canal != null) {
+            varrer(veiculos);
+        }
+        return veiculos;
+    }
+
+    /**
+     * Insere ou substitui o registro do veículo com a mesma placa.
+     *
+     * @param veiculo O veículo a ser gravado.
+     * @throws IOException Se ocorrer um erro de escrita ou o tipo do veículo não tiver codec registrado.
+     * @throws ClassNotFoundException Se for preciso converter um arquivo legado e uma classe não for encontrada.
+     */
+    public synchronized void salvar(Veiculo veiculo) throws IOException, ClassNotFoundException {
+        salvar(veiculo, true);
+    }
+
+    /**
+     * Insere ou substitui o registro do veículo com a mesma placa, opcionalmente sem forçar a escrita para o disco.
+     * Sem sincronização, o registro só é durável após {@link #sincronizar()}; o chamador deve estar protegido
+     * por outro mecanismo (como um registro de intenção) contra a perda da atualização em uma queda.
+     *
+     * @param veiculo     O veículo a ser gravado.
+     * @param sincronizar Se true, força a escrita para o disco antes de retornar.
+     * @throws IOException Se ocorrer um erro de escrita ou o tipo do veículo não tiver codec registrado.
+     * @throws ClassNotFoundException Se for preciso converter um arquivo legado e uma classe não for encontrada.
+     */
+    public synchronized void salvar(Veiculo veiculo, boolean sincronizar) throws IOException, ClassNotFoundException {
+        prepararEscrita();
+        byte[] payload = VeiculoCodec.codificar(veiculo);
+        Slot antigo = indice.get(veiculo.getPlaca());
+
+        Slot novo = reservarSlot(payload.length);
+        novo = new Slot(novo.posicao, novo.capacidade, proximaSequencia++);
+        escreverSlot(novo, payload);
+        if (sincronizar) {
+            canal.force(false);
+        }
+        indice.put(veiculo.getPlaca(), novo);
+
+        if (antigo != null) {
+            liberar(antigo);
+        }
+        compactarSeNecessario();
+    }
+
+    /**
+     * Força para o disco as escritas feitas sem sincronização por {@link #salvar(Veiculo, boolean)}.
+     *
+     * @throws IOException Se ocorrer um erro ao sincronizar o arquivo.
+     */
+    public synchronized void sincronizar() throws IOException {
+        if (canal != null) {
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Exclui o registro do veículo com a placa informada, marcando seu slot como livre.
+     *
+     * @param placa A placa do veículo.
+     * @return true se havia um registro com essa placa, false caso contrário.
+     * @throws IOException Se ocorrer um erro de escrita.
+     * @throws ClassNotFoundException Se for preciso converter um arquivo legado e uma classe não for encontrada.
+     */
+    public synchronized boolean excluir(String placa) throws IOException, ClassNotFoundException {
+        if (!Files.exists(caminho)) {
+            fechar();
+            return false;
+        }
+        prepararEscrita();
+        Slot slot = indice.remove(placa);
+        if (slot == null) {
+            return false;
+        }
+        liberar(slot);
+        canal.force(false);
+        compactarSeNecessario();
+        return true;
+    }
+
+    /**
+     * Substitui todo o conteúdo do arquivo pelos veículos informados, gravando-os em slots compactos.
+     * A escrita é feita em um arquivo temporário que depois substitui o original.
+     *
+     * @param veiculos Os veículos a serem gravados.
+     * @throws IOException Se ocorrer um erro de escrita ou algum tipo não tiver codec registrado.
+     */
+    public synchronized void substituirTodos(List<? extends Veiculo> veiculos) throws IOException {
+        Map<String, byte[]> registros = new LinkedHashMap<>();
+        for (Veiculo veiculo : veiculos) {
+            registros.put(veiculo.getPlaca(), VeiculoCodec.codificar(veiculo));
+        }
+        int total = TAMANHO_CABECALHO;
+        for (byte[] payload : registros.values()) {
+            total += TAMANHO_CABECALHO_SLOT + payload.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        buffer.put(CABECALHO).put(VERSAO_ATUAL);
+        long sequencia = 1;
+        for (byte[] payload : registros.values()) {
+            escreverSlot(buffer, payload.length, sequencia++, payload);
+        }
+
+        fechar();
+        Path diretorio = caminho.getParent();
+        if (diretorio != null) {
+            Files.createDirectories(diretorio);
+        }
+        Path temporario = caminho.resolveSibling(caminho.getFileName() + ".tmp");
+        try (FileChannel saida = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                saida.write(buffer);
+            }
+            saida.force(true);
+        }
+        try {
+            Files.move(temporario, caminho, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, caminho, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return A quantidade de veículos com registro ativo no arquivo.
+     * @throws IOException Se ocorrer um erro de leitura.
+     * @throws ClassNotFoundException Se uma classe do formato legado não for encontrada.
+     */
+    public synchronized int tamanho() throws IOException, ClassNotFoundException {
+        if (!Files.exists(caminho)) {
+            fechar();
+            return 0;
+        }
+        garantirAtualizado();
+        return formatoAntigo ? listar().size() : indice.size();
+    }
+
+    /**
+     * Fecha o canal do arquivo. A instância pode continuar sendo usada e será reaberta na próxima operação.
+     */
+    public synchronized void fechar() {
+        if (canal != null) {
+            try {
+                canal.close();
+            } catch (IOException e) {
+                System.err.println("Erro ao fechar arquivo de veículos " + caminho + ": " + e.getMessage());
+            }
+        }
+        canal = null;
+        chaveArquivo = null;
+        carregado = false;
+        formatoAntigo = false;
+        indice.clear();
+        slotsLivres.clear();
+        bytesLivres = 0;
+        fimArquivo = 0;
+        proximaSequencia = 1;
+    }
+
+    private void prepararEscrita() throws IOException, ClassNotFoundException {
+        garantirAtualizado();
+        if (formatoAntigo) {
+            substituirTodos(VeiculoCodec.carregarArquivo(caminho.toString()));
+            garantirAtualizado();
+        }
+        if (canal == null) {
+            Path diretorio = caminho.getParent();
+            if (diretorio != null) {
+                Files.createDirectories(diretorio);
+            }
+            abrirCanal();
+            if (canal.size() == 0) {
+                canal.write(ByteBuffer.wrap(new byte[]{CABECALHO[0], CABECALHO[1], CABECALHO[2], CABECALHO[3], VERSAO_ATUAL}), 0);
+                fimArquivo = TAMANHO_CABECALHO;
+                atualizarIdentidade();
+            }
+            carregado = true;
+        }
+    }
+
+    /**
+     * Garante que o índice em memória corresponde ao arquivo em disco, reconstruindo-o se o arquivo
+     * tiver sido removido, substituído ou alterado por fora desta instância.
+     */
+    private void garantirAtualizado() throws IOException {
+        BasicFileAttributes atributos;
+        try {
+            atributos = Files.readAttributes(caminho, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            fechar();
+            return;
+        }
+        boolean mesmoArquivo = carregado && canal != null
+                && Objects.equals(chaveArquivo, atributos.fileKey())
+                && atributos.size() == fimArquivo;
+        if (mesmoArquivo || (carregado && formatoAntigo)) {
+            return;
+        }
+        fechar();
+        if (atributos.size() == 0) {
+            return;
+        }
+        if (!possuiCabecalho()) {
+            formatoAntigo = true;
+            carregado = true;
+            return;
+        }
+        abrirCanal();
+        varrer(null);
+    }
+
+    private boolean possuiCabecalho() throws IOException {
+        byte[] inicio = new byte[TAMANHO_CABECALHO];
+        try (FileChannel leitura = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(inicio);
+            while (buffer.hasRemaining() && leitura.read(buffer) >= 0) {
+                // continua lendo até preencher o cabeçalho ou chegar ao fim
+            }
+            if (buffer.hasRemaining()) {
+                return false;
+            }
+        }
+        return Arrays.equals(Arrays.copyOf(inicio, CABECALHO.length), CABECALHO);
+    }
+
+    private void abrirCanal() throws IOException {
+        if (canal == null) {
+            canal = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+    }
+
+    private void atualizarIdentidade() throws IOException {
+        chaveArquivo = Files.readAttributes(caminho, BasicFileAttributes.class).fileKey();
+    }
+
+    /**
+     * Varre todos os slots do arquivo reconstruindo o índice e a lista de slots livres.
+     * Um slot incompleto no final do arquivo é descartado (o arquivo é truncado nesse ponto). Cópias de uma placa
+     * superadas por uma de sequência maior, deixadas por uma queda no meio de uma atualização, são marcadas como
+     * livres no disco: se ficassem ocupadas, voltariam a valer depois que a placa fosse excluída.
+     *
+     * @param destino Se não for nulo, recebe os veículos ativos decodificados, na ordem dos slots.
+     */
+    private void varrer(List<Veiculo> destino) throws IOException {
+        indice.clear();
+        slotsLivres.clear();
+        bytesLivres = 0;
+        proximaSequencia = 1;
+
+        long tamanhoArquivo = canal.size();
+        ByteBuffer buffer = ByteBuffer.allocate((int) tamanhoArquivo);
+        while (buffer.hasRemaining() && canal.read(buffer, buffer.position()) >= 0) {
+            // continua lendo até preencher o buffer
+        }
+        buffer.flip();
+        byte versao = buffer.get(CABECALHO.length);
+        if (versao > VERSAO_ATUAL) {
+            throw new IOException("Versão de arquivo de veículos não suportada: " + versao);
+        }
+
+        Map<String, Veiculo> ativos = new HashMap<>();
+        List<Long> ordem = new ArrayList<>();
+        Map<Long, String> placaPorPosicao = new HashMap<>();
+        boolean superadas = false;
+        CRC32 crc = new CRC32();
+        int posicao = TAMANHO_CABECALHO;
+        while (posicao + TAMANHO_CABECALHO_SLOT <= tamanhoArquivo) {
+            int capacidade = buffer.getInt(posicao);
+            if (capacidade < 0 || posicao + (long) TAMANHO_CABECALHO_SLOT + capacidade > tamanhoArquivo) {
+                break;
+            }
+            byte estado = buffer.get(posicao + DESLOCAMENTO_ESTADO);
+            long sequencia = buffer.getLong(posicao + 5);
+            int tamanho = buffer.getInt(posicao + 13);
+            int crcGravado = buffer.getInt(posicao + 17);
+            int inicioPayload = posicao + TAMANHO_CABECALHO_SLOT;
+
+            Veiculo veiculo = null;
+            if (estado == SLOT_OCUPADO && tamanho >= 0 && tamanho <= capacidade) {
+                crc.reset();
+                crc.update(buffer.array(), posicao + 5, 8 + 4);
+                crc.update(buffer.array(), inicioPayload, tamanho);
+                if ((int) crc.getValue() == crcGravado) {
+                    veiculo = VeiculoCodec.decodificar(Arrays.copyOfRange(buffer.array(), inicioPayload, inicioPayload + tamanho));
+                }
+            }
+
+            Slot slot = new Slot(posicao, capacidade, sequencia);
+            if (veiculo == null) {
+                adicionarLivre(slot);
+            } else {
+                proximaSequencia = Math.max(proximaSequencia, sequencia + 1);
+                Slot existente = indice.get(veiculo.getPlaca());
+                if (existente != null && existente.sequencia > sequencia) {
+                    liberar(slot);
+                    superadas = true;
+                } else {
+                    if (existente != null) {
+                        liberar(existente);
+                        superadas = true;
+                        placaPorPosicao.remove(existente.posicao);
+                    }
+                    indice.put(veiculo.getPlaca(), slot);
+                    ativos.put(veiculo.getPlaca(), veiculo);
+                    placaPorPosicao.put(slot.posicao, veiculo.getPlaca());
+                    ordem.add(slot.posicao);
+                }
+            }
+            posicao = inicioPayload + capacidade;
+        }
+
+        if (posicao < tamanhoArquivo) {
+            canal.truncate(posicao);
+        }
+        if (superadas) {
+            canal.force(false);
+        }
+        fimArquivo = posicao;
+        atualizarIdentidade();
+        carregado = true;
+
+        if (destino != null) {
+            for (Long posicaoSlot : ordem) {
+                String placa = placaPorPosicao.get(posicaoSlot);
+                if (placa != null) {
+                    destino.add(ativos.get(placa));
+                }
+            }
+        }
+    }
+
+    private Slot reservarSlot(int tamanhoPayload) {
+        Map.Entry<Integer, ArrayDeque<Long>> livre = slotsLivres.ceilingEntry(tamanhoPayload);
+        if (livre != null && livre.getKey() <= tamanhoPayload * 2 + 32) {
+            long posicao = livre.getValue().poll();
+            if (livre.getValue().isEmpty()) {
+                slotsLivres.remove(livre.getKey());
+            }
+            bytesLivres -= TAMANHO_CABECALHO_SLOT + livre.getKey();
+            return new Slot(posicao, livre.getKey(), 0);
+        }
+        int capacidade = tamanhoPayload + tamanhoPayload / 4;
+        Slot slot = new Slot(fimArquivo, capacidade, 0);
+        fimArquivo += TAMANHO_CABECALHO_SLOT + capacidade;
+        return slot;
+    }
+
+    private void escreverSlot(Slot slot, byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_CABECALHO_SLOT + slot.capacidade);
+        escreverSlot(buffer, slot.capacidade, slot.sequencia, payload);
+        buffer.flip();
+        long posicao = slot.posicao;
+        while (buffer.hasRemaining()) {
+            posicao += canal.write(buffer, posicao);
+        }
+    }
+
+    private static void escreverSlot(ByteBuffer buffer, int capacidade, long sequencia, byte[] payload) {
+        CRC32 crc = new CRC32();
+        ByteBuffer cabecalhoCrc = ByteBuffer.allocate(12).putLong(sequencia).putInt(payload.length);
+        crc.update(cabecalhoCrc.array());
+        crc.update(payload);
+        buffer.putInt(capacidade)
+                .put(SLOT_OCUPADO)
+                .putLong(sequencia)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload);
+        for (int i = payload.length; i < capacidade; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    private void liberar(Slot slot) throws IOException {
+        canal.write(ByteBuffer.wrap(new byte[]{SLOT_LIVRE}), slot.posicao + DESLOCAMENTO_ESTADO);
+        adicionarLivre(slot);
+    }
+
+    private void adicionarLivre(Slot slot) {
+        slotsLivres.computeIfAbsent(slot.capacidade, c -> new ArrayDeque<>()).add(slot.posicao);
+        bytesLivres += TAMANHO_CABECALHO_SLOT + slot.capacidade;
+    }
+
+    private void compactarSeNecessario() throws IOException {
+        if (fimArquivo >= TAMANHO_MINIMO_COMPACTACAO && bytesLivres * 2 > fimArquivo) {
+            List<Veiculo> veiculos = new ArrayList<>();
+            varrer(veiculos);
+            substituirTodos(veiculos);
+        }
+    }
+}
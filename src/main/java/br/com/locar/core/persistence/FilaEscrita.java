@@ -0,0 +1,365 @@
+package br.com.locar.core.persistence;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A classe `FilaEscrita` implementa uma fila de gravação em segundo plano (<i>write-behind</i>),
+ * que tira a escrita em disco da thread de eventos do Swing.
+ * <p>
+ * Cada gravação é identificada por uma chave (normalmente o caminho do arquivo) e executada por uma única
+ * thread de escrita depois de uma janela curta. Gravações repetidas para a mesma chave dentro da janela são
+ * coalescidas: apenas o valor mais recente é gravado, e todos os chamadores recebem o mesmo {@link CompletableFuture},
+ * que é concluído quando a gravação termina ou concluído com exceção se ela falhar.
+ * </p>
+ * <p>
+ * Leituras que precisam enxergar as próprias escritas consultam {@link #valorMaisRecente(String)}, que devolve
+ * o valor ainda não gravado, ou chamam {@link #aguardar(String)} antes de ler o arquivo, o que antecipa
+ * a gravação pendente daquela chave. A instância compartilhada ({@link #compartilhada()})
+ * registra um <i>shutdown hook</i> que descarrega todas as gravações pendentes ao encerrar a JVM.
+ * </p>
+ */
+public class FilaEscrita {
+
+    /**
+     * Janela padrão, em milissegundos, durante a qual gravações para a mesma chave são coalescidas.
+     */
+    public static final long JANELA_PADRAO_MS = 50;
+
+    private static final long TEMPO_ENCERRAMENTO_MS = 5000;
+
+    private static FilaEscrita compartilhada;
+
+    /**
+     * Operação de gravação de um valor em disco.
+     *
+     * @param <T> O tipo do valor gravado.
+     */
+    @FunctionalInterface
+    public interface Gravador<T> {
+        void gravar(T valor) throws IOException;
+    }
+
+    private static final class Pendente {
+        Object valor;
+        Gravador<Object> gravador;
+        ScheduledFuture<?> agendamento;
+        final CompletableFuture<Void> futuro = new CompletableFuture<>();
+    }
+
+    private final long janelaMs;
+    private final ScheduledExecutorService executor;
+    private volatile Thread threadEscrita;
+
+    private final Map<String, Pendente> pendentes = new HashMap<>();
+    private final Map<String, CompletableFuture<Void>> emExecucao = new HashMap<>();
+    private final Map<String, Object> valoresEmExecucao = new HashMap<>();
+    private final Map<String, Long> concluidasPorChave = new HashMap<>();
+    private boolean encerrada;
+
+    private long escritasAgendadas;
+    private long escritasExecutadas;
+    private long escritasCoalescidas;
+    private long falhas;
+
+    /**
+     * Construtor da classe FilaEscrita.
+     *
+     * @param janelaMs A janela de coalescência, em milissegundos.
+     */
+    public FilaEscrita(long janelaMs) {
+        this.janelaMs = janelaMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "locar-fila-escrita");
+            thread.setDaemon(true);
+            threadEscrita = thread;
+            return thread;
+        });
+    }
+
+    /**
+     * Retorna a fila de escrita compartilhada pelo processo, criando-a na primeira chamada
+     * e registrando o <i>shutdown hook</i> que a descarrega ao encerrar a JVM.
+     *
+     * @return A instância compartilhada.
+     */
+    public static synchronized FilaEscrita compartilhada() {
+        if (compartilhada == null) {
+            FilaEscrita fila = new FilaEscrita(JANELA_PADRAO_MS);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> fila.encerrar(TEMPO_ENCERRAMENTO_MS), "locar-fila-escrita-encerramento"));
+            compartilhada = fila;
+        }
+        return compartilhada;
+    }
+
+    /**
+     * Agenda a gravação de um valor. Se já houver uma gravação pendente para a mesma chave,
+     * o valor pendente é substituído e o futuro existente é reaproveitado.
+     *
+     * @param <T>      O tipo do valor.
+     * @param chave    A chave da gravação (ex: o caminho do arquivo).
+     * @param valor    O valor a ser gravado. Deve ser uma cópia que o chamador não alterará depois.
+     * @param gravador A operação que grava o valor.
+     * @return Um futuro concluído quando o valor (ou um valor mais recente da mesma chave) for gravado.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> CompletableFuture<Void> agendar(String chave, T valor, Gravador<? super T> gravador) {
+        escritasAgendadas++;
+        if (encerrada) {
+            CompletableFuture<Void> futuro = new CompletableFuture<>();
+            try {
+                gravador.gravar(valor);
+                escritasExecutadas++;
+                concluidasPorChave.merge(chave, 1L, Long::sum);
+                futuro.complete(null);
+            } catch (IOException | RuntimeException e) {
+                falhas++;
+                futuro.completeExceptionally(e);
+            }
+            return futuro;
+        }
+        Pendente pendente = pendentes.get(chave);
+        if (pendente != null) {
+            escritasCoalescidas++;
+        } else {
+            pendente = new Pendente();
+            pendentes.put(chave, pendente);
+            Pendente agendado = pendente;
+            pendente.agendamento = executor.schedule(() -> executar(chave, agendado), janelaMs, TimeUnit.MILLISECONDS);
+        }
+        pendente.valor = valor;
+        pendente.gravador = (Gravador<Object>) gravador;
+        return pendente.futuro;
+    }
+
+    /**
+     * Grava um valor e aguarda a conclusão, mantendo a ordem em relação às gravações pendentes da mesma chave.
+     * Chamado na própria thread de escrita, grava imediatamente e substitui a gravação pendente da chave, se houver.
+     *
+     * @param <T>      O tipo do valor.
+     * @param chave    A chave da gravação.
+     * @param valor    O valor a ser gravado.
+     * @param gravador A operação que grava o valor.
+     * @throws IOException Se a gravação falhar.
+     */
+    public <T> void gravarAgora(String chave, T valor, Gravador<? super T> gravador) throws IOException {
+        if (Thread.currentThread() == threadEscrita) {
+            Pendente substituida;
+            synchronized (this) {
+                substituida = pendentes.remove(chave);
+                if (substituida != null) {
+                    substituida.agendamento.cancel(false);
+                    escritasCoalescidas++;
+                }
+            }
+            try {
+                gravador.gravar(valor);
+            } catch (IOException | RuntimeException e) {
+                if (substituida != null) {
+                    substituida.futuro.completeExceptionally(e);
+                }
+                throw e;
+            }
+            synchronized (this) {
+                concluidasPorChave.merge(chave, 1L, Long::sum);
+            }
+            if (substituida != null) {
+                substituida.futuro.complete(null);
+            }
+            return;
+        }
+        agendar(chave, valor, gravador);
+        try {
+            descarregar(chave).join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            throw new IOException("Falha ao gravar " + chave + ": " + causa.getMessage(), causa);
+        }
+    }
+
+    /**
+     * Antecipa a gravação pendente da chave, sem esperar o fim da janela.
+     *
+     * @param chave A chave da gravação.
+     * @return Um futuro concluído quando a gravação pendente ou em andamento dessa chave terminar.
+     */
+    public synchronized CompletableFuture<Void> descarregar(String chave) {
+        Pendente pendente = pendentes.get(chave);
+        if (pendente != null) {
+            if (!encerrada) {
+                pendente.agendamento.cancel(false);
+                executor.execute(() -> executar(chave, pendente));
+            }
+            return pendente.futuro;
+        }
+        CompletableFuture<Void> atual = emExecucao.get(chave);
+        return atual != null ? atual : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Antecipa todas as gravações pendentes.
+     *
+     * @return Um futuro concluído quando todas as gravações pendentes e em andamento terminarem.
+     */
+    public synchronized CompletableFuture<Void> descarregarTudo() {
+        List<CompletableFuture<Void>> futuros = new ArrayList<>();
+        for (String chave : new ArrayList<>(pendentes.keySet())) {
+            futuros.add(descarregar(chave));
+        }
+        futuros.addAll(emExecucao.values());
+        return CompletableFuture.allOf(futuros.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Aguarda que a gravação pendente ou em andamento da chave termine, para que uma leitura do arquivo
+     * enxergue as escritas já agendadas. Chamado na própria thread de escrita, executa a gravação pendente
+     * imediatamente. Falhas não são relançadas aqui: elas já foram informadas pelo futuro
+     * devolvido a quem agendou a gravação.
+     *
+     * @param chave A chave da gravação.
+     */
+    public void aguardar(String chave) {
+        if (Thread.currentThread() == threadEscrita) {
+            Pendente pendente;
+            synchronized (this) {
+                pendente = pendentes.get(chave);
+            }
+            if (pendente != null) {
+                executar(chave, pendente);
+            }
+            return;
+        }
+        try {
+            descarregar(chave).join();
+        } catch (CompletionException e) {
+            // a falha já foi registrada e entregue a quem agendou a gravação
+        }
+    }
+
+    /**
+     * Retorna o valor mais recente agendado para a chave que ainda não terminou de ser gravado,
+     * permitindo que uma leitura enxergue as próprias escritas sem esperar pelo disco.
+     *
+     * @param <T>   O tipo do valor.
+     * @param chave A chave da gravação.
+     * @return O valor pendente ou em gravação, ou null se não houver gravação em andamento para a chave.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T valorMaisRecente(String chave) {
+        Pendente pendente = pendentes.get(chave);
+        if (pendente != null) {
+            return (T) pendente.valor;
+        }
+        return (T) valoresEmExecucao.get(chave);
+    }
+
+    /**
+     * Retorna quantas gravações da chave já terminaram com sucesso. Um cache do arquivo que guarda este número
+     * percebe as gravações feitas por outros componentes do processo sem consultar o sistema de arquivos.
+     *
+     * @param chave A chave da gravação.
+     * @return A quantidade de gravações concluídas da chave.
+     */
+    public synchronized long gravacoesConcluidas(String chave) {
+        return concluidasPorChave.getOrDefault(chave, 0L);
+    }
+
+    /**
+     * Descarrega as gravações pendentes e encerra a thread de escrita. Gravações agendadas depois
+     * do encerramento são executadas diretamente na thread chamadora.
+     *
+     * @param tempoMaximoMs O tempo máximo de espera pelas gravações pendentes, em milissegundos.
+     */
+    public void encerrar(long tempoMaximoMs) {
+        try {
+            descarregarTudo().get(tempoMaximoMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.err.println("Aviso: Gravações pendentes não terminaram em " + tempoMaximoMs + " ms.");
+        } catch (Exception e) {
+            // falhas individuais já foram registradas
+        }
+        synchronized (this) {
+            encerrada = true;
+        }
+        executor.shutdown();
+    }
+
+    private void executar(String chave, Pendente pendente) {
+        Object valor;
+        Gravador<Object> gravador;
+        synchronized (this) {
+            if (pendentes.get(chave) != pendente) {
+                return;
+            }
+            pendentes.remove(chave);
+            emExecucao.put(chave, pendente.futuro);
+            valoresEmExecucao.put(chave, pendente.valor);
+            valor = pendente.valor;
+            gravador = pendente.gravador;
+        }
+        Exception falha = null;
+        try {
+            gravador.gravar(valor);
+        } catch (IOException | RuntimeException e) {
+            falha = e;
+        }
+        synchronized (this) {
+            if (emExecucao.remove(chave, pendente.futuro)) {
+                valoresEmExecucao.remove(chave);
+            }
+            if (falha == null) {
+                escritasExecutadas++;
+                concluidasPorChave.merge(chave, 1L, Long::sum);
+            } else {
+                falhas++;
+            }
+        }
+        if (falha == null) {
+            pendente.futuro.complete(null);
+        } else {
+            System.err.println("Erro na gravação em segundo plano de " + chave + ": " + falha.getMessage());
+            pendente.futuro.completeExceptionally(falha);
+        }
+    }
+
+    /**
+     * @return A quantidade de gravações solicitadas.
+     */
+    public synchronized long getEscritasAgendadas() {
+        return escritasAgendadas;
+    }
+
+    /**
+     * @return A quantidade de gravações efetivamente executadas em disco.
+     */
+    public synchronized long getEscritasExecutadas() {
+        return escritasExecutadas;
+    }
+
+    /**
+     * @return A quantidade de gravações absorvidas por uma gravação pendente da mesma chave.
+     */
+    public synchronized long getEscritasCoalescidas() {
+        return escritasCoalescidas;
+    }
+
+    /**
+     * @return A quantidade de gravações que falharam.
+     */
+    public synchronized long getFalhas() {
+        return falhas;
+    }
+}
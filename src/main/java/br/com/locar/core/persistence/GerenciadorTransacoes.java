@@ -0,0 +1,528 @@
+package br.com.locar.core.persistence;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * A classe `GerenciadorTransacoes` confirma as mutações de uma {@link UnidadeDeTrabalho} de forma atômica
+ * e consistente após quedas, usando um registro de intenções (<i>intent log</i>).
+ * <p>
+ * A confirmação grava todas as operações da unidade em um único arquivo temporário, força-o para o disco e o
+ * renomeia atomicamente para {@code <id>.intent}: a renomeação é o ponto de confirmação e a única escrita durável
+ * no caminho do chamador. Em seguida as operações são aplicadas aos arquivos de cada participante sem sincronização.
+ * Um <i>checkpoint</i> executado pela {@link FilaEscrita} sincroniza os participantes e só então apaga os registros
+ * de intenção já aplicados, de forma que várias transações próximas compartilham o mesmo {@code fsync} em cada arquivo.
+ * </p>
+ * <p>
+ * As confirmações concorrentes são agrupadas (<i>group commit</i>): cada chamador serializa as próprias operações
+ * e entra em uma fila; um deles assume a gravação e escreve todas as transações da fila em um único registro de
+ * intenção, com um único {@code fsync}, enquanto as que chegam nesse meio tempo formam o lote seguinte. A escrita
+ * durável acontece fora do monitor, que apenas protege a fila; os lotes são gravados e aplicados um de cada vez,
+ * na ordem da fila, que é também a ordem da recuperação.
+ * </p>
+ * <p>
+ * Se o processo cair entre a confirmação e o checkpoint, {@link #recuperar()} reaplica na inicialização, em ordem,
+ * os registros de intenção que restaram. Por isso a aplicação de cada participante deve ser idempotente.
+ * Um arquivo temporário que não chegou a ser renomeado corresponde a uma transação não confirmada e é descartado.
+ * </p>
+ */
+public class GerenciadorTransacoes {
+
+    /**
+     * Diretório padrão dos registros de intenção.
+     */
+    public static final String DIRETORIO_PADRAO = "dump/transacoes/";
+
+    private static final byte[] CABECALHO = {'L', 'C', 'U', 'T'};
+    private static final String EXTENSAO = ".intent";
+    private static final String EXTENSAO_TEMPORARIA = ".tmp";
+    private static final int TAMANHO_MAXIMO_REGISTRO = 16 * 1024 * 1024;
+
+    /**
+     * Identificadores crescentes entre execuções: partem do relógio (com espaço para mil transações por milissegundo)
+     * e são compartilhados por todas as instâncias do processo, o que evita colisões de nomes no mesmo diretório.
+     */
+    private static final AtomicLong SEQUENCIA = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    /**
+     * Aplica o dado de uma operação ao armazenamento de um participante, sem exigir durabilidade imediata.
+     */
+    @FunctionalInterface
+    public interface Aplicador {
+        void aplicar(Serializable dados) throws IOException;
+    }
+
+    /**
+     * Torna duráveis as operações já aplicadas a um participante.
+     */
+    @FunctionalInterface
+    public interface Sincronizador {
+        void sincronizar() throws IOException;
+    }
+
+    private final Path diretorio;
+    private final Map<String, Aplicador> aplicadores = new LinkedHashMap<>();
+    private final Map<String, Sincronizador> sincronizadores = new LinkedHashMap<>();
+    private final Set<Long> aplicadas = new HashSet<>();
+    /**
+     * Transações aguardando o próximo lote, em ordem de chegada.
+     */
+    private final List<Pendente> fila = new ArrayList<>();
+    /**
+     * Indica se algum chamador está gravando e aplicando um lote.
+     */
+    private boolean gravando;
+
+    private long transacoesConfirmadas;
+    private long gravacoes;
+    private long checkpoints;
+
+    /**
+     * Construtor da classe GerenciadorTransacoes. O diretório só é criado na primeira confirmação.
+     *
+     * @param diretorio O diretório onde os registros de intenção são gravados.
+     */
+    public GerenciadorTransacoes(String diretorio) {
+        this.diretorio = Path.of(diretorio);
+    }
+
+    /**
+     * Registra um participante capaz de aplicar e sincronizar as operações com o nome informado.
+     *
+     * @param nome          O nome usado em {@link UnidadeDeTrabalho#registrar(String, Serializable)}.
+     * @param aplicador     A aplicação (idempotente) de uma operação.
+     * @param sincronizador A sincronização do armazenamento do participante com o disco.
+     */
+    public synchronized void registrarParticipante(String nome, Aplicador aplicador, Sincronizador sincronizador) {
+        aplicadores.put(nome, aplicador);
+        sincronizadores.put(nome, sincronizador);
+    }
+
+    /**
+     * @return Uma nova unidade de trabalho vazia.
+     */
+    public UnidadeDeTrabalho iniciar() {
+        return new UnidadeDeTrabalho();
+    }
+
+    /**
+     * Confirma a unidade de trabalho: grava o registro de intenção de forma durável e aplica as operações.
+     * Se a gravação do registro falhar, nenhuma operação é aplicada e a exceção é relançada. Uma falha ao aplicar
+     * depois da confirmação não desfaz a transação: o registro permanece e é reaplicado por {@link #recuperar()}.
+     * <p>
+     * Chamadas concorrentes são confirmadas em lote, no mesmo registro de intenção; o método só retorna depois que
+     * o lote da transação foi gravado e aplicado.
+     * </p>
+     *
+     * @param unidade A unidade de trabalho a ser confirmada.
+     * @return O identificador do registro de intenção (o mesmo para as transações de um lote).
+     * @throws IOException Se o registro de intenção não puder ser gravado.
+     */
+    public long confirmar(UnidadeDeTrabalho unidade) throws IOException {
+        List<UnidadeDeTrabalho.Operacao> operacoes = new ArrayList<>(unidade.getOperacoes());
+        Pendente pendente = new Pendente(operacoes, serializar(operacoes));
+        List<Pendente> lote;
+        Map<String, Aplicador> aplicadoresDoLote;
+        synchronized (this) {
+            for (UnidadeDeTrabalho.Operacao operacao : operacoes) {
+                if (!aplicadores.containsKey(operacao.getParticipante())) {
+                    throw new IOException("Participante de transação desconhecido: " + operacao.getParticipante());
+                }
+            }
+            fila.add(pendente);
+            aguardarVez(pendente);
+            if (pendente.concluida) {
+                return pendente.resultado();
+            }
+            gravando = true;
+            lote = new ArrayList<>(fila);
+            fila.clear();
+            aplicadoresDoLote = new LinkedHashMap<>(aplicadores);
+        }
+        try {
+            gravarEAplicar(lote, aplicadoresDoLote);
+        } finally {
+            synchronized (this) {
+                for (Pendente concluida : lote) {
+                    concluida.concluida = true;
+                }
+                gravando = false;
+                notifyAll();
+            }
+        }
+        return pendente.resultado();
+    }
+
+    /**
+     * Espera até que a transação seja concluída por outro chamador ou que nenhum lote esteja sendo gravado. Uma
+     * interrupção só cancela a transação enquanto ela ainda está na fila; depois que entrou em um lote, a espera
+     * continua até a conclusão e a interrupção é restaurada.
+     */
+    private void aguardarVez(Pendente pendente) throws IOException {
+        boolean interrompida = false;
+        try {
+            while (!pendente.concluida && gravando) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    if (fila.remove(pendente)) {
+                        throw new InterruptedIOException("Confirmação interrompida antes da gravação.");
+                    }
+                    interrompida = true;
+                }
+            }
+        } finally {
+            if (interrompida) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Grava as transações do lote em um único registro de intenção e as aplica em ordem. Executado por um único
+     * chamador de cada vez, fora do monitor.
+     */
+    private void gravarEAplicar(List<Pendente> lote, Map<String, Aplicador> aplicadoresDoLote) {
+        long id = SEQUENCIA.incrementAndGet();
+        try {
+            gravarIntencao(id, lote);
+        } catch (IOException e) {
+            for (Pendente pendente : lote) {
+                pendente.erro = e;
+            }
+            return;
+        }
+        boolean todasAplicadas = true;
+        for (Pendente pendente : lote) {
+            pendente.id = id;
+            try {
+                aplicar(pendente.operacoes, aplicadoresDoLote);
+            } catch (IOException | RuntimeException e) {
+                todasAplicadas = false;
+                System.err.println("Aviso: Transação " + id + " confirmada, mas não aplicada; será reaplicada na próxima inicialização: " + e.getMessage());
+            }
+        }
+        synchronized (this) {
+            transacoesConfirmadas += lote.size();
+            gravacoes++;
+            if (todasAplicadas) {
+                aplicadas.add(id);
+            }
+        }
+        if (todasAplicadas) {
+            agendarCheckpoint();
+        }
+    }
+
+    /**
+     * Sincroniza todos os participantes e apaga os registros de intenção aplicados até este momento.
+     * Executado normalmente pela {@link FilaEscrita}, que coalesce checkpoints solicitados em sequência.
+     *
+     * @throws IOException Se algum participante não puder ser sincronizado; nesse caso nenhum registro é apagado.
+     */
+    public void checkpoint() throws IOException {
+        List<Long> concluidas;
+        List<Sincronizador> participantes;
+        synchronized (this) {
+            if (aplicadas.isEmpty()) {
+                return;
+            }
+            concluidas = new ArrayList<>(aplicadas);
+            participantes = new ArrayList<>(sincronizadores.values());
+        }
+        for (Sincronizador sincronizador : participantes) {
+            sincronizador.sincronizar();
+        }
+        for (long id : concluidas) {
+            Files.deleteIfExists(caminhoIntencao(id));
+        }
+        synchronized (this) {
+            aplicadas.removeAll(concluidas);
+            checkpoints++;
+        }
+    }
+
+    /**
+     * Reaplica, em ordem, os registros de intenção que restaram de uma execução anterior, sincroniza os participantes
+     * e apaga os registros reaplicados. A recuperação para no primeiro registro que não puder ser aplicado,
+     * preservando a ordem das transações seguintes para uma nova tentativa.
+     *
+     * @return A quantidade de transações reaplicadas.
+     */
+    public int recuperar() {
+        if (!Files.isDirectory(diretorio)) {
+            return 0;
+        }
+        List<Long> reaplicadas = new ArrayList<>();
+        synchronized (this) {
+            while (gravando) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return 0;
+                }
+            }
+            TreeMap<Long, Path> intencoes = new TreeMap<>();
+            try {
+                listarIntencoes(intencoes, true);
+            } catch (IOException e) {
+                System.err.println("Erro ao listar registros de intenção em " + diretorio + ": " + e.getMessage());
+                return 0;
+            }
+            for (Map.Entry<Long, Path> intencao : intencoes.entrySet()) {
+                if (aplicadas.contains(intencao.getKey())) {
+                    continue;
+                }
+                try {
+                    aplicar(lerIntencao(intencao.getValue()), aplicadores);
+                    reaplicadas.add(intencao.getKey());
+                } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                    System.err.println("Erro ao reaplicar a transação " + intencao.getKey() + ": " + e.getMessage());
+                    break;
+                }
+            }
+            if (reaplicadas.isEmpty()) {
+                return 0;
+            }
+            aplicadas.addAll(reaplicadas);
+        }
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            System.err.println("Erro ao sincronizar transações reaplicadas: " + e.getMessage());
+        }
+        return reaplicadas.size();
+    }
+
+    /**
+     * Indica se há registros de intenção no diretório, ou seja, transações confirmadas cujo checkpoint ainda não ocorreu.
+     *
+     * @return true se existir ao menos um registro de intenção.
+     */
+    public boolean possuiPendentes() {
+        if (!Files.isDirectory(diretorio)) {
+            return false;
+        }
+        TreeMap<Long, Path> intencoes = new TreeMap<>();
+        try {
+            listarIntencoes(intencoes, false);
+        } catch (IOException e) {
+            return false;
+        }
+        return !intencoes.isEmpty();
+    }
+
+    /**
+     * @return A quantidade de transações confirmadas por esta instância.
+     */
+    public synchronized long getTransacoesConfirmadas() {
+        return transacoesConfirmadas;
+    }
+
+    /**
+     * @return A quantidade de registros de intenção gravados por esta instância; menor que a de transações
+     * confirmadas quando confirmações concorrentes são agrupadas.
+     */
+    public synchronized long getGravacoes() {
+        return gravacoes;
+    }
+
+    /**
+     * @return A quantidade de checkpoints concluídos por esta instância.
+     */
+    public synchronized long getCheckpoints() {
+        return checkpoints;
+    }
+
+    private static void aplicar(List<UnidadeDeTrabalho.Operacao> operacoes, Map<String, Aplicador> aplicadores) throws IOException {
+        for (UnidadeDeTrabalho.Operacao operacao : operacoes) {
+            Aplicador aplicador = aplicadores.get(operacao.getParticipante());
+            if (aplicador == null) {
+                throw new IOException("Participante de transação desconhecido: " + operacao.getParticipante());
+            }
+            aplicador.aplicar(operacao.getDados());
+        }
+    }
+
+    private void agendarCheckpoint() {
+        FilaEscrita.compartilhada().agendar(diretorio.toString(), this, GerenciadorTransacoes::checkpoint);
+    }
+
+    /**
+     * Grava o registro de intenção de um lote: o cabeçalho seguido de um bloco {@code tamanho, operações, CRC} por
+     * transação.
+     */
+    private void gravarIntencao(long id, List<Pendente> lote) throws IOException {
+        Files.createDirectories(diretorio);
+        int tamanho = CABECALHO.length;
+        for (Pendente pendente : lote) {
+            tamanho += 4 + pendente.payload.length + 4;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        buffer.put(CABECALHO);
+        for (Pendente pendente : lote) {
+            CRC32 crc = new CRC32();
+            crc.update(pendente.payload);
+            buffer.putInt(pendente.payload.length).put(pendente.payload).putInt((int) crc.getValue());
+        }
+        buffer.flip();
+
+        Path temporario = diretorio.resolve(nome(id) + EXTENSAO_TEMPORARIA);
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        }
+        try {
+            Files.move(temporario, caminhoIntencao(id), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, caminhoIntencao(id), StandardCopyOption.REPLACE_EXISTING);
+        }
+        sincronizarDiretorio();
+    }
+
+    /**
+     * Força a entrada de diretório criada pela renomeação. Sistemas que não permitem abrir diretórios
+     * (como o Windows) já tornam a renomeação durável por conta própria.
+     */
+    private void sincronizarDiretorio() {
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // sem suporte a sincronizar diretórios nesta plataforma
+        }
+    }
+
+    /**
+     * Lê as operações de todas as transações de um registro de intenção, na ordem em que foram confirmadas.
+     */
+    private List<UnidadeDeTrabalho.Operacao> lerIntencao(Path caminho) throws IOException, ClassNotFoundException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(caminho)))) {
+            byte[] cabecalho = new byte[CABECALHO.length];
+            in.readFully(cabecalho);
+            if (!Arrays.equals(cabecalho, CABECALHO)) {
+                throw new IOException("Registro de intenção inválido: " + caminho);
+            }
+            List<UnidadeDeTrabalho.Operacao> operacoes = new ArrayList<>();
+            int tamanho;
+            while ((tamanho = lerTamanho(in)) >= 0) {
+                if (tamanho > TAMANHO_MAXIMO_REGISTRO) {
+                    throw new IOException("Tamanho inválido no registro de intenção: " + caminho);
+                }
+                byte[] payload = new byte[tamanho];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != in.readInt()) {
+                    throw new IOException("Registro de intenção corrompido: " + caminho);
+                }
+                operacoes.addAll(desserializar(payload));
+            }
+            return operacoes;
+        }
+    }
+
+    /**
+     * O tamanho da próxima transação do registro, ou -1 no fim do arquivo.
+     */
+    private static int lerTamanho(DataInputStream in) throws IOException {
+        int primeiro = in.read();
+        if (primeiro < 0) {
+            return -1;
+        }
+        byte[] restante = new byte[3];
+        in.readFully(restante);
+        int tamanho = (primeiro << 24) | ((restante[0] & 0xFF) << 16) | ((restante[1] & 0xFF) << 8) | (restante[2] & 0xFF);
+        if (tamanho < 0) {
+            throw new IOException("Tamanho inválido no registro de intenção.");
+        }
+        return tamanho;
+    }
+
+    /**
+     * Lista os registros de intenção ordenados pelo identificador, opcionalmente apagando os temporários
+     * de transações que não chegaram a ser confirmadas.
+     */
+    private void listarIntencoes(TreeMap<Long, Path> destino, boolean descartarTemporarios) throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                if (nome.endsWith(EXTENSAO)) {
+                    try {
+                        destino.put(Long.parseLong(nome.substring(0, nome.length() - EXTENSAO.length())), arquivo);
+                    } catch (NumberFormatException e) {
+                        System.err.println("Aviso: Ignorando arquivo inesperado em " + diretorio + ": " + nome);
+                    }
+                } else if (descartarTemporarios && nome.endsWith(EXTENSAO_TEMPORARIA)) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        }
+    }
+
+    private Path caminhoIntencao(long id) {
+        return diretorio.resolve(nome(id) + EXTENSAO);
+    }
+
+    private static String nome(long id) {
+        return String.format("%019d", id);
+    }
+
+    private static byte[] serializar(List<UnidadeDeTrabalho.Operacao> operacoes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(new ArrayList<>(operacoes));
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<UnidadeDeTrabalho.Operacao> desserializar(byte[] payload) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return (List<UnidadeDeTrabalho.Operacao>) ois.readObject();
+        }
+    }
+
+    /**
+     * Uma transação à espera de gravação, com as operações já serializadas pelo próprio chamador.
+     */
+    private static final class Pendente {
+        private final List<UnidadeDeTrabalho.Operacao> operacoes;
+        private final byte[] payload;
+        private long id;
+        private IOException erro;
+        private boolean concluida;
+
+        private Pendente(List<UnidadeDeTrabalho.Operacao> operacoes, byte[] payload) {
+            this.operacoes = operacoes;
+            this.payload = payload;
+        }
+
+        private long resultado() throws IOException {
+            if (erro != null) {
+                throw new IOException(erro.getMessage(), erro);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package br.com.locar.core.persistence;
+
+import br.com.locar.core.entities.Locacao;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A classe `JournalLocacoes` implementa a persistência das locações como um snapshot
+ * seguido de um journal de escrita apenas por acréscimo (append-only).
+ * <p>
+ * O snapshot mantém o formato original de {@code locacoes.dat} (uma {@code List<Locacao>} serializada),
+ * o que preserva a compatibilidade com os arquivos existentes. Cada nova locação ou devolução é gravada
+ * como um único registro no final do journal, de modo que o custo de escrita não depende do tamanho do histórico.
+ * Periodicamente o estado completo é compactado em um novo snapshot e o journal é esvaziado.
+ * </p>
+ * <p>
+ * Formato de cada registro do journal: {@code [int tamanho][byte tipo][payload][int crc32]}, onde o payload
+ * é a locação serializada e o CRC cobre o tipo e o payload. Um registro incompleto ou corrompido no final
+ * do arquivo (por exemplo, após uma queda de energia durante a escrita) é descartado na leitura.
+ * </p>
+ * <p>
+ * A durabilidade usa <i>group commit</i>: várias threads que gravam ao mesmo tempo compartilham um único
+ * {@code fsync}, pois uma thread só força o disco se nenhuma outra já o fez depois de sua escrita.
+ * </p>
+ */
+public class JournalLocacoes implements Closeable {
+
+    /**
+     * Tipo de registro que indica uma nova locação.
+     */
+    public static final byte TIPO_LOCACAO = 1;
+    /**
+     * Tipo de registro que indica a devolução de uma locação existente.
+     */
+    public static final byte TIPO_DEVOLUCAO = 2;
+
+    /**
+     * Quantidade padrão de registros no journal que dispara uma compactação em snapshot.
+     */
+    public static final int LIMITE_COMPACTACAO_PADRAO = 256;
+
+    private static final int TAMANHO_MAXIMO_REGISTRO = 16 * 1024 * 1024;
+
+    private final Path caminhoSnapshot;
+    private final Path caminhoJournal;
+    private final int limiteCompactacao;
+
+    private FileChannel canal;
+    private int registrosDesdeSnapshot;
+    private long sequenciaEscrita;
+
+    private final Object travaSync = new Object();
+    private long sequenciaDuravel;
+
+    /**
+     * Construtor da classe JournalLocacoes com o limite de compactação padrão.
+     *
+     * @param caminhoSnapshot O caminho do arquivo de snapshot (ex: {@code dump/locacoes/locacoes.dat}).
+     * @param caminhoJournal  O caminho do arquivo de journal.
+     */
+    public JournalLocacoes(String caminhoSnapshot, String caminhoJournal) {
+        this(caminhoSnapshot, caminhoJournal, LIMITE_COMPACTACAO_PADRAO);
+    }
+
+    /**
+     * Construtor da classe JournalLocacoes.
+     *
+     * @param caminhoSnapshot   O caminho do arquivo de snapshot.
+     * @param caminhoJournal    O caminho do arquivo de journal.
+     * @param limiteCompactacao A quantidade de registros no journal a partir da qual {@link #precisaCompactar()} retorna true.
+     */
+    public JournalLocacoes(String caminhoSnapshot, String caminhoJournal, int limiteCompactacao) {
+        this.caminhoSnapshot = Path.of(caminhoSnapshot);
+        this.caminhoJournal = Path.of(caminhoJournal);
+        this.limiteCompactacao = limiteCompactacao;
+    }
+
+    /**
+     * Carrega o estado completo das locações: lê o último snapshot e reaplica os registros do journal sobre ele.
+     *
+     * @return A lista de locações reconstruída. Retorna uma lista vazia se não houver snapshot nem journal.
+     * @throws IOException Se ocorrer um erro de leitura.
+     * @throws ClassNotFoundException Se uma classe serializada não for encontrada.
+     */
+    public synchronized List<Locacao> carregar() throws IOException, ClassNotFoundException {
+        List<Locacao> locacoes = lerSnapshot();
+        List<Registro> registros = new ArrayList<>();
+        lerJournal(registros);
+        for (Registro registro : registros) {
+            aplicar(locacoes, registro);
+        }
+        return locacoes;
+    }
+
+    /**
+     * Acrescenta ao journal o registro de uma nova locação e aguarda sua durabilidade em disco.
+     *
+     * @param locacao A locação realizada.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    public void registrarLocacao(Locacao locacao) throws IOException {
+        sincronizar(acrescentar(TIPO_LOCACAO, locacao));
+    }
+
+    /**
+     * Acrescenta ao journal o registro de uma devolução e aguarda sua durabilidade em disco.
+     *
+     * @param locacao A locação devolvida, já com a data de devolução preenchida.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    public void registrarDevolucao(Locacao locacao) throws IOException {
+        sincronizar(acrescentar(TIPO_DEVOLUCAO, locacao));
+    }
+
+    /**
+     * Acrescenta um registro ao journal sem aguardar sua durabilidade. Usado quando a operação já está
+     * protegida por um registro de intenção ({@link GerenciadorTransacoes}); a durabilidade é obtida depois
+     * por {@link #sincronizar()}, no checkpoint da transação.
+     *
+     * @param tipo    {@link #TIPO_LOCACAO} ou {@link #TIPO_DEVOLUCAO}.
+     * @param locacao A locação a ser registrada.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    public void acrescentarSemSincronizar(byte tipo, Locacao locacao) throws IOException {
+        acrescentar(tipo, locacao);
+    }
+
+    /**
+     * Força para o disco todos os registros já acrescentados ao journal.
+     *
+     * @throws IOException Se ocorrer um erro ao sincronizar o arquivo.
+     */
+    public void sincronizar() throws IOException {
+        long sequencia;
+        synchronized (this) {
+            sequencia = sequenciaEscrita;
+        }
+        sincronizar(sequencia);
+    }
+
+    /**
+     * Indica se o journal acumulou registros suficientes para justificar uma compactação.
+     *
+     * @return true se a quantidade de registros desde o último snapshot atingiu o limite.
+     */
+    public synchronized boolean precisaCompactar() {
+        return registrosDesdeSnapshot >= limiteCompactacao;
+    }
+
+    /**
+     * Compacta o journal reconstruindo o estado a partir do próprio disco (snapshot atual mais journal),
+     * o que independe de qualquer cópia em memória possivelmente desatualizada.
+     *
+     * @throws IOException Se ocorrer um erro de leitura ou escrita.
+     * @throws ClassNotFoundException Se uma classe serializada não for encontrada.
+     */
+    public synchronized void compactar() throws IOException, ClassNotFoundException {
+        compactar(carregar());
+    }
+
+    /**
+     * Grava o estado completo das locações como um novo snapshot e esvazia o journal.
+     * O snapshot é escrito em um arquivo temporário, sincronizado e então renomeado atomicamente
+     * sobre o anterior. A entrada de diretório da renomeação é sincronizada antes de o journal ser truncado:
+     * sem isso, uma queda poderia trazer de volta o snapshot anterior com o journal já vazio. Assim, uma falha em
+     * qualquer ponto mantém um estado recuperável.
+     *
+     * @param estadoAtual A lista completa de locações a ser gravada.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    public synchronized void compactar(List<Locacao> estadoAtual) throws IOException {
+        Path temporario = caminhoSnapshot.resolveSibling(caminhoSnapshot.getFileName() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temporario.toFile());
+             ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(fos))) {
+            oos.writeObject(new ArrayList<>(estadoAtual));
+            oos.flush();
+            fos.getFD().sync();
+        }
+        try {
+            Files.move(temporario, caminhoSnapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, caminhoSnapshot, StandardCopyOption.REPLACE_EXISTING);
+        }
+        sincronizarDiretorio(caminhoSnapshot.toAbsolutePath().getParent());
+        abrirCanal().truncate(0);
+        canal.force(true);
+        registrosDesdeSnapshot = 0;
+    }
+
+    /**
+     * Força a entrada de diretório criada pela renomeação do snapshot. Sistemas que não permitem abrir diretórios
+     * (como o Windows) já tornam a renomeação durável por conta própria.
+     */
+    private static void sincronizarDiretorio(Path diretorio) {
+        if (diretorio == null) {
+            return;
+        }
+        try (FileChannel canalDiretorio = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canalDiretorio.force(true);
+        } catch (IOException e) {
+            // sem suporte a sincronizar diretórios nesta plataforma
+        }
+    }
+
+    /**
+     * Retorna a quantidade de registros gravados no journal desde o último snapshot.
+     *
+     * @return O número de registros pendentes de compactação.
+     */
+    public synchronized int getRegistrosDesdeSnapshot() {
+        return registrosDesdeSnapshot;
+    }
+
+    /**
+     * Fecha o canal de escrita do journal, se estiver aberto.
+     *
+     * @throws IOException Se ocorrer um erro ao fechar o arquivo.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (canal != null) {
+            canal.close();
+            canal = null;
+        }
+    }
+
+    private synchronized long acrescentar(byte tipo, Locacao locacao) throws IOException {
+        byte[] payload = serializar(locacao);
+        CRC32 crc = new CRC32();
+        crc.update(tipo);
+        crc.update(payload);
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 1 + payload.length + 4);
+        buffer.putInt(payload.length);
+        buffer.put(tipo);
+        buffer.put(payload);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        FileChannel c = abrirCanal();
+        while (buffer.hasRemaining()) {
+            c.write(buffer);
+        }
+        registrosDesdeSnapshot++;
+        return ++sequenciaEscrita;
+    }
+
+    private void sincronizar(long sequencia) throws IOException {
+        synchronized (travaSync) {
+            if (sequenciaDuravel >= sequencia) {
+                return;
+            }
+            long alvo;
+            FileChannel c;
+            synchronized (this) {
+                alvo = sequenciaEscrita;
+                c = canal;
+            }
+            if (c == null) {
+                return;
+            }
+            c.force(false);
+            sequenciaDuravel = alvo;
+        }
+    }
+
+    private FileChannel abrirCanal() throws IOException {
+        if (canal == null) {
+            Path diretorio = caminhoJournal.toAbsolutePath().getParent();
+            if (diretorio != null) {
+                Files.createDirectories(diretorio);
+            }
+            List<Registro> registros = new ArrayList<>();
+            long tamanhoValido = lerJournal(registros);
+            canal = FileChannel.open(caminhoJournal, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (canal.size() > tamanhoValido) {
+                System.err.println("Aviso: Descartando registro incompleto no final de " + caminhoJournal + ".");
+                canal.truncate(tamanhoValido);
+            }
+            canal.position(tamanhoValido);
+            registrosDesdeSnapshot = registros.size();
+        }
+        return canal;
+    }
+
+    private List<Locacao> lerSnapshot() throws IOException, ClassNotFoundException {
+        List<Locacao> locacoes = new ArrayList<>();
+        File file = caminhoSnapshot.toFile();
+        if (file.exists() && file.length() > 0) {
+            try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                Object obj = ois.readObject();
+                if (obj instanceof List) {
+                    for (Object item : (List<?>) obj) {
+                        if (item instanceof Locacao) {
+                            locacoes.add((Locacao) item);
+                        }
+                    }
+                }
+            }
+        }
+        return locacoes;
+    }
+
+    /**
+     * Lê todos os registros válidos do journal, parando no primeiro registro incompleto ou corrompido.
+     *
+     * @param destino A lista que receberá os registros lidos.
+     * @return A quantidade de bytes válidos no início do arquivo.
+     */
+    private long lerJournal(List<Registro> destino) throws IOException {
+        File file = caminhoJournal.toFile();
+        if (!file.exists()) {
+            return 0;
+        }
+        long tamanhoValido = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int tamanho;
+                try {
+                    tamanho = in.readInt();
+                } catch (EOFException eof) {
+                    break;
+                }
+                if (tamanho < 0 || tamanho > TAMANHO_MAXIMO_REGISTRO) {
+                    break;
+                }
+                byte[] payload = new byte[tamanho];
+                byte tipo;
+                int crcGravado;
+                try {
+                    tipo = in.readByte();
+                    in.readFully(payload);
+                    crcGravado = in.readInt();
+                } catch (EOFException eof) {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(tipo);
+                crc.update(payload);
+                if ((int) crc.getValue() != crcGravado) {
+                    break;
+                }
+                try {
+                    destino.add(new Registro(tipo, desserializar(payload)));
+                } catch (ClassNotFoundException e) {
+                    System.err.println("Classe não encontrada ao ler registro do journal de locações: " + e.getMessage());
+                    break;
+                }
+                tamanhoValido += 4 + 1 + tamanho + 4;
+            }
+        }
+        return tamanhoValido;
+    }
+
+    /**
+     * Aplica um registro sobre o estado. A aplicação é idempotente: uma locação já presente não é duplicada
+     * e não desfaz uma devolução posterior, o que permite reaplicar intenções após uma falha.
+     */
+    private static void aplicar(List<Locacao> locacoes, Registro registro) {
+        for (int i = 0; i < locacoes.size(); i++) {
+            Locacao existente = locacoes.get(i);
+            if (mesmaLocacao(existente, registro.locacao)) {
+                if (registro.tipo == TIPO_DEVOLUCAO || existente.getDataDevolucao() == null) {
+                    locacoes.set(i, registro.locacao);
+                }
+                return;
+            }
+        }
+        locacoes.add(registro.locacao);
+    }
+
+    private static boolean mesmaLocacao(Locacao a, Locacao b) {
+        return a.getVeiculo().getPlaca().equals(b.getVeiculo().getPlaca())
+                && a.getDataLocacao().equals(b.getDataLocacao());
+    }
+
+    private static byte[] serializar(Locacao locacao) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(locacao);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Locacao desserializar(byte[] payload) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return (Locacao) ois.readObject();
+        }
+    }
+
+    private static final class Registro {
+        private final byte tipo;
+        private final Locacao locacao;
+
+        private Registro(byte tipo, Locacao locacao) {
+            this.tipo = tipo;
+            this.locacao = locacao;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.locar.core.persistence;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A classe `UnidadeDeTrabalho` reúne todas as mutações de uma operação de negócio (por exemplo, uma locação:
+ * a nova locação, o saldo do cliente e o contador do veículo) para que sejam confirmadas juntas por
+ * {@link GerenciadorTransacoes#confirmar(UnidadeDeTrabalho)}.
+ * <p>
+ * Cada operação é identificada pelo nome do participante que sabe aplicá-la e pelo dado a ser gravado,
+ * que deve ser serializável para compor o registro de intenção.
+ * </p>
+ */
+public class UnidadeDeTrabalho {
+
+    private final List<Operacao> operacoes = new ArrayList<>();
+
+    /**
+     * Acrescenta uma operação à unidade de trabalho. As operações são aplicadas na ordem em que foram registradas.
+     *
+     * @param participante O nome do participante registrado no {@link GerenciadorTransacoes}.
+     * @param dados        O dado a ser aplicado pelo participante.
+     * @return Esta unidade de trabalho, para encadeamento.
+     */
+    public UnidadeDeTrabalho registrar(String participante, Serializable dados) {
+        operacoes.add(new Operacao(participante, dados));
+        return this;
+    }
+
+    /**
+     * @return As operações registradas, na ordem de aplicação.
+     */
+    public List<Operacao> getOperacoes() {
+        return Collections.unmodifiableList(operacoes);
+    }
+
+    /**
+     * @return true se nenhuma operação foi registrada.
+     */
+    public boolean estaVazia() {
+        return operacoes.isEmpty();
+    }
+
+    /**
+     * Uma operação de uma unidade de trabalho: o participante que a aplica e o dado aplicado.
+     */
+    public static final class Operacao implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String participante;
+        private final Serializable dados;
+
+        public Operacao(String participante, Serializable dados) {
+            this.participante = participante;
+            this.dados = dados;
+        }
+
+        public String getParticipante() {
+            return participante;
+        }
+
+        public Serializable getDados() {
+            return dados;
+        }
+    }
+}
@@ -0,0 +1,642 @@
+package br.com.locar.core.persistence;
+
+import br.com.locar.core.entities.Veiculo;
+import br.com.locar.core.entities.enums.Combustivel;
+import br.com.locar.core.entities.enums.Cor;
+import br.com.locar.core.entities.enums.Funcao;
+import br.com.locar.core.entities.enums.Tracao;
+import br.com.locar.core.entities.enums.Vagao;
+import br.com.locar.terrestre.entities.Caminhao;
+import br.com.locar.terrestre.entities.Carro;
+import br.com.locar.terrestre.entities.Moto;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A classe `VeiculoCodec` implementa um formato binário compacto e versionado para a hierarquia de {@link Veiculo}.
+ * <p>
+ * Em vez da serialização padrão do Java, que grava descritores de classe e metadados de cada campo,
+ * o codec escreve diretamente os campos: inteiros como varints, doubles em 8 bytes, enums pelo ordinal,
+ * strings em UTF-8 e os nove atributos booleanos do veículo em uma única máscara de bits.
+ * Em um arquivo, strings repetidas (marca, modelo, caminhos) são gravadas uma única vez e depois
+ * referenciadas por índice. Cada subclasse é tratada por um {@link CodecTipo} registrado com uma tag de um byte.
+ * </p>
+ * <p>
+ * Formato de arquivo: {@code ['L','C','V','B'][byte versao][varint quantidade]} seguido dos registros,
+ * cada um no formato {@code [byte tag][campos de Veiculo][campos da subclasse]}.
+ * Arquivos sem esse cabeçalho são lidos pelo caminho legado de {@link ObjectInputStream},
+ * o que mantém a compatibilidade com os {@code .dat} existentes.
+ * </p>
+ * <p>
+ * Os enums são gravados pelo ordinal; novas constantes devem ser acrescentadas ao final das enumerações.
+ * </p>
+ */
+public final class VeiculoCodec {
+
+    private static final byte[] CABECALHO = {'L', 'C', 'V', 'B'};
+    /**
+     * Versão do formato gravada por este codec.
+     */
+    public static final byte VERSAO_ATUAL = 1;
+
+    private static final Map<Byte, CodecTipo<?>> CODECS_POR_TAG = new HashMap<>();
+    private static final Map<Class<?>, CodecTipo<?>> CODECS_POR_CLASSE = new HashMap<>();
+
+    static {
+        registrar(new CodecCarro());
+        registrar(new CodecMoto());
+        registrar(new CodecCaminhao());
+    }
+
+    private VeiculoCodec() {}
+
+    /**
+     * Codec responsável pelos campos específicos de uma subclasse de {@link Veiculo}.
+     *
+     * @param <T> A subclasse tratada.
+     */
+    public interface CodecTipo<T extends Veiculo> {
+        /**
+         * @return A tag de um byte que identifica o tipo no arquivo.
+         */
+        byte tag();
+
+        /**
+         * @return A classe concreta tratada por este codec.
+         */
+        Class<T> classe();
+
+        /**
+         * Escreve os campos específicos da subclasse.
+         *
+         * @param out     O destino.
+         * @param veiculo O veículo a ser escrito.
+         */
+        void escreverCampos(Saida out, T veiculo);
+
+        /**
+         * Lê os campos específicos da subclasse e constrói o veículo.
+         *
+         * @param in     A origem.
+         * @param base   Os campos comuns de {@link Veiculo} já lidos.
+         * @param versao A versão do formato sendo lida.
+         * @return O veículo reconstruído.
+         * @throws IOException Se os dados forem inválidos.
+         */
+        T ler(Entrada in, CamposVeiculo base, int versao) throws IOException;
+    }
+
+    /**
+     * Registra um codec de subclasse. Registrar uma tag já existente substitui o codec anterior.
+     *
+     * @param codec O codec a ser registrado.
+     */
+    public static synchronized void registrar(CodecTipo<?> codec) {
+        CODECS_POR_TAG.put(codec.tag(), codec);
+        CODECS_POR_CLASSE.put(codec.classe(), codec);
+    }
+
+    /**
+     * Verifica se os primeiros bytes de um arquivo correspondem ao cabeçalho deste formato.
+     *
+     * @param inicio Os primeiros bytes do arquivo.
+     * @return true se o arquivo estiver no formato binário do codec.
+     */
+    public static boolean possuiCabecalho(byte[] inicio) {
+        return inicio.length >= CABECALHO.length
+                && Arrays.equals(Arrays.copyOf(inicio, CABECALHO.length), CABECALHO);
+    }
+
+    /**
+     * Codifica uma lista de veículos no formato de arquivo, incluindo cabeçalho, versão e tabela de strings.
+     *
+     * @param veiculos Os veículos a serem codificados.
+     * @return Os bytes do arquivo.
+     * @throws IOException Se algum veículo não tiver codec registrado.
+     */
+    public static byte[] codificarLista(List<? extends Veiculo> veiculos) throws IOException {
+        Saida out = new Saida(veiculos.size() * 160 + 16, true);
+        out.escreverBytes(CABECALHO, 0, CABECALHO.length);
+        out.escreverByte(VERSAO_ATUAL);
+        out.escreverVarInt(veiculos.size());
+        for (Veiculo veiculo : veiculos) {
+            escrever(out, veiculo);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodifica uma lista de veículos no formato de arquivo. Os bytes devem começar pelo cabeçalho do codec.
+     *
+     * @param bytes O conteúdo do arquivo.
+     * @return A lista de veículos lida.
+     * @throws IOException Se o cabeçalho for inválido, a versão não for suportada ou os dados estiverem truncados.
+     */
+    public static List<Veiculo> decodificarLista(byte[] bytes) throws IOException {
+        if (!possuiCabecalho(bytes)) {
+            throw new IOException("Cabeçalho de arquivo de veículos inválido.");
+        }
+        Entrada in = new Entrada(bytes, CABECALHO.length, bytes.length, true);
+        int versao = in.lerByte() & 0xFF;
+        if (versao > VERSAO_ATUAL) {
+            throw new IOException("Versão de arquivo de veículos não suportada: " + versao);
+        }
+        int quantidade = in.lerVarInt();
+        List<Veiculo> veiculos = new ArrayList<>(Math.max(0, quantidade));
+        for (int i = 0; i < quantidade; i++) {
+            veiculos.add(ler(in, versao));
+        }
+        return veiculos;
+    }
+
+    /**
+     * Codifica um único veículo como registro independente (sem tabela de strings compartilhada).
+     *
+     * @param veiculo O veículo a ser codificado.
+     * @return Os bytes do registro.
+     * @throws IOException Se o tipo não tiver codec registrado.
+     */
+    public static byte[] codificar(Veiculo veiculo) throws IOException {
+        Saida out = new Saida(192, false);
+        escrever(out, veiculo);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodifica um único veículo produzido por {@link #codificar(Veiculo)}.
+     *
+     * @param registro Os bytes do registro.
+     * @return O veículo reconstruído.
+     * @throws IOException Se os bytes forem inválidos.
+     */
+    public static Veiculo decodificar(byte[] registro) throws IOException {
+        return ler(new Entrada(registro, 0, registro.length, false), VERSAO_ATUAL);
+    }
+
+    /**
+     * Salva uma lista de veículos em arquivo no formato binário. A escrita é feita em um arquivo temporário
+     * que depois substitui o original, para que uma falha não deixe o arquivo pela metade.
+     *
+     * @param veiculos Os veículos a serem salvos.
+     * @param caminho  O caminho do arquivo.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    public static void salvarArquivo(List<? extends Veiculo> veiculos, String caminho) throws IOException {
+        Path destino = Path.of(caminho);
+        Path diretorio = destino.toAbsolutePath().getParent();
+        if (diretorio != null) {
+            Files.createDirectories(diretorio);
+        }
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        Files.write(temporario, codificarLista(veiculos));
+        try {
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Carrega os veículos de um arquivo, detectando automaticamente o formato: binário do codec
+     * ou serialização Java legada ({@code List} serializada com {@link ObjectOutputStream}).
+     *
+     * @param caminho O caminho do arquivo.
+     * @return A lista de veículos. Retorna uma lista vazia se o arquivo não existir ou estiver vazio.
+     * @throws IOException Se ocorrer um erro de leitura.
+     * @throws ClassNotFoundException Se uma classe do formato legado não for encontrada.
+     */
+    public static List<Veiculo> carregarArquivo(String caminho) throws IOException, ClassNotFoundException {
+        File file = new File(caminho);
+        List<Veiculo> veiculos = new ArrayList<>();
+        if (!file.exists() || file.length() == 0) {
+            return veiculos;
+        }
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (possuiCabecalho(bytes)) {
+            return decodificarLista(bytes);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            Object obj = ois.readObject();
+            if (obj instanceof List) {
+                for (Object item : (List<?>) obj) {
+                    if (item instanceof Veiculo) {
+                        veiculos.add((Veiculo) item);
+                    }
+                }
+            }
+        }
+        return veiculos;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void escrever(Saida out, Veiculo veiculo) throws IOException {
+        CodecTipo<Veiculo> codec;
+        synchronized (VeiculoCodec.class) {
+            codec = (CodecTipo<Veiculo>) CODECS_POR_CLASSE.get(veiculo.getClass());
+        }
+        if (codec == null) {
+            throw new IOException("Nenhum codec registrado para o tipo de veículo " + veiculo.getClass().getName() + ".");
+        }
+        out.escreverByte(codec.tag());
+        escreverCamposBase(out, veiculo);
+        codec.escreverCampos(out, veiculo);
+    }
+
+    private static Veiculo ler(Entrada in, int versao) throws IOException {
+        byte tag = in.lerByte();
+        CodecTipo<?> codec;
+        synchronized (VeiculoCodec.class) {
+            codec = CODECS_POR_TAG.get(tag);
+        }
+        if (codec == null) {
+            throw new IOException("Tipo de veículo desconhecido no arquivo (tag " + tag + ").");
+        }
+        CamposVeiculo base = lerCamposBase(in);
+        Veiculo veiculo = codec.ler(in, base, versao);
+        veiculo.setLocacoes(base.locacoes);
+        return veiculo;
+    }
+
+    private static void escreverCamposBase(Saida out, Veiculo v) {
+        out.escreverString(v.getDescricao());
+        out.escreverString(v.getPlaca());
+        out.escreverString(v.getMarca());
+        out.escreverString(v.getNome());
+        out.escreverString(v.getModelo());
+        out.escreverVarInt(v.getAno());
+        out.escreverEnum(v.getCor());
+        out.escreverEnum(v.getFuncao());
+        out.escreverDouble(v.getQuilometragem());
+        out.escreverVarInt(v.getNumeroPassageiros());
+        out.escreverDouble(v.getConsumoCombustivelPLitro());
+        out.escreverDouble(v.getVelocidadeMax());
+        out.escreverEnum(v.getCombustivel());
+        out.escreverEnum(v.getTracao());
+        out.escreverVarInt(v.getQuantAssento());
+        out.escreverString(v.getCaminhoFoto());
+        out.escreverDouble(v.getPotencia());
+        out.escreverDouble(v.getPeso());
+        out.escreverDouble(v.getValorDiario());
+        out.escreverVarInt(v.getLocacoes());
+
+        int flags = 0;
+        if (v.isAutomatico()) flags |= 1;
+        if (v.isAirBag()) flags |= 1 << 1;
+        if (v.isVidroEletrico()) flags |= 1 << 2;
+        if (v.isArCondicionado()) flags |= 1 << 3;
+        if (v.isMultimidia()) flags |= 1 << 4;
+        if (v.isEntradaUSB()) flags |= 1 << 5;
+        if (v.isVidroFume()) flags |= 1 << 6;
+        if (v.isEngate()) flags |= 1 << 7;
+        if (v.isDirecaoHidraulica()) flags |= 1 << 8;
+        out.escreverVarInt(flags);
+    }
+
+    private static CamposVeiculo lerCamposBase(Entrada in) throws IOException {
+        CamposVeiculo c = new CamposVeiculo();
+        c.descricao = in.lerString();
+        c.placa = in.lerString();
+        c.marca = in.lerString();
+        c.nome = in.lerString();
+        c.modelo = in.lerString();
+        c.ano = in.lerVarInt();
+        c.cor = in.lerEnum(Cor.values());
+        c.funcao = in.lerEnum(Funcao.values());
+        c.quilometragem = in.lerDouble();
+        c.numeroPassageiros = in.lerVarInt();
+        c.consumoCombustivelPLitro = in.lerDouble();
+        c.velocidadeMax = in.lerDouble();
+        c.combustivel = in.lerEnum(Combustivel.values());
+        c.tracao = in.lerEnum(Tracao.values());
+        c.quantAssento = in.lerVarInt();
+        c.caminhoFoto = in.lerString();
+        c.potencia = in.lerDouble();
+        c.peso = in.lerDouble();
+        c.valorDiario = in.lerDouble();
+        c.locacoes = in.lerVarInt();
+
+        int flags = in.lerVarInt();
+        c.automatico = (flags & 1) != 0;
+        c.airBag = (flags & 1 << 1) != 0;
+        c.vidroEletrico = (flags & 1 << 2) != 0;
+        c.arCondicionado = (flags & 1 << 3) != 0;
+        c.multimidia = (flags & 1 << 4) != 0;
+        c.entradaUSB = (flags & 1 << 5) != 0;
+        c.vidroFume = (flags & 1 << 6) != 0;
+        c.engate = (flags & 1 << 7) != 0;
+        c.direcaoHidraulica = (flags & 1 << 8) != 0;
+        return c;
+    }
+
+    /**
+     * Buffer de escrita sem sincronização usado pelo codec.
+     * Quando a tabela de strings está ativa, cada string distinta é gravada uma única vez.
+     * Códigos de string: {@code 0} = null, {@code 1} = string nova em linha, {@code n >= 2} = referência à string {@code n - 2}.
+     */
+    public static final class Saida {
+        private byte[] buffer;
+        private int tamanho;
+        private final Map<String, Integer> tabelaStrings;
+
+        private Saida(int capacidadeInicial, boolean usarTabelaStrings) {
+            this.buffer = new byte[Math.max(16, capacidadeInicial)];
+            this.tabelaStrings = usarTabelaStrings ? new HashMap<>() : null;
+        }
+
+        private void garantir(int adicional) {
+            if (tamanho + adicional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, tamanho + adicional));
+            }
+        }
+
+        public void escreverByte(int valor) {
+            garantir(1);
+            buffer[tamanho++] = (byte) valor;
+        }
+
+        public void escreverBoolean(boolean valor) {
+            escreverByte(valor ? 1 : 0);
+        }
+
+        public void escreverBytes(byte[] origem, int inicio, int quantidade) {
+            garantir(quantidade);
+            System.arraycopy(origem, inicio, buffer, tamanho, quantidade);
+            tamanho += quantidade;
+        }
+
+        /**
+         * Escreve um inteiro com codificação zigzag + varint (1 byte para valores pequenos).
+         */
+        public void escreverVarInt(int valor) {
+            int v = (valor << 1) ^ (valor >> 31);
+            garantir(5);
+            while ((v & ~0x7F) != 0) {
+                buffer[tamanho++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buffer[tamanho++] = (byte) v;
+        }
+
+        public void escreverDouble(double valor) {
+            long bits = Double.doubleToLongBits(valor);
+            garantir(8);
+            for (int deslocamento = 56; deslocamento >= 0; deslocamento -= 8) {
+                buffer[tamanho++] = (byte) (bits >>> deslocamento);
+            }
+        }
+
+        public void escreverEnum(Enum<?> valor) {
+            escreverByte(valor == null ? -1 : valor.ordinal());
+        }
+
+        public void escreverString(String valor) {
+            if (valor == null) {
+                escreverVarInt(0);
+                return;
+            }
+            if (tabelaStrings != null) {
+                Integer indice = tabelaStrings.get(valor);
+                if (indice != null) {
+                    escreverVarInt(indice + 2);
+                    return;
+                }
+                tabelaStrings.put(valor, tabelaStrings.size());
+            }
+            escreverVarInt(1);
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            escreverVarInt(bytes.length);
+            escreverBytes(bytes, 0, bytes.length);
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, tamanho);
+        }
+    }
+
+    /**
+     * Leitor sem sincronização sobre um array de bytes, simétrico a {@link Saida}.
+     */
+    public static final class Entrada {
+        private final byte[] buffer;
+        private int posicao;
+        private final int limite;
+        private final List<String> tabelaStrings;
+
+        private Entrada(byte[] buffer, int inicio, int limite, boolean usarTabelaStrings) {
+            this.buffer = buffer;
+            this.posicao = inicio;
+            this.limite = limite;
+            this.tabelaStrings = usarTabelaStrings ? new ArrayList<>() : null;
+        }
+
+        private void exigir(int quantidade) throws IOException {
+            if (posicao + quantidade > limite) {
+                throw new EOFException("Registro de veículo truncado.");
+            }
+        }
+
+        public byte lerByte() throws IOException {
+            exigir(1);
+            return buffer[posicao++];
+        }
+
+        public boolean lerBoolean() throws IOException {
+            return lerByte() != 0;
+        }
+
+        public int lerVarInt() throws IOException {
+            int resultado = 0;
+            for (int deslocamento = 0; deslocamento < 35; deslocamento += 7) {
+                byte b = lerByte();
+                resultado |= (b & 0x7F) << deslocamento;
+                if ((b & 0x80) == 0) {
+                    return (resultado >>> 1) ^ -(resultado & 1);
+                }
+            }
+            throw new IOException("Varint inválido no arquivo de veículos.");
+        }
+
+        public double lerDouble() throws IOException {
+            exigir(8);
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (buffer[posicao++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        public <E extends Enum<E>> E lerEnum(E[] valores) throws IOException {
+            int ordinal = lerByte();
+            if (ordinal < 0) {
+                return null;
+            }
+            if (ordinal >= valores.length) {
+                throw new IOException("Valor de enum inválido no arquivo de veículos: " + ordinal);
+            }
+            return valores[ordinal];
+        }
+
+        public String lerString() throws IOException {
+            int codigo = lerVarInt();
+            if (codigo == 0) {
+                return null;
+            }
+            if (codigo >= 2) {
+                if (tabelaStrings == null || codigo - 2 >= tabelaStrings.size()) {
+                    throw new IOException("Referência de string inválida no arquivo de veículos.");
+                }
+                return tabelaStrings.get(codigo - 2);
+            }
+            int tamanho = lerVarInt();
+            if (tamanho < 0) {
+                throw new IOException("Tamanho de string inválido no arquivo de veículos.");
+            }
+            exigir(tamanho);
+            String valor = new String(buffer, posicao, tamanho, StandardCharsets.UTF_8);
+            posicao += tamanho;
+            if (tabelaStrings != null) {
+                tabelaStrings.add(valor);
+            }
+            return valor;
+        }
+    }
+
+    /**
+     * Campos comuns de {@link Veiculo} lidos antes dos campos da subclasse.
+     * Usado pelos {@link CodecTipo} para chamar o construtor de cada subclasse.
+     */
+    public static final class CamposVeiculo {
+        public String descricao;
+        public String placa;
+        public String marca;
+        public String nome;
+        public String modelo;
+        public int ano;
+        public Cor cor;
+        public Funcao funcao;
+        public double quilometragem;
+        public int numeroPassageiros;
+        public double consumoCombustivelPLitro;
+        public double velocidadeMax;
+        public boolean automatico;
+        public Combustivel combustivel;
+        public Tracao tracao;
+        public int quantAssento;
+        public boolean airBag;
+        public String caminhoFoto;
+        public double potencia;
+        public boolean vidroEletrico;
+        public boolean arCondicionado;
+        public boolean multimidia;
+        public boolean entradaUSB;
+        public boolean vidroFume;
+        public double peso;
+        public boolean engate;
+        public boolean direcaoHidraulica;
+        public double valorDiario;
+        public int locacoes;
+    }
+
+    private static final class CodecCarro implements CodecTipo<Carro> {
+        @Override
+        public byte tag() {
+            return 1;
+        }
+
+        @Override
+        public Class<Carro> classe() {
+            return Carro.class;
+        }
+
+        @Override
+        public void escreverCampos(Saida out, Carro carro) {
+            out.escreverVarInt(carro.getPortas());
+            out.escreverBoolean(carro.isAerofolio());
+        }
+
+        @Override
+        public Carro ler(Entrada in, CamposVeiculo b, int versao) throws IOException {
+            int portas = in.lerVarInt();
+            boolean aerofolio = in.lerBoolean();
+            return new Carro(b.descricao, b.placa, b.marca, b.nome, b.modelo, b.ano, b.cor, b.funcao, b.quilometragem,
+                    b.numeroPassageiros, b.consumoCombustivelPLitro, b.velocidadeMax, b.automatico, b.combustivel, b.tracao,
+                    b.quantAssento, b.airBag, b.caminhoFoto, b.potencia, b.vidroEletrico, b.arCondicionado, b.multimidia,
+                    b.entradaUSB, b.vidroFume, b.peso, b.engate, b.direcaoHidraulica, b.valorDiario, portas, aerofolio);
+        }
+    }
+
+    private static final class CodecMoto implements CodecTipo<Moto> {
+        @Override
+        public byte tag() {
+            return 2;
+        }
+
+        @Override
+        public Class<Moto> classe() {
+            return Moto.class;
+        }
+
+        @Override
+        public void escreverCampos(Saida out, Moto moto) {
+            out.escreverVarInt(moto.getCilindradas());
+            out.escreverBoolean(moto.isPortaCarga());
+            out.escreverVarInt(moto.getRaioPneu());
+        }
+
+        @Override
+        public Moto ler(Entrada in, CamposVeiculo b, int versao) throws IOException {
+            int cilindradas = in.lerVarInt();
+            boolean portaCarga = in.lerBoolean();
+            int raioPneu = in.lerVarInt();
+            return new Moto(b.descricao, b.placa, b.marca, b.nome, b.modelo, b.ano, b.cor, b.funcao, b.quilometragem,
+                    b.numeroPassageiros, b.consumoCombustivelPLitro, b.velocidadeMax, b.automatico, b.combustivel, b.tracao,
+                    b.quantAssento, b.airBag, b.caminhoFoto, b.potencia, b.vidroEletrico, b.arCondicionado, b.multimidia,
+                    b.entradaUSB, b.vidroFume, b.peso, b.engate, b.direcaoHidraulica, b.valorDiario, cilindradas, portaCarga, raioPneu);
+        }
+    }
+
+    private static final class CodecCaminhao implements CodecTipo<Caminhao> {
+        @Override
+        public byte tag() {
+            return 3;
+        }
+
+        @Override
+        public Class<Caminhao> classe() {
+            return Caminhao.class;
+        }
+
+        @Override
+        public void escreverCampos(Saida out, Caminhao caminhao) {
+            out.escreverDouble(caminhao.getCargaMaxima());
+            out.escreverDouble(caminhao.getAltura());
+            out.escreverDouble(caminhao.getLargura());
+            out.escreverDouble(caminhao.getComprimento());
+            out.escreverEnum(caminhao.getTipoVagao());
+        }
+
+        @Override
+        public Caminhao ler(Entrada in, CamposVeiculo b, int versao) throws IOException {
+            double cargaMaxima = in.lerDouble();
+            double altura = in.lerDouble();
+            double largura = in.lerDouble();
+            double comprimento = in.lerDouble();
+            Vagao tipoVagao = in.lerEnum(Vagao.values());
+            return new Caminhao(b.descricao, b.placa, b.marca, b.nome, b.modelo, b.ano, b.cor, b.funcao, b.quilometragem,
+                    b.numeroPassageiros, b.consumoCombustivelPLitro, b.velocidadeMax, b.automatico, b.combustivel, b.tracao,
+                    b.quantAssento, b.airBag, b.caminhoFoto, b.potencia, b.vidroEletrico, b.arCondicionado, b.multimidia,
+                    b.entradaUSB, b.vidroFume, b.peso, b.engate, b.direcaoHidraulica, b.valorDiario,
+                    cargaMaxima, altura, largura, comprimento, tipoVagao);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.locar.core.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * A classe `VersaoArquivo` identifica uma versão de um arquivo em disco pela sua identidade no sistema de arquivos
+ * ({@code fileKey}), tamanho e data de modificação. Permite que um cache em memória perceba que o arquivo foi
+ * substituído ou apagado por fora, sem precisar relê-lo a cada consulta.
+ * <p>
+ * Como os arquivos da aplicação são regravados por arquivo temporário e renomeação, cada gravação produz um novo
+ * {@code fileKey} nos sistemas que o suportam; tamanho e data cobrem os demais.
+ * </p>
+ */
+public final class VersaoArquivo {
+
+    /**
+     * Versão que representa um arquivo inexistente.
+     */
+    public static final VersaoArquivo AUSENTE = new VersaoArquivo(null, -1, -1);
+
+    private final Object chave;
+    private final long tamanho;
+    private final long modificacao;
+
+    private VersaoArquivo(Object chave, long tamanho, long modificacao) {
+        this.chave = chave;
+        this.tamanho = tamanho;
+        this.modificacao = modificacao;
+    }
+
+    /**
+     * Lê a versão atual do arquivo.
+     *
+     * @param caminho O caminho do arquivo.
+     * @return A versão atual, ou {@link #AUSENTE} se o arquivo não existir ou não puder ser lido.
+     */
+    public static VersaoArquivo de(String caminho) {
+        try {
+            BasicFileAttributes atributos = Files.readAttributes(Path.of(caminho), BasicFileAttributes.class);
+            return new VersaoArquivo(atributos.fileKey(), atributos.size(), atributos.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            return AUSENTE;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VersaoArquivo)) {
+            return false;
+        }
+        VersaoArquivo outra = (VersaoArquivo) o;
+        return tamanho == outra.tamanho && modificacao == outra.modificacao && Objects.equals(chave, outra.chave);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(chave, tamanho, modificacao);
+    }
+}
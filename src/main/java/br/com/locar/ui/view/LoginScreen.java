@@ -1,5 +1,6 @@
 package br.com.locar.ui.view;
 
+import br.com.locar.core.context.ContextoAplicacao;
 import br.com.locar.core.controller.AuthController;
 import br.com.locar.core.entities.Cliente;
 import br.com.locar.core.entities.Funcionario;
@@ -31,7 +32,7 @@ public class LoginScreen extends JFrame {
      * Inicializa o controlador de autenticação e a interface do usuário.
      */
     public LoginScreen() {
-        authController = new AuthController();
+        authController = ContextoAplicacao.getInstancia().getAuthController();
         initializeUI();
     }
 
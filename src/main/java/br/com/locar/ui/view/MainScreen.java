@@ -1,5 +1,6 @@
 package br.com.locar.ui.view;
 
+import br.com.locar.core.context.ContextoAplicacao;
 import br.com.locar.core.controller.VeiculoController;
 import br.com.locar.core.entities.Cliente;
 import br.com.locar.core.entities.Funcionario;
@@ -32,7 +33,7 @@ public class MainScreen extends JFrame {
      */
     public MainScreen(Cliente client) {
         this.loggedInUser = client;
-        this.veiculoController = new VeiculoController();
+        this.veiculoController = ContextoAplicacao.getInstancia().getVeiculoController();
         initializeUI();
     }
 
@@ -43,7 +44,7 @@ public class MainScreen extends JFrame {
      */
     public MainScreen(Funcionario funcionario) {
         this.loggedInUser = funcionario;
-        this.veiculoController = new VeiculoController();
+        this.veiculoController = ContextoAplicacao.getInstancia().getVeiculoController();
         initializeUI();
     }
 
@@ -93,7 +94,7 @@ public class MainScreen extends JFrame {
         contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
         contentPanel.setBackground(UIManager.getColor("Panel.background"));
         contentPanel.setBorder(BorderFactory.createEmptyBorder(20, 50, 20, 50));
-        List<Veiculo> veiculosCarrossel = veiculoController.listarTodos();
+        List<Veiculo> veiculosCarrossel = veiculoController.listarDestaques(CarrosselPanel.LIMITE_DESTAQUES);
         carrosselPanel = new CarrosselPanel(veiculosCarrossel, loggedInUser);
         carrosselPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
         contentPanel.add(carrosselPanel);
@@ -1,10 +1,12 @@
 package br.com.locar.ui.view;
 
+import br.com.locar.core.context.ContextoAplicacao;
 import br.com.locar.core.controller.AuthController;
 import br.com.locar.core.entities.Cliente;
 import br.com.locar.core.entities.Endereco;
 import br.com.locar.core.entities.enums.Sexo;
 import br.com.locar.util.ImageScaler;
+import br.com.locar.util.LeitorImagens;
 import com.formdev.flatlaf.FlatClientProperties;
 
 import javax.swing.*;
@@ -51,7 +53,7 @@ public class RegisterScreen extends JFrame {
      * Inicializa o controlador de autenticação e a interface do usuário.
      */
     public RegisterScreen() {
-        authController = new AuthController();
+        authController = ContextoAplicacao.getInstancia().getAuthController();
         initializeUI();
     }
 
@@ -328,9 +330,11 @@ public class RegisterScreen extends JFrame {
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             java.io.File fileToLoad = fileChooser.getSelectedFile();
             try {
-                ImageIcon originalIcon = new ImageIcon(fileToLoad.getAbsolutePath());
-
-                Image scaledImage = ImageScaler.getScaledImage(originalIcon.getImage(), 100, 100);
+                Image originalImage = LeitorImagens.ler(fileToLoad, 100, 100);
+                if (originalImage == null) {
+                    throw new IllegalArgumentException("formato de imagem não suportado.");
+                }
+                Image scaledImage = ImageScaler.getScaledImage(originalImage, 100, 100);
                 profileImagePreview.setIcon(new ImageIcon(scaledImage));
                 selectedImagePath = fileToLoad.getAbsolutePath();
             } catch (Exception ex) {
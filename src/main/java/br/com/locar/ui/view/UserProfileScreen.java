@@ -1,26 +1,27 @@
 package br.com.locar.ui.view;
 
+import br.com.locar.core.context.ContextoAplicacao;
 import br.com.locar.core.controller.AuthController;
 import br.com.locar.core.entities.Cliente;
 import br.com.locar.core.entities.Funcionario;
 import br.com.locar.core.entities.Pessoa;
 import br.com.locar.core.entities.enums.Sexo;
+import br.com.locar.util.CacheImagens;
 import br.com.locar.util.ImageScaler;
+import br.com.locar.util.LeitorImagens;
 import br.com.locar.ui.view.components.HeaderPanel;
+import br.com.locar.ui.view.components.RoundedImageLabel;
 import com.formdev.flatlaf.FlatClientProperties;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.File;
-import java.io.IOException;
-import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A classe `UserProfileScreen` representa a tela de perfil do usuário na aplicação LoCar!.
@@ -32,7 +33,7 @@ public class UserProfileScreen extends JFrame {
     private Pessoa loggedInUser;
     private AuthController authController;
 
-    private JLabel profileImageLabel;
+    private RoundedImageLabel profileImageLabel;
     private JTextField nameField;
     private JTextField cpfField;
     private JTextField phoneField;
@@ -62,7 +63,7 @@ public class UserProfileScreen extends JFrame {
      */
     public UserProfileScreen(Pessoa user) {
         this.loggedInUser = user;
-        this.authController = new AuthController();
+        this.authController = ContextoAplicacao.getInstancia().getAuthController();
         initializeUI();
         displayUserData();
         setEditMode(false);
@@ -116,7 +117,7 @@ public class UserProfileScreen extends JFrame {
 
         JPanel profileImagePanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         profileImagePanel.setOpaque(false);
-        profileImageLabel = new JLabel();
+        profileImageLabel = new RoundedImageLabel(null, 350);
         profileImageLabel.setPreferredSize(new Dimension(350, 350));
         profileImageLabel.setHorizontalAlignment(SwingConstants.CENTER);
         profileImageLabel.setVerticalAlignment(SwingConstants.CENTER);
@@ -278,28 +279,13 @@ public class UserProfileScreen extends JFrame {
      */
     private void displayUserData() {
         Image profileImage = null;
-        String imagePath = loggedInUser.getCaminhoFoto();
-        if (imagePath != null && !imagePath.isEmpty()) {
-            try {
-                File fileImage = new File(imagePath);
-                if (fileImage.exists()) {
-                    profileImage = ImageIO.read(fileImage);
-                } else {
-                    URL resourceUrl = getClass().getResource(imagePath);
-                    if (resourceUrl != null) {
-                        profileImage = ImageIO.read(resourceUrl);
-                    } else {
-                        System.err.println("Imagem de perfil não encontrada em: " + imagePath);
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("Erro de I/O ao carregar imagem de perfil: " + e.getMessage());
-            } catch (Exception e) {
-                System.err.println("Erro inesperado ao carregar imagem de perfil: " + e.getMessage());
-            }
+        try {
+            profileImage = CacheImagens.compartilhado().obter(loggedInUser.getCaminhoFoto(), 350, 350);
+        } catch (Exception e) {
+            System.err.println("Erro inesperado ao carregar imagem de perfil: " + e.getMessage());
         }
         if (profileImage != null) {
-            profileImageLabel.setIcon(new ImageIcon(ImageScaler.getScaledImage(profileImage, 350, 350)));
+            profileImageLabel.setIcon(new ImageIcon(profileImage));
         } else {
             profileImageLabel.setIcon(null);
             profileImageLabel.setText("Sem Foto");
@@ -368,7 +354,10 @@ public class UserProfileScreen extends JFrame {
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             java.io.File fileToLoad = fileChooser.getSelectedFile();
             try {
-                Image originalImage = ImageIO.read(fileToLoad);
+                Image originalImage = LeitorImagens.ler(fileToLoad, 150, 150);
+                if (originalImage == null) {
+                    throw new IllegalArgumentException("formato de imagem não suportado.");
+                }
                 profileImageLabel.setIcon(new ImageIcon(ImageScaler.getScaledImage(originalImage, 150, 150)));
                 initialProfileImagePath = fileToLoad.getAbsolutePath();
             } catch (Exception ex) {
@@ -384,6 +373,7 @@ public class UserProfileScreen extends JFrame {
      * Coleta os dados dos campos, validações básicas (formato de número e data),
      * atualiza o objeto {@link Pessoa} logado e persiste as mudanças através do {@link AuthController}.
      * Se uma nova foto de perfil foi selecionada, ela também é salva.
+     * A gravação é feita em segundo plano e o resultado é exibido quando ela termina.
      */
     private void handleSaveChanges() {
         String newName = nameField.getText();
@@ -431,28 +421,31 @@ public class UserProfileScreen extends JFrame {
             }
         }
 
-        boolean success;
+        CompletableFuture<Void> gravacao;
         if (loggedInUser instanceof Cliente) {
             List<Cliente> clients = authController.loadClients();
             clients.removeIf(c -> c.getCpf().equals(loggedInUser.getCpf()));
             clients.add((Cliente) loggedInUser);
-            success = authController.saveClients(clients);
+            gravacao = authController.saveClientsAsync(clients);
         } else if (loggedInUser instanceof Funcionario) {
             List<Funcionario> employees = authController.loadEmployees();
             employees.removeIf(f -> f.getCpf().equals(loggedInUser.getCpf()));
             employees.add((Funcionario) loggedInUser);
-            success = authController.saveEmployees(employees);
-        } else {
-            success = false;
-        }
-
-        if (success) {
-            JOptionPane.showMessageDialog(this, "Perfil atualizado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-            setEditMode(false);
-            displayUserData();
+            gravacao = authController.saveEmployeesAsync(employees);
         } else {
             JOptionPane.showMessageDialog(this, "Falha ao salvar alterações.", "Erro", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        setEditMode(false);
+        displayUserData();
+        gravacao.whenComplete((ok, erro) -> SwingUtilities.invokeLater(() -> {
+            if (erro == null) {
+                JOptionPane.showMessageDialog(this, "Perfil atualizado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Falha ao salvar alterações.", "Erro", JOptionPane.ERROR_MESSAGE);
+            }
+        }));
     }
 
     /**
@@ -481,18 +474,13 @@ public class UserProfileScreen extends JFrame {
 
             ImageIcon qrCodeIcon = null;
             try {
-                URL imageUrl = getClass().getResource("/br/com/locar/ui/images/icons/qr-code.jpg");
-                if (imageUrl != null) {
-                    Image originalImage = ImageIO.read(imageUrl);
-                    Image scaledImage = ImageScaler.getScaledImage(originalImage, 200, 200);
+                Image scaledImage = CacheImagens.compartilhado().obter("/br/com/locar/ui/images/icons/qr-code.jpg", 200, 200);
+                if (scaledImage != null) {
                     qrCodeIcon = new ImageIcon(scaledImage);
                 } else {
                     System.err.println("Imagem do QR Code estático não encontrada em: /br/com/locar/ui/images/icons/qr-code.jpg");
                     qrCodeIcon = new ImageIcon(new byte[0]);
                 }
-            } catch (IOException e) {
-                System.err.println("Erro de I/O ao carregar QR Code estático: " + e.getMessage());
-                qrCodeIcon = new ImageIcon(new byte[0]);
             } catch (Exception e) {
                 System.err.println("Erro inesperado ao carregar/escalar QR Code estático: " + e.getMessage());
                 qrCodeIcon = new ImageIcon(new byte[0]);
@@ -531,12 +519,14 @@ public class UserProfileScreen extends JFrame {
                     List<Cliente> clients = authController.loadClients();
                     clients.removeIf(c -> c.getCpf().equals(cliente.getCpf()));
                     clients.add(cliente);
-                    if (authController.saveClients(clients)) {
-                        JOptionPane.showMessageDialog(UserProfileScreen.this, "Saldo adicionado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-                        currentBalanceLabel.setText("R$ " + String.format("%.2f", cliente.getSaldo()));
-                    } else {
-                        JOptionPane.showMessageDialog(UserProfileScreen.this, "Erro ao salvar saldo atualizado.", "Erro", JOptionPane.ERROR_MESSAGE);
-                    }
+                    authController.saveClientsAsync(clients).whenComplete((ok, erro) -> SwingUtilities.invokeLater(() -> {
+                        if (erro == null) {
+                            JOptionPane.showMessageDialog(UserProfileScreen.this, "Saldo adicionado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                            currentBalanceLabel.setText("R$ " + String.format("%.2f", cliente.getSaldo()));
+                        } else {
+                            JOptionPane.showMessageDialog(UserProfileScreen.this, "Erro ao salvar saldo atualizado.", "Erro", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }));
                     ((Timer) e.getSource()).stop();
                 }
             });
@@ -1,22 +1,19 @@
 package br.com.locar.ui.view;
 
+import br.com.locar.core.context.ContextoAplicacao;
 import br.com.locar.core.controller.LocacaoController;
 import br.com.locar.core.controller.VeiculoController;
 import br.com.locar.core.entities.*;
 import br.com.locar.terrestre.entities.*;
-import br.com.locar.util.ImageScaler;
+import br.com.locar.util.CarregadorImagens;
 import br.com.locar.ui.view.components.HeaderPanel;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.File;
-import java.io.IOException;
-import java.net.URL;
 import java.time.LocalDateTime;
 
 /**
@@ -47,8 +44,8 @@ public class VehicleDetailScreen extends JFrame {
     public VehicleDetailScreen(Veiculo veiculo, Pessoa user) {
         this.selectedVeiculo = veiculo;
         this.loggedInUser = user;
-        this.veiculoController = new VeiculoController();
-        this.locacaoController = new LocacaoController();
+        this.locacaoController = ContextoAplicacao.getInstancia().getLocacaoController();
+        this.veiculoController = locacaoController.getVeiculoController();
         initializeUI();
     }
 
@@ -255,42 +252,32 @@ public class VehicleDetailScreen extends JFrame {
 
     /**
      * Carrega e define a imagem do veículo no `vehicleImageLabel`.
-     * Tenta carregar a imagem do caminho fornecido (pode ser um arquivo local ou um recurso).
-     * Se a imagem não puder ser carregada, um texto "Imagem Indisponível" é exibido.
+     * A imagem (arquivo local ou recurso) é lida em segundo plano pelo {@link CarregadorImagens}; enquanto isso,
+     * o rótulo exibe um espaço reservado. Se a imagem não puder ser carregada, um texto "Imagem Indisponível" é exibido.
      *
      * @param imagePath O caminho da imagem do veículo.
      */
     private void loadAndSetVehicleImage(String imagePath) {
-        Image veiculoImage = null;
-        if (imagePath != null && !imagePath.isEmpty()) {
-            try {
-                File savedImageFile = new File(imagePath);
-                if (savedImageFile.exists()) {
-                    veiculoImage = ImageIO.read(savedImageFile);
-                } else {
-                    URL imageUrl = getClass().getResource(imagePath);
-                    if (imageUrl != null) {
-                        veiculoImage = ImageIO.read(imageUrl);
-                    } else {
-                        System.err.println("Imagem do veículo não encontrada: " + imagePath);
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("Erro de I/O ao carregar imagem do veículo: " + e.getMessage());
-            } catch (Exception e) {
-                System.err.println("Erro inesperado ao carregar/escalar imagem do veículo: " + e.getMessage());
-            }
+        if (imagePath == null || imagePath.isEmpty()) {
+            exibirImagemIndisponivel();
+            return;
         }
+        Dimension tamanho = vehicleImageLabel.getPreferredSize();
+        vehicleImageLabel.setIcon(CarregadorImagens.espacoReservado(tamanho.width, tamanho.height));
+        CarregadorImagens.compartilhado().carregar(imagePath, tamanho.width, tamanho.height, CarregadorImagens.Prioridade.VISIVEL, scaledImage -> {
+            if (scaledImage != null) {
+                vehicleImageLabel.setIcon(new ImageIcon(scaledImage));
+            } else {
+                exibirImagemIndisponivel();
+            }
+        });
+    }
 
-        if (veiculoImage != null) {
-            Image scaledImage = ImageScaler.getScaledImage(veiculoImage, vehicleImageLabel.getPreferredSize().width, vehicleImageLabel.getPreferredSize().height);
-            vehicleImageLabel.setIcon(new ImageIcon(scaledImage));
-        } else {
-            vehicleImageLabel.setIcon(null);
-            vehicleImageLabel.setText("Imagem Indisponível");
-            vehicleImageLabel.setForeground(Color.RED);
-            vehicleImageLabel.setFont(UIManager.getFont("Label.font").deriveFont(Font.BOLD, 16f));
-        }
+    private void exibirImagemIndisponivel() {
+        vehicleImageLabel.setIcon(null);
+        vehicleImageLabel.setText("Imagem Indisponível");
+        vehicleImageLabel.setForeground(Color.RED);
+        vehicleImageLabel.setFont(UIManager.getFont("Label.font").deriveFont(Font.BOLD, 16f));
     }
 
     /**
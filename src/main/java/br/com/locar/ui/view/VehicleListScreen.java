@@ -1,31 +1,56 @@
 package br.com.locar.ui.view;
 
+import br.com.locar.core.context.ContextoAplicacao;
 import br.com.locar.core.controller.VeiculoController;
 import br.com.locar.core.entities.Cliente;
 import br.com.locar.core.entities.Funcionario;
 import br.com.locar.core.entities.Pessoa;
 import br.com.locar.core.entities.Veiculo;
 import br.com.locar.core.entities.enums.Cor;
-import br.com.locar.ui.view.components.CarCardPanel;
+import br.com.locar.core.index.AtributoNumerico;
+import br.com.locar.core.index.CaracteristicaVeiculo;
+import br.com.locar.core.index.ContagemFacetas;
+import br.com.locar.core.index.CursorVeiculos;
+import br.com.locar.core.index.FiltroAtributos;
+import br.com.locar.core.index.OrdemVeiculos;
+import br.com.locar.core.index.PaginaVeiculos;
 import br.com.locar.ui.view.components.HeaderPanel;
+import br.com.locar.ui.view.components.VehicleCardGrid;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A classe `VehicleListScreen` representa a tela de listagem e filtragem de veículos na aplicação LoCar!.
- * Ela permite que os usuários busquem veículos por texto, filtrem por preço, cor, status de disponibilidade e tipo de veículo.
- * Os resultados são exibidos em um formato de cartão.
+ * Ela permite que os usuários busquem veículos por texto, filtrem por faixa de preço e de ano, cor, status de disponibilidade, tipo de veículo
+ * e itens opcionais. Cada opção de filtro exibe quantos veículos seriam encontrados se fosse escolhida.
+ * Os resultados são exibidos em uma grade virtualizada de cartões ({@link VehicleCardGrid}), na ordem escolhida,
+ * e carregados em páginas à medida que a lista é rolada.
  */
 public class VehicleListScreen extends JFrame {
-    private JPanel cardPanel;
-    private JPanel cardContainerPanel;
+    /**
+     * Quantidade de cartões buscados por página; múltiplo das três colunas da grade.
+     */
+    private static final int TAMANHO_PAGINA = 24;
+    /**
+     * Distância, em pixels, do fim da rolagem a partir da qual a próxima página é buscada.
+     */
+    private static final int MARGEM_PROXIMA_PAGINA = 600;
+
+    private VehicleCardGrid cardGrid;
+    private JScrollPane scrollPane;
+    private JComboBox<OrdemVeiculos> ordemComboBox;
     private VeiculoController veiculoController;
     private HeaderPanel headerPanel;
     private Pessoa loggedInUser;
 
+    private JTextField precoMinField;
     private JTextField precoMaxField;
+    private JTextField anoMinField;
+    private JTextField anoMaxField;
     private JComboBox<Cor> coresComboBox;
     private JRadioButton disponiveisRadio;
     private JRadioButton proximosDevolucaoRadio;
@@ -39,6 +64,21 @@ public class VehicleListScreen extends JFrame {
     private JRadioButton todosModelosRadio;
     private ButtonGroup modeloButtonGroup;
 
+    private final Map<CaracteristicaVeiculo, JCheckBox> caracteristicaCheckBoxes = new EnumMap<>(CaracteristicaVeiculo.class);
+    /**
+     * Contagens por opção da última filtragem, exibidas ao lado de cada opção.
+     */
+    private ContagemFacetas contagemAtual;
+
+    private String termoConsulta;
+    private String statusConsulta;
+    private FiltroAtributos filtroConsulta;
+    private OrdemVeiculos ordemConsulta;
+    /**
+     * Cursor da próxima página da consulta atual, ou null quando todas as páginas já foram exibidas.
+     */
+    private CursorVeiculos proximaPagina;
+
     /**
      * Construtor para `VehicleListScreen`.
      *
@@ -54,7 +94,7 @@ public class VehicleListScreen extends JFrame {
         setExtendedState(JFrame.MAXIMIZED_BOTH);
         setLayout(new BorderLayout());
 
-        veiculoController = new VeiculoController();
+        veiculoController = ContextoAplicacao.getInstancia().getVeiculoController();
 
         String userName = (loggedInUser != null) ? loggedInUser.getNome() : "Visitante";
         String userProfilePic = (loggedInUser != null) ? loggedInUser.getCaminhoFoto() : null;
@@ -103,33 +143,29 @@ public class VehicleListScreen extends JFrame {
         addFiltersToPanel();
         mainContentPanel.add(filterPanel, BorderLayout.WEST);
 
-        cardContainerPanel = new JPanel();
-        cardContainerPanel.setLayout(new FlowLayout(FlowLayout.CENTER, 20, 20));
-
-        cardPanel = new JPanel();
-        cardPanel.setLayout(new GridLayout(0, 3, 20, 20));
-        cardPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 0));
-
-        cardContainerPanel.add(cardPanel);
+        cardGrid = new VehicleCardGrid();
+        cardGrid.setAoSelecionar(veiculo -> {
+            dispose();
+            VehicleDetailScreen detailScreen = new VehicleDetailScreen(veiculo, loggedInUser);
+            detailScreen.setVisible(true);
+        });
 
-        JScrollPane scrollPane = new JScrollPane(cardContainerPanel);
+        scrollPane = new JScrollPane(cardGrid);
         scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> carregarProximaPaginaSeNecessario());
         mainContentPanel.add(scrollPane, BorderLayout.CENTER);
 
         add(mainContentPanel, BorderLayout.CENTER);
 
         if (initialSearchText != null && !initialSearchText.isEmpty()) {
             headerPanel.setSearchText(initialSearchText);
-            aplicarFiltros();
-        } else {
-            atualizarCards(veiculoController.listarTodos());
         }
         SwingUtilities.invokeLater(() -> aplicarFiltros());
         setVisible(true);
     }
 
     /**
-     * Adiciona os componentes de filtro (preço máximo, cor, disponibilidade e tipo de veículo)
+     * Adiciona os componentes de filtro (faixas de preço e ano, cor, disponibilidade, tipo de veículo e itens)
      * ao painel lateral de filtros.
      */
     private void addFiltersToPanel() {
@@ -139,18 +175,39 @@ public class VehicleListScreen extends JFrame {
         filterPanel.add(titleLabel);
         filterPanel.add(Box.createRigidArea(new Dimension(0, 15)));
 
-        JLabel precoLabel = new JLabel("Preço máximo por dia:");
+        JLabel ordemLabel = new JLabel("Ordenar por:");
+        ordemLabel.setFont(ordemLabel.getFont().deriveFont(Font.BOLD, 14f));
+        ordemLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        filterPanel.add(ordemLabel);
+
+        ordemComboBox = new JComboBox<>(OrdemVeiculos.values());
+        ordemComboBox.setBackground(Color.WHITE);
+        ordemComboBox.setPreferredSize(new Dimension(150, 30));
+        ordemComboBox.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        ordemComboBox.setAlignmentX(Component.LEFT_ALIGNMENT);
+        ordemComboBox.setFont(ordemComboBox.getFont().deriveFont(Font.PLAIN, 14));
+        ordemComboBox.addActionListener(e -> aplicarFiltros());
+        filterPanel.add(ordemComboBox);
+        filterPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+
+        JLabel precoLabel = new JLabel("Preço por dia (de / até):");
         precoLabel.setFont(precoLabel.getFont().deriveFont(Font.BOLD, 14f));
         precoLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         filterPanel.add(precoLabel);
 
-        precoMaxField = new JTextField(10);
-        precoMaxField.setBackground(Color.WHITE);
-        precoMaxField.setPreferredSize(new Dimension(150, 30));
-        precoMaxField.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
-        precoMaxField.setAlignmentX(Component.LEFT_ALIGNMENT);
-        precoMaxField.addActionListener(e -> aplicarFiltros());
-        filterPanel.add(precoMaxField);
+        precoMinField = createRangeField();
+        precoMaxField = createRangeField();
+        filterPanel.add(createRangePanel(precoMinField, precoMaxField));
+        filterPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+
+        JLabel anoLabel = new JLabel("Ano (de / até):");
+        anoLabel.setFont(anoLabel.getFont().deriveFont(Font.BOLD, 14f));
+        anoLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        filterPanel.add(anoLabel);
+
+        anoMinField = createRangeField();
+        anoMaxField = createRangeField();
+        filterPanel.add(createRangePanel(anoMinField, anoMaxField));
         filterPanel.add(Box.createRigidArea(new Dimension(0, 10)));
 
         JLabel coresLabel = new JLabel("Cor:");
@@ -160,6 +217,16 @@ public class VehicleListScreen extends JFrame {
 
         coresComboBox = new JComboBox<>(Cor.values());
         coresComboBox.setSelectedItem(null);
+        coresComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                Object texto = value;
+                if (value instanceof Cor && value != Cor.TODAS && contagemAtual != null) {
+                    texto = value + " (" + contagemAtual.getCor((Cor) value) + ")";
+                }
+                return super.getListCellRendererComponent(list, texto, index, isSelected, cellHasFocus);
+            }
+        });
         coresComboBox.setBackground(Color.WHITE);
         coresComboBox.setPreferredSize(new Dimension(150, 30));
         coresComboBox.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
@@ -245,27 +312,101 @@ public class VehicleListScreen extends JFrame {
         filterPanel.add(motoRadio);
         filterPanel.add(caminhaoRadio);
         filterPanel.add(todosModelosRadio);
+        filterPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+
+        JLabel itensLabel = new JLabel("Itens:");
+        itensLabel.setFont(itensLabel.getFont().deriveFont(Font.BOLD, 14f));
+        itensLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        filterPanel.add(itensLabel);
+
+        for (CaracteristicaVeiculo caracteristica : CaracteristicaVeiculo.values()) {
+            JCheckBox checkBox = new JCheckBox(caracteristica.getDescricao());
+            checkBox.setForeground(new Color(0, 0, 0));
+            checkBox.setOpaque(false);
+            checkBox.setFont(checkBox.getFont().deriveFont(12f));
+            checkBox.setAlignmentX(Component.LEFT_ALIGNMENT);
+            checkBox.addActionListener(e -> aplicarFiltros());
+            caracteristicaCheckBoxes.put(caracteristica, checkBox);
+            filterPanel.add(checkBox);
+        }
         filterPanel.add(Box.createVerticalGlue());
     }
 
+    /**
+     * Cria um campo de texto para um dos limites de uma faixa de valores, que reaplica os filtros ao pressionar Enter.
+     *
+     * @return O campo criado.
+     */
+    private JTextField createRangeField() {
+        JTextField field = new JTextField(5);
+        field.setBackground(Color.WHITE);
+        field.setPreferredSize(new Dimension(70, 30));
+        field.addActionListener(e -> aplicarFiltros());
+        return field;
+    }
+
+    /**
+     * Agrupa os campos de mínimo e máximo de uma faixa lado a lado.
+     *
+     * @param minField O campo do limite inferior.
+     * @param maxField O campo do limite superior.
+     * @return O painel com os dois campos.
+     */
+    private JPanel createRangePanel(JTextField minField, JTextField maxField) {
+        JPanel panel = new JPanel(new GridLayout(1, 2, 5, 0));
+        panel.setOpaque(false);
+        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        panel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        panel.add(minField);
+        panel.add(maxField);
+        return panel;
+    }
+
+    /**
+     * Lê o valor numérico de um campo de faixa.
+     *
+     * @param field O campo.
+     * @return O valor digitado, ou null se o campo estiver vazio.
+     * @throws NumberFormatException Se o texto não for um número válido.
+     */
+    private Double lerLimite(JTextField field) {
+        String texto = field.getText().trim();
+        if (texto.isEmpty()) {
+            return null;
+        }
+        return Double.parseDouble(texto.replace(",", "."));
+    }
+
     /**
      * Aplica os filtros selecionados na interface e atualiza a lista de veículos exibida.
-     * Coleta os valores dos campos de busca e filtros (preço, cor, status, tipo),
-     * e então chama o `VeiculoController` para obter a lista filtrada de veículos.
+     * Coleta os valores dos campos de busca e filtros (faixas de preço e ano, cor, status, tipo, itens),
+     * e então reinicia a listagem com a primeira página da consulta e atualiza as contagens de cada opção.
      */
     private void aplicarFiltros() {
         String termoBuscaGeral = headerPanel.getSearchText().toLowerCase();
 
-        Double precoMax = null;
+        Double precoMin;
+        Double precoMax;
+        Double anoMin;
+        Double anoMax;
         try {
-            if (!precoMaxField.getText().trim().isEmpty()) {
-                precoMax = Double.parseDouble(precoMaxField.getText().replace(",", "."));
-            }
+            precoMin = lerLimite(precoMinField);
+            precoMax = lerLimite(precoMaxField);
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Por favor, insira um valor numérico válido para o preço.", "Erro de Entrada", JOptionPane.ERROR_MESSAGE);
+            precoMinField.setText("");
             precoMaxField.setText("");
             return;
         }
+        try {
+            anoMin = lerLimite(anoMinField);
+            anoMax = lerLimite(anoMaxField);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Por favor, insira um ano válido.", "Erro de Entrada", JOptionPane.ERROR_MESSAGE);
+            anoMinField.setText("");
+            anoMaxField.setText("");
+            return;
+        }
 
         Cor corSelecionada = (Cor) coresComboBox.getSelectedItem();
 
@@ -277,9 +418,6 @@ public class VehicleListScreen extends JFrame {
         } else if (todosStatusRadio.isSelected()) {
             statusSelecionado = "Todos";
         }
-        Integer anoMin = null;
-        Integer anoMax = null;
-
         String tipoVeiculoSelecionado = null;
         if (carroRadio.isSelected()) {
             tipoVeiculoSelecionado = "Carro";
@@ -291,41 +429,77 @@ public class VehicleListScreen extends JFrame {
             tipoVeiculoSelecionado = "Todos os Modelos";
         }
 
-        List<Veiculo> veiculosFiltrados = veiculoController.filtrarVeiculos(termoBuscaGeral, precoMax, corSelecionada, statusSelecionado, anoMin, anoMax, tipoVeiculoSelecionado);
-        atualizarCards(veiculosFiltrados);
+        FiltroAtributos filtro = new FiltroAtributos()
+                .faixa(AtributoNumerico.VALOR_DIARIO, precoMin, precoMax)
+                .faixa(AtributoNumerico.ANO, anoMin, anoMax);
+        if (corSelecionada != null && corSelecionada != Cor.TODAS) {
+            filtro.cores(corSelecionada);
+        }
+        if (!"Todos os Modelos".equals(tipoVeiculoSelecionado) && tipoVeiculoSelecionado != null) {
+            filtro.tipos(tipoVeiculoSelecionado);
+        }
+        caracteristicaCheckBoxes.forEach((caracteristica, checkBox) -> {
+            if (checkBox.isSelected()) {
+                filtro.com(caracteristica);
+            }
+        });
+
+        termoConsulta = termoBuscaGeral;
+        statusConsulta = statusSelecionado;
+        filtroConsulta = filtro;
+        ordemConsulta = (OrdemVeiculos) ordemComboBox.getSelectedItem();
+        atualizarContagens(veiculoController.contarFacetas(termoBuscaGeral, statusSelecionado, filtro));
+
+        PaginaVeiculos primeiraPagina = veiculoController.consultarVeiculos(termoConsulta, statusConsulta, filtroConsulta, ordemConsulta, null, TAMANHO_PAGINA);
+        cardGrid.limpar();
+        exibirPagina(primeiraPagina);
+        scrollPane.getVerticalScrollBar().setValue(0);
+    }
+
+    /**
+     * Busca a próxima página da consulta atual quando a rolagem se aproxima do fim dos cartões, ou quando os
+     * cartões exibidos ainda não preenchem a área visível.
+     */
+    private void carregarProximaPaginaSeNecessario() {
+        if (proximaPagina == null) {
+            return;
+        }
+        JScrollBar barra = scrollPane.getVerticalScrollBar();
+        if (barra.getValue() + barra.getVisibleAmount() < barra.getMaximum() - MARGEM_PROXIMA_PAGINA) {
+            return;
+        }
+        CursorVeiculos cursor = proximaPagina;
+        proximaPagina = null;
+        exibirPagina(veiculoController.consultarVeiculos(termoConsulta, statusConsulta, filtroConsulta, ordemConsulta, cursor, TAMANHO_PAGINA));
+    }
+
+    /**
+     * Exibe ao lado de cada opção de cor, tipo e item a quantidade de veículos que ela selecionaria.
+     *
+     * @param contagem As contagens calculadas pelo `VeiculoController`.
+     */
+    private void atualizarContagens(ContagemFacetas contagem) {
+        contagemAtual = contagem;
+        carroRadio.setText("Carro (" + contagem.getTipo("Carro") + ")");
+        motoRadio.setText("Moto (" + contagem.getTipo("Moto") + ")");
+        caminhaoRadio.setText("Caminhão (" + contagem.getTipo("Caminhão") + ")");
+        caracteristicaCheckBoxes.forEach((caracteristica, checkBox) ->
+                checkBox.setText(caracteristica.getDescricao() + " (" + contagem.getCaracteristica(caracteristica) + ")"));
+        coresComboBox.repaint();
     }
 
     /**
-     * Atualiza o painel de exibição de veículos com a lista de veículos fornecida.
-     * Remove todos os cartões existentes e adiciona novos {@link CarCardPanel} para cada veículo na lista.
-     * Se a lista estiver vazia, uma mensagem indicando nenhum resultado é exibida.
+     * Acrescenta à grade os veículos de uma página e guarda o cursor da página seguinte.
+     * O status de locação dos veículos da página é obtido em uma única consulta ao índice de locações ativas.
      *
-     * @param veiculos A lista de objetos {@link Veiculo} a serem exibidos.
+     * @param pagina A página retornada pelo `VeiculoController`.
      */
-    private void atualizarCards(List<Veiculo> veiculos) {
-        cardPanel.removeAll();
-        int fixedCardWidth = 300;
-        int fixedCardHeight = 300;
-        Dimension fixedCardSize = new Dimension(fixedCardWidth, fixedCardHeight);
-
-        if (veiculos.isEmpty()) {
-            cardPanel.setLayout(new GridBagLayout());
-            JLabel noResultsLabel = new JLabel("Nenhum veículo encontrado com os filtros aplicados.", SwingConstants.CENTER);
-            noResultsLabel.setFont(noResultsLabel.getFont().deriveFont(16f));
-            cardPanel.add(noResultsLabel);
-        } else {
-            cardPanel.setLayout(new GridLayout(0, 3, 20, 20));
-            for (Veiculo veiculo : veiculos) {
-                CarCardPanel card = new CarCardPanel(veiculo, veiculoController, loggedInUser);
-                card.setPreferredSize(fixedCardSize);
-                card.setMaximumSize(fixedCardSize);
-                card.setMinimumSize(fixedCardSize);
-                cardPanel.add(card);
-            }
+    private void exibirPagina(PaginaVeiculos pagina) {
+        List<Veiculo> veiculos = pagina.getVeiculos();
+        proximaPagina = pagina.getProxima();
+        cardGrid.adicionar(veiculos, veiculoController.estaLocado(veiculos));
+        if (proximaPagina != null) {
+            SwingUtilities.invokeLater(this::carregarProximaPaginaSeNecessario);
         }
-        cardContainerPanel.revalidate();
-        cardContainerPanel.repaint();
-        cardPanel.revalidate();
-        cardPanel.repaint();
     }
-}
\ No newline at end of file
+}
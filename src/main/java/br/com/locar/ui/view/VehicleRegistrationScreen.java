@@ -1,5 +1,6 @@
 package br.com.locar.ui.view;
 
+import br.com.locar.core.context.ContextoAplicacao;
 import br.com.locar.core.controller.VeiculoController;
 import br.com.locar.core.entities.Veiculo;
 import br.com.locar.core.entities.enums.*;
@@ -7,16 +8,14 @@ import br.com.locar.terrestre.entities.Caminhao;
 import br.com.locar.terrestre.entities.Carro;
 import br.com.locar.core.entities.Funcionario;
 import br.com.locar.terrestre.entities.Moto;
+import br.com.locar.util.CacheImagens;
 import br.com.locar.util.ImageScaler;
+import br.com.locar.util.LeitorImagens;
 import com.formdev.flatlaf.FlatClientProperties;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
-import java.io.File;
-import java.io.IOException;
-import java.net.URL;
 
 /**
  * A classe `VehicleRegistrationScreen` permite que funcionários cadastrem novos veículos
@@ -88,7 +87,7 @@ public class VehicleRegistrationScreen extends JFrame {
      */
     public VehicleRegistrationScreen(Funcionario funcionario) {
         this.loggedInFuncionario = funcionario;
-        this.veiculoController = new VeiculoController();
+        this.veiculoController = ContextoAplicacao.getInstancia().getVeiculoController();
         initializeUI();
     }
 
@@ -100,7 +99,7 @@ public class VehicleRegistrationScreen extends JFrame {
      */
     public VehicleRegistrationScreen(Funcionario funcionario, Veiculo veiculo) {
         this.loggedInFuncionario = funcionario;
-        this.veiculoController = new VeiculoController();
+        this.veiculoController = ContextoAplicacao.getInstancia().getVeiculoController();
         this.veiculoToEdit = veiculo;
         initializeUI();
         populateFieldsForEdit();
@@ -414,27 +413,13 @@ public class VehicleRegistrationScreen extends JFrame {
      */
     private void loadAndSetVehicleImage(String imagePath) {
         Image vehicleImg = null;
-        if (imagePath != null && !imagePath.isEmpty()) {
-            try {
-                File fileImg = new File(imagePath);
-                if (fileImg.exists()) {
-                    vehicleImg = ImageIO.read(fileImg);
-                } else {
-                    URL resourceUrl = getClass().getResource(imagePath);
-                    if (resourceUrl != null) {
-                        vehicleImg = ImageIO.read(resourceUrl);
-                    } else {
-                        System.err.println("Imagem do veículo para prévia não encontrada: " + imagePath);
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("Erro I/O ao carregar imagem para prévia: " + e.getMessage());
-            } catch (Exception e) {
-                System.err.println("Erro inesperado ao carregar/escalar imagem para prévia: " + e.getMessage());
-            }
+        try {
+            vehicleImg = CacheImagens.compartilhado().obter(imagePath, 150, 100);
+        } catch (Exception e) {
+            System.err.println("Erro inesperado ao carregar/escalar imagem para prévia: " + e.getMessage());
         }
         if (vehicleImg != null) {
-            vehicleImagePreview.setIcon(new ImageIcon(ImageScaler.getScaledImage(vehicleImg, 150, 100)));
+            vehicleImagePreview.setIcon(new ImageIcon(vehicleImg));
         } else {
             vehicleImagePreview.setIcon(null);
             vehicleImagePreview.setText("Sem Imagem");
@@ -510,8 +495,11 @@ public class VehicleRegistrationScreen extends JFrame {
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             java.io.File fileToLoad = fileChooser.getSelectedFile();
             try {
-                ImageIcon originalIcon = new ImageIcon(fileToLoad.getAbsolutePath());
-                Image scaledImage = ImageScaler.getScaledImage(originalIcon.getImage(), 150, 100);
+                Image originalImage = LeitorImagens.ler(fileToLoad, 150, 100);
+                if (originalImage == null) {
+                    throw new IllegalArgumentException("formato de imagem não suportado.");
+                }
+                Image scaledImage = ImageScaler.getScaledImage(originalImage, 150, 100);
                 vehicleImagePreview.setIcon(new ImageIcon(scaledImage));
                 selectedImagePath = fileToLoad.getAbsolutePath();
             } catch (Exception ex) {
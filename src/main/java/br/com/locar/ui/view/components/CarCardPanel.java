@@ -3,29 +3,46 @@ package br.com.locar.ui.view.components;
 import br.com.locar.core.controller.VeiculoController;
 import br.com.locar.core.entities.Pessoa;
 import br.com.locar.core.entities.Veiculo;
-import br.com.locar.util.ImageScaler;
+import br.com.locar.util.CarregadorImagens;
 import br.com.locar.ui.view.VehicleDetailScreen;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.File;
-import java.io.IOException;
-import java.net.URL;
 
 /**
  * `CarCardPanel` é um componente Swing que exibe informações resumidas de um veículo
  * em um formato de cartão. Ele mostra a imagem do veículo, nome completo, preço diário
  * e status de disponibilidade (disponível/indisponível). Clicar no cartão abre a
- * tela de detalhes do veículo (`VehicleDetailScreen`).
+ * tela de detalhes do veículo (`VehicleDetailScreen`). A imagem é carregada em segundo plano
+ * pelo {@link CarregadorImagens}; até ela chegar, o cartão exibe um espaço reservado.
+ * <p>
+ * Um mesmo cartão também pode servir de renderizador ({@link #criarRenderizador()}): reconfigurado com
+ * {@link #exibir(Veiculo, boolean, Image)} para cada veículo e apenas pintado, como faz a {@link VehicleCardGrid}.
+ * </p>
  */
 public class CarCardPanel extends JPanel {
 
+    /**
+     * Largura da imagem exibida no cartão.
+     */
+    public static final int LARGURA_IMAGEM = 250;
+    /**
+     * Altura da imagem exibida no cartão.
+     */
+    public static final int ALTURA_IMAGEM = 150;
+
     private Veiculo veiculo;
     private VeiculoController veiculoController;
     private Pessoa loggedInUser;
+    private Boolean locado;
+
+    private JLabel imagemLabel;
+    private JLabel nomeCompleto;
+    private JLabel preco;
+    private JLabel statusLabel;
+    private CarregadorImagens.Pedido pedidoImagem;
 
     /**
      * Construtor para `CarCardPanel`.
@@ -42,6 +59,40 @@ public class CarCardPanel extends JPanel {
         initializeCard();
     }
 
+    /**
+     * Construtor para `CarCardPanel` que recebe o status de locação já calculado,
+     * evitando uma consulta individual quando a tela verificou vários veículos de uma só vez.
+     *
+     * @param veiculo O objeto {@link Veiculo} cujas informações serão exibidas no cartão.
+     * @param veiculoController A instância de {@link VeiculoController} associada ao cartão.
+     * @param loggedInUser O objeto {@link Pessoa} representando o usuário atualmente logado.
+     * @param locado O status de locação do veículo, obtido via {@link VeiculoController#estaLocado(java.util.Collection)}.
+     */
+    public CarCardPanel(Veiculo veiculo, VeiculoController veiculoController, Pessoa loggedInUser, boolean locado) {
+        this.veiculo = veiculo;
+        this.veiculoController = veiculoController;
+        this.loggedInUser = loggedInUser;
+        this.locado = locado;
+        initializeCard();
+    }
+
+    /**
+     * Construtor do cartão usado como renderizador: monta os componentes sem veículo e sem listener de clique.
+     */
+    private CarCardPanel() {
+        criarComponentes();
+    }
+
+    /**
+     * Cria um cartão sem veículo para ser usado como renderizador compartilhado, configurado a cada pintura
+     * por {@link #exibir(Veiculo, boolean, Image)}.
+     *
+     * @return O cartão renderizador.
+     */
+    public static CarCardPanel criarRenderizador() {
+        return new CarCardPanel();
+    }
+
     /**
      * Inicializa a interface gráfica do componente de cartão do veículo.
      * Configura o layout, estilo, carrega e exibe a imagem do veículo,
@@ -49,9 +100,7 @@ public class CarCardPanel extends JPanel {
      * Também configura um listener de clique para abrir a tela de detalhes do veículo.
      */
     private void initializeCard() {
-        setLayout(new BorderLayout());
-        setBackground(Color.WHITE);
-        setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200), 1));
+        criarComponentes();
         setCursor(new Cursor(Cursor.HAND_CURSOR));
 
         addMouseListener(new MouseAdapter() {
@@ -69,45 +118,53 @@ public class CarCardPanel extends JPanel {
                 detailScreen.setVisible(true);
             }
         });
-        setLayout(new BorderLayout());
-        setBackground(Color.WHITE);
 
-        Image cardImage = null;
-        String imagePath = veiculo.getCaminhoFoto();
-
-        if (imagePath != null && !imagePath.isEmpty()) {
-            try {
-                File savedImageFile = new File(imagePath);
-                if (savedImageFile.exists()) {
-                    cardImage = ImageIO.read(savedImageFile);
-                } else {
-                    URL imageUrl = getClass().getResource(imagePath);
-                    if (imageUrl != null) {
-                        cardImage = ImageIO.read(imageUrl);
-                    } else {
-                        System.err.println("Imagem do veículo não encontrada: " + imagePath);
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("Erro de I/O ao carregar imagem para " + veiculo.getPlaca() + ": " + e.getMessage());
-            } catch (Exception e) {
-                System.err.println("Erro inesperado ao carregar/escalar imagem do veículo: " + e.getMessage());
-            }
+        boolean isLocado = (locado != null) ? locado : veiculoController.estaLocado(veiculo);
+        String caminhoFoto = veiculo.getCaminhoFoto();
+        if (caminhoFoto == null || caminhoFoto.isEmpty()) {
+            exibir(veiculo, isLocado, null);
+            return;
         }
+        CarregadorImagens carregador = CarregadorImagens.compartilhado();
+        Image emCache = carregador.emCache(caminhoFoto, LARGURA_IMAGEM, ALTURA_IMAGEM);
+        if (emCache != null) {
+            exibir(veiculo, isLocado, emCache);
+            return;
+        }
+        exibir(veiculo, isLocado, CarregadorImagens.espacoReservado(LARGURA_IMAGEM, ALTURA_IMAGEM).getImage());
+        pedidoImagem = carregador.carregar(caminhoFoto, LARGURA_IMAGEM, ALTURA_IMAGEM,
+                CarregadorImagens.Prioridade.VISIVEL, imagem -> {
+                    pedidoImagem = null;
+                    exibirImagem(imagem);
+                });
+    }
 
-        if (cardImage != null) {
-            Image img = ImageScaler.getScaledImage(cardImage, 250, 150);
-            JLabel imgLabel = new JLabel(new ImageIcon(img));
-            imgLabel.setHorizontalAlignment(SwingConstants.CENTER);
-            add(imgLabel, BorderLayout.NORTH);
-        } else {
-            JLabel placeholder = new JLabel("Imagem Indisponível", SwingConstants.CENTER);
-            placeholder.setPreferredSize(new Dimension(250, 150));
-            add(placeholder, BorderLayout.NORTH);
+    /**
+     * Cancela o carregamento da imagem se o cartão for removido da tela antes de ela chegar.
+     */
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        if (pedidoImagem != null) {
+            pedidoImagem.cancelar();
+            pedidoImagem = null;
         }
+    }
 
-        JLabel nomeCompleto = new JLabel(veiculo.getMarca() + " " + veiculo.getNome() + " " + veiculo.getAno(), SwingConstants.CENTER);
-        JLabel preco = new JLabel("R$ " + String.format("%.2f", veiculo.getValorDiario()) + " / dia", SwingConstants.CENTER);
+    /**
+     * Monta o layout e os rótulos do cartão, ainda sem conteúdo.
+     */
+    private void criarComponentes() {
+        setLayout(new BorderLayout());
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200), 1));
+
+        imagemLabel = new JLabel("", SwingConstants.CENTER);
+        imagemLabel.setPreferredSize(new Dimension(LARGURA_IMAGEM, ALTURA_IMAGEM));
+        add(imagemLabel, BorderLayout.NORTH);
+
+        nomeCompleto = new JLabel("", SwingConstants.CENTER);
+        preco = new JLabel("", SwingConstants.CENTER);
 
         nomeCompleto.setFont(nomeCompleto.getFont().deriveFont(Font.BOLD, 16f));
         nomeCompleto.setForeground(new Color(10, 40, 61));
@@ -121,13 +178,38 @@ public class CarCardPanel extends JPanel {
         infoPanel.add(preco);
         add(infoPanel, BorderLayout.CENTER);
 
-        boolean isLocado = veiculoController.estaLocado(veiculo);
-        JLabel statusLabel = new JLabel(isLocado ? "Indisponível" : "Disponível", SwingConstants.CENTER);
+        statusLabel = new JLabel("", SwingConstants.CENTER);
         statusLabel.setFont(statusLabel.getFont().deriveFont(Font.BOLD, 12f));
         statusLabel.setOpaque(true);
-        statusLabel.setBackground(isLocado ? new Color(255, 230, 230) : new Color(230, 255, 230));
-        statusLabel.setForeground(isLocado ? Color.RED : new Color(0, 150, 0));
         statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 0, 5, 0));
         add(statusLabel, BorderLayout.SOUTH);
     }
-}
\ No newline at end of file
+
+    /**
+     * Preenche o cartão com os dados de um veículo.
+     *
+     * @param veiculo         O veículo a ser exibido.
+     * @param locado          Se o veículo está locado no momento.
+     * @param imagemEscalada  A imagem já escalada para {@link #LARGURA_IMAGEM} x {@link #ALTURA_IMAGEM}, ou null para
+     *                        exibir o aviso de imagem indisponível.
+     */
+    public void exibir(Veiculo veiculo, boolean locado, Image imagemEscalada) {
+        exibirImagem(imagemEscalada);
+        nomeCompleto.setText(veiculo.getMarca() + " " + veiculo.getNome() + " " + veiculo.getAno());
+        preco.setText("R$ " + String.format("%.2f", veiculo.getValorDiario()) + " / dia");
+
+        statusLabel.setText(locado ? "Indisponível" : "Disponível");
+        statusLabel.setBackground(locado ? new Color(255, 230, 230) : new Color(230, 255, 230));
+        statusLabel.setForeground(locado ? Color.RED : new Color(0, 150, 0));
+    }
+
+    private void exibirImagem(Image imagemEscalada) {
+        if (imagemEscalada != null) {
+            imagemLabel.setIcon(new ImageIcon(imagemEscalada));
+            imagemLabel.setText(null);
+        } else {
+            imagemLabel.setIcon(null);
+            imagemLabel.setText("Imagem Indisponível");
+        }
+    }
+}
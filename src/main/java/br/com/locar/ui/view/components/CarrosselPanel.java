@@ -2,28 +2,53 @@ package br.com.locar.ui.view.components;
 
 import br.com.locar.core.entities.Pessoa;
 import br.com.locar.core.entities.Veiculo;
+import br.com.locar.util.CacheImagens;
+import br.com.locar.util.CarregadorImagens;
+import br.com.locar.util.GeradorMiniaturas;
 import br.com.locar.util.ImageScaler;
 import br.com.locar.ui.view.VehicleDetailScreen;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.File;
-import java.io.IOException;
-import java.net.URL;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * `CarrosselPanel` é um componente Swing que exibe uma lista de veículos em um formato de carrossel,
  * com imagens que deslizam automaticamente e botões de navegação e indicadores de posição.
  * Cada item do carrossel pode ser clicado para abrir a tela de detalhes do veículo.
+ * <p>
+ * O carrossel exibe no máximo {@link #LIMITE_DESTAQUES} veículos e mantém em memória apenas as imagens de uma
+ * janela de três slides: o atual, o anterior e o próximo. As imagens da janela são lidas pelo
+ * {@link CarregadorImagens} e escaladas para o tamanho do painel em segundo plano, de modo que a troca de slide
+ * apenas exibe uma imagem já pronta. Durante o redimensionamento da janela, a imagem é escalada rapidamente por
+ * vizinho mais próximo e a escala de qualidade só é refeita quando o redimensionamento para.
+ * </p>
  */
 public class CarrosselPanel extends JPanel {
 
-    private List<Veiculo> veiculos;
+    /**
+     * A quantidade máxima de veículos exibidos no carrossel.
+     */
+    public static final int LIMITE_DESTAQUES = 10;
+
+    /**
+     * Tempo sem eventos de redimensionamento, em milissegundos, após o qual a imagem é escalada com qualidade.
+     */
+    private static final int ATRASO_REDIMENSIONAMENTO_MS = 200;
+
+    private static ExecutorService executorEscala;
+
+    private final List<Veiculo> veiculos;
     private int currentIndex = 0;
     private JLabel imageLabel;
     private JLabel descriptionLabel;
@@ -31,16 +56,33 @@ public class CarrosselPanel extends JPanel {
     private JPanel dotsPanel;
     private JLayeredPane imageLayeredPane;
     private Pessoa loggedInUser;
+    /**
+     * As imagens dos slides da janela no tamanho {@link GeradorMiniaturas.Tamanho#CARROSSEL}, das quais as versões
+     * escaladas para o painel são geradas, por índice do slide.
+     */
+    private final Map<Integer, Image> originais = new HashMap<>();
+    /**
+     * As imagens dos slides da janela já escaladas para {@link #tamanhoEscaladas}, por índice do slide.
+     */
+    private final Map<Integer, Image> escaladas = new HashMap<>();
+    private final Map<Integer, CarregadorImagens.Pedido> pedidos = new HashMap<>();
+    private Dimension tamanhoEscaladas;
+    /**
+     * Destino reaproveitado pela escala rápida durante o redimensionamento.
+     */
+    private BufferedImage previa;
+    private Timer redimensionamento;
 
     /**
      * Construtor para `CarrosselPanel`.
      *
-     * @param veiculos A lista de objetos {@link Veiculo} a serem exibidos no carrossel.
+     * @param veiculos Os veículos em destaque a serem exibidos no carrossel; apenas os {@link #LIMITE_DESTAQUES}
+     *                 primeiros são usados.
      * @param loggedInUser O objeto {@link Pessoa} representando o usuário atualmente logado,
      * necessário para passar para a tela de detalhes do veículo.
      */
     public CarrosselPanel(List<Veiculo> veiculos, Pessoa loggedInUser) {
-        this.veiculos = veiculos;
+        this.veiculos = List.copyOf(veiculos.subList(0, Math.min(veiculos.size(), LIMITE_DESTAQUES)));
         this.loggedInUser = loggedInUser;
         setLayout(new BorderLayout());
         setPreferredSize(new Dimension(1200, 600));
@@ -123,8 +165,9 @@ public class CarrosselPanel extends JPanel {
                 updateImageSize();
             }
         });
+        redimensionamento = new Timer(ATRASO_REDIMENSIONAMENTO_MS, e -> escalarJanela());
+        redimensionamento.setRepeats(false);
         updateCarrossel();
-        SwingUtilities.invokeLater(this::updateImageSize);
     }
 
     /**
@@ -136,8 +179,7 @@ public class CarrosselPanel extends JPanel {
      * @return Um {@link JButton} configurado como um botão de seta.
      */
     private JButton createArrowButton(String iconPath, int direction) {
-        ImageIcon arrowIcon = new ImageIcon(Objects.requireNonNull(getClass().getResource("/br/com/locar/ui/images/" + iconPath)));
-        Image scaledArrow = ImageScaler.getScaledImage(arrowIcon.getImage(), 40, 40);
+        Image scaledArrow = Objects.requireNonNull(CacheImagens.compartilhado().obter("/br/com/locar/ui/images/" + iconPath, 40, 40));
         JButton button = new JButton(new ImageIcon(scaledArrow));
         button.setContentAreaFilled(false);
         button.setBorderPainted(false);
@@ -147,6 +189,9 @@ public class CarrosselPanel extends JPanel {
         button.setMargin(new Insets(0, 10, 0, 10));
 
         button.addActionListener(e -> {
+            if (veiculos.isEmpty()) {
+                return;
+            }
             stopAutoSlide();
             currentIndex = (currentIndex + direction + veiculos.size()) % veiculos.size();
             updateCarrossel();
@@ -164,6 +209,9 @@ public class CarrosselPanel extends JPanel {
         if (timer != null) {
             timer.stop();
         }
+        if (veiculos.size() < 2) {
+            return;
+        }
         timer = new Timer(8000, e -> {
             currentIndex = (currentIndex + 1) % veiculos.size();
             updateCarrossel();
@@ -196,36 +244,8 @@ public class CarrosselPanel extends JPanel {
         }
 
         Veiculo currentVeiculo = veiculos.get(currentIndex);
-        Image carImage = null;
-        String imagePath = currentVeiculo.getCaminhoFoto();
-
-        if (imagePath != null && !imagePath.isEmpty()) {
-            try {
-                File savedImageFile = new File(imagePath);
-                if (savedImageFile.exists()) {
-                    carImage = ImageIO.read(savedImageFile);
-                } else {
-                    URL imageUrl = getClass().getResource(imagePath);
-                    if (imageUrl != null) {
-                        carImage = ImageIO.read(imageUrl);
-                    } else {
-                        System.err.println("Imagem do veículo não encontrada: " + imagePath);
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("Erro de I/O ao carregar imagem para " + currentVeiculo.getPlaca() + ": " + e.getMessage());
-            } catch (Exception e) {
-                System.err.println("Erro inesperado ao carregar imagem para " + currentVeiculo.getPlaca() + ": " + e.getMessage());
-            }
-        }
-
-        if (carImage != null) {
-            imageLabel.setIcon(new ImageIcon(carImage));
-            updateImageSize();
-        } else {
-            imageLabel.setIcon(null);
-            imageLabel.setText("Imagem Indisponível");
-        }
+        prepararJanela();
+        exibirSlideAtual();
 
         descriptionLabel.setText(currentVeiculo.getDescricao());
         dotsPanel.removeAll();
@@ -251,23 +271,180 @@ public class CarrosselPanel extends JPanel {
     }
 
     /**
-     * Atualiza o tamanho da imagem exibida no carrossel para se ajustar às dimensões atuais do painel.
-     * Isso garante que a imagem seja sempre exibida corretamente, mesmo após redimensionamentos.
+     * Os índices dos slides mantidos em memória: o atual, o próximo e o anterior, nessa ordem.
      */
-    private void updateImageSize() {
-        if (imageLabel.getIcon() instanceof ImageIcon currentIcon) {
-            if (currentIcon.getImage() != null) {
-                int panelWidth = getWidth();
-                int panelHeight = getHeight();
-                int availableHeightForImage = panelHeight - dotsPanel.getPreferredSize().height - 20;
-                if (panelWidth <= 1 || availableHeightForImage <= 1) {
+    private Set<Integer> janela() {
+        Set<Integer> indices = new LinkedHashSet<>();
+        indices.add(currentIndex);
+        indices.add((currentIndex + 1) % veiculos.size());
+        indices.add((currentIndex - 1 + veiculos.size()) % veiculos.size());
+        return indices;
+    }
+
+    /**
+     * Descarta as imagens e cancela os pedidos dos slides que saíram da janela, e pede em segundo plano as imagens
+     * que faltam: a do slide atual com prioridade de imagem visível e as dos vizinhos com prioridade adiantada.
+     */
+    private void prepararJanela() {
+        Set<Integer> janela = janela();
+        originais.keySet().retainAll(janela);
+        escaladas.keySet().retainAll(janela);
+        pedidos.entrySet().removeIf(entrada -> {
+            if (!janela.contains(entrada.getKey())) {
+                entrada.getValue().cancelar();
+                return true;
+            }
+            return false;
+        });
+
+        GeradorMiniaturas.Tamanho tamanho = GeradorMiniaturas.Tamanho.CARROSSEL;
+        for (int indice : janela) {
+            CarregadorImagens.Prioridade prioridade = indice == currentIndex
+                    ? CarregadorImagens.Prioridade.VISIVEL : CarregadorImagens.Prioridade.ADIANTADO;
+            CarregadorImagens.Pedido pendente = pedidos.get(indice);
+            if (pendente != null) {
+                pendente.repriorizar(prioridade);
+                continue;
+            }
+            String imagePath = veiculos.get(indice).getCaminhoFoto();
+            if (originais.containsKey(indice) || imagePath == null || imagePath.isEmpty()) {
+                continue;
+            }
+            pedidos.put(indice, CarregadorImagens.compartilhado().carregar(imagePath, tamanho.getLargura(), tamanho.getAltura(),
+                    prioridade, carImage -> receberImagem(indice, carImage)));
+        }
+    }
+
+    /**
+     * Recebe, na EDT, a imagem lida de um slide da janela e a escala em segundo plano para o tamanho do painel.
+     */
+    private void receberImagem(int indice, Image carImage) {
+        pedidos.remove(indice);
+        if (carImage == null) {
+            if (indice == currentIndex) {
+                exibirImagemIndisponivel();
+            }
+            return;
+        }
+        originais.put(indice, carImage);
+        if (indice == currentIndex) {
+            exibirSlideAtual();
+        }
+        escalarEmSegundoPlano(indice);
+    }
+
+    /**
+     * Exibe a imagem do slide atual: a versão já escalada para o painel, se houver; senão uma escala rápida da
+     * imagem lida, enquanto a de qualidade é preparada; ou um espaço reservado, se a imagem ainda não foi lida.
+     */
+    private void exibirSlideAtual() {
+        String imagePath = veiculos.get(currentIndex).getCaminhoFoto();
+        if (imagePath == null || imagePath.isEmpty()) {
+            exibirImagemIndisponivel();
+            return;
+        }
+        imageLabel.setText(null);
+        Dimension area = areaImagem();
+        Image escalada = area.equals(tamanhoEscaladas) ? escaladas.get(currentIndex) : null;
+        Image original = originais.get(currentIndex);
+        if (escalada != null) {
+            imageLabel.setIcon(new ImageIcon(escalada));
+        } else if (original != null && area.width > 1 && area.height > 1) {
+            previa = ImageScaler.escalar(original, area.width, area.height, ImageScaler.Algoritmo.RAPIDO, previa);
+            imageLabel.setIcon(new ImageIcon(previa));
+        } else if (area.width > 1 && area.height > 1) {
+            imageLabel.setIcon(CarregadorImagens.espacoReservado(area.width, area.height));
+        } else {
+            imageLabel.setIcon(null);
+        }
+    }
+
+    private void exibirImagemIndisponivel() {
+        imageLabel.setIcon(null);
+        imageLabel.setText("Imagem Indisponível");
+    }
+
+    /**
+     * Escala em segundo plano a imagem de um slide para o tamanho atual do painel. O resultado é descartado se o
+     * painel tiver mudado de tamanho ou o slide tiver saído da janela enquanto a escala era feita.
+     */
+    private void escalarEmSegundoPlano(int indice) {
+        Dimension area = areaImagem();
+        Image original = originais.get(indice);
+        if (original == null || area.width <= 1 || area.height <= 1) {
+            return;
+        }
+        if (area.equals(tamanhoEscaladas) && escaladas.containsKey(indice)) {
+            return;
+        }
+        executorEscala().execute(() -> {
+            Image escalada = ImageScaler.getScaledImage(original, area.width, area.height);
+            SwingUtilities.invokeLater(() -> {
+                if (originais.get(indice) != original || !area.equals(areaImagem())) {
                     return;
                 }
+                if (!area.equals(tamanhoEscaladas)) {
+                    escaladas.clear();
+                    tamanhoEscaladas = area;
+                }
+                escaladas.put(indice, escalada);
+                if (indice == currentIndex) {
+                    imageLabel.setIcon(new ImageIcon(escalada));
+                }
+            });
+        });
+    }
 
-                Image scaledImage = ImageScaler.getScaledImage(currentIcon.getImage(), panelWidth, availableHeightForImage);
-                imageLabel.setIcon(new ImageIcon(scaledImage));
-                imageLayeredPane.setBounds(0, 0, panelWidth, panelHeight);
-            }
+    /**
+     * Escala com qualidade as imagens de todos os slides da janela, começando pelo atual.
+     */
+    private void escalarJanela() {
+        for (int indice : janela()) {
+            escalarEmSegundoPlano(indice);
+        }
+    }
+
+    /**
+     * A área disponível para a imagem: a largura do painel e a altura sem os indicadores de posição.
+     */
+    private Dimension areaImagem() {
+        return new Dimension(getWidth(), getHeight() - dotsPanel.getPreferredSize().height - 20);
+    }
+
+    /**
+     * Atualiza o tamanho da imagem exibida no carrossel para se ajustar às dimensões atuais do painel.
+     * Enquanto o painel é redimensionado, a imagem é escalada por vizinho mais próximo, reaproveitando o mesmo
+     * destino; a escala de qualidade, sempre a partir da imagem lida, é feita em segundo plano quando não houver
+     * eventos de redimensionamento por {@value #ATRASO_REDIMENSIONAMENTO_MS} ms.
+     */
+    private void updateImageSize() {
+        if (veiculos.isEmpty()) {
+            return;
+        }
+        exibirSlideAtual();
+        redimensionamento.restart();
+    }
+
+    /**
+     * Para a troca automática de slides e cancela as leituras pendentes quando o carrossel sai da tela.
+     */
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        stopAutoSlide();
+        redimensionamento.stop();
+        pedidos.values().forEach(CarregadorImagens.Pedido::cancelar);
+        pedidos.clear();
+    }
+
+    private static synchronized ExecutorService executorEscala() {
+        if (executorEscala == null) {
+            executorEscala = Executors.newSingleThreadExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "locar-carrossel");
+                thread.setDaemon(true);
+                return thread;
+            });
         }
+        return executorEscala;
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,16 @@
 package br.com.locar.ui.view.components;
 
-import br.com.locar.util.ImageScaler;
+import br.com.locar.util.CacheImagens;
+import br.com.locar.util.CarregadorImagens;
+import br.com.locar.util.GeradorMiniaturas;
 import com.formdev.flatlaf.FlatClientProperties;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.File;
-import java.io.IOException;
-import java.net.URL;
-import java.util.Objects;
 
 /**
  * `HeaderPanel` é um componente Swing que representa o cabeçalho da aplicação.
@@ -24,7 +21,7 @@ public class HeaderPanel extends JPanel {
     private final JTextField searchField;
     private JButton searchButton;
     private JLabel userLabel;
-    private JLabel profileIconLabel;
+    private RoundedImageLabel profileIconLabel;
     private JLabel systemLogoLabel;
     private JButton settingsButton;
 
@@ -49,36 +46,13 @@ public class HeaderPanel extends JPanel {
         gbcLeft.insets = new Insets(0, 5, 0, 15);
         gbcLeft.anchor = GridBagConstraints.CENTER;
 
-        ImageIcon systemLogoIcon = null;
-        try {
-            URL logoUrl = getClass().getResource("/br/com/locar/ui/images/icons/logotipo.png");
-            if (logoUrl != null) {
-                systemLogoIcon = new ImageIcon(ImageScaler.getScaledImage(new ImageIcon(logoUrl).getImage(), 70, 70));
-            } else {
-                systemLogoIcon = new ImageIcon(ImageScaler.getScaledImage(ImageIO.read(new File("/br/com/locar/ui/images/icons/logotipo.png")), 70, 70));
-            }
-        } catch (Exception e) {
-            System.err.println("Erro ao carregar logotipo do sistema: " + e.getMessage());
-            systemLogoIcon = new ImageIcon(new byte[0]);
-        }
+        ImageIcon systemLogoIcon = carregarIcone("/br/com/locar/ui/images/icons/logotipo.png", 70, "o logotipo do sistema");
 
         systemLogoLabel = new JLabel(systemLogoIcon);
         systemLogoLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
         leftPanel.add(systemLogoLabel, gbcLeft);
 
-        ImageIcon gearIcon = null;
-        try {
-            URL gearUrl = getClass().getResource("/br/com/locar/ui/images/icons/gear-icon.png");
-            if (gearUrl != null) {
-                gearIcon = new ImageIcon(ImageScaler.getScaledImage(new ImageIcon(gearUrl).getImage(), 25, 25));
-            } else {
-                System.err.println("Ícone de engrenagem não encontrado como recurso. Tentando carregar de arquivo.");
-                gearIcon = new ImageIcon(ImageScaler.getScaledImage(ImageIO.read(new File("src/images/icons/gear-icon.png")), 25, 25));
-            }
-        } catch (Exception e) {
-            System.err.println("Erro ao carregar ícone de engrenagem: " + e.getMessage());
-            gearIcon = new ImageIcon(new byte[0]);
-        }
+        ImageIcon gearIcon = carregarIcone("/br/com/locar/ui/images/icons/gear-icon.png", 25, "o ícone de engrenagem");
         settingsButton = new JButton(gearIcon);
         settingsButton.setContentAreaFilled(false);
         settingsButton.setBorderPainted(false);
@@ -110,9 +84,7 @@ public class HeaderPanel extends JPanel {
             }
         });
 
-        ImageIcon lupaIcon = new ImageIcon(Objects.requireNonNull(getClass().getResource("/br/com/locar/ui/images/icons/lupa-icon.png")));
-        Image scaledLupa = ImageScaler.getScaledImage(lupaIcon.getImage(), 20, 20);
-        searchButton = new JButton(new ImageIcon(scaledLupa));
+        searchButton = new JButton(carregarIcone("/br/com/locar/ui/images/icons/lupa-icon.png", 20, "o ícone de busca"));
         searchButton.setContentAreaFilled(false);
         searchButton.setBorderPainted(false);
         searchButton.setFocusPainted(false);
@@ -134,72 +106,24 @@ public class HeaderPanel extends JPanel {
         userLabel.setForeground(Color.WHITE);
         userLabel.setFont(userLabel.getFont().deriveFont(Font.BOLD, 18f));
 
-        ImageIcon pfpIcon = null;
         int pfpSize = 50;
+        ImageIcon pfpIcon = carregarIcone("/br/com/locar/ui/images/icons/default_pfp.png", pfpSize, "a PFP padrão");
 
-        if (profileImagePath != null && !profileImagePath.isEmpty()) {
-            try {
-                Image loadedPfpImage = null;
-                File filePfp = new File(profileImagePath);
-                if (filePfp.exists()) {
-                    loadedPfpImage = ImageIO.read(filePfp);
-                }
-
-                if (loadedPfpImage == null) {
-                    URL resourcePfpUrl = getClass().getResource(profileImagePath);
-                    if (resourcePfpUrl != null) {
-                        loadedPfpImage = ImageIO.read(resourcePfpUrl);
-                    }
-                }
+        profileIconLabel = new RoundedImageLabel(pfpIcon, pfpSize);
+        profileIconLabel.setPreferredSize(new Dimension(pfpSize, pfpSize));
+        profileIconLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
 
-                if (loadedPfpImage != null) {
-                    Image scaledPfpImage = ImageScaler.getScaledImage(loadedPfpImage, pfpSize, pfpSize);
-                    pfpIcon = new ImageIcon(scaledPfpImage);
+        if (profileImagePath != null && !profileImagePath.isEmpty()) {
+            GeradorMiniaturas.Tamanho tamanho = GeradorMiniaturas.Tamanho.AVATAR_PERFIL;
+            CarregadorImagens.compartilhado().carregar(profileImagePath, tamanho.getLargura(), tamanho.getAltura(), CarregadorImagens.Prioridade.VISIVEL, pfpImage -> {
+                if (pfpImage != null) {
+                    profileIconLabel.setImagem(pfpImage, pfpSize, pfpSize);
                 } else {
                     System.err.println("PFP do usuário não encontrada em nenhum caminho: " + profileImagePath);
                 }
-            } catch (IOException e) {
-                System.err.println("Erro de I/O ao carregar PFP: " + e.getMessage());
-            } catch (Exception e) {
-                System.err.println("Erro inesperado ao carregar/escalar PFP: " + e.getMessage());
-            }
-        }
-
-        if (pfpIcon == null || (pfpIcon.getImageLoadStatus() != -1 && pfpIcon.getImageLoadStatus() != MediaTracker.COMPLETE)) {
-            try {
-                Image defaultPfpImage = null;
-                URL defaultPfpUrl = getClass().getResource("/br/com/locar/ui/images/icons/default_pfp.png");
-                if (defaultPfpUrl != null) {
-                    defaultPfpImage = ImageIO.read(defaultPfpUrl);
-                } else {
-                    System.err.println("Recurso de PFP padrão não encontrado. Tentando carregar de arquivo local.");
-                    File defaultPfpFile = new File("/br/com/locar/ui/images/icons/default_pfp.png");
-                    if (defaultPfpFile.exists()) {
-                        defaultPfpImage = ImageIO.read(defaultPfpFile);
-                    } else {
-                        System.err.println("Fallback de PFP padrão local também falhou.");
-                    }
-                }
-
-                if (defaultPfpImage != null) {
-                    pfpIcon = new ImageIcon(ImageScaler.getScaledImage(defaultPfpImage, pfpSize, pfpSize));
-                } else {
-                    System.err.println("Nenhuma PFP padrão carregada.");
-                    pfpIcon = new ImageIcon(new byte[0]);
-                }
-            } catch (IOException e) {
-                System.err.println("Erro de I/O ao carregar PFP padrão: " + e.getMessage());
-                pfpIcon = new ImageIcon(new byte[0]);
-            } catch (Exception e) {
-                System.err.println("Erro inesperado ao escalar PFP padrão: " + e.getMessage());
-                pfpIcon = new ImageIcon(new byte[0]);
-            }
+            });
         }
 
-        profileIconLabel = new JLabel(pfpIcon);
-        profileIconLabel.setPreferredSize(new Dimension(pfpSize, pfpSize));
-        profileIconLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
-
 
         rightPanel.add(userLabel);
         rightPanel.add(Box.createRigidArea(new Dimension(5, 0)));
@@ -210,6 +134,28 @@ public class HeaderPanel extends JPanel {
         add(rightPanel, BorderLayout.EAST);
     }
 
+    /**
+     * Carrega um ícone quadrado dos recursos da aplicação pelo {@link CacheImagens}, de modo que os vários
+     * cabeçalhos abertos durante a sessão leiam e escalem cada ícone uma única vez.
+     *
+     * @param caminho   O caminho do recurso.
+     * @param tamanho   O tamanho, em pixels, do ícone.
+     * @param descricao A descrição do ícone, com artigo, usada na mensagem de erro.
+     * @return O ícone, ou um ícone vazio se ele não puder ser carregado.
+     */
+    private ImageIcon carregarIcone(String caminho, int tamanho, String descricao) {
+        try {
+            Image imagem = CacheImagens.compartilhado().obter(caminho, tamanho, tamanho);
+            if (imagem != null) {
+                return new ImageIcon(imagem);
+            }
+            System.err.println("Não foi possível carregar " + descricao + ".");
+        } catch (Exception e) {
+            System.err.println("Erro ao carregar " + descricao + ": " + e.getMessage());
+        }
+        return new ImageIcon(new byte[0]);
+    }
+
     /**
      * Define um {@link ActionListener} para o ícone de perfil.
      * Qualquer listener anterior é removido para evitar a duplicação de eventos.
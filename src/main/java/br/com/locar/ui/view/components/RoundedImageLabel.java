@@ -1,52 +1,159 @@
 package br.com.locar.ui.view.components;
 
+import br.com.locar.util.ImageScaler;
+
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
 
 /**
  * A classe `RoundedImageLabel` é um componente {@link JLabel} customizado
  * que exibe uma imagem com bordas arredondadas.
- * A imagem é recortada para se ajustar a um retângulo com cantos arredondados,
- * proporcionando uma estética visual mais suave.
+ * <p>
+ * A imagem arredondada é gerada uma única vez para cada combinação de imagem, tamanho e raio: a imagem é escalada
+ * e recortada por uma máscara de transparência suavizada, e o resultado fica em cache enquanto a imagem de origem
+ * existir. A cada repintura o label apenas desenha essa imagem pronta, sem montar um recorte.
+ * </p>
+ * <p>
+ * Para telas de alta densidade (HiDPI), a imagem gerada é uma {@link BaseMultiResolutionImage} com versões em 1x,
+ * 2x e na escala da tela principal, limitadas à resolução da origem; o Java2D escolhe a versão adequada ao
+ * desenhar, sem gerar a imagem novamente.
+ * </p>
  */
 public class RoundedImageLabel extends JLabel {
 
+    /**
+     * Imagens arredondadas já geradas, por imagem de origem e por "largura x altura @ raio". As entradas são
+     * descartadas junto com a imagem de origem.
+     */
+    private static final Map<Image, Map<String, Image>> ARREDONDADAS = new WeakHashMap<>();
+
     private int cornerRadius;
 
     /**
      * Construtor para `RoundedImageLabel`.
      *
      * @param icon         O {@link ImageIcon} a ser exibido dentro do label.
-     * @param cornerRadius O raio dos cantos arredondados em pixels. Um valor maior resulta em cantos mais arredondados.
+     * @param cornerRadius O raio dos cantos arredondados em pixels. Um valor maior resulta em cantos mais arredondados;
+     *                     um valor igual ou maior que o lado da imagem resulta em um círculo.
      */
     public RoundedImageLabel(ImageIcon icon, int cornerRadius) {
-        super(icon);
         this.cornerRadius = cornerRadius;
         setHorizontalAlignment(CENTER);
         setVerticalAlignment(CENTER);
         setOpaque(false);
+        setIcon(icon);
     }
 
     /**
-     * Sobrescreve o método `paintComponent` para desenhar o label com bordas arredondadas.
-     * <p>
-     * Este método cria uma cópia do contexto gráfico, configura a suavização de serrilhado
-     * (`ANTI_ALIASING`), define um clipe de forma retangular arredondada e então
-     * invoca o `paintComponent` da superclasse para desenhar a imagem dentro do clipe definido.
-     * Isso garante que apenas a parte da imagem que se encaixa na forma arredondada seja visível.
-     * </p>
+     * Define o ícone do label. Um {@link ImageIcon} é substituído pela sua versão arredondada, no mesmo tamanho.
      *
-     * @param g O objeto {@link Graphics} a ser usado para desenhar o componente.
+     * @param icon O ícone a ser exibido, ou null.
      */
     @Override
-    protected void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        RoundRectangle2D roundedRectangle = new RoundRectangle2D.Float(0, 0, getWidth() - 1, getHeight() - 1, cornerRadius, cornerRadius);
-        g2.setClip(roundedRectangle);
-        super.paintComponent(g2);
+    public void setIcon(Icon icon) {
+        if (icon instanceof ImageIcon imageIcon && !(icon instanceof IconeArredondado) && imageIcon.getImage() != null
+                && icon.getIconWidth() > 0 && icon.getIconHeight() > 0) {
+            setImagem(imageIcon.getImage(), icon.getIconWidth(), icon.getIconHeight());
+            return;
+        }
+        super.setIcon(icon);
+    }
 
+    /**
+     * Exibe uma imagem arredondada em um tamanho possivelmente menor que o da imagem. Passar uma imagem maior que o
+     * tamanho exibido permite gerar as versões para telas de alta densidade a partir de pixels reais.
+     *
+     * @param imagem  A imagem de origem.
+     * @param largura A largura exibida, em pixels lógicos.
+     * @param altura  A altura exibida, em pixels lógicos.
+     */
+    public void setImagem(Image imagem, int largura, int altura) {
+        super.setIcon(new IconeArredondado(arredondada(imagem, largura, altura, cornerRadius)));
+    }
+
+    /**
+     * Retorna a versão arredondada de uma imagem, gerando-a apenas na primeira vez.
+     *
+     * @param imagem  A imagem de origem.
+     * @param largura A largura exibida, em pixels lógicos.
+     * @param altura  A altura exibida, em pixels lógicos.
+     * @param raio    O raio dos cantos, em pixels lógicos.
+     * @return Uma imagem de múltiplas resoluções com tamanho base {@code largura x altura}.
+     */
+    static Image arredondada(Image imagem, int largura, int altura, int raio) {
+        String chave = largura + "x" + altura + "@" + raio;
+        synchronized (ARREDONDADAS) {
+            Image pronta = ARREDONDADAS.computeIfAbsent(imagem, origem -> new HashMap<>()).get(chave);
+            if (pronta != null) {
+                return pronta;
+            }
+        }
+        Image gerada = gerar(imagem, largura, altura, raio);
+        synchronized (ARREDONDADAS) {
+            ARREDONDADAS.computeIfAbsent(imagem, origem -> new HashMap<>()).put(chave, gerada);
+        }
+        return gerada;
+    }
+
+    private static Image gerar(Image imagem, int largura, int altura, int raio) {
+        int larguraOrigem = imagem.getWidth(null);
+        TreeSet<Double> escalas = new TreeSet<>(List.of(1.0, 2.0, escalaTela()));
+        List<Image> versoes = new ArrayList<>();
+        for (double escala : escalas) {
+            if (escala > 1 && larguraOrigem > 0 && largura * escala > larguraOrigem) {
+                continue;
+            }
+            versoes.add(mascarar(imagem, (int) Math.ceil(largura * escala), (int) Math.ceil(altura * escala), raio * escala));
+        }
+        return new BaseMultiResolutionImage(versoes.toArray(new Image[0]));
+    }
+
+    /**
+     * Escala a imagem para o tamanho informado e a recorta por um retângulo arredondado suavizado, desenhado como
+     * máscara de transparência.
+     */
+    private static BufferedImage mascarar(Image imagem, int largura, int altura, double raio) {
+        BufferedImage escalada = ImageScaler.getScaledImage(imagem, largura, altura);
+        BufferedImage resultado = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = resultado.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setColor(Color.WHITE);
+        double arco = Math.min(raio, Math.min(largura, altura));
+        g2.fill(new RoundRectangle2D.Double(0, 0, largura, altura, arco, arco));
+        g2.setComposite(AlphaComposite.SrcIn);
+        g2.drawImage(escalada, 0, 0, null);
         g2.dispose();
+        return resultado;
+    }
+
+    /**
+     * A escala da tela principal (por exemplo 1.5 para 150%), ou 1 sem tela.
+     */
+    private static double escalaTela() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return 1.0;
+        }
+        AffineTransform transformacao = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().getDefaultTransform();
+        return Math.max(1.0, transformacao.getScaleX());
+    }
+
+    /**
+     * Ícone de uma imagem já arredondada, que {@link #setIcon(Icon)} não arredonda novamente.
+     */
+    private static final class IconeArredondado extends ImageIcon {
+        private IconeArredondado(Image imagem) {
+            super(imagem);
+        }
     }
-}
\ No newline at end of file
+}
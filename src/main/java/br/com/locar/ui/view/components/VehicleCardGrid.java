@@ -0,0 +1,327 @@
+package br.com.locar.ui.view.components;
+
+import br.com.locar.core.entities.Veiculo;
+import br.com.locar.util.CarregadorImagens;
+import br.com.locar.util.CarregadorImagens.Prioridade;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * `VehicleCardGrid` exibe uma grade de cartões de veículos sem criar um componente por veículo.
+ * Um único {@link CarCardPanel} é usado como renderizador: a cada pintura ele é configurado com os dados de cada
+ * cartão visível e carimbado na grade por um {@link CellRendererPane}, como fazem {@code JTable} e {@code JList}.
+ * <p>
+ * Apenas as linhas dentro da área visível são pintadas. As imagens escaladas ficam em um cache limitado às linhas
+ * visíveis mais algumas linhas de sobra acima e abaixo ({@link #LINHAS_EXTRAS}). Memória e tempo de layout deixam
+ * de crescer com a quantidade de veículos carregados.
+ * </p>
+ * <p>
+ * As imagens são lidas pelo {@link CarregadorImagens}, fora da EDT: enquanto não chegam, o cartão mostra um espaço
+ * reservado. Os cartões visíveis são pedidos com prioridade {@link Prioridade#VISIVEL} e os das linhas de sobra com
+ * {@link Prioridade#ADIANTADO}; a cada pintura os pedidos de cartões que saíram dessa janela são cancelados.
+ * </p>
+ */
+public class VehicleCardGrid extends JComponent implements Scrollable {
+
+    private static final int COLUNAS = 3;
+    private static final int LARGURA_CARTAO = 300;
+    private static final int ALTURA_CARTAO = 300;
+    private static final int ESPACO = 20;
+    /**
+     * Linhas preparadas além da área visível, em cada direção.
+     */
+    private static final int LINHAS_EXTRAS = 2;
+
+    private final List<Veiculo> veiculos = new ArrayList<>();
+    private final Map<String, Boolean> locados = new HashMap<>();
+    private final CarCardPanel renderizador = CarCardPanel.criarRenderizador();
+    private final CellRendererPane rendererPane = new CellRendererPane();
+
+    /**
+     * Imagens escaladas por placa, em ordem de acesso; o valor null registra um veículo sem imagem.
+     */
+    private final LinkedHashMap<String, Image> imagens = new LinkedHashMap<>(64, 0.75f, true);
+    /**
+     * Pedidos de imagem ainda não atendidos, por placa.
+     */
+    private final Map<String, CarregadorImagens.Pedido> pedidos = new HashMap<>();
+    private final CarregadorImagens carregador = CarregadorImagens.compartilhado();
+    private int capacidadeImagens = COLUNAS * (1 + 2 * LINHAS_EXTRAS);
+    private boolean preparacaoAgendada;
+
+    private Consumer<Veiculo> aoSelecionar;
+    private String mensagemVazia = "Nenhum veículo encontrado com os filtros aplicados.";
+
+    /**
+     * Construtor para `VehicleCardGrid`.
+     */
+    public VehicleCardGrid() {
+        setOpaque(true);
+        setBackground(UIManager.getColor("Panel.background"));
+        add(rendererPane);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int indice = indiceEm(e.getPoint());
+                if (indice >= 0 && aoSelecionar != null) {
+                    aoSelecionar.accept(veiculos.get(indice));
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setCursor(indiceEm(e.getPoint()) >= 0 ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    /**
+     * Define a ação executada ao clicar em um cartão.
+     *
+     * @param aoSelecionar Recebe o veículo do cartão clicado.
+     */
+    public void setAoSelecionar(Consumer<Veiculo> aoSelecionar) {
+        this.aoSelecionar = aoSelecionar;
+    }
+
+    /**
+     * @param mensagemVazia O texto exibido quando a grade não tem veículos.
+     */
+    public void setMensagemVazia(String mensagemVazia) {
+        this.mensagemVazia = mensagemVazia;
+        repaint();
+    }
+
+    /**
+     * Remove todos os veículos da grade.
+     */
+    public void limpar() {
+        veiculos.clear();
+        locados.clear();
+        imagens.clear();
+        for (CarregadorImagens.Pedido pedido : pedidos.values()) {
+            pedido.cancelar();
+        }
+        pedidos.clear();
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Acrescenta veículos ao final da grade.
+     *
+     * @param novos          Os veículos a acrescentar.
+     * @param statusLocacao  O status de locação de cada veículo, por placa.
+     */
+    public void adicionar(List<Veiculo> novos, Map<String, Boolean> statusLocacao) {
+        veiculos.addAll(novos);
+        locados.putAll(statusLocacao);
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * @return A quantidade de veículos na grade.
+     */
+    public int getQuantidade() {
+        return veiculos.size();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int linhas = (veiculos.size() + COLUNAS - 1) / COLUNAS;
+        int largura = COLUNAS * LARGURA_CARTAO + (COLUNAS + 1) * ESPACO;
+        int altura = Math.max(1, linhas) * (ALTURA_CARTAO + ESPACO) + ESPACO;
+        return new Dimension(largura, altura);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(getBackground());
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        if (veiculos.isEmpty()) {
+            g.setColor(getForeground());
+            g.setFont(getFont().deriveFont(16f));
+            FontMetrics metricas = g.getFontMetrics();
+            int x = (getWidth() - metricas.stringWidth(mensagemVazia)) / 2;
+            g.drawString(mensagemVazia, Math.max(ESPACO, x), ESPACO + metricas.getAscent());
+            return;
+        }
+
+        int primeiraLinha = linhaEm(clip.y);
+        int ultimaLinha = linhaEm(clip.y + clip.height);
+        for (int linha = primeiraLinha; linha <= ultimaLinha; linha++) {
+            for (int coluna = 0; coluna < COLUNAS; coluna++) {
+                int indice = linha * COLUNAS + coluna;
+                if (indice >= veiculos.size()) {
+                    break;
+                }
+                Veiculo veiculo = veiculos.get(indice);
+                renderizador.exibir(veiculo, Boolean.TRUE.equals(locados.get(veiculo.getPlaca())), imagemDe(indice, Prioridade.VISIVEL));
+                Rectangle area = areaDoCartao(indice);
+                rendererPane.paintComponent(g, renderizador, this, area.x, area.y, area.width, area.height, true);
+            }
+        }
+        rendererPane.removeAll();
+
+        Rectangle visivel = getVisibleRect();
+        int linhasVisiveis = linhaEm(visivel.y + visivel.height) - linhaEm(visivel.y) + 1;
+        capacidadeImagens = COLUNAS * (linhasVisiveis + 2 * LINHAS_EXTRAS);
+        agendarPreparacao();
+    }
+
+    /**
+     * Depois da pintura, pede as imagens das linhas de sobra ao redor da área visível, ajusta a prioridade dos
+     * pedidos que mudaram de faixa, cancela os que saíram da janela e descarta as imagens mais antigas além da
+     * capacidade do cache.
+     */
+    private void agendarPreparacao() {
+        if (preparacaoAgendada) {
+            return;
+        }
+        preparacaoAgendada = true;
+        SwingUtilities.invokeLater(() -> {
+            preparacaoAgendada = false;
+            Rectangle visivel = getVisibleRect();
+            int inicioVisivel = linhaEm(visivel.y) * COLUNAS;
+            int fimVisivel = Math.min(veiculos.size(), (linhaEm(visivel.y + visivel.height) + 1) * COLUNAS);
+            int inicio = Math.max(0, linhaEm(visivel.y) - LINHAS_EXTRAS) * COLUNAS;
+            int fim = Math.min(veiculos.size(), (linhaEm(visivel.y + visivel.height) + LINHAS_EXTRAS + 1) * COLUNAS);
+
+            Map<String, Prioridade> janela = new HashMap<>();
+            for (int indice = inicio; indice < fim; indice++) {
+                boolean noVisivel = indice >= inicioVisivel && indice < fimVisivel;
+                janela.put(veiculos.get(indice).getPlaca(), noVisivel ? Prioridade.VISIVEL : Prioridade.ADIANTADO);
+            }
+            Iterator<Map.Entry<String, CarregadorImagens.Pedido>> iterador = pedidos.entrySet().iterator();
+            while (iterador.hasNext()) {
+                Map.Entry<String, CarregadorImagens.Pedido> entrada = iterador.next();
+                Prioridade prioridade = janela.get(entrada.getKey());
+                if (prioridade == null) {
+                    entrada.getValue().cancelar();
+                    iterador.remove();
+                } else {
+                    entrada.getValue().repriorizar(prioridade);
+                }
+            }
+            for (int indice = inicio; indice < fim; indice++) {
+                imagemDe(indice, janela.get(veiculos.get(indice).getPlaca()));
+            }
+            while (imagens.size() > capacidadeImagens) {
+                imagens.remove(imagens.keySet().iterator().next());
+            }
+        });
+    }
+
+    /**
+     * Retorna a imagem do cartão, pedindo-a ao carregador se ainda não estiver no cache.
+     *
+     * @return A imagem escalada; o espaço reservado enquanto ela é carregada; ou null se o veículo não tiver imagem.
+     */
+    private Image imagemDe(int indice, Prioridade prioridade) {
+        Veiculo veiculo = veiculos.get(indice);
+        String placa = veiculo.getPlaca();
+        if (imagens.containsKey(placa)) {
+            return imagens.get(placa);
+        }
+        String caminho = veiculo.getCaminhoFoto();
+        if (caminho == null || caminho.isEmpty()) {
+            imagens.put(placa, null);
+            return null;
+        }
+        Image emCache = carregador.emCache(caminho, CarCardPanel.LARGURA_IMAGEM, CarCardPanel.ALTURA_IMAGEM);
+        if (emCache != null) {
+            imagens.put(placa, emCache);
+            return emCache;
+        }
+        if (!pedidos.containsKey(placa)) {
+            pedidos.put(placa, carregador.carregar(caminho, CarCardPanel.LARGURA_IMAGEM, CarCardPanel.ALTURA_IMAGEM, prioridade,
+                    imagem -> receberImagem(indice, placa, imagem)));
+        }
+        return CarregadorImagens.espacoReservado(CarCardPanel.LARGURA_IMAGEM, CarCardPanel.ALTURA_IMAGEM).getImage();
+    }
+
+    private void receberImagem(int indice, String placa, Image imagem) {
+        pedidos.remove(placa);
+        imagens.put(placa, imagem);
+        if (indice < veiculos.size() && veiculos.get(indice).getPlaca().equals(placa)) {
+            repaint(areaDoCartao(indice));
+        }
+    }
+
+    private int deslocamentoHorizontal() {
+        int larguraGrade = COLUNAS * LARGURA_CARTAO + (COLUNAS + 1) * ESPACO;
+        return Math.max(0, (getWidth() - larguraGrade) / 2);
+    }
+
+    private int linhaEm(int y) {
+        return Math.max(0, (y - ESPACO) / (ALTURA_CARTAO + ESPACO));
+    }
+
+    private Rectangle areaDoCartao(int indice) {
+        int linha = indice / COLUNAS;
+        int coluna = indice % COLUNAS;
+        int x = deslocamentoHorizontal() + ESPACO + coluna * (LARGURA_CARTAO + ESPACO);
+        int y = ESPACO + linha * (ALTURA_CARTAO + ESPACO);
+        return new Rectangle(x, y, LARGURA_CARTAO, ALTURA_CARTAO);
+    }
+
+    /**
+     * @return O índice do veículo cujo cartão contém o ponto, ou -1 se o ponto estiver fora de qualquer cartão.
+     */
+    private int indiceEm(Point ponto) {
+        int coluna = (ponto.x - deslocamentoHorizontal() - ESPACO) / (LARGURA_CARTAO + ESPACO);
+        int linha = linhaEm(ponto.y);
+        if (coluna < 0 || coluna >= COLUNAS || ponto.x < deslocamentoHorizontal() + ESPACO) {
+            return -1;
+        }
+        int indice = linha * COLUNAS + coluna;
+        if (indice >= veiculos.size() || !areaDoCartao(indice).contains(ponto)) {
+            return -1;
+        }
+        return indice;
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return 16;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return getParent() instanceof JViewport && getParent().getWidth() > getPreferredSize().width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
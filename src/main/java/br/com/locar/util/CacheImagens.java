@@ -0,0 +1,316 @@
+package br.com.locar.util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A classe `CacheImagens` guarda, para todo o processo, as imagens já lidas e escaladas, identificadas pelo caminho
+ * resolvido da imagem e pelo tamanho pedido. Assim a mesma foto exibida no cartão, no carrossel, na tela de detalhes
+ * e no cadastro é decodificada e escalada uma única vez por tamanho.
+ * <p>
+ * O cache é um LRU limitado pela soma dos bytes de pixel das imagens guardadas. As imagens ficam em referências
+ * suaves ({@link SoftReference}), que a JVM pode liberar sob pressão de memória antes de lançar um
+ * {@link OutOfMemoryError}; uma entrada liberada conta como falha e é lida novamente no próximo acesso.
+ * Quando um arquivo é substituído no disco, as suas entradas devem ser descartadas com {@link #invalidar(String)}.
+ * </p>
+ * <p>
+ * As imagens devolvidas são compartilhadas e não devem ser alteradas por quem as recebe.
+ * </p>
+ */
+public class CacheImagens {
+
+    /**
+     * Limite padrão, em bytes de pixel, do cache compartilhado.
+     */
+    public static final long LIMITE_PADRAO_BYTES = 64L * 1024 * 1024;
+
+    private static final String PREFIXO_RECURSO = "recurso:";
+
+    private static CacheImagens compartilhado;
+
+    private final long limiteBytes;
+    private final Leitor leitor;
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(64, 0.75f, true);
+    private final ReferenceQueue<BufferedImage> liberadas = new ReferenceQueue<>();
+    private long bytesEmUso;
+    /**
+     * Incrementada a cada invalidação, para que uma leitura iniciada antes dela não guarde o conteúdo antigo.
+     */
+    private long versao;
+
+    private long acertos;
+    private long falhas;
+    private long remocoes;
+    private long liberacoesPorMemoria;
+
+    /**
+     * Lê uma imagem para o cache.
+     */
+    @FunctionalInterface
+    public interface Leitor {
+        /**
+         * Lê a imagem de um caminho, podendo já decodificá-la em uma resolução menor, próxima do tamanho pedido.
+         *
+         * @param caminho O caminho da imagem.
+         * @param largura A largura em que a imagem será exibida; zero ou negativa para o tamanho original.
+         * @param altura  A altura em que a imagem será exibida.
+         * @return A imagem, ou null se ela não puder ser lida.
+         */
+        BufferedImage ler(String caminho, int largura, int altura);
+    }
+
+    /**
+     * Construtor da classe CacheImagens, que lê as imagens com {@link LeitorImagens#ler(String, int, int)},
+     * subamostradas para o tamanho pedido.
+     *
+     * @param limiteBytes O total de bytes de pixel que o cache pode guardar.
+     */
+    public CacheImagens(long limiteBytes) {
+        this(limiteBytes, (Leitor) LeitorImagens::ler);
+    }
+
+    /**
+     * Construtor da classe CacheImagens com uma forma de leitura própria.
+     *
+     * @param limiteBytes O total de bytes de pixel que o cache pode guardar.
+     * @param leitor      Lê a imagem de um caminho, devolvendo null se ela não puder ser lida.
+     */
+    public CacheImagens(long limiteBytes, Function<String, BufferedImage> leitor) {
+        this(limiteBytes, (caminho, largura, altura) -> leitor.apply(caminho));
+    }
+
+    /**
+     * Construtor da classe CacheImagens com uma forma de leitura que recebe o tamanho pedido.
+     *
+     * @param limiteBytes O total de bytes de pixel que o cache pode guardar.
+     * @param leitor      Lê a imagem de um caminho para o tamanho pedido, devolvendo null se ela não puder ser lida.
+     */
+    public CacheImagens(long limiteBytes, Leitor leitor) {
+        this.limiteBytes = limiteBytes;
+        this.leitor = leitor;
+    }
+
+    /**
+     * Retorna o cache compartilhado pela aplicação, criando-o na primeira chamada com {@link #LIMITE_PADRAO_BYTES}.
+     *
+     * @return A instância compartilhada.
+     */
+    public static synchronized CacheImagens compartilhado() {
+        if (compartilhado == null) {
+            compartilhado = new CacheImagens(LIMITE_PADRAO_BYTES);
+        }
+        return compartilhado;
+    }
+
+    /**
+     * Retorna a imagem no tamanho pedido, lendo e escalando o original apenas se ela ainda não estiver no cache.
+     * Se houver uma miniatura pré-gerada nesse tamanho ({@link GeradorMiniaturas}), ela é lida no lugar da original.
+     * A leitura é feita fora do bloqueio do cache, então pode ser chamada de várias threads ao mesmo tempo.
+     *
+     * @param caminho O caminho da imagem, no disco ou nos recursos da aplicação.
+     * @param largura A largura desejada; zero ou negativa para manter o tamanho original.
+     * @param altura  A altura desejada.
+     * @return A imagem, ou null se o caminho for vazio ou a imagem não puder ser lida.
+     */
+    public BufferedImage obter(String caminho, int largura, int altura) {
+        if (caminho == null || caminho.isEmpty()) {
+            return null;
+        }
+        String chave = chave(caminho, largura, altura);
+        long versaoLida;
+        synchronized (this) {
+            BufferedImage imagem = buscar(chave);
+            if (imagem != null) {
+                acertos++;
+                return imagem;
+            }
+            falhas++;
+            versaoLida = versao;
+        }
+
+        String miniatura = largura > 0 ? GeradorMiniaturas.miniaturaDe(caminho, largura, altura) : null;
+        BufferedImage original = leitor.ler(miniatura != null ? miniatura : caminho, largura, altura);
+        if (original == null) {
+            return null;
+        }
+        boolean escalar = largura > 0 && (original.getWidth() != largura || original.getHeight() != altura);
+        BufferedImage imagem = escalar ? ImageScaler.getScaledImage(original, largura, altura) : original;
+        guardar(chave, imagem, versaoLida);
+        return imagem;
+    }
+
+    /**
+     * Retorna a imagem no tamanho pedido somente se ela já estiver no cache, sem nunca ler o arquivo.
+     * Útil na EDT, para exibir de imediato uma imagem já carregada. Não entra nas métricas de acertos e falhas.
+     *
+     * @param caminho O caminho da imagem.
+     * @param largura A largura desejada; zero ou negativa para o tamanho original.
+     * @param altura  A altura desejada.
+     * @return A imagem em cache, ou null se ela não estiver no cache.
+     */
+    public BufferedImage emCache(String caminho, int largura, int altura) {
+        if (caminho == null || caminho.isEmpty()) {
+            return null;
+        }
+        return buscar(chave(caminho, largura, altura));
+    }
+
+    /**
+     * Descarta todas as entradas de uma imagem, em qualquer tamanho. Deve ser chamado quando o arquivo for
+     * substituído, para que a próxima leitura veja o conteúdo novo.
+     *
+     * @param caminho O caminho da imagem.
+     */
+    public synchronized void invalidar(String caminho) {
+        if (caminho == null || caminho.isEmpty()) {
+            return;
+        }
+        versao++;
+        String prefixo = resolver(caminho) + "@";
+        Iterator<Map.Entry<String, Entrada>> iterador = entradas.entrySet().iterator();
+        while (iterador.hasNext()) {
+            Map.Entry<String, Entrada> entrada = iterador.next();
+            if (entrada.getKey().startsWith(prefixo)) {
+                bytesEmUso -= entrada.getValue().bytes;
+                iterador.remove();
+            }
+        }
+    }
+
+    /**
+     * Descarta todas as entradas do cache.
+     */
+    public synchronized void limpar() {
+        entradas.clear();
+        bytesEmUso = 0;
+    }
+
+    private synchronized BufferedImage buscar(String chave) {
+        descartarLiberadas();
+        Entrada entrada = entradas.get(chave);
+        BufferedImage imagem = entrada == null ? null : entrada.get();
+        if (imagem == null) {
+            if (entrada != null) {
+                entradas.remove(chave);
+                bytesEmUso -= entrada.bytes;
+                liberacoesPorMemoria++;
+            }
+            return null;
+        }
+        return imagem;
+    }
+
+    private synchronized void guardar(String chave, BufferedImage imagem, long versaoLida) {
+        long bytes = bytesDe(imagem);
+        if (bytes > limiteBytes || versaoLida != versao) {
+            return;
+        }
+        Entrada anterior = entradas.put(chave, new Entrada(chave, imagem, bytes, liberadas));
+        if (anterior != null) {
+            bytesEmUso -= anterior.bytes;
+        }
+        bytesEmUso += bytes;
+        Iterator<Entrada> iterador = entradas.values().iterator();
+        while (bytesEmUso > limiteBytes && iterador.hasNext()) {
+            Entrada maisAntiga = iterador.next();
+            bytesEmUso -= maisAntiga.bytes;
+            iterador.remove();
+            remocoes++;
+        }
+    }
+
+    /**
+     * Retira do cache as entradas cujas imagens a JVM liberou por falta de memória.
+     */
+    private void descartarLiberadas() {
+        Entrada liberada;
+        while ((liberada = (Entrada) liberadas.poll()) != null) {
+            if (entradas.get(liberada.chave) == liberada) {
+                entradas.remove(liberada.chave);
+                bytesEmUso -= liberada.bytes;
+                liberacoesPorMemoria++;
+            }
+        }
+    }
+
+    /**
+     * Identifica a imagem pelo caminho absoluto do arquivo, se ele existir, ou pelo caminho do recurso.
+     */
+    private static String resolver(String caminho) {
+        File arquivo = new File(caminho);
+        return arquivo.exists() ? arquivo.getAbsolutePath() : PREFIXO_RECURSO + caminho;
+    }
+
+    private static String chave(String caminho, int largura, int altura) {
+        return largura > 0 ? resolver(caminho) + "@" + largura + "x" + altura : resolver(caminho) + "@original";
+    }
+
+    private static long bytesDe(BufferedImage imagem) {
+        DataBuffer dados = imagem.getRaster().getDataBuffer();
+        return (long) dados.getSize() * dados.getNumBanks() * DataBuffer.getDataTypeSize(dados.getDataType()) / 8;
+    }
+
+    /**
+     * @return A soma dos bytes de pixel das imagens guardadas.
+     */
+    public synchronized long getBytesEmUso() {
+        return bytesEmUso;
+    }
+
+    /**
+     * @return A quantidade de imagens guardadas.
+     */
+    public synchronized int getQuantidade() {
+        return entradas.size();
+    }
+
+    /**
+     * @return A quantidade de consultas atendidas pelo cache.
+     */
+    public synchronized long getAcertos() {
+        return acertos;
+    }
+
+    /**
+     * @return A quantidade de consultas que não encontraram a imagem no cache.
+     */
+    public synchronized long getFalhas() {
+        return falhas;
+    }
+
+    /**
+     * @return A quantidade de imagens descartadas para respeitar o limite de bytes.
+     */
+    public synchronized long getRemocoes() {
+        return remocoes;
+    }
+
+    /**
+     * @return A quantidade de imagens liberadas pela JVM sob pressão de memória.
+     */
+    public synchronized long getLiberacoesPorMemoria() {
+        return liberacoesPorMemoria;
+    }
+
+    /**
+     * Uma imagem guardada, com o seu tamanho em bytes registrado para o limite do cache mesmo depois de a
+     * referência ser liberada.
+     */
+    private static final class Entrada extends SoftReference<BufferedImage> {
+        private final String chave;
+        private final long bytes;
+
+        private Entrada(String chave, BufferedImage imagem, long bytes, ReferenceQueue<BufferedImage> fila) {
+            super(imagem, fila);
+            this.chave = chave;
+            this.bytes = bytes;
+        }
+    }
+}
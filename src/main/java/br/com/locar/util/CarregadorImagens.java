@@ -0,0 +1,363 @@
+package br.com.locar.util;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A classe `CarregadorImagens` lê e escala imagens fora da thread de eventos do Swing (EDT).
+ * <p>
+ * Os pedidos entram em uma fila de prioridade atendida por um número fixo de threads: pedidos
+ * {@link Prioridade#VISIVEL} passam à frente dos demais e, dentro da mesma prioridade, são atendidos na ordem de
+ * chegada. Pedidos iguais (mesmo caminho e tamanho) ainda pendentes compartilham uma única leitura. Um pedido pode
+ * ser cancelado, por exemplo quando o cartão sai da área visível; quando todos os interessados cancelam, a leitura
+ * é retirada da fila sem ser executada. O resultado é entregue na EDT, e um pedido cancelado nunca recebe resposta.
+ * As imagens são obtidas por um {@link CacheImagens}, então uma imagem já carregada não é lida de novo.
+ * </p>
+ */
+public class CarregadorImagens {
+
+    /**
+     * Prioridade de um pedido, da mais urgente para a menos urgente.
+     */
+    public enum Prioridade {
+        /**
+         * A imagem está na área visível da tela.
+         */
+        VISIVEL,
+        /**
+         * A imagem deve aparecer em breve, por exemplo logo abaixo da área visível.
+         */
+        ADIANTADO,
+        /**
+         * A imagem pode esperar que as demais sejam carregadas.
+         */
+        SEGUNDO_PLANO
+    }
+
+    private static CarregadorImagens compartilhado;
+    private static final Map<Dimension, ImageIcon> espacosReservados = new HashMap<>();
+
+    private final ThreadPoolExecutor executor;
+    private final CacheImagens cache;
+    private final Map<String, Leitura> pendentes = new HashMap<>();
+    private long sequencia;
+
+    private long imagensLidas;
+    private long leiturasCompartilhadas;
+    private long pedidosCancelados;
+
+    /**
+     * Construtor da classe CarregadorImagens, que obtém as imagens do {@link CacheImagens#compartilhado()}.
+     *
+     * @param threads A quantidade de threads de leitura.
+     */
+    public CarregadorImagens(int threads) {
+        this(threads, CacheImagens.compartilhado());
+    }
+
+    /**
+     * Construtor da classe CarregadorImagens.
+     *
+     * @param threads A quantidade de threads de leitura.
+     * @param cache   O cache de onde as imagens são obtidas, lidas e escaladas quando ainda não estiverem nele.
+     */
+    public CarregadorImagens(int threads, CacheImagens cache) {
+        this.cache = cache;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), tarefa -> {
+            Thread thread = new Thread(tarefa, "locar-imagens-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        this.executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * Retorna o carregador compartilhado pela aplicação, criando-o na primeira chamada com até quatro threads.
+     *
+     * @return A instância compartilhada.
+     */
+    public static synchronized CarregadorImagens compartilhado() {
+        if (compartilhado == null) {
+            compartilhado = new CarregadorImagens(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+        }
+        return compartilhado;
+    }
+
+    /**
+     * Pede a leitura de uma imagem, escalada para o tamanho informado.
+     *
+     * @param caminho    O caminho da imagem, no disco ou nos recursos da aplicação.
+     * @param largura    A largura desejada; zero ou negativa para manter o tamanho original.
+     * @param altura     A altura desejada.
+     * @param prioridade A prioridade do pedido.
+     * @param aoCarregar Recebe, na EDT, a imagem carregada ou null se ela não puder ser lida.
+     * @return O pedido, que pode ser cancelado ou ter a prioridade alterada.
+     */
+    public synchronized Pedido carregar(String caminho, int largura, int altura, Prioridade prioridade, Consumer<Image> aoCarregar) {
+        String chave = caminho + "@" + largura + "x" + altura;
+        Pedido pedido = new Pedido(prioridade, aoCarregar);
+        Leitura leitura = pendentes.get(chave);
+        if (leitura == null) {
+            leitura = new Leitura(chave, caminho, largura, altura, sequencia++);
+            pendentes.put(chave, leitura);
+            leitura.pedidos.add(pedido);
+            pedido.leitura = leitura;
+            leitura.prioridade = prioridade;
+            executor.execute(leitura);
+        } else {
+            leiturasCompartilhadas++;
+            leitura.pedidos.add(pedido);
+            pedido.leitura = leitura;
+            atualizarPrioridade(leitura);
+        }
+        return pedido;
+    }
+
+    /**
+     * Recalcula a prioridade de uma leitura ainda na fila como a mais urgente entre os seus pedidos,
+     * reposicionando-a na fila se ela mudou.
+     */
+    private void atualizarPrioridade(Leitura leitura) {
+        if (leitura.iniciada) {
+            return;
+        }
+        Prioridade maisUrgente = Prioridade.SEGUNDO_PLANO;
+        for (Pedido pedido : leitura.pedidos) {
+            if (pedido.prioridade.compareTo(maisUrgente) < 0) {
+                maisUrgente = pedido.prioridade;
+            }
+        }
+        if (maisUrgente != leitura.prioridade && executor.remove(leitura)) {
+            leitura.prioridade = maisUrgente;
+            executor.execute(leitura);
+        }
+    }
+
+    private synchronized void cancelar(Pedido pedido) {
+        Leitura leitura = pedido.leitura;
+        if (pedido.cancelado) {
+            return;
+        }
+        pedido.cancelado = true;
+        pedidosCancelados++;
+        if (leitura == null || !leitura.pedidos.remove(pedido)) {
+            return;
+        }
+        if (leitura.pedidos.isEmpty()) {
+            if (!leitura.iniciada && executor.remove(leitura)) {
+                pendentes.remove(leitura.chave, leitura);
+            }
+        } else {
+            atualizarPrioridade(leitura);
+        }
+    }
+
+    private synchronized void repriorizar(Pedido pedido, Prioridade prioridade) {
+        if (pedido.cancelado || pedido.prioridade == prioridade) {
+            return;
+        }
+        pedido.prioridade = prioridade;
+        if (pedido.leitura != null) {
+            atualizarPrioridade(pedido.leitura);
+        }
+    }
+
+    private void executar(Leitura leitura) {
+        synchronized (this) {
+            if (leitura.pedidos.isEmpty()) {
+                pendentes.remove(leitura.chave, leitura);
+                return;
+            }
+            leitura.iniciada = true;
+        }
+
+        Image imagem = null;
+        try {
+            imagem = cache.obter(leitura.caminho, leitura.largura, leitura.altura);
+        } catch (Exception e) {
+            System.err.println("Erro inesperado ao carregar/escalar imagem " + leitura.caminho + ": " + e.getMessage());
+        }
+
+        List<Pedido> interessados;
+        synchronized (this) {
+            imagensLidas++;
+            pendentes.remove(leitura.chave, leitura);
+            interessados = new ArrayList<>(leitura.pedidos);
+        }
+        Image resultado = imagem;
+        SwingUtilities.invokeLater(() -> {
+            for (Pedido pedido : interessados) {
+                if (!pedido.cancelado) {
+                    pedido.aoCarregar.accept(resultado);
+                }
+            }
+        });
+    }
+
+    /**
+     * Retorna a imagem se ela já estiver no cache, sem agendar leitura. Permite que a EDT exiba de imediato uma
+     * imagem já carregada, sem passar pelo espaço reservado.
+     *
+     * @param caminho O caminho da imagem.
+     * @param largura A largura desejada; zero ou negativa para o tamanho original.
+     * @param altura  A altura desejada.
+     * @return A imagem em cache, ou null se ela ainda não estiver no cache.
+     */
+    public Image emCache(String caminho, int largura, int altura) {
+        return cache.emCache(caminho, largura, altura);
+    }
+
+    /**
+     * Lê uma imagem do disco ou, se o arquivo não existir, dos recursos da aplicação, em resolução cheia.
+     *
+     * @param caminho O caminho da imagem.
+     * @return A imagem lida, ou null se o caminho for vazio ou a imagem não puder ser lida.
+     * @see LeitorImagens#ler(String, int, int)
+     */
+    public static BufferedImage lerImagem(String caminho) {
+        return LeitorImagens.ler(caminho, 0, 0);
+    }
+
+    /**
+     * Retorna o ícone exibido enquanto uma imagem é carregada: um retângulo cinza com o texto "Carregando...".
+     * Os ícones são reaproveitados por tamanho; o método deve ser chamado na EDT.
+     *
+     * @param largura A largura do ícone.
+     * @param altura  A altura do ícone.
+     * @return O ícone de espera.
+     */
+    public static ImageIcon espacoReservado(int largura, int altura) {
+        return espacosReservados.computeIfAbsent(new Dimension(largura, altura), tamanho -> {
+            BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = imagem.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(new Color(235, 235, 235));
+            g2.fillRect(0, 0, largura, altura);
+            g2.setColor(Color.GRAY);
+            g2.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+            String texto = "Carregando...";
+            FontMetrics metricas = g2.getFontMetrics();
+            g2.drawString(texto, (largura - metricas.stringWidth(texto)) / 2, (altura + metricas.getAscent()) / 2);
+            g2.dispose();
+            return new ImageIcon(imagem);
+        });
+    }
+
+    /**
+     * Interrompe as threads de leitura, descartando os pedidos ainda na fila.
+     */
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return A quantidade de imagens efetivamente lidas.
+     */
+    public synchronized long getImagensLidas() {
+        return imagensLidas;
+    }
+
+    /**
+     * @return A quantidade de pedidos atendidos por uma leitura já pendente de outro pedido igual.
+     */
+    public synchronized long getLeiturasCompartilhadas() {
+        return leiturasCompartilhadas;
+    }
+
+    /**
+     * @return A quantidade de pedidos cancelados.
+     */
+    public synchronized long getPedidosCancelados() {
+        return pedidosCancelados;
+    }
+
+    /**
+     * Um pedido de imagem feito por um componente.
+     */
+    public final class Pedido {
+        private final Consumer<Image> aoCarregar;
+        private volatile Prioridade prioridade;
+        private volatile boolean cancelado;
+        private Leitura leitura;
+
+        private Pedido(Prioridade prioridade, Consumer<Image> aoCarregar) {
+            this.prioridade = prioridade;
+            this.aoCarregar = aoCarregar;
+        }
+
+        /**
+         * Cancela o pedido: a imagem não será entregue e, sem outros interessados, nem chegará a ser lida.
+         */
+        public void cancelar() {
+            CarregadorImagens.this.cancelar(this);
+        }
+
+        /**
+         * Altera a prioridade do pedido, reposicionando a leitura na fila se ela ainda não começou.
+         *
+         * @param prioridade A nova prioridade.
+         */
+        public void repriorizar(Prioridade prioridade) {
+            CarregadorImagens.this.repriorizar(this, prioridade);
+        }
+
+        /**
+         * @return A prioridade atual do pedido.
+         */
+        public Prioridade getPrioridade() {
+            return prioridade;
+        }
+
+        /**
+         * @return Se o pedido foi cancelado.
+         */
+        public boolean isCancelado() {
+            return cancelado;
+        }
+    }
+
+    /**
+     * A leitura de uma imagem em um tamanho, compartilhada pelos pedidos iguais.
+     */
+    private final class Leitura implements Runnable, Comparable<Leitura> {
+        private final String chave;
+        private final String caminho;
+        private final int largura;
+        private final int altura;
+        private final long ordem;
+        private final List<Pedido> pedidos = new ArrayList<>(1);
+        private volatile Prioridade prioridade;
+        private boolean iniciada;
+
+        private Leitura(String chave, String caminho, int largura, int altura, long ordem) {
+            this.chave = chave;
+            this.caminho = caminho;
+            this.largura = largura;
+            this.altura = altura;
+            this.ordem = ordem;
+        }
+
+        @Override
+        public void run() {
+            executar(this);
+        }
+
+        @Override
+        public int compareTo(Leitura outra) {
+            int comparacao = prioridade.compareTo(outra.prioridade);
+            return comparacao != 0 ? comparacao : Long.compare(ordem, outra.ordem);
+        }
+    }
+}
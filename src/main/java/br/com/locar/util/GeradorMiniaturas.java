@@ -0,0 +1,301 @@
+package br.com.locar.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A classe `GeradorMiniaturas` gera, no momento em que uma foto é salva, versões já escaladas nos tamanhos em que
+ * a aplicação a exibe. Assim, exibir um cartão ou um avatar lê um arquivo pequeno em vez de decodificar a foto
+ * original em resolução cheia.
+ * <p>
+ * As miniaturas ficam na subpasta {@value #PASTA_MINIATURAS} da pasta da foto, com o nome
+ * {@code <arquivo original>.<largura>x<altura>.<jpg|png>}: JPEG para fotos sem transparência e PNG para as demais.
+ * Uma miniatura só é usada se for mais recente que a foto original.
+ * </p>
+ */
+public class GeradorMiniaturas {
+
+    /**
+     * Subpasta, dentro da pasta das fotos, onde as miniaturas são gravadas.
+     */
+    public static final String PASTA_MINIATURAS = "miniaturas";
+
+    private static final float QUALIDADE_JPEG = 0.9f;
+    private static final Set<String> EXTENSOES = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+    /**
+     * Os tamanhos em que as fotos são exibidas.
+     */
+    public enum Tamanho {
+        /**
+         * Imagem do cartão da listagem de veículos.
+         */
+        CARTAO(250, 150),
+        /**
+         * Imagem do carrossel da tela inicial, escalada depois para o tamanho do painel.
+         */
+        CARROSSEL(1200, 600),
+        /**
+         * Imagem da tela de detalhes do veículo.
+         */
+        DETALHE(500, 350),
+        /**
+         * Prévia da imagem na tela de cadastro de veículos.
+         */
+        PREVIA_CADASTRO(150, 100),
+        /**
+         * Foto de perfil no cabeçalho.
+         */
+        AVATAR_CABECALHO(50, 50),
+        /**
+         * Foto de perfil na tela de perfil do usuário.
+         */
+        AVATAR_PERFIL(350, 350);
+
+        private final int largura;
+        private final int altura;
+
+        Tamanho(int largura, int altura) {
+            this.largura = largura;
+            this.altura = altura;
+        }
+
+        public int getLargura() {
+            return largura;
+        }
+
+        public int getAltura() {
+            return altura;
+        }
+    }
+
+    /**
+     * Os tamanhos gerados para as fotos de veículos.
+     */
+    public static final Set<Tamanho> TAMANHOS_VEICULO = Collections.unmodifiableSet(
+            EnumSet.of(Tamanho.CARTAO, Tamanho.CARROSSEL, Tamanho.DETALHE, Tamanho.PREVIA_CADASTRO));
+    /**
+     * Os tamanhos gerados para as fotos de perfil.
+     */
+    public static final Set<Tamanho> TAMANHOS_PERFIL = Collections.unmodifiableSet(
+            EnumSet.of(Tamanho.AVATAR_CABECALHO, Tamanho.AVATAR_PERFIL));
+
+    private static ExecutorService executorPreenchimento;
+
+    /**
+     * Gera as miniaturas de uma foto, lendo a original uma única vez, já subamostrada para o maior dos tamanhos
+     * ({@link LeitorImagens}).
+     *
+     * @param original  O arquivo da foto original.
+     * @param tamanhos  Os tamanhos a gerar.
+     * @return true se todas as miniaturas foram gravadas, false se a foto não pôde ser lida ou alguma gravação falhou.
+     */
+    public static boolean gerar(File original, Set<Tamanho> tamanhos) {
+        int largura = 0;
+        int altura = 0;
+        for (Tamanho tamanho : tamanhos) {
+            largura = Math.max(largura, tamanho.getLargura());
+            altura = Math.max(altura, tamanho.getAltura());
+        }
+        BufferedImage imagem;
+        try {
+            imagem = LeitorImagens.ler(original, largura, altura);
+        } catch (IOException e) {
+            System.err.println("Erro de I/O ao ler foto para miniaturas " + original + ": " + e.getMessage());
+            return false;
+        }
+        if (imagem == null) {
+            System.err.println("Formato de imagem não suportado para miniaturas: " + original);
+            return false;
+        }
+
+        File pasta = new File(original.getAbsoluteFile().getParentFile(), PASTA_MINIATURAS);
+        if (!pasta.exists() && !pasta.mkdirs()) {
+            System.err.println("Não foi possível criar a pasta de miniaturas: " + pasta);
+            return false;
+        }
+        boolean transparente = imagem.getColorModel().hasAlpha();
+        boolean sucesso = true;
+        for (Tamanho tamanho : tamanhos) {
+            sucesso &= gravar(imagem, tamanho, transparente, original, pasta);
+        }
+        return sucesso;
+    }
+
+    /**
+     * Grava uma miniatura em um arquivo temporário exclusivo desta gravação e o renomeia sobre a miniatura.
+     * O preenchimento na inicialização e o salvamento de uma foto podem gerar a mesma miniatura ao mesmo tempo;
+     * com temporários distintos, cada um publica um arquivo completo e a última renomeação prevalece.
+     */
+    private static boolean gravar(BufferedImage imagem, Tamanho tamanho, boolean transparente, File original, File pasta) {
+        String formato = transparente ? "png" : "jpg";
+        File destino = arquivoMiniatura(original, tamanho.getLargura(), tamanho.getAltura(), formato);
+        BufferedImage escalada = ImageScaler.getScaledImage(imagem, tamanho.getLargura(), tamanho.getAltura());
+        Path temporario = null;
+        try {
+            temporario = Files.createTempFile(pasta.toPath(), original.getName() + ".", ".tmp");
+            if (transparente) {
+                ImageIO.write(escalada, formato, temporario.toFile());
+            } else {
+                gravarJpeg(escalada, temporario.toFile());
+            }
+            try {
+                Files.move(temporario, destino.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporario, destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            File outroFormato = arquivoMiniatura(original, tamanho.getLargura(), tamanho.getAltura(), transparente ? "jpg" : "png");
+            Files.deleteIfExists(outroFormato.toPath());
+            return true;
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar miniatura " + destino + ": " + e.getMessage());
+            if (temporario != null) {
+                temporario.toFile().delete();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Grava a imagem em JPEG sem canal alfa, que o codificador JPEG não aceita.
+     */
+    private static void gravarJpeg(BufferedImage imagem, File destino) throws IOException {
+        BufferedImage rgb = imagem;
+        if (imagem.getType() != BufferedImage.TYPE_INT_RGB) {
+            rgb = new BufferedImage(imagem.getWidth(), imagem.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2 = rgb.createGraphics();
+            g2.drawImage(imagem, 0, 0, Color.WHITE, null);
+            g2.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream saida = ImageIO.createImageOutputStream(destino)) {
+            writer.setOutput(saida);
+            ImageWriteParam parametros = writer.getDefaultWriteParam();
+            parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametros.setCompressionQuality(QUALIDADE_JPEG);
+            writer.write(null, new IIOImage(rgb, null, null), parametros);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Retorna a miniatura de uma foto no tamanho exato pedido, se ela existir e for mais recente que a original.
+     *
+     * @param caminhoOriginal O caminho da foto original.
+     * @param largura         A largura da miniatura.
+     * @param altura          A altura da miniatura.
+     * @return O caminho da miniatura, ou null se não houver miniatura válida (inclusive para recursos da aplicação).
+     */
+    public static String miniaturaDe(String caminhoOriginal, int largura, int altura) {
+        if (caminhoOriginal == null || caminhoOriginal.isEmpty()) {
+            return null;
+        }
+        File original = new File(caminhoOriginal);
+        if (!original.isFile()) {
+            return null;
+        }
+        long modificacaoOriginal = original.lastModified();
+        for (String formato : new String[]{"jpg", "png"}) {
+            File miniatura = arquivoMiniatura(original, largura, altura, formato);
+            if (miniatura.isFile() && miniatura.lastModified() >= modificacaoOriginal) {
+                return miniatura.getPath();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gera as miniaturas que faltam, ou que estão desatualizadas, para todas as fotos de uma pasta, várias fotos
+     * em paralelo. As fotos são processadas em threads de baixa prioridade para não disputar com a interface.
+     *
+     * @param pasta    A pasta das fotos originais.
+     * @param tamanhos Os tamanhos a gerar.
+     * @return Um futuro com a quantidade de fotos cujas miniaturas foram geradas.
+     */
+    public static CompletableFuture<Integer> preencher(String pasta, Set<Tamanho> tamanhos) {
+        File[] arquivos = new File(pasta).listFiles(arquivo -> arquivo.isFile() && ehImagem(arquivo));
+        if (arquivos == null || arquivos.length == 0) {
+            return CompletableFuture.completedFuture(0);
+        }
+        ExecutorService executor = executorPreenchimento();
+        AtomicInteger geradas = new AtomicInteger();
+        List<CompletableFuture<Void>> tarefas = new ArrayList<>(arquivos.length);
+        for (File arquivo : arquivos) {
+            tarefas.add(CompletableFuture.runAsync(() -> {
+                if (desatualizada(arquivo, tamanhos) && gerar(arquivo, tamanhos)) {
+                    geradas.incrementAndGet();
+                }
+            }, executor));
+        }
+        return CompletableFuture.allOf(tarefas.toArray(new CompletableFuture<?>[0])).thenApply(nada -> geradas.get());
+    }
+
+    /**
+     * Gera as miniaturas de uma foto recém-salva nas threads de baixa prioridade do preenchimento, para que a
+     * thread chamadora (em geral a de eventos do Swing) não decodifique nem codifique imagens. Até a conclusão,
+     * o {@link CacheImagens} continua lendo a foto original.
+     *
+     * @param original O arquivo da foto original.
+     * @param tamanhos Os tamanhos a gerar.
+     * @return Um futuro com o resultado de {@link #gerar(File, Set)}.
+     */
+    public static CompletableFuture<Boolean> gerarEmSegundoPlano(File original, Set<Tamanho> tamanhos) {
+        return CompletableFuture.supplyAsync(() -> gerar(original, tamanhos), executorPreenchimento());
+    }
+
+    private static boolean desatualizada(File original, Set<Tamanho> tamanhos) {
+        for (Tamanho tamanho : tamanhos) {
+            if (miniaturaDe(original.getPath(), tamanho.getLargura(), tamanho.getAltura()) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean ehImagem(File arquivo) {
+        String nome = arquivo.getName();
+        int ponto = nome.lastIndexOf('.');
+        return ponto > 0 && EXTENSOES.contains(nome.substring(ponto + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static File arquivoMiniatura(File original, int largura, int altura, String formato) {
+        File pasta = new File(original.getAbsoluteFile().getParentFile(), PASTA_MINIATURAS);
+        return new File(pasta, original.getName() + "." + largura + "x" + altura + "." + formato);
+    }
+
+    private static synchronized ExecutorService executorPreenchimento() {
+        if (executorPreenchimento == null) {
+            AtomicInteger contador = new AtomicInteger();
+            executorPreenchimento = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()), tarefa -> {
+                Thread thread = new Thread(tarefa, "locar-miniaturas-" + contador.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+        return executorPreenchimento;
+    }
+}
@@ -2,35 +2,327 @@ package br.com.locar.util;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DirectColorModel;
+import java.util.Arrays;
 
 /**
  * A classe `ImageScaler` fornece métodos utilitários para reescalar imagens.
- * Ela inclui funcionalidades para reescalar uma imagem diretamente para um {@code BufferedImage}
- * com alta qualidade de renderização, bem como métodos para reescalar a partir de um objeto {@code Image}
- * ou diretamente de um caminho de arquivo.
+ * <p>
+ * O algoritmo é escolhido pela razão de redução ({@link #escolherAlgoritmo(int, int, int, int)}): um único passo
+ * bicúbico para reduções pequenas e ampliações, reduções progressivas pela metade com passos bilineares para
+ * reduções médias e média por área para miniaturas. Reduzir em um só passo uma imagem muito maior que o destino é
+ * lento e descarta a maior parte dos pixels da origem, produzindo serrilhado; os passos pela metade e a média por
+ * área levam todos os pixels em conta. Há também um modo rápido, por vizinho mais próximo, para prévias durante
+ * um redimensionamento.
+ * </p>
+ * <p>
+ * Imagens de origem sem canal alfa geram destinos RGB opacos, que ocupam o mesmo espaço mas são desenhados mais
+ * rápido. Um destino já existente, do mesmo tamanho e tipo, pode ser reaproveitado em vez de alocado de novo.
+ * </p>
  */
 public class ImageScaler {
+
+    /**
+     * Os algoritmos de reescala disponíveis.
+     */
+    public enum Algoritmo {
+        /**
+         * Escolhe o algoritmo pela razão de redução.
+         */
+        AUTOMATICO,
+        /**
+         * Vizinho mais próximo em um passo: o mais rápido, para prévias durante um redimensionamento.
+         */
+        RAPIDO,
+        /**
+         * Interpolação bicúbica em um passo, adequada a reduções de até metade do tamanho e a ampliações.
+         */
+        BICUBICO,
+        /**
+         * Reduções sucessivas pela metade com interpolação bilinear, até o tamanho final.
+         */
+        PROGRESSIVO,
+        /**
+         * Cada pixel de destino é a média dos pixels da área correspondente na origem; a melhor qualidade para
+         * reduções grandes, como miniaturas.
+         */
+        MEDIA_AREA
+    }
+
+    /**
+     * Abaixo desta razão de redução o modo automático usa a média por área em vez da redução progressiva.
+     */
+    private static final double RAZAO_MEDIA_AREA = 0.25;
+
     /**
-     * Reescalona uma imagem de origem para as dimensões especificadas,
-     * utilizando renderização de alta qualidade para um {@code BufferedImage}.
-     * Este método é útil para obter um controle mais fino sobre a qualidade do reescalonamento.
+     * Reescalona uma imagem de origem para as dimensões especificadas, com o algoritmo escolhido pela razão de
+     * redução ({@link Algoritmo#AUTOMATICO}).
      *
      * @param srcImg A imagem de origem a ser reescalada.
      * @param w A largura desejada para a imagem reescalada.
      * @param h A altura desejada para a imagem reescalada.
-     * @return Um {@code BufferedImage} contendo a imagem reescalada com as dimensões e qualidade especificadas.
+     * @return Um {@code BufferedImage} contendo a imagem reescalada com as dimensões especificadas.
      */
     public static BufferedImage getScaledImage(Image srcImg, int w, int h) {
-        BufferedImage resizedImg = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = resizedImg.createGraphics();
+        return escalar(srcImg, w, h, Algoritmo.AUTOMATICO, null);
+    }
+
+    /**
+     * Reescalona uma imagem com o algoritmo informado.
+     *
+     * @param origem    A imagem de origem.
+     * @param w         A largura desejada.
+     * @param h         A altura desejada.
+     * @param algoritmo O algoritmo de reescala.
+     * @return Uma nova imagem com as dimensões especificadas.
+     */
+    public static BufferedImage escalar(Image origem, int w, int h, Algoritmo algoritmo) {
+        return escalar(origem, w, h, algoritmo, null);
+    }
+
+    /**
+     * Reescalona uma imagem com o algoritmo informado, desenhando no destino anterior se ele tiver o mesmo tamanho e
+     * tipo do resultado. Útil para quem reescala a mesma imagem repetidamente, como um painel redimensionado.
+     *
+     * @param origem       A imagem de origem.
+     * @param w            A largura desejada.
+     * @param h            A altura desejada.
+     * @param algoritmo    O algoritmo de reescala.
+     * @param reaproveitar O destino anterior, ou null. Quando reaproveitado, o seu conteúdo é substituído.
+     * @return O destino reaproveitado ou uma nova imagem com as dimensões especificadas.
+     */
+    public static BufferedImage escalar(Image origem, int w, int h, Algoritmo algoritmo, BufferedImage reaproveitar) {
+        int larguraOrigem = origem.getWidth(null);
+        int alturaOrigem = origem.getHeight(null);
+        boolean alfa = !(origem instanceof BufferedImage imagem) || imagem.getColorModel().hasAlpha();
+        int tipo = alfa ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage destino = reaproveitar != null && reaproveitar.getWidth() == w && reaproveitar.getHeight() == h
+                && reaproveitar.getType() == tipo ? reaproveitar : new BufferedImage(w, h, tipo);
 
-        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        if (larguraOrigem <= 0 || alturaOrigem <= 0) {
+            desenhar(origem, destino, w, h, -1, -1, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            return destino;
+        }
+        if (algoritmo == Algoritmo.AUTOMATICO) {
+            algoritmo = escolherAlgoritmo(larguraOrigem, alturaOrigem, w, h);
+        }
+        switch (algoritmo) {
+            case RAPIDO -> desenhar(origem, destino, w, h, larguraOrigem, alturaOrigem, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            case PROGRESSIVO -> reduzirProgressivamente(origem, destino, larguraOrigem, alturaOrigem, tipo);
+            case MEDIA_AREA -> {
+                if (w > larguraOrigem || h > alturaOrigem) {
+                    desenhar(origem, destino, w, h, larguraOrigem, alturaOrigem, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                } else {
+                    mediaPorArea(paraBufferedImage(origem, larguraOrigem, alturaOrigem), destino, alfa);
+                }
+            }
+            default -> desenhar(origem, destino, w, h, larguraOrigem, alturaOrigem, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        }
+        return destino;
+    }
+
+    /**
+     * Escolhe o algoritmo pela razão de redução: bicúbico em um passo até a metade do tamanho (e para ampliações),
+     * redução progressiva até um quarto e média por área abaixo disso.
+     *
+     * @param larguraOrigem A largura da origem.
+     * @param alturaOrigem  A altura da origem.
+     * @param w             A largura do destino.
+     * @param h             A altura do destino.
+     * @return O algoritmo adequado.
+     */
+    public static Algoritmo escolherAlgoritmo(int larguraOrigem, int alturaOrigem, int w, int h) {
+        double razao = Math.min((double) w / larguraOrigem, (double) h / alturaOrigem);
+        if (razao >= 0.5) {
+            return Algoritmo.BICUBICO;
+        }
+        return razao < RAZAO_MEDIA_AREA ? Algoritmo.MEDIA_AREA : Algoritmo.PROGRESSIVO;
+    }
 
-        g2.drawImage(srcImg, 0, 0, w, h, null);
+    /**
+     * Desenha a região {@code (0, 0, larguraOrigem, alturaOrigem)} da origem na região {@code (0, 0, w, h)} do
+     * destino, substituindo os pixels existentes. Dimensões de origem negativas desenham a imagem inteira.
+     */
+    private static void desenhar(Image origem, BufferedImage destino, int w, int h,
+                                 int larguraOrigem, int alturaOrigem, Object interpolacao) {
+        Graphics2D g2 = destino.createGraphics();
+        g2.setComposite(AlphaComposite.Src);
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolacao);
+        boolean rapido = interpolacao == RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR;
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING, rapido ? RenderingHints.VALUE_RENDER_SPEED : RenderingHints.VALUE_RENDER_QUALITY);
+        if (larguraOrigem < 0) {
+            g2.drawImage(origem, 0, 0, w, h, null);
+        } else {
+            g2.drawImage(origem, 0, 0, w, h, 0, 0, larguraOrigem, alturaOrigem, null);
+        }
         g2.dispose();
+    }
+
+    /**
+     * Reduz a imagem pela metade a cada passo, com interpolação bilinear, até o tamanho do destino. Os passos
+     * intermediários alternam entre dois rascunhos: cada passo desenha no canto superior esquerdo do rascunho que
+     * não contém o passo anterior, então não é preciso alocar uma imagem por passo.
+     */
+    private static void reduzirProgressivamente(Image origem, BufferedImage destino, int larguraOrigem, int alturaOrigem, int tipo) {
+        int w = destino.getWidth();
+        int h = destino.getHeight();
+        BufferedImage[] rascunhos = new BufferedImage[2];
+        Image atual = origem;
+        int larguraAtual = larguraOrigem;
+        int alturaAtual = alturaOrigem;
+        int indice = 0;
+        do {
+            int proximaLargura = larguraAtual > w ? Math.max(w, larguraAtual / 2) : w;
+            int proximaAltura = alturaAtual > h ? Math.max(h, alturaAtual / 2) : h;
+            BufferedImage alvo;
+            if (proximaLargura == w && proximaAltura == h) {
+                alvo = destino;
+            } else {
+                if (rascunhos[indice] == null) {
+                    rascunhos[indice] = new BufferedImage(proximaLargura, proximaAltura, tipo);
+                }
+                alvo = rascunhos[indice];
+                indice ^= 1;
+            }
+            desenhar(atual, alvo, proximaLargura, proximaAltura, larguraAtual, alturaAtual, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            atual = alvo;
+            larguraAtual = proximaLargura;
+            alturaAtual = proximaAltura;
+        } while (atual != destino);
+    }
+
+    /**
+     * Reduz a imagem pela média de cada área. A origem é percorrida uma linha por vez, somando cada pixel ao pixel de
+     * destino que o contém, de modo que cada pixel da origem é lido uma única vez. Com canal alfa, as cores são
+     * ponderadas pela opacidade para que pixels transparentes não escureçam as bordas.
+     */
+    private static void mediaPorArea(BufferedImage origem, BufferedImage destino, boolean alfa) {
+        int larguraOrigem = origem.getWidth();
+        int alturaOrigem = origem.getHeight();
+        int w = destino.getWidth();
+        int h = destino.getHeight();
+        int[] colunas = intervalos(larguraOrigem, w);
+        int[] linhas = intervalos(alturaOrigem, h);
+        int[] colunaDestino = new int[larguraOrigem];
+        for (int x = 0; x < w; x++) {
+            for (int i = colunas[2 * x]; i < colunas[2 * x + 1]; i++) {
+                colunaDestino[i] = x;
+            }
+        }
+
+        LeitorLinhas leitor = new LeitorLinhas(origem);
+        long[] somas = new long[w * 4];
+        int[] resultado = new int[w * h];
+        for (int y = 0; y < h; y++) {
+            Arrays.fill(somas, 0);
+            for (int linha = linhas[2 * y]; linha < linhas[2 * y + 1]; linha++) {
+                leitor.somar(linha, colunaDestino, somas, alfa);
+            }
+            int quantidadeLinhas = linhas[2 * y + 1] - linhas[2 * y];
+            for (int x = 0; x < w; x++) {
+                int n = quantidadeLinhas * (colunas[2 * x + 1] - colunas[2 * x]);
+                int posicao = x * 4;
+                long peso = alfa ? somas[posicao] : n;
+                if (peso == 0) {
+                    resultado[y * w + x] = 0;
+                    continue;
+                }
+                int opacidade = alfa ? (int) ((somas[posicao] + n / 2) / n) : 0xFF;
+                resultado[y * w + x] = opacidade << 24
+                        | (int) ((somas[posicao + 1] + peso / 2) / peso) << 16
+                        | (int) ((somas[posicao + 2] + peso / 2) / peso) << 8
+                        | (int) ((somas[posicao + 3] + peso / 2) / peso);
+            }
+        }
+        destino.getRaster().setDataElements(0, 0, w, h, resultado);
+    }
 
-        return resizedImg;
+    /**
+     * Lê as linhas de uma imagem como componentes R, G, B (e A). Para as imagens RGB comuns (JPEG e PNG
+     * decodificados, tipos {@code INT}), lê as amostras direto do raster, sem conversão de cor; para as demais
+     * (paleta, tons de cinza, alfa pré-multiplicado), converte cada linha com {@link BufferedImage#getRGB}.
+     */
+    private static final class LeitorLinhas {
+        private final BufferedImage imagem;
+        private final int largura;
+        private final int bandas;
+        private final boolean direto;
+        private final int[] amostras;
+
+        private LeitorLinhas(BufferedImage imagem) {
+            this.imagem = imagem;
+            this.largura = imagem.getWidth();
+            ColorModel modelo = imagem.getColorModel();
+            this.bandas = imagem.getRaster().getNumBands();
+            this.direto = (modelo instanceof ComponentColorModel || modelo instanceof DirectColorModel)
+                    && modelo.getColorSpace().isCS_sRGB() && !modelo.isAlphaPremultiplied()
+                    && modelo.getNumColorComponents() == 3 && bandas == modelo.getNumComponents()
+                    && modelo.getComponentSize(0) == 8;
+            this.amostras = new int[largura * (direto ? bandas : 1)];
+        }
+
+        /**
+         * Soma os pixels de uma linha da origem às somas dos pixels de destino, na ordem (A, R, G, B), com as
+         * cores já ponderadas pela opacidade quando {@code alfa} for verdadeiro.
+         */
+        private void somar(int linha, int[] colunaDestino, long[] somas, boolean alfa) {
+            if (direto) {
+                imagem.getRaster().getPixels(0, linha, largura, 1, amostras);
+                for (int x = 0, i = 0; x < largura; x++, i += bandas) {
+                    int posicao = colunaDestino[x] * 4;
+                    int opacidade = bandas == 4 ? amostras[i + 3] : 0xFF;
+                    if (alfa) {
+                        somas[posicao] += opacidade;
+                        somas[posicao + 1] += amostras[i] * opacidade;
+                        somas[posicao + 2] += amostras[i + 1] * opacidade;
+                        somas[posicao + 3] += amostras[i + 2] * opacidade;
+                    } else {
+                        somas[posicao + 1] += amostras[i];
+                        somas[posicao + 2] += amostras[i + 1];
+                        somas[posicao + 3] += amostras[i + 2];
+                    }
+                }
+                return;
+            }
+            imagem.getRGB(0, linha, largura, 1, amostras, 0, largura);
+            for (int x = 0; x < largura; x++) {
+                int argb = amostras[x];
+                int posicao = colunaDestino[x] * 4;
+                int opacidade = alfa ? argb >>> 24 : 1;
+                somas[posicao] += opacidade;
+                somas[posicao + 1] += ((argb >> 16) & 0xFF) * opacidade;
+                somas[posicao + 2] += ((argb >> 8) & 0xFF) * opacidade;
+                somas[posicao + 3] += (argb & 0xFF) * opacidade;
+            }
+        }
+    }
+
+    /**
+     * Associa cada um dos {@code tamanhoDestino} pixels a um intervalo contíguo de pixels da origem, com pelo menos
+     * um pixel.
+     *
+     * @return Os inícios dos intervalos nas posições pares e os fins (exclusivos) nas posições ímpares.
+     */
+    private static int[] intervalos(int tamanhoOrigem, int tamanhoDestino) {
+        int[] intervalos = new int[tamanhoDestino * 2];
+        for (int i = 0; i < tamanhoDestino; i++) {
+            int inicio = (int) ((long) i * tamanhoOrigem / tamanhoDestino);
+            intervalos[2 * i] = inicio;
+            intervalos[2 * i + 1] = Math.max(inicio + 1, (int) ((long) (i + 1) * tamanhoOrigem / tamanhoDestino));
+        }
+        return intervalos;
+    }
+
+    private static BufferedImage paraBufferedImage(Image origem, int largura, int altura) {
+        if (origem instanceof BufferedImage imagem) {
+            return imagem;
+        }
+        BufferedImage copia = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = copia.createGraphics();
+        g2.drawImage(origem, 0, 0, null);
+        g2.dispose();
+        return copia;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package br.com.locar.util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Iterator;
+
+/**
+ * A classe `LeitorImagens` decodifica fotos já no tamanho aproximado em que serão exibidas. Em vez de
+ * {@link ImageIO#read(File)}, que aloca o raster em resolução cheia, usa um {@link ImageReader} com
+ * {@link ImageReadParam#setSourceSubsampling}: para exibir uma foto de 12 MP como miniatura, apenas uma a cada
+ * N linhas e colunas é decodificada para a memória.
+ * <p>
+ * A subamostragem mantém a imagem lida com pelo menos {@value #MARGEM_SUBAMOSTRAGEM} vezes o tamanho pedido, para
+ * que a redução final feita pelo {@link ImageScaler} ainda tenha pixels suficientes para suavizar o resultado.
+ * </p>
+ */
+public class LeitorImagens {
+
+    /**
+     * Quantas vezes a imagem subamostrada deve ser maior que o tamanho pedido, em cada dimensão.
+     */
+    public static final int MARGEM_SUBAMOSTRAGEM = 2;
+
+    /**
+     * Lê uma imagem do disco ou dos recursos da aplicação, subamostrada para o tamanho em que será exibida.
+     *
+     * @param caminho O caminho da imagem: um arquivo ou, se ele não existir, um recurso da aplicação.
+     * @param largura A largura em que a imagem será exibida; zero ou negativa para ler em resolução cheia.
+     * @param altura  A altura em que a imagem será exibida; zero ou negativa para ler em resolução cheia.
+     * @return A imagem lida, ou null se o caminho for vazio ou a imagem não puder ser lida.
+     */
+    public static BufferedImage ler(String caminho, int largura, int altura) {
+        return ler(caminho, null, largura, altura);
+    }
+
+    /**
+     * Lê apenas uma região de uma imagem, subamostrada para o tamanho em que será exibida. Somente as linhas da
+     * região são mantidas em memória.
+     *
+     * @param caminho O caminho da imagem: um arquivo ou, se ele não existir, um recurso da aplicação.
+     * @param regiao  A região a ler, em pixels da imagem original; null para a imagem inteira.
+     * @param largura A largura em que a região será exibida; zero ou negativa para ler em resolução cheia.
+     * @param altura  A altura em que a região será exibida; zero ou negativa para ler em resolução cheia.
+     * @return A região lida, ou null se o caminho for vazio, a região estiver fora da imagem ou a imagem não puder
+     * ser lida.
+     */
+    public static BufferedImage ler(String caminho, Rectangle regiao, int largura, int altura) {
+        if (caminho == null || caminho.isEmpty()) {
+            return null;
+        }
+        try {
+            File arquivo = new File(caminho);
+            if (arquivo.exists()) {
+                return ler(arquivo, regiao, largura, altura);
+            }
+            URL url = LeitorImagens.class.getResource(caminho);
+            if (url != null) {
+                try (InputStream entrada = url.openStream()) {
+                    return decodificar(entrada, caminho, regiao, largura, altura);
+                }
+            }
+            System.err.println("Imagem não encontrada: " + caminho);
+        } catch (IOException e) {
+            System.err.println("Erro de I/O ao carregar imagem " + caminho + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Lê um arquivo de imagem subamostrado para o tamanho em que será exibido.
+     *
+     * @param arquivo O arquivo da imagem.
+     * @param largura A largura em que a imagem será exibida; zero ou negativa para ler em resolução cheia.
+     * @param altura  A altura em que a imagem será exibida; zero ou negativa para ler em resolução cheia.
+     * @return A imagem lida, ou null se o formato não for suportado.
+     * @throws IOException Se ocorrer um erro ao ler o arquivo.
+     */
+    public static BufferedImage ler(File arquivo, int largura, int altura) throws IOException {
+        return ler(arquivo, null, largura, altura);
+    }
+
+    private static BufferedImage ler(File arquivo, Rectangle regiao, int largura, int altura) throws IOException {
+        if (!arquivo.canRead()) {
+            throw new IOException("Arquivo não pode ser lido: " + arquivo);
+        }
+        return decodificar(arquivo, arquivo.getPath(), regiao, largura, altura);
+    }
+
+    /**
+     * Calcula o fator de subamostragem para exibir uma imagem no tamanho pedido: o maior fator que ainda deixa a
+     * imagem lida com pelo menos {@value #MARGEM_SUBAMOSTRAGEM} vezes o tamanho pedido nas duas dimensões.
+     *
+     * @param larguraOrigem A largura da imagem (ou da região) original.
+     * @param alturaOrigem  A altura da imagem (ou da região) original.
+     * @param largura       A largura em que a imagem será exibida.
+     * @param altura        A altura em que a imagem será exibida.
+     * @return O fator de subamostragem; 1 para ler todos os pixels.
+     */
+    public static int fatorSubamostragem(int larguraOrigem, int alturaOrigem, int largura, int altura) {
+        if (largura <= 0 || altura <= 0) {
+            return 1;
+        }
+        int fator = Math.min(larguraOrigem / (largura * MARGEM_SUBAMOSTRAGEM), alturaOrigem / (altura * MARGEM_SUBAMOSTRAGEM));
+        return Math.max(1, fator);
+    }
+
+    private static BufferedImage decodificar(Object fonte, String descricao, Rectangle regiao, int largura, int altura) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(fonte)) {
+            if (entrada == null) {
+                throw new IOException("Não foi possível abrir " + descricao);
+            }
+            Iterator<ImageReader> leitores = ImageIO.getImageReaders(entrada);
+            if (!leitores.hasNext()) {
+                return null;
+            }
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(entrada, true, true);
+                ImageReadParam parametros = leitor.getDefaultReadParam();
+                Rectangle area = new Rectangle(0, 0, leitor.getWidth(0), leitor.getHeight(0));
+                if (regiao != null) {
+                    area = area.intersection(regiao);
+                    if (area.isEmpty()) {
+                        return null;
+                    }
+                    parametros.setSourceRegion(area);
+                }
+                int fator = fatorSubamostragem(area.width, area.height, largura, altura);
+                if (fator > 1) {
+                    parametros.setSourceSubsampling(fator, fator, 0, 0);
+                }
+                return leitor.read(0, parametros);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.locar.util;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A classe `TravasPorChave` oferece exclusão mútua por chave (por exemplo, por placa) sem uma trava global: as
+ * chaves são distribuídas por hash entre um número fixo de travas ("listras"). Operações sobre chaves de listras
+ * diferentes correm em paralelo; operações sobre a mesma chave são sempre serializadas.
+ * <p>
+ * Uma operação pode travar várias chaves de uma vez, por exemplo o veículo e o cliente de uma locação. As listras
+ * são sempre adquiridas em ordem crescente e sem repetição, de modo que duas operações com chaves em comum não
+ * entram em impasse, qualquer que seja a ordem em que as chaves foram informadas.
+ * </p>
+ */
+public class TravasPorChave {
+
+    /**
+     * Quantidade padrão de listras: bem maior que o número de threads esperado, para que chaves diferentes
+     * raramente disputem a mesma trava.
+     */
+    public static final int LISTRAS_PADRAO = 256;
+
+    private final ReentrantLock[] travas;
+
+    /**
+     * Construtor da classe TravasPorChave com {@value #LISTRAS_PADRAO} listras.
+     */
+    public TravasPorChave() {
+        this(LISTRAS_PADRAO);
+    }
+
+    /**
+     * Construtor da classe TravasPorChave.
+     *
+     * @param listras A quantidade de travas, arredondada para a próxima potência de 2.
+     */
+    public TravasPorChave(int listras) {
+        int limitadas = Math.max(1, Math.min(listras, 1 << 16));
+        travas = new ReentrantLock[limitadas == 1 ? 1 : Integer.highestOneBit(limitadas - 1) << 1];
+        for (int i = 0; i < travas.length; i++) {
+            travas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Executa uma ação com as travas de todas as chaves informadas. Exceções lançadas pela ação são propagadas
+     * depois que as travas são liberadas.
+     *
+     * @param acao   A ação a executar com exclusividade sobre as chaves.
+     * @param chaves As chaves a travar; chaves nulas são ignoradas.
+     * @param <T>    O tipo do resultado da ação.
+     * @return O resultado da ação.
+     */
+    public <T> T executar(Supplier<T> acao, String... chaves) {
+        int[] listras = listras(chaves);
+        for (int i = 0; i < listras.length; i++) {
+            travas[listras[i]].lock();
+        }
+        try {
+            return acao.get();
+        } finally {
+            for (int i = listras.length - 1; i >= 0; i--) {
+                travas[listras[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Retorna a listra de uma chave.
+     *
+     * @param chave A chave.
+     * @return O índice da trava usada para a chave.
+     */
+    public int listraDe(String chave) {
+        int hash = chave.hashCode();
+        // Espalha os bits altos, como o HashMap, para que chaves parecidas não caiam na mesma listra.
+        return (hash ^ (hash >>> 16)) & (travas.length - 1);
+    }
+
+    /**
+     * @return A quantidade de listras.
+     */
+    public int getListras() {
+        return travas.length;
+    }
+
+    /**
+     * As listras das chaves, em ordem crescente e sem repetição.
+     */
+    private int[] listras(String[] chaves) {
+        int[] listras = new int[chaves.length];
+        int quantidade = 0;
+        for (String chave : chaves) {
+            if (chave != null) {
+                listras[quantidade++] = listraDe(chave);
+            }
+        }
+        Arrays.sort(listras, 0, quantidade);
+        int distintas = 0;
+        for (int i = 0; i < quantidade; i++) {
+            if (distintas == 0 || listras[distintas - 1] != listras[i]) {
+                listras[distintas++] = listras[i];
+            }
+        }
+        return Arrays.copyOf(listras, distintas);
+    }
+}
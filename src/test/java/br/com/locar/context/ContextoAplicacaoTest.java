@@ -0,0 +1,87 @@
+package br.com.locar.context;
+
+import br.com.locar.core.context.ContextoAplicacao;
+import br.com.locar.core.controller.LocacaoController;
+import br.com.locar.core.controller.VeiculoController;
+import br.com.locar.core.persistence.GerenciadorTransacoes;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextoAplicacaoTest {
+
+    @BeforeEach
+    void setUp() {
+        ContextoAplicacao.redefinir();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        ContextoAplicacao.redefinir();
+    }
+
+    @Test
+    @DisplayName("Telas recebem as mesmas instancias de controladores")
+    void testInstanciasCompartilhadas() {
+        ContextoAplicacao contexto = ContextoAplicacao.getInstancia();
+
+        VeiculoController primeiro = contexto.getVeiculoController();
+        VeiculoController segundo = ContextoAplicacao.getInstancia().getVeiculoController();
+        LocacaoController locacaoController = contexto.getLocacaoController();
+
+        assertSame(primeiro, segundo);
+        assertSame(primeiro, locacaoController.getVeiculoController());
+        assertSame(locacaoController, contexto.getLocacaoController());
+    }
+
+    @Test
+    @DisplayName("Estatisticas contam acertos e carregamentos")
+    void testEstatisticas() {
+        ContextoAplicacao contexto = ContextoAplicacao.getInstancia();
+
+        contexto.getVeiculoController();
+        contexto.getVeiculoController();
+        contexto.getVeiculoController();
+
+        ContextoAplicacao.EstatisticasCache estatisticas = contexto.getEstatisticas();
+        assertEquals(1, estatisticas.getCarregamentos());
+        assertEquals(2, estatisticas.getAcertos());
+        assertEquals(2.0 / 3.0, estatisticas.getTaxaAcerto(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Recarregar descarta os controladores em cache")
+    void testRecarregar() {
+        ContextoAplicacao contexto = ContextoAplicacao.getInstancia();
+        VeiculoController antes = contexto.getVeiculoController();
+
+        contexto.recarregar();
+
+        assertNotSame(antes, contexto.getVeiculoController());
+        assertEquals(2, contexto.getEstatisticas().getCarregamentos());
+    }
+
+    @Test
+    @DisplayName("Transacoes pendentes nao criam um segundo controlador de locacoes")
+    void testRecuperacaoCriaUmUnicoControladorDeLocacoes() throws IOException {
+        Path intencao = Path.of(GerenciadorTransacoes.DIRETORIO_PADRAO, "0000000000000000001.intent");
+        Files.createDirectories(intencao.getParent());
+        Files.write(intencao, new byte[]{1, 2, 3});
+        try {
+            ContextoAplicacao contexto = ContextoAplicacao.getInstancia();
+
+            LocacaoController locacaoController = contexto.getLocacaoController();
+
+            assertSame(locacaoController, contexto.getLocacaoController());
+            assertSame(contexto.getVeiculoController(), locacaoController.getVeiculoController());
+            assertEquals(3, contexto.getEstatisticas().getCarregamentos(),
+                    "Autenticação, veículos e locações deveriam ser carregados uma única vez cada");
+        } finally {
+            Files.deleteIfExists(intencao);
+        }
+    }
+}
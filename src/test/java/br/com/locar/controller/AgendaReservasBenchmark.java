@@ -0,0 +1,119 @@
+package br.com.locar.controller;
+
+import br.com.locar.core.entities.Locacao;
+import br.com.locar.core.entities.Veiculo;
+import br.com.locar.core.entities.enums.*;
+import br.com.locar.core.index.AgendaReservas;
+import br.com.locar.core.index.AtributoNumerico;
+import br.com.locar.core.index.FiltroAtributos;
+import br.com.locar.core.index.IndiceAtributosVeiculos;
+import br.com.locar.terrestre.entities.Carro;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Benchmark manual da consulta "veículos livres entre t1 e t2" pela {@link AgendaReservas}, combinada com o filtro
+ * de atributos, comparada com a varredura de todas as locações.
+ * <p>
+ * Execução: {@code java -cp <classpath de teste> br.com.locar.controller.AgendaReservasBenchmark [quantidade] [reservas por veículo]}.
+ * </p>
+ */
+public class AgendaReservasBenchmark {
+
+    private static final int REPETICOES = 50;
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int reservasPorVeiculo = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        LocalDateTime base = LocalDateTime.now();
+
+        List<Veiculo> veiculos = new ArrayList<>(quantidade);
+        List<Locacao> locacoes = new ArrayList<>(quantidade * reservasPorVeiculo);
+        for (int i = 0; i < quantidade; i++) {
+            Carro carro = new Carro("Carro de benchmark número " + i, String.format("AGD%06d", i), "Marca" + (i % 20), "Nome" + (i % 50), "Modelo", 1990 + i % 35,
+                    Cor.values()[i % 11], Funcao.PASSEIO, (i * 37L) % 300_000, 5, 10.0, 120.0 + i % 120, i % 2 == 0, Combustivel.FLEX, Tracao.DIANTEIRA,
+                    5, true, null, 60.0 + i % 400, true, true, i % 3 == 0, true, false, 1200.0, false, true,
+                    50.0 + (i * 7919L) % 950, 4, false);
+            veiculos.add(carro);
+            // Reservas de 2 dias, separadas por intervalos que variam com a placa.
+            LocalDateTime inicio = base.plusHours(i % 97);
+            for (int r = 0; r < reservasPorVeiculo; r++) {
+                locacoes.add(new Locacao(inicio, inicio.plusDays(2), carro, null));
+                inicio = inicio.plusDays(2).plusHours(6 + (i * 31L + r * 17L) % 90);
+            }
+        }
+
+        IndiceAtributosVeiculos indice = new IndiceAtributosVeiculos();
+        indice.carregar(veiculos);
+        long inicio = System.nanoTime();
+        AgendaReservas agenda = new AgendaReservas();
+        agenda.carregar(locacoes);
+        System.out.printf("Carga da agenda (%d veículos, %d reservas): %.1f ms%n", quantidade, locacoes.size(), (System.nanoTime() - inicio) / 1e6);
+
+        LocalDateTime de = base.plusDays(4);
+        LocalDateTime ate = base.plusDays(5);
+        FiltroAtributos seletivo = new FiltroAtributos()
+                .faixa(AtributoNumerico.VALOR_DIARIO, 200.0, 210.0)
+                .faixa(AtributoNumerico.ANO, 2015.0, 2016.0);
+
+        int livres = 0;
+        int livresFiltrados = 0;
+        for (int i = 0; i < REPETICOES; i++) {
+            livres = livres(indice, agenda, null, de, ate).cardinality();
+            livresFiltrados = livres(indice, agenda, seletivo, de, ate).cardinality();
+        }
+        inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            livres = livres(indice, agenda, null, de, ate).cardinality();
+        }
+        double frota = (System.nanoTime() - inicio) / 1e6 / REPETICOES;
+        inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            livresFiltrados = livres(indice, agenda, seletivo, de, ate).cardinality();
+        }
+        double filtrada = (System.nanoTime() - inicio) / 1e6 / REPETICOES;
+
+        int livresVarredura = 0;
+        inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            Set<String> ocupados = new HashSet<>();
+            for (Locacao locacao : locacoes) {
+                if (locacao.getDataLocacao().isBefore(ate) && de.isBefore(locacao.getDataPrevistaDevolucao())) {
+                    ocupados.add(locacao.getVeiculo().getPlaca());
+                }
+            }
+            livresVarredura = quantidade - ocupados.size();
+        }
+        double varredura = (System.nanoTime() - inicio) / 1e6 / REPETICOES;
+
+        System.out.printf("Livres na frota pela agenda: %.3f ms (%d veículos)%n", frota, livres);
+        System.out.printf("Livres com filtro seletivo pela agenda: %.3f ms (%d veículos)%n", filtrada, livresFiltrados);
+        System.out.printf("Livres na frota por varredura das locações: %.3f ms (%d veículos)%n", varredura, livresVarredura);
+    }
+
+    /**
+     * Mesma combinação usada pelo {@code VeiculoController}: filtra no bitmap e consulta a agenda apenas para o
+     * menor conjunto entre os candidatos e os veículos com reservas.
+     */
+    private static BitSet livres(IndiceAtributosVeiculos indice, AgendaReservas agenda, FiltroAtributos filtro,
+                                 LocalDateTime de, LocalDateTime ate) {
+        BitSet selecionados = indice.filtrar(filtro);
+        Set<String> ocupados;
+        if (selecionados.cardinality() < agenda.veiculosComReservas()) {
+            List<String> candidatos = new ArrayList<>();
+            for (Veiculo veiculo : indice.veiculos(selecionados)) {
+                candidatos.add(veiculo.getPlaca());
+            }
+            ocupados = agenda.ocupadosEntre(candidatos, de, ate);
+        } else {
+            ocupados = agenda.ocupadosEntre(de, ate);
+        }
+        selecionados.andNot(indice.idsDePlacas(ocupados));
+        return selecionados;
+    }
+}
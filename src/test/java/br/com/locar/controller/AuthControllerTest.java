@@ -409,6 +409,58 @@ class AuthControllerTest {
         assertNull(savedPath, "Deveria retornar null para arquivo original inexistente");
     }
 
+    @Test
+    @Order(18)
+    @DisplayName("Indice de email acompanha a troca de email na atualizacao do cliente")
+    void testIndiceEmailAposAtualizacao() {
+        String cpf = "121.212.121-21";
+        authController.saveClients(List.of(createTestClient("antigo@test.com", cpf, "senha")));
+
+        authController.updateCliente(createTestClient("novo@test.com", cpf, "senha"));
+
+        assertEquals(cpf, authController.authenticate("novo@test.com", "senha").getCpf());
+        assertThrows(AuthControllerException.class, () -> authController.authenticate("antigo@test.com", "senha"),
+                "O email antigo não deveria mais autenticar");
+
+        Cliente outro = createTestClient("antigo@test.com", "343.434.343-43", "outraSenha");
+        outro.setCaminhoFoto(createTempPhotoFile("foto_indice.png"));
+        assertTrue(authController.registerClient(outro), "O email liberado deveria poder ser reutilizado");
+        assertEquals(2, authController.loadClients().size());
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("Indices percebem gravacoes de outra instancia e alteracoes externas do arquivo")
+    void testIndiceRecarregaAposAlteracaoExterna() throws IOException {
+        assertTrue(authController.loadClients().isEmpty());
+
+        new AuthController().saveClients(List.of(createTestClient("externo@test.com", "565.656.565-65", "senhaExt")));
+        assertNotNull(authController.authenticate("externo@test.com", "senhaExt"),
+                "A gravação de outra instância deveria ser percebida");
+
+        Files.delete(Path.of(CLIENTES_FILE_PATH_ACTUAL));
+        authController.recarregar();
+        assertTrue(authController.loadClients().isEmpty(), "O arquivo apagado por fora deveria esvaziar o índice");
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("Atualizacao sincrona de cliente informa a falha de gravacao")
+    void testUpdateClienteFalhaNaGravacao() throws IOException {
+        String cpf = "676.767.676-76";
+        authController.saveClients(List.of(createTestClient("falha@test.com", cpf, "senha")));
+        Path temporario = Path.of(CLIENTES_FILE_PATH_ACTUAL + ".tmp");
+        Files.createDirectories(temporario);
+        try {
+            assertFalse(authController.updateCliente(createTestClient("falha2@test.com", cpf, "senha")),
+                    "A gravação não pode substituir o arquivo temporário e deveria falhar");
+        } finally {
+            Files.delete(temporario);
+        }
+        assertTrue(authController.updateCliente(createTestClient("falha3@test.com", cpf, "senha")));
+        assertEquals("falha3@test.com", authController.loadClients().get(0).getEmail());
+    }
+
     private String createTempPhotoFile(String fileName) {
         try {
             Path tempDir = Path.of(System.getProperty("java.io.tmpdir"), "test_images_" + UUID.randomUUID());
@@ -0,0 +1,68 @@
+package br.com.locar.controller;
+
+import br.com.locar.core.entities.Veiculo;
+import br.com.locar.core.entities.enums.*;
+import br.com.locar.core.index.AtributoNumerico;
+import br.com.locar.core.index.FiltroAtributos;
+import br.com.locar.core.index.IndiceAtributosVeiculos;
+import br.com.locar.terrestre.entities.Carro;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Benchmark manual das consultas por faixa do {@link IndiceAtributosVeiculos}, comparadas com o filtro linear
+ * equivalente sobre a lista de veículos.
+ * <p>
+ * Execução: {@code java -cp <classpath de teste> br.com.locar.controller.FiltroVeiculosBenchmark [quantidade]}.
+ * </p>
+ */
+public class FiltroVeiculosBenchmark {
+
+    private static final int REPETICOES = 200;
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<Veiculo> veiculos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            veiculos.add(new Carro("Carro de benchmark número " + i, String.format("BEN%06d", i), "Marca" + (i % 20), "Nome" + (i % 50), "Modelo", 1990 + i % 35,
+                    Cor.values()[i % 11], Funcao.PASSEIO, (i * 37L) % 300_000, 5, 10.0, 120.0 + i % 120, i % 2 == 0, Combustivel.FLEX, Tracao.DIANTEIRA,
+                    5, true, null, 60.0 + i % 400, true, true, i % 3 == 0, true, false, 1200.0, false, true,
+                    50.0 + (i * 7919L) % 950, 4, false));
+        }
+
+        long inicio = System.nanoTime();
+        IndiceAtributosVeiculos indice = new IndiceAtributosVeiculos();
+        indice.carregar(veiculos);
+        System.out.printf("Carga do índice (%d veículos): %.1f ms%n", quantidade, (System.nanoTime() - inicio) / 1e6);
+
+        FiltroAtributos filtro = new FiltroAtributos()
+                .faixa(AtributoNumerico.VALOR_DIARIO, 200.0, 260.0)
+                .faixa(AtributoNumerico.ANO, 2015.0, 2020.0);
+
+        int encontrados = 0;
+        for (int i = 0; i < REPETICOES; i++) {
+            encontrados = indice.filtrar(filtro).cardinality();
+        }
+        inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            BitSet resultado = indice.filtrar(filtro);
+            encontrados = resultado.cardinality();
+        }
+        double porIndice = (System.nanoTime() - inicio) / 1e6 / REPETICOES;
+
+        long linear = 0;
+        inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            linear = veiculos.stream()
+                    .filter(v -> v.getValorDiario() >= 200.0 && v.getValorDiario() <= 260.0)
+                    .filter(v -> v.getAno() >= 2015 && v.getAno() <= 2020)
+                    .count();
+        }
+        double porVarredura = (System.nanoTime() - inicio) / 1e6 / REPETICOES;
+
+        System.out.printf("Faixa preço + ano pelo índice: %.3f ms (%d veículos)%n", porIndice, encontrados);
+        System.out.printf("Faixa preço + ano por varredura: %.3f ms (%d veículos)%n", porVarredura, linear);
+    }
+}
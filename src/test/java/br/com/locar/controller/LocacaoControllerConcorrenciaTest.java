@@ -0,0 +1,305 @@
+package br.com.locar.controller;
+
+import br.com.locar.core.controller.AuthController;
+import br.com.locar.core.controller.LocacaoController;
+import br.com.locar.core.controller.VeiculoController;
+import br.com.locar.core.entities.Cliente;
+import br.com.locar.core.entities.Endereco;
+import br.com.locar.core.entities.Locacao;
+import br.com.locar.core.entities.Veiculo;
+import br.com.locar.core.entities.enums.Sexo;
+import br.com.locar.core.exceptions.LocacaoControllerException;
+import br.com.locar.entities.TestVehicle;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes de estresse das locações concorrentes: várias threads disputam os mesmos veículos e clientes por um
+ * {@link LocacaoController} real, com um {@link VeiculoController} real (sem arquivos de veículos) e a agenda de
+ * reservas em memória. Nenhum veículo pode ser locado duas vezes no mesmo período.
+ */
+class LocacaoControllerConcorrenciaTest {
+
+    private static final String LOCACOES_DIR = "dump/locacoes/";
+    private static final String TRANSACOES_DIR = "dump/transacoes/";
+    private static final int THREADS = 8;
+
+    private LocacaoController locacaoController;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        limparArquivos();
+        new File(LOCACOES_DIR).mkdirs();
+
+        AuthController authController = mock(AuthController.class);
+        when(authController.updateClienteAsync(any(Cliente.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        VeiculoController veiculoController = spy(new VeiculoController());
+        doReturn(new ArrayList<>()).when(veiculoController).carregarTodosVeiculos();
+        doReturn(new ArrayList<>()).when(veiculoController).carregarVeiculosDeArquivo(anyString(), any());
+        doReturn(new ArrayList<>()).when(veiculoController).carregarLocacoes();
+        doReturn(true).when(veiculoController).atualizarVeiculo(any(Veiculo.class), anyBoolean());
+        doReturn(true).when(veiculoController).sincronizarArquivos();
+        veiculoController.setVeiculos(new ArrayList<>());
+
+        locacaoController = new LocacaoController(authController, veiculoController);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        limparArquivos();
+    }
+
+    private static void limparArquivos() throws IOException {
+        apagar(Path.of(LOCACOES_DIR));
+        apagar(Path.of(TRANSACOES_DIR));
+    }
+
+    private static void apagar(Path path) throws IOException {
+        if (Files.exists(path)) {
+            try (var arquivos = Files.walk(path)) {
+                arquivos.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private Cliente createTestClient(String cpf, double saldo) {
+        Cliente cliente = new Cliente("Cliente " + cpf, cpf, "9999-8888", cpf + "@test.com", "hash",
+                new Endereco("Cidade", "Estado", "Bairro", "Rua", 1, "12345-678"),
+                LocalDateTime.of(1990, 1, 1, 0, 0), Sexo.FEMININO, null);
+        cliente.adicionarSaldo(saldo);
+        return cliente;
+    }
+
+    @Test
+    @DisplayName("Threads disputando o mesmo veículo: apenas uma locação é aprovada")
+    void testMesmoVeiculoApenasUmaLocacao() throws Exception {
+        Veiculo veiculo = new TestVehicle("CON-0001", 100.0);
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            clientes.add(createTestClient(String.format("000.000.000-%02d", i), 1_000.0));
+        }
+
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger aprovadas = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (Cliente cliente : clientes) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        locacaoController.realizarLocacao(cliente, veiculo, 2, 200.0);
+                        aprovadas.incrementAndGet();
+                    } catch (LocacaoControllerException e) {
+                        recusadas.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, aprovadas.get(), "Apenas uma locação do veículo deveria ser aprovada");
+        assertEquals(clientes.size() - 1, recusadas.get());
+        assertEquals(1, locacaoController.locacoes.size());
+        assertEquals(1, veiculo.getLocacoes());
+        assertEquals(clientes.size() * 1_000.0 - 200.0, clientes.stream().mapToDouble(Cliente::getSaldo).sum(), 1e-6,
+                "Apenas o cliente aprovado deveria ser debitado");
+    }
+
+    @Test
+    @DisplayName("Reservas aleatórias concorrentes: nenhum período sobreposto e nenhum saldo negativo")
+    void testReservasConcorrentesSemSobreposicao() throws Exception {
+        List<Veiculo> veiculos = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            veiculos.add(new TestVehicle(String.format("CON-1%03d", i), 100.0));
+        }
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            clientes.add(createTestClient(String.format("111.111.111-%02d", i), 2_000.0));
+        }
+        double valor = 100.0;
+        int tentativasPorThread = 150;
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        ConcurrentLinkedQueue<Locacao> aprovadas = new ConcurrentLinkedQueue<>();
+        AtomicInteger recusadas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long inicio;
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Random random = new Random(t);
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < tentativasPorThread; i++) {
+                        Veiculo veiculo = veiculos.get(random.nextInt(veiculos.size()));
+                        Cliente cliente = clientes.get(random.nextInt(clientes.size()));
+                        LocalDateTime comeco = base.plusHours(random.nextInt(24 * 60));
+                        int dias = 1 + random.nextInt(3);
+                        try {
+                            locacaoController.reservar(cliente, veiculo, comeco, dias, valor);
+                            aprovadas.add(new Locacao(comeco, comeco.plusDays(dias), veiculo, cliente));
+                        } catch (LocacaoControllerException e) {
+                            recusadas.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            inicio = System.nanoTime();
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        int tentativas = THREADS * tentativasPorThread;
+        System.out.printf("Reservas concorrentes: %d tentativas em %.2f s (%.0f tentativas/s), %d aprovadas, %d recusadas%n",
+                tentativas, segundos, tentativas / segundos, aprovadas.size(), recusadas.get());
+
+        assertEquals(tentativas, aprovadas.size() + recusadas.get());
+        assertFalse(aprovadas.isEmpty(), "Alguma reserva deveria ser aprovada");
+
+        Map<String, List<Locacao>> porPlaca = new HashMap<>();
+        for (Locacao locacao : aprovadas) {
+            porPlaca.computeIfAbsent(locacao.getVeiculo().getPlaca(), placa -> new ArrayList<>()).add(locacao);
+        }
+        for (Map.Entry<String, List<Locacao>> entrada : porPlaca.entrySet()) {
+            List<Locacao> reservas = entrada.getValue();
+            reservas.sort(Comparator.comparing(Locacao::getDataLocacao));
+            for (int i = 1; i < reservas.size(); i++) {
+                assertFalse(reservas.get(i).getDataLocacao().isBefore(reservas.get(i - 1).getDataPrevistaDevolucao()),
+                        "Reservas sobrepostas para o veículo " + entrada.getKey());
+            }
+        }
+
+        Map<Cliente, Integer> aprovadasPorCliente = new HashMap<>();
+        for (Locacao locacao : aprovadas) {
+            aprovadasPorCliente.merge(locacao.getCliente(), 1, Integer::sum);
+        }
+        for (Cliente cliente : clientes) {
+            assertTrue(cliente.getSaldo() >= 0, "Saldo negativo para o cliente " + cliente.getCpf());
+            assertEquals(2_000.0 - aprovadasPorCliente.getOrDefault(cliente, 0) * valor, cliente.getSaldo(), 1e-6,
+                    "Débito inconsistente para o cliente " + cliente.getCpf());
+        }
+        assertEquals(aprovadas.size(), locacaoController.locacoes.size());
+        for (Veiculo veiculo : veiculos) {
+            assertEquals(porPlaca.getOrDefault(veiculo.getPlaca(), List.of()).size(), veiculo.getLocacoes());
+        }
+    }
+
+    @Test
+    @DisplayName("Consultas da locação ativa não bloqueiam nem quebram locações concorrentes")
+    void testConsultaLocacaoAtivaDuranteLocacoes() throws Exception {
+        List<Veiculo> veiculos = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            veiculos.add(new TestVehicle(String.format("CON-3%03d", i), 100.0));
+        }
+        Cliente cliente = createTestClient("333.333.333-33", 1_000_000.0);
+
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS / 2; t++) {
+                int primeiro = t;
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = primeiro; i < veiculos.size(); i += THREADS / 2) {
+                        locacaoController.realizarLocacao(cliente, veiculos.get(i), 1, 100.0);
+                    }
+                    return null;
+                }));
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int repeticao = 0; repeticao < 50; repeticao++) {
+                        for (Veiculo veiculo : veiculos) {
+                            Locacao ativa = locacaoController.encontrarLocacaoAtiva(veiculo);
+                            assertTrue(ativa == null || ativa.getVeiculo() == veiculo);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(veiculos.size(), locacaoController.locacoes.size());
+        for (Veiculo veiculo : veiculos) {
+            Locacao ativa = locacaoController.encontrarLocacaoAtiva(veiculo);
+            assertNotNull(ativa, "Locação ativa não encontrada para " + veiculo.getPlaca());
+            assertSame(veiculo, ativa.getVeiculo());
+        }
+    }
+
+    @Test
+    @DisplayName("Devoluções concorrentes da mesma locação: apenas uma é registrada")
+    void testDevolucaoConcorrenteApenasUma() throws Exception {
+        Veiculo veiculo = new TestVehicle("CON-2001", 100.0);
+        Cliente cliente = createTestClient("222.222.222-22", 1_000.0);
+        locacaoController.realizarLocacao(cliente, veiculo, 2, 200.0);
+        Locacao locacao = locacaoController.locacoes.get(0);
+
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger registradas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        locacaoController.registrarDevolucao(locacao);
+                        registradas.incrementAndGet();
+                    } catch (LocacaoControllerException e) {
+                        // Já devolvida por outra thread.
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, registradas.get(), "A locação deveria ser devolvida uma única vez");
+        assertNotNull(locacao.getDataDevolucao());
+        assertFalse(locacaoController.getVeiculoController().estaLocado(veiculo));
+    }
+}
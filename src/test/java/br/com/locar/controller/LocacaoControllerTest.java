@@ -6,9 +6,13 @@ import br.com.locar.core.controller.VeiculoController;
 import br.com.locar.core.entities.Cliente;
 import br.com.locar.core.entities.Veiculo;
 import br.com.locar.core.entities.enums.Sexo;
+import br.com.locar.core.exceptions.AuthControllerException;
 import br.com.locar.core.exceptions.LocacaoControllerException;
 import br.com.locar.core.entities.Endereco;
 import br.com.locar.core.entities.Locacao;
+import br.com.locar.core.index.IndiceLocacoesAtivas;
+import br.com.locar.core.persistence.GerenciadorTransacoes;
+import br.com.locar.core.persistence.UnidadeDeTrabalho;
 import br.com.locar.entities.TestVehicle;
 import br.com.locar.util.PasswordHasher;
 import org.junit.jupiter.api.*;
@@ -24,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -40,6 +45,8 @@ class LocacaoControllerTest {
     private VeiculoController veiculoControllerMock;
 
     private static final String LOCACOES_FILE_PATH_ACTUAL = "dump/locacoes/locacoes.dat";
+    private static final String LOCACOES_JOURNAL_PATH_ACTUAL = "dump/locacoes/locacoes.journal";
+    private static final String TRANSACOES_DIR_ACTUAL = "dump/transacoes/";
 
     @BeforeAll
     static void setupClass() throws IOException {
@@ -54,6 +61,9 @@ class LocacaoControllerTest {
         locacaoController = spy(new LocacaoController(authControllerMock, veiculoControllerMock));
 
         doReturn(new ArrayList<>()).when(locacaoController).loadLocacoes();
+        when(authControllerMock.updateClienteAsync(any(Cliente.class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(veiculoControllerMock.atualizarVeiculo(any(Veiculo.class), eq(false))).thenReturn(true);
+        when(veiculoControllerMock.sincronizarArquivos()).thenReturn(true);
 
         clearDataFiles();
     }
@@ -67,6 +77,7 @@ class LocacaoControllerTest {
     static void tearDownClass() throws IOException {
         cleanUpAllTestFiles();
         deleteDirectoryRecursive(Path.of("dump/locacoes/"));
+        deleteDirectoryRecursive(Path.of(TRANSACOES_DIR_ACTUAL));
         try {
             Files.deleteIfExists(Path.of("dump/"));
         } catch (java.nio.file.DirectoryNotEmptyException e) {
@@ -90,10 +101,18 @@ class LocacaoControllerTest {
 
     private static void cleanUpAllTestFiles() throws IOException {
         Files.deleteIfExists(Path.of(LOCACOES_FILE_PATH_ACTUAL));
+        Files.deleteIfExists(Path.of(LOCACOES_JOURNAL_PATH_ACTUAL));
     }
 
     private void clearDataFiles() {
         new File(LOCACOES_FILE_PATH_ACTUAL).delete();
+        new File(LOCACOES_JOURNAL_PATH_ACTUAL).delete();
+        File[] intencoes = new File(TRANSACOES_DIR_ACTUAL).listFiles();
+        if (intencoes != null) {
+            for (File intencao : intencoes) {
+                intencao.delete();
+            }
+        }
     }
 
     private Endereco createTestEndereco() {
@@ -128,9 +147,6 @@ class LocacaoControllerTest {
         double valorTotal = 500.0;
 
         when(veiculoControllerMock.estaLocado(veiculo)).thenReturn(false);
-        when(authControllerMock.updateCliente(any(Cliente.class))).thenReturn(true);
-        when(veiculoControllerMock.atualizarVeiculo(any(Veiculo.class))).thenReturn(true);
-        doReturn(true).when(locacaoController).saveAllLocacoes(anyList());
 
         boolean result = locacaoController.realizarLocacao(cliente, veiculo, dias, valorTotal);
 
@@ -141,9 +157,14 @@ class LocacaoControllerTest {
         assertEquals(1000.0 - valorTotal, cliente.getSaldo(), 0.001, "Saldo do cliente deveria ser debitado");
 
         verify(veiculoControllerMock).estaLocado(veiculo);
-        verify(authControllerMock).updateCliente(cliente);
-        verify(veiculoControllerMock).atualizarVeiculo(veiculo);
-        verify(locacaoController).saveAllLocacoes(anyList());
+        verify(veiculoControllerMock).registrarLocacaoAtiva(locacaoController.locacoes.get(0));
+        verify(locacaoController).confirmar(any(UnidadeDeTrabalho.class));
+        verify(authControllerMock).updateClienteAsync(cliente);
+        verify(veiculoControllerMock).atualizarVeiculo(veiculo, false);
+        assertEquals(1, veiculo.getLocacoes(), "O contador de locações do veículo deveria ser incrementado");
+
+        List<Locacao> noJournal = new LocacaoController(authControllerMock, veiculoControllerMock).loadLocacoes();
+        assertEquals(1, noJournal.size(), "A locação deveria ser aplicada ao journal na mesma transação");
     }
 
     @Test
@@ -165,9 +186,9 @@ class LocacaoControllerTest {
         assertEquals("Veículo já locado.", thrown.getMessage());
 
         assertTrue(locacaoController.locacoes.isEmpty(), "Nenhuma locação deveria ser adicionada");
-        verify(authControllerMock, never()).updateCliente(any(Cliente.class));
-        verify(veiculoControllerMock, never()).atualizarVeiculo(any(Veiculo.class));
-        verify(locacaoController, never()).saveAllLocacoes(anyList());
+        verify(authControllerMock, never()).updateClienteAsync(any(Cliente.class));
+        verify(veiculoControllerMock, never()).atualizarVeiculo(any(Veiculo.class), anyBoolean());
+        verify(locacaoController, never()).confirmar(any(UnidadeDeTrabalho.class));
     }
 
     @Test
@@ -188,14 +209,14 @@ class LocacaoControllerTest {
         assertEquals("Saldo insuficiente.", thrown.getMessage());
 
         assertTrue(locacaoController.locacoes.isEmpty(), "Nenhuma locação deveria ser adicionada");
-        verify(authControllerMock, never()).updateCliente(any(Cliente.class));
-        verify(veiculoControllerMock, never()).atualizarVeiculo(any(Veiculo.class));
-        verify(locacaoController, never()).saveAllLocacoes(anyList());
+        verify(authControllerMock, never()).updateClienteAsync(any(Cliente.class));
+        verify(veiculoControllerMock, never()).atualizarVeiculo(any(Veiculo.class), anyBoolean());
+        verify(locacaoController, never()).confirmar(any(UnidadeDeTrabalho.class));
     }
 
     @Test
     @Order(4)
-    @DisplayName("Realizar locacao - falha ao salvar locacoes - Lanca LocacaoControllerException")
+    @DisplayName("Realizar locacao - falha ao confirmar transacao - Lanca LocacaoControllerException e desfaz as mutacoes")
     void testRealizarLocacaoSaveAllLocacoesFailsThrowsException() {
         Cliente cliente = createTestClient("cliente4@test.com", "444.444.444-44", "senha123");
         cliente.adicionarSaldo(1000.0);
@@ -204,7 +225,7 @@ class LocacaoControllerTest {
         double valorTotal = 500.0;
 
         when(veiculoControllerMock.estaLocado(veiculo)).thenReturn(false);
-        doReturn(false).when(locacaoController).saveAllLocacoes(anyList());
+        doReturn(false).when(locacaoController).confirmar(any(UnidadeDeTrabalho.class));
         LocacaoControllerException thrown = assertThrows(
                 LocacaoControllerException.class,
                 () -> locacaoController.realizarLocacao(cliente, veiculo, dias, valorTotal),
@@ -212,15 +233,17 @@ class LocacaoControllerTest {
         );
         assertEquals("Falha ao salvar locação.", thrown.getMessage());
 
-        assertTrue(locacaoController.locacoes.isEmpty(), "A locação deveria ser removida da lista após falha no salvamento");
-        verify(authControllerMock, never()).updateCliente(any(Cliente.class));
-        verify(veiculoControllerMock, never()).atualizarVeiculo(any(Veiculo.class));
-        verify(locacaoController, times(1)).saveAllLocacoes(anyList());
+        assertTrue(locacaoController.locacoes.isEmpty(), "A locação não deveria entrar na lista após falha na confirmação");
+        assertEquals(1000.0, cliente.getSaldo(), 0.001, "O débito do saldo deveria ser desfeito");
+        assertEquals(0, veiculo.getLocacoes(), "O contador do veículo deveria ser desfeito");
+        verify(veiculoControllerMock, never()).registrarLocacaoAtiva(any(Locacao.class));
+        verify(authControllerMock, never()).updateClienteAsync(any(Cliente.class));
+        verify(veiculoControllerMock, never()).atualizarVeiculo(any(Veiculo.class), anyBoolean());
     }
 
     @Test
     @Order(4)
-    @DisplayName("Realizar locacao - falha ao atualizar cliente - Lanca LocacaoControllerException")
+    @DisplayName("Realizar locacao - falha ao aplicar cliente apos confirmar - Transacao reaplicada na recuperacao")
     void testRealizarLocacaoUpdateClientFailsThrowsException() {
         Cliente cliente = createTestClient("cliente_fail_update_c@test.com", "555.555.555-55", "senha123");
         cliente.adicionarSaldo(1000.0);
@@ -229,22 +252,28 @@ class LocacaoControllerTest {
         double valorTotal = 500.0;
 
         when(veiculoControllerMock.estaLocado(veiculo)).thenReturn(false);
-        doReturn(true).when(locacaoController).saveAllLocacoes(anyList());
-        when(authControllerMock.updateCliente(any(Cliente.class))).thenReturn(false);
-        LocacaoControllerException thrown = assertThrows(
-                LocacaoControllerException.class,
-                () -> locacaoController.realizarLocacao(cliente, veiculo, dias, valorTotal),
-                "Deveria lançar LocacaoControllerException se a atualização do cliente falhar"
-        );
-        assertEquals("Erro ao atualizar saldo do cliente após locação.", thrown.getMessage());
-        assertEquals(1, locacaoController.locacoes.size(), "A locação deveria permanecer na lista se o cliente/veículo falhar a atualização, a menos que haja rollback explícito.");
-        verify(veiculoControllerMock, never()).atualizarVeiculo(any(Veiculo.class));
-        verify(locacaoController, times(1)).saveAllLocacoes(anyList());
+        when(authControllerMock.updateClienteAsync(any(Cliente.class)))
+                .thenThrow(new AuthControllerException("falha simulada"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertTrue(locacaoController.realizarLocacao(cliente, veiculo, dias, valorTotal),
+                "A locação já confirmada no registro de intenção não deveria ser desfeita");
+        assertTrue(new GerenciadorTransacoes(TRANSACOES_DIR_ACTUAL).possuiPendentes(),
+                "A transação não aplicada deveria permanecer no registro de intenções");
+        verify(veiculoControllerMock, never()).atualizarVeiculo(any(Veiculo.class), anyBoolean());
+
+        LocacaoController reiniciado = new LocacaoController(authControllerMock, veiculoControllerMock, true);
+
+        verify(authControllerMock, times(2)).updateClienteAsync(any(Cliente.class));
+        verify(veiculoControllerMock).atualizarVeiculo(any(Veiculo.class), eq(false));
+        assertFalse(new GerenciadorTransacoes(TRANSACOES_DIR_ACTUAL).possuiPendentes(),
+                "A recuperação deveria apagar a intenção reaplicada");
+        assertEquals(1, reiniciado.locacoes.size(), "Reaplicar a locação não deveria duplicá-la no journal");
     }
 
     @Test
     @Order(4)
-    @DisplayName("Realizar locacao - falha ao atualizar veiculo - Lanca LocacaoControllerException")
+    @DisplayName("Realizar locacao - falha ao gravar veiculo apos confirmar - Intencao permanece pendente")
     void testRealizarLocacaoUpdateVehicleFailsThrowsException() {
         Cliente cliente = createTestClient("cliente_fail_update_v@test.com", "666.666.666-66", "senha123");
         cliente.adicionarSaldo(1000.0);
@@ -253,23 +282,29 @@ class LocacaoControllerTest {
         double valorTotal = 500.0;
 
         when(veiculoControllerMock.estaLocado(veiculo)).thenReturn(false);
-        doReturn(true).when(locacaoController).saveAllLocacoes(anyList());
-        when(authControllerMock.updateCliente(any(Cliente.class))).thenReturn(true);
-        when(veiculoControllerMock.atualizarVeiculo(any(Veiculo.class))).thenReturn(false);
-        LocacaoControllerException thrown = assertThrows(
-                LocacaoControllerException.class,
-                () -> locacaoController.realizarLocacao(cliente, veiculo, dias, valorTotal),
-                "Deveria lançar LocacaoControllerException se a atualização do veículo falhar"
-        );
-        assertEquals("Erro ao atualizar veículo após locação.", thrown.getMessage());
+        when(veiculoControllerMock.atualizarVeiculo(any(Veiculo.class), eq(false))).thenReturn(false);
 
-        assertEquals(1, locacaoController.locacoes.size(), "A locação deveria permanecer na lista se a atualização do veículo falhar.");
-        verify(authControllerMock, times(1)).updateCliente(any(Cliente.class));
-        verify(veiculoControllerMock, times(1)).atualizarVeiculo(any(Veiculo.class));
-        verify(locacaoController, times(1)).saveAllLocacoes(anyList());
+        assertTrue(locacaoController.realizarLocacao(cliente, veiculo, dias, valorTotal));
+
+        assertEquals(1, locacaoController.locacoes.size(), "A locação confirmada deveria permanecer na lista.");
+        assertEquals(500.0, cliente.getSaldo(), 0.001);
+        verify(authControllerMock, times(1)).updateClienteAsync(any(Cliente.class));
+        verify(veiculoControllerMock, times(1)).atualizarVeiculo(any(Veiculo.class), eq(false));
+        assertTrue(new GerenciadorTransacoes(TRANSACOES_DIR_ACTUAL).possuiPendentes(),
+                "A intenção deveria permanecer para ser reaplicada na próxima inicialização");
     }
 
 
+    /**
+     * Faz o mock do controlador de veículos responder pela locação ativa a partir de um índice real.
+     */
+    private void indexarLocacoes(List<Locacao> locacoes) {
+        IndiceLocacoesAtivas indice = new IndiceLocacoesAtivas();
+        indice.carregar(locacoes);
+        when(veiculoControllerMock.getIndiceLocacoesAtivas()).thenReturn(indice);
+        when(veiculoControllerMock.getLocacaoAtiva(any(Veiculo.class))).thenCallRealMethod();
+    }
+
     @Test
     @Order(5)
     @DisplayName("Encontrar locacao ativa existente")
@@ -283,13 +318,14 @@ class LocacaoControllerTest {
                 veiculo,
                 cliente
         );
-        doReturn(List.of(locacaoAtiva)).when(locacaoController).loadLocacoes();
+        indexarLocacoes(List.of(locacaoAtiva));
 
         Locacao foundLocacao = locacaoController.encontrarLocacaoAtiva(veiculo);
 
         assertNotNull(foundLocacao, "Deveria encontrar uma locação ativa");
         assertEquals(veiculo.getPlaca(), foundLocacao.getVeiculo().getPlaca());
         assertNull(foundLocacao.getDataDevolucao(), "A locação encontrada deve ser ativa (dataDevolucao null)");
+        verify(locacaoController, never()).loadLocacoes();
     }
 
     @Test
@@ -297,7 +333,7 @@ class LocacaoControllerTest {
     @DisplayName("Nao encontrar locacao ativa para veiculo sem locacao")
     void testEncontrarLocacaoAtivaNaoEncontrada() {
         Veiculo veiculo = createTestVeiculo("TEST-1111", 150.0);
-        doReturn(new ArrayList<>()).when(locacaoController).loadLocacoes();
+        indexarLocacoes(List.of());
 
         Locacao foundLocacao = locacaoController.encontrarLocacaoAtiva(veiculo);
 
@@ -319,7 +355,7 @@ class LocacaoControllerTest {
         );
         locacaoFinalizada.setDataDevolucao(LocalDateTime.now().minusDays(1));
 
-        doReturn(List.of(locacaoFinalizada)).when(locacaoController).loadLocacoes();
+        indexarLocacoes(List.of(locacaoFinalizada));
 
         Locacao foundLocacao = locacaoController.encontrarLocacaoAtiva(veiculo);
 
@@ -351,8 +387,8 @@ class LocacaoControllerTest {
         );
         assertEquals("Locação inválida ou já devolvida.", thrownReturned.getMessage());
 
-        verify(authControllerMock, never()).updateCliente(any(Cliente.class));
-        verify(locacaoController, never()).saveAllLocacoes(anyList());
+        verify(authControllerMock, never()).updateClienteAsync(any(Cliente.class));
+        verify(locacaoController, never()).confirmar(any(UnidadeDeTrabalho.class));
     }
 
     @Test
@@ -375,14 +411,40 @@ class LocacaoControllerTest {
                 "Deveria lançar LocacaoControllerException se a locação não for encontrada para remoção/atualização"
         );
         assertEquals("Erro: Locação a ser devolvida não encontrada na lista para atualização.", thrown.getMessage());
+        assertNull(locacao.getDataDevolucao(), "A locação não encontrada não deveria ser alterada");
 
-        verify(authControllerMock, never()).updateCliente(any(Cliente.class));
-        verify(locacaoController, never()).saveAllLocacoes(anyList());
+        verify(authControllerMock, never()).updateClienteAsync(any(Cliente.class));
+        verify(locacaoController, never()).confirmar(any(UnidadeDeTrabalho.class));
     }
 
     @Test
     @Order(11)
-    @DisplayName("Registrar devolucao - falha ao atualizar cliente com multa - Lanca LocacaoControllerException")
+    @DisplayName("Registrar devolucao com multa - devolucao e saldo confirmados juntos")
+    void testRegistrarDevolucaoComMultaSuccess() {
+        Cliente cliente = createTestClient("cliente_devol@test.com", "777.777.777-71", "senha123");
+        cliente.adicionarSaldo(1000.0);
+        Veiculo veiculo = createTestVeiculo("MULTA-OK", 50.0);
+
+        Locacao locacaoToDevolve = new Locacao(
+                LocalDateTime.now().minusDays(5),
+                LocalDateTime.now().minusDays(1),
+                veiculo,
+                cliente
+        );
+        locacaoController.locacoes.add(locacaoToDevolve);
+
+        assertTrue(locacaoController.registrarDevolucao(locacaoToDevolve));
+
+        assertNotNull(locacaoToDevolve.getDataDevolucao());
+        assertTrue(cliente.getSaldo() < 1000.0, "A multa deveria ser debitada do saldo");
+        verify(locacaoController).confirmar(any(UnidadeDeTrabalho.class));
+        verify(authControllerMock).updateClienteAsync(cliente);
+        verify(veiculoControllerMock).registrarDevolucao(locacaoToDevolve);
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Registrar devolucao - falha ao confirmar transacao - Lanca LocacaoControllerException e desfaz a multa")
     void testRegistrarDevolucaoUpdateClientFailsThrowsException() {
         Cliente cliente = createTestClient("cliente_devol_fail@test.com", "777.777.777-70", "senha123");
         cliente.adicionarSaldo(1000.0);
@@ -394,21 +456,20 @@ class LocacaoControllerTest {
                 veiculo,
                 cliente
         );
-        List<Locacao> currentLocacoes = new ArrayList<>();
-        currentLocacoes.add(locacaoToDevolve);
-        doReturn(currentLocacoes).when(locacaoController).loadLocacoes();
+        locacaoController.locacoes.add(locacaoToDevolve);
 
-        doReturn(true).when(locacaoController).saveAllLocacoes(anyList());
-        when(authControllerMock.updateCliente(any(Cliente.class))).thenReturn(false);
+        doReturn(false).when(locacaoController).confirmar(any(UnidadeDeTrabalho.class));
         LocacaoControllerException thrown = assertThrows(
                 LocacaoControllerException.class,
                 () -> locacaoController.registrarDevolucao(locacaoToDevolve),
-                "Deveria lançar LocacaoControllerException se a atualização do cliente falhar"
+                "Deveria lançar LocacaoControllerException se a confirmação falhar"
         );
-        assertEquals("Erro ao atualizar saldo do cliente com multa após devolução.", thrown.getMessage());
+        assertEquals("Erro ao salvar locações após devolução.", thrown.getMessage());
 
-        verify(authControllerMock, times(1)).updateCliente(any(Cliente.class));
-        verify(locacaoController, never()).saveAllLocacoes(anyList());
+        assertEquals(1000.0, cliente.getSaldo(), 0.001, "A multa deveria ser desfeita");
+        assertNull(locacaoToDevolve.getDataDevolucao(), "A data de devolução deveria ser desfeita");
+        verify(authControllerMock, never()).updateClienteAsync(any(Cliente.class));
+        verify(veiculoControllerMock, never()).registrarDevolucao(any(Locacao.class));
     }
     @Test
     @Order(12)
@@ -457,4 +518,64 @@ class LocacaoControllerTest {
 
         new File(LOCACOES_FILE_PATH_ACTUAL).delete();
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(13)
+    @DisplayName("Persistencia: Locacao e devolucao acrescentadas ao journal sao recarregadas")
+    void testRealJournalLocacaoEDevolucao() {
+        LocacaoController realIOController = new LocacaoController(authControllerMock, veiculoControllerMock);
+
+        Cliente cliente = createTestClient("cliente_journal@test.com", "888.888.888-00", "senhaJ");
+        Veiculo veiculo = createTestVeiculo("JRN-1234", 80.0);
+        Locacao locacao = new Locacao(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(2), veiculo, cliente);
+
+        assertTrue(realIOController.salvarLocacao(locacao), "Deveria acrescentar a locação ao journal");
+        locacao.setDataDevolucao(LocalDateTime.now());
+        assertTrue(realIOController.salvarDevolucao(locacao), "Deveria acrescentar a devolução ao journal");
+
+        List<Locacao> loadedLocacoes = new LocacaoController(authControllerMock, veiculoControllerMock).loadLocacoes();
+        assertEquals(1, loadedLocacoes.size(), "A devolução deve atualizar a locação existente");
+        assertEquals("JRN-1234", loadedLocacoes.get(0).getVeiculo().getPlaca());
+        assertNotNull(loadedLocacoes.get(0).getDataDevolucao());
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Reservar veiculo para um periodo futuro")
+    void testReservarPeriodoFuturo() {
+        Cliente cliente = createTestClient("cliente_reserva@test.com", "777.777.777-00", "senhaR");
+        cliente.adicionarSaldo(1000.0);
+        Veiculo veiculo = createTestVeiculo("RSV-1234", 100.0);
+        LocalDateTime inicio = LocalDateTime.now().plusDays(10);
+
+        when(veiculoControllerMock.estaReservado(veiculo, inicio, inicio.plusDays(3))).thenReturn(false);
+
+        assertTrue(locacaoController.reservar(cliente, veiculo, inicio, 3, 300.0));
+
+        Locacao reserva = locacaoController.locacoes.get(0);
+        assertEquals(inicio, reserva.getDataLocacao());
+        assertEquals(inicio.plusDays(3), reserva.getDataPrevistaDevolucao());
+        assertEquals(700.0, cliente.getSaldo(), 0.001);
+        verify(veiculoControllerMock, never()).estaLocado(veiculo);
+        verify(veiculoControllerMock).registrarLocacaoAtiva(reserva);
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Reservar veiculo - periodo em conflito - Lanca LocacaoControllerException")
+    void testReservarPeriodoEmConflitoThrowsException() {
+        Cliente cliente = createTestClient("cliente_conflito@test.com", "777.777.777-11", "senhaR");
+        cliente.adicionarSaldo(1000.0);
+        Veiculo veiculo = createTestVeiculo("RSV-5678", 100.0);
+        LocalDateTime inicio = LocalDateTime.now().plusDays(10);
+
+        when(veiculoControllerMock.estaReservado(veiculo, inicio, inicio.plusDays(3))).thenReturn(true);
+
+        LocacaoControllerException thrown = assertThrows(LocacaoControllerException.class,
+                () -> locacaoController.reservar(cliente, veiculo, inicio, 3, 300.0));
+        assertEquals("Veículo já reservado no período.", thrown.getMessage());
+        assertEquals(1000.0, cliente.getSaldo(), 0.001, "O saldo não deveria ser debitado");
+        assertTrue(locacaoController.locacoes.isEmpty());
+        verify(locacaoController, never()).confirmar(any(UnidadeDeTrabalho.class));
+    }
+}
@@ -7,6 +7,14 @@ import br.com.locar.core.entities.Locacao;
 import br.com.locar.core.entities.Veiculo;
 import br.com.locar.core.entities.enums.*;
 import br.com.locar.core.exceptions.VeiculoControllerException;
+import br.com.locar.core.index.AtributoNumerico;
+import br.com.locar.core.index.CaracteristicaVeiculo;
+import br.com.locar.core.index.ContagemFacetas;
+import br.com.locar.core.index.FiltroAtributos;
+import br.com.locar.core.index.IndiceLocacoesAtivas;
+import br.com.locar.core.index.OrdemVeiculos;
+import br.com.locar.core.index.PaginaVeiculos;
+import br.com.locar.core.index.RankingLocacoes;
 import br.com.locar.terrestre.entities.Caminhao;
 import br.com.locar.terrestre.entities.Carro;
 import br.com.locar.terrestre.entities.Moto;
@@ -17,10 +25,15 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -64,9 +77,11 @@ class VeiculoControllerTest {
         doReturn(new ArrayList<>()).when(veiculoController).carregarLocacoes();
 
         doReturn(true).when(veiculoController).salvarVeiculoEmArquivo(any(Veiculo.class), anyString());
+        doReturn(true).when(veiculoController).salvarVeiculoEmArquivo(any(Veiculo.class), anyString(), anyBoolean());
 
         doReturn(true).when(veiculoController).salvarListaDeVeiculosEmArquivo(anyList(), anyString());
 
+        doReturn(true).when(veiculoController).excluirVeiculoDoArquivo(anyString(), anyString());
 
         doReturn("path/to/mocked/image.png").when(veiculoController).saveVehiclePicture(anyString(), anyString());
 
@@ -236,8 +251,6 @@ class VeiculoControllerTest {
         Carro carroAtualizado = createTestCarro("ATT-1234", 250.0);
         carroAtualizado.setNome("Carro Atualizado");
 
-        doReturn(true).when(veiculoController).salvarListaDeVeiculosEmArquivo(anyList(), anyString());
-
         boolean result = veiculoController.atualizarVeiculo(carroAtualizado);
 
         assertTrue(result, "Deveria atualizar o veículo com sucesso");
@@ -245,7 +258,8 @@ class VeiculoControllerTest {
         assertEquals("Carro Atualizado", veiculoController.listarTodos().get(0).getNome());
         assertEquals(250.0, veiculoController.listarTodos().get(0).getValorDiario());
 
-        verify(veiculoController).salvarListaDeVeiculosEmArquivo(anyList(), eq("dump/carros/carros.dat"));
+        verify(veiculoController).salvarVeiculoEmArquivo(carroAtualizado, "dump/carros/carros.dat", true);
+        verify(veiculoController, never()).salvarListaDeVeiculosEmArquivo(anyList(), anyString());
     }
 
     @Test
@@ -263,7 +277,7 @@ class VeiculoControllerTest {
         );
         assertEquals("Erro ao atualizar: Veículo com placa 'NAO-EXISTE' não encontrado.", thrown.getMessage());
         assertTrue(veiculoController.listarTodos().isEmpty(), "Nenhum veículo deveria ser adicionado ou removido");
-        verify(veiculoController, never()).salvarListaDeVeiculosEmArquivo(anyList(), anyString());
+        verify(veiculoController, never()).salvarVeiculoEmArquivo(any(Veiculo.class), anyString());
     }
 
     @Test
@@ -273,13 +287,12 @@ class VeiculoControllerTest {
         Carro carroParaExcluir = createTestCarro("DEL-1234", 100.0);
         veiculoController.addVeiculo(carroParaExcluir);
 
-        doReturn(true).when(veiculoController).salvarListaDeVeiculosEmArquivo(anyList(), anyString());
-
         boolean result = veiculoController.excluirVeiculo(carroParaExcluir);
 
         assertTrue(result, "Deveria excluir o veículo com sucesso");
         assertTrue(veiculoController.listarTodos().isEmpty(), "A lista de veículos deveria estar vazia");
-        verify(veiculoController).salvarListaDeVeiculosEmArquivo(anyList(), eq("dump/carros/carros.dat"));
+        verify(veiculoController).excluirVeiculoDoArquivo("DEL-1234", "dump/carros/carros.dat");
+        verify(veiculoController, never()).salvarListaDeVeiculosEmArquivo(anyList(), anyString());
     }
 
     @Test
@@ -294,7 +307,7 @@ class VeiculoControllerTest {
 
         assertFalse(result, "Não deveria excluir um veículo inexistente");
         assertTrue(veiculoController.listarTodos().isEmpty(), "A lista de veículos deveria permanecer vazia");
-        verify(veiculoController, never()).salvarListaDeVeiculosEmArquivo(anyList(), anyString());
+        verify(veiculoController, never()).excluirVeiculoDoArquivo(anyString(), anyString());
     }
 
     @Test
@@ -346,6 +359,43 @@ class VeiculoControllerTest {
         verify(veiculoController).carregarLocacoes();
     }
 
+    @Test
+    @Order(17)
+    @DisplayName("Verificar locacao em lote usa o indice carregado uma unica vez")
+    void testEstaLocadoEmLoteCarregaLocacoesUmaVez() {
+        Veiculo veiculoLocado = createTestCarro("LOTE-001", 100.0);
+        Veiculo veiculoLivre = createTestCarro("LOTE-002", 100.0);
+        Locacao locacaoAtiva = createTestLocacao(veiculoLocado, null);
+
+        doReturn(List.of(locacaoAtiva)).when(veiculoController).carregarLocacoes();
+
+        Map<String, Boolean> status = veiculoController.estaLocado(List.of(veiculoLocado, veiculoLivre));
+        assertTrue(status.get("LOTE-001"), "Veículo com locação ativa deveria estar locado");
+        assertFalse(status.get("LOTE-002"), "Veículo sem locação não deveria estar locado");
+
+        assertTrue(veiculoController.estaLocado(veiculoLocado));
+        assertFalse(veiculoController.estaLocado(veiculoLivre));
+        verify(veiculoController, times(1)).carregarLocacoes();
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("Indice de locacoes ativas acompanha locacao e devolucao")
+    void testIndiceLocacoesAtivasAcompanhaLocacaoEDevolucao() {
+        Veiculo veiculo = createTestCarro("IDX-0001", 100.0);
+        Locacao locacao = createTestLocacao(veiculo, null);
+
+        assertFalse(veiculoController.estaLocado(veiculo));
+
+        veiculoController.registrarLocacaoAtiva(locacao);
+        assertTrue(veiculoController.estaLocado(veiculo), "Veículo deveria estar locado após registrar a locação");
+
+        locacao.setDataDevolucao(LocalDateTime.now());
+        veiculoController.registrarDevolucao(locacao);
+        assertFalse(veiculoController.estaLocado(veiculo), "Veículo deveria estar disponível após a devolução");
+        verify(veiculoController, times(1)).carregarLocacoes();
+    }
+
     @Test
     @Order(18)
     @DisplayName("Filtrar veículos por preço máximo e cor")
@@ -416,4 +466,462 @@ class VeiculoControllerTest {
         assertEquals(1, resultados.size());
         assertEquals("PROX-001", resultados.get(0).getPlaca());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(21)
+    @DisplayName("Busca textual ignora acentos e aceita prefixos de todos os termos")
+    void testFiltrarVeiculosBuscaTextual() {
+        Caminhao caminhao = createTestCaminhao("CAM-010", 500.0);
+        caminhao.setNome("Caminhão Baú");
+        Carro civic = createTestCarro("CIV-001", 150.0);
+        civic.setModelo("Civic");
+        Carro corolla = createTestCarro("COR-001", 160.0);
+        corolla.setModelo("Corolla");
+
+        veiculoController.addAllVeiculos(List.of(caminhao, civic, corolla));
+        doReturn(new ArrayList<>()).when(veiculoController).carregarLocacoes();
+
+        List<Veiculo> porAcento = veiculoController.filtrarVeiculos("caminhao bau", null, Cor.TODAS, "Todos", null, null, "Todos os Modelos");
+        assertEquals(1, porAcento.size(), "A busca sem acento deveria encontrar o caminhão");
+        assertEquals("CAM-010", porAcento.get(0).getPlaca());
+
+        List<Veiculo> porPrefixo = veiculoController.filtrarVeiculos("CIV 20", null, Cor.TODAS, "Todos", null, null, "Todos os Modelos");
+        assertEquals(1, porPrefixo.size(), "Todos os termos deveriam ser prefixos de algum campo do veículo");
+        assertEquals("CIV-001", porPrefixo.get(0).getPlaca());
+
+        List<Veiculo> carros = veiculoController.filtrarVeiculos("nomecarro", null, Cor.TODAS, "Todos", null, null, "Todos os Modelos");
+        assertEquals(List.of(civic, corolla), carros, "Os resultados deveriam seguir a ordem da lista de veículos");
+
+        assertTrue(veiculoController.filtrarVeiculos("civic corolla", null, Cor.TODAS, "Todos", null, null, "Todos os Modelos").isEmpty());
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("Busca textual acompanha atualização e exclusão de veículos")
+    void testBuscaTextualAtualizadaIncrementalmente() {
+        Carro carro = createTestCarro("IDX-001", 100.0);
+        carro.setModelo("Gol");
+        veiculoController.addVeiculo(carro);
+        doReturn(new ArrayList<>()).when(veiculoController).carregarLocacoes();
+
+        Carro atualizado = createTestCarro("IDX-001", 100.0);
+        atualizado.setModelo("Polo");
+        assertTrue(veiculoController.atualizarVeiculo(atualizado));
+
+        assertTrue(veiculoController.filtrarVeiculos("gol", null, Cor.TODAS, "Todos", null, null, "Todos os Modelos").isEmpty(),
+                "O modelo antigo não deveria mais ser encontrado");
+        assertEquals(List.of(atualizado), veiculoController.filtrarVeiculos("polo", null, Cor.TODAS, "Todos", null, null, "Todos os Modelos"));
+
+        assertTrue(veiculoController.excluirVeiculo(atualizado));
+        assertTrue(veiculoController.filtrarVeiculos("polo", null, Cor.TODAS, "Todos", null, null, "Todos os Modelos").isEmpty(),
+                "O veículo excluído não deveria ser encontrado");
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("Filtro de atributos combina bitmaps e calcula contagens por opção")
+    void testFiltroAtributosEContagemFacetas() {
+        Carro carroBranco = createTestCarro("BIT-001", 100.0); carroBranco.setCor(Cor.BRANCO);
+        Carro carroPreto = createTestCarro("BIT-002", 100.0); carroPreto.setCor(Cor.PRETO);
+        Moto motoAzul = createTestMoto("BIT-003", 80.0); motoAzul.setCor(Cor.AZUL);
+
+        veiculoController.addAllVeiculos(List.of(carroBranco, carroPreto, motoAzul));
+        doReturn(new ArrayList<>()).when(veiculoController).carregarLocacoes();
+
+        List<Veiculo> brancosOuAzuis = veiculoController.filtrarVeiculos(null, "Todos",
+                new FiltroAtributos().cores(Cor.BRANCO, Cor.AZUL));
+        assertEquals(List.of(carroBranco, motoAzul), brancosOuAzuis, "Cores selecionadas deveriam ser alternativas");
+
+        List<Veiculo> comAr = veiculoController.filtrarVeiculos(null, "Todos",
+                new FiltroAtributos().cores(Cor.BRANCO, Cor.AZUL).com(CaracteristicaVeiculo.AR_CONDICIONADO));
+        assertEquals(List.of(carroBranco), comAr, "Itens opcionais deveriam restringir o resultado");
+
+        ContagemFacetas contagem = veiculoController.contarFacetas(null, "Todos",
+                new FiltroAtributos().cores(Cor.BRANCO));
+        assertEquals(1, contagem.getTotal());
+        assertEquals(1, contagem.getCor(Cor.PRETO), "A contagem de cor deveria ignorar a cor já selecionada");
+        assertEquals(1, contagem.getCor(Cor.AZUL));
+        assertEquals(1, contagem.getTipo("Carro"));
+        assertEquals(0, contagem.getTipo("Moto"), "A contagem de tipo deveria respeitar a cor selecionada");
+        assertEquals(1, contagem.getCaracteristica(CaracteristicaVeiculo.AR_CONDICIONADO));
+
+        carroPreto.setCor(Cor.BRANCO);
+        assertTrue(veiculoController.atualizarVeiculo(carroPreto));
+        assertEquals(2, veiculoController.contarFacetas(null, "Todos", new FiltroAtributos()).getCor(Cor.BRANCO),
+                "A alteração de cor deveria ser refletida nos bitmaps");
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("Filtrar veículos por faixa de ano e de preço")
+    void testFiltrarVeiculosPorFaixaAnoEPreco() {
+        Carro antigo = createTestCarro("ANO-001", 90.0); antigo.setAno(2010);
+        Carro medio = createTestCarro("ANO-002", 120.0); medio.setAno(2015);
+        Carro novo = createTestCarro("ANO-003", 200.0); novo.setAno(2023);
+
+        veiculoController.addAllVeiculos(List.of(antigo, medio, novo));
+        doReturn(new ArrayList<>()).when(veiculoController).carregarLocacoes();
+
+        assertEquals(List.of(medio, novo), veiculoController.filtrarVeiculos(null, null, Cor.TODAS, "Todos", 2015, null, "Todos os Modelos"),
+                "O ano mínimo deveria ser aplicado, incluindo o próprio limite");
+        assertEquals(List.of(antigo, medio), veiculoController.filtrarVeiculos(null, 150.0, Cor.TODAS, "Todos", null, 2020, "Todos os Modelos"));
+
+        FiltroAtributos faixaPreco = new FiltroAtributos().faixa(AtributoNumerico.VALOR_DIARIO, 100.0, 150.0);
+        assertEquals(List.of(medio), veiculoController.filtrarVeiculos(null, "Todos", faixaPreco));
+
+        Carro medioReajustado = createTestCarro("ANO-002", 180.0);
+        medioReajustado.setAno(2015);
+        assertTrue(veiculoController.atualizarVeiculo(medioReajustado));
+        assertTrue(veiculoController.filtrarVeiculos(null, "Todos", faixaPreco).isEmpty(),
+                "O novo preço deveria ser refletido na coluna ordenada");
+        assertEquals(2, veiculoController.contarFacetas(null, "Todos",
+                new FiltroAtributos().faixa(AtributoNumerico.VALOR_DIARIO, 150.0, null)).getTotal());
+    }
+
+    @Test
+    @Order(25)
+    @DisplayName("Consulta paginada por cursor na ordem escolhida")
+    void testConsultarVeiculosPaginado() {
+        Carro c1 = createTestCarro("PAG-001", 300.0);
+        Carro c2 = createTestCarro("PAG-002", 100.0);
+        Carro c3 = createTestCarro("PAG-003", 200.0);
+        Carro c4 = createTestCarro("PAG-004", 100.0);
+        Moto m1 = createTestMoto("PAG-005", 50.0);
+        veiculoController.addAllVeiculos(List.of(c1, c2, c3, c4, m1));
+        doReturn(new ArrayList<>()).when(veiculoController).carregarLocacoes();
+
+        FiltroAtributos carros = new FiltroAtributos().tipos("Carro");
+        PaginaVeiculos primeira = veiculoController.consultarVeiculos(null, "Todos", carros, OrdemVeiculos.MENOR_PRECO, null, 2);
+        assertEquals(List.of(c2, c4), primeira.getVeiculos(), "Empates no preço deveriam seguir a ordem da lista");
+        assertTrue(primeira.possuiProxima());
+
+        Carro inseridoAntes = createTestCarro("PAG-006", 90.0);
+        veiculoController.addVeiculo(inseridoAntes);
+
+        PaginaVeiculos segunda = veiculoController.consultarVeiculos(null, "Todos", carros, OrdemVeiculos.MENOR_PRECO, primeira.getProxima(), 2);
+        assertEquals(List.of(c3, c1), segunda.getVeiculos(), "A página seguinte deveria continuar após o cursor, sem deslocamento");
+        assertFalse(segunda.possuiProxima(), "Não deveria haver página após o último veículo");
+
+        PaginaVeiculos decrescente = veiculoController.consultarVeiculos(null, "Todos", null, OrdemVeiculos.MAIOR_PRECO, null, 3);
+        assertEquals(List.of(c1, c3, c4), decrescente.getVeiculos());
+        PaginaVeiculos restoDecrescente = veiculoController.consultarVeiculos(null, "Todos", null, OrdemVeiculos.MAIOR_PRECO, decrescente.getProxima(), 3);
+        assertEquals(List.of(c2, inseridoAntes, m1), restoDecrescente.getVeiculos());
+
+        assertEquals(List.of(c1, c2, c3, c4, m1, inseridoAntes),
+                veiculoController.consultarVeiculos(null, "Todos", null, OrdemVeiculos.PADRAO, null, 10).getVeiculos());
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("Destaques do carrossel sao os mais alugados, ate o limite")
+    void testListarDestaques() {
+        Carro c1 = createTestCarro("DES-001", 100.0);
+        Carro c2 = createTestCarro("DES-002", 100.0);
+        Moto m1 = createTestMoto("DES-003", 50.0);
+        Caminhao k1 = createTestCaminhao("DES-004", 400.0);
+        c1.setLocacoes(3);
+        c2.setLocacoes(10);
+        m1.setLocacoes(7);
+        k1.setLocacoes(1);
+        veiculoController.addAllVeiculos(List.of(c1, c2, m1, k1));
+
+        assertEquals(List.of(c2, m1, c1), veiculoController.listarDestaques(3));
+        assertEquals(4, veiculoController.listarDestaques(10).size());
+    }
+
+    @Test
+    @Order(27)
+    @DisplayName("Ranking de mais alugados e mantido a cada locacao, por tipo e por janela de tempo")
+    void testRankingMaisAlugadosIncremental() {
+        Carro c1 = createTestCarro("RNK-001", 100.0);
+        Carro c2 = createTestCarro("RNK-002", 100.0);
+        Moto m1 = createTestMoto("RNK-003", 50.0);
+        c1.setLocacoes(5);
+        c2.setLocacoes(2);
+        m1.setLocacoes(9);
+        veiculoController.addAllVeiculos(List.of(c1, c2, m1));
+
+        Locacao antiga = createTestLocacao(c2, LocalDateTime.now());
+        antiga.setDataLocacao(LocalDateTime.now().minusDays(20));
+        Locacao recente = createTestLocacao(c2, LocalDateTime.now());
+        Locacao antigaMoto = createTestLocacao(m1, LocalDateTime.now());
+        antigaMoto.setDataLocacao(LocalDateTime.now().minusDays(60));
+        doReturn(new ArrayList<>(List.of(antiga, recente, antigaMoto))).when(veiculoController).carregarLocacoes();
+
+        assertEquals(List.of(m1, c1, c2), veiculoController.getVeiculosMaisAlugados(3));
+        assertEquals(List.of(c1, c2), veiculoController.getVeiculosMaisAlugados(5, "Carro", RankingLocacoes.Periodo.SEMPRE));
+        assertEquals(List.of(c2), veiculoController.getVeiculosMaisAlugados(5, null, RankingLocacoes.Periodo.ULTIMOS_30_DIAS),
+                "Apenas as locações iniciadas nos últimos 30 dias deveriam contar");
+        assertEquals(List.of(c2), veiculoController.getVeiculosMaisAlugados(5, null, RankingLocacoes.Periodo.ULTIMOS_7_DIAS));
+
+        for (int i = 0; i < 5; i++) {
+            c2.adicionarLocacao();
+            Locacao nova = createTestLocacao(c2, null);
+            nova.setDataLocacao(LocalDateTime.now());
+            veiculoController.registrarLocacaoAtiva(nova);
+        }
+        Locacao novaCarro = createTestLocacao(c1, null);
+        novaCarro.setDataLocacao(LocalDateTime.now());
+        c1.adicionarLocacao();
+        veiculoController.registrarLocacaoAtiva(novaCarro);
+
+        assertEquals(List.of(m1, c2), veiculoController.getVeiculosMaisAlugados(2));
+        assertEquals(List.of(c2, c1), veiculoController.getVeiculosMaisAlugados(5, "Carro", RankingLocacoes.Periodo.ULTIMOS_7_DIAS));
+        assertTrue(veiculoController.getVeiculosMaisAlugados(5, "Moto", RankingLocacoes.Periodo.ULTIMOS_30_DIAS).isEmpty());
+
+        veiculoController.excluirVeiculo(c2);
+        assertEquals(List.of(m1, c1), veiculoController.getVeiculosMaisAlugados(5));
+        // Uma leitura para as janelas do ranking e uma para o índice de locações ativas.
+        verify(veiculoController, times(2)).carregarLocacoes();
+    }
+
+    @Test
+    @Order(28)
+    @DisplayName("Devolucoes previstas e atrasadas sao consultadas por faixa no indice de locacoes ativas")
+    void testDevolucoesPrevistasEAtrasadas() {
+        Carro amanha = createTestCarro("DEV-001", 100.0);
+        Carro semana = createTestCarro("DEV-002", 100.0);
+        Carro atrasado = createTestCarro("DEV-003", 100.0);
+        Carro hoje = createTestCarro("DEV-004", 100.0);
+
+        Locacao locacaoAmanha = createTestLocacao(amanha, null);
+        locacaoAmanha.setDataPrevistaDevolucao(LocalDateTime.now().plusDays(1));
+        Locacao locacaoSemana = createTestLocacao(semana, null);
+        locacaoSemana.setDataPrevistaDevolucao(LocalDateTime.now().plusDays(6));
+        Locacao locacaoAtrasada = createTestLocacao(atrasado, null);
+        locacaoAtrasada.setDataPrevistaDevolucao(LocalDateTime.now().minusDays(2));
+        Locacao locacaoHoje = createTestLocacao(hoje, null);
+        locacaoHoje.setDataPrevistaDevolucao(LocalDateTime.now().minusMinutes(1));
+
+        veiculoController.addAllVeiculos(List.of(amanha, semana, atrasado, hoje));
+        doReturn(new ArrayList<>(List.of(locacaoSemana, locacaoAmanha, locacaoAtrasada))).when(veiculoController).carregarLocacoes();
+        veiculoController.registrarLocacaoAtiva(locacaoHoje);
+
+        assertEquals(List.of(locacaoHoje, locacaoAmanha), veiculoController.getLocacoesComDevolucaoNosProximosDias(3));
+        assertEquals(List.of(locacaoHoje, locacaoAmanha, locacaoSemana), veiculoController.getLocacoesComDevolucaoNosProximosDias(7));
+        assertEquals(List.of(locacaoAtrasada, locacaoHoje), veiculoController.getLocacoesAtrasadas());
+        assertEquals(List.of(amanha, hoje), veiculoController.filtrarVeiculos(null, "Próximos de Devolução", null));
+
+        locacaoAmanha.setDataDevolucao(LocalDateTime.now());
+        veiculoController.registrarDevolucao(locacaoAmanha);
+        Locacao renovada = createTestLocacao(semana, null);
+        renovada.setDataPrevistaDevolucao(LocalDateTime.now().plusHours(2));
+        veiculoController.registrarLocacaoAtiva(renovada);
+
+        assertEquals(List.of(semana, hoje), veiculoController.filtrarVeiculos(null, "Próximos de Devolução", null));
+        assertEquals(List.of(locacaoHoje, renovada), veiculoController.getLocacoesComDevolucaoNosProximosDias(7),
+                "A locação anterior do mesmo veículo deveria sair do índice");
+        verify(veiculoController, times(1)).carregarLocacoes();
+    }
+
+    @Test
+    @Order(29)
+    @DisplayName("Reservas futuras ocupam a agenda do veiculo e os livres no periodo combinam com os filtros")
+    void testReservasEVeiculosLivresNoPeriodo() {
+        LocalDateTime agora = LocalDateTime.now();
+        Carro emUso = createTestCarro("RES-001", 100.0);
+        Carro reservado = createTestCarro("RES-002", 100.0);
+        Carro atrasado = createTestCarro("RES-003", 100.0);
+        Moto livre = createTestMoto("RES-004", 50.0);
+
+        Locacao locacaoEmUso = createTestLocacao(emUso, null);
+        locacaoEmUso.setDataLocacao(agora.minusDays(1));
+        locacaoEmUso.setDataPrevistaDevolucao(agora.plusDays(2));
+        Locacao reservaFutura = createTestLocacao(reservado, null);
+        reservaFutura.setDataLocacao(agora.plusDays(5));
+        reservaFutura.setDataPrevistaDevolucao(agora.plusDays(8));
+        Locacao locacaoAtrasada = createTestLocacao(atrasado, null);
+        locacaoAtrasada.setDataLocacao(agora.minusDays(5));
+        locacaoAtrasada.setDataPrevistaDevolucao(agora.minusDays(1));
+
+        veiculoController.addAllVeiculos(List.of(emUso, reservado, atrasado, livre));
+        doReturn(new ArrayList<>(List.of(locacaoEmUso, reservaFutura, locacaoAtrasada))).when(veiculoController).carregarLocacoes();
+
+        assertFalse(veiculoController.estaLocado(reservado), "Uma reserva futura não deveria contar como locação ativa");
+        assertEquals(List.of(emUso, reservado, livre), veiculoController.filtrarVeiculosLivres(null, null, agora.plusDays(3), agora.plusDays(4)));
+        assertEquals(List.of(emUso, livre), veiculoController.filtrarVeiculosLivres(null, null, agora.plusDays(6), agora.plusDays(7)));
+        assertEquals(List.of(emUso), veiculoController.filtrarVeiculosLivres(null, new FiltroAtributos().tipos("Carro"),
+                agora.plusDays(6), agora.plusDays(7)));
+        assertEquals(1, veiculoController.consultarVeiculosLivres(null, null, agora.plusDays(6), agora.plusDays(7),
+                OrdemVeiculos.PADRAO, null, 1).getVeiculos().size());
+
+        assertTrue(veiculoController.estaReservado(reservado, agora.plusDays(7), agora.plusDays(9)));
+        assertFalse(veiculoController.estaReservado(reservado, agora.plusDays(8), agora.plusDays(9)), "O fim da reserva é exclusivo");
+        assertTrue(veiculoController.estaReservado(atrasado, agora.plusDays(30), agora.plusDays(31)),
+                "Um veículo atrasado continua ocupado até ser devolvido");
+        assertThrows(VeiculoControllerException.class, () -> veiculoController.estaReservado(livre, agora.plusDays(2), agora.plusDays(1)));
+
+        Locacao novaReserva = createTestLocacao(emUso, null);
+        novaReserva.setDataLocacao(agora.plusDays(10));
+        novaReserva.setDataPrevistaDevolucao(agora.plusDays(12));
+        veiculoController.registrarLocacaoAtiva(novaReserva);
+        assertTrue(veiculoController.estaReservado(emUso, agora.plusDays(11), agora.plusDays(13)));
+
+        Locacao devolvidaRelida = createTestLocacao(emUso, agora);
+        devolvidaRelida.setDataLocacao(locacaoEmUso.getDataLocacao());
+        veiculoController.registrarDevolucao(devolvidaRelida);
+        assertFalse(veiculoController.estaReservado(emUso, agora, agora.plusDays(1)),
+                "A devolução deveria liberar o período mesmo com uma instância relida do disco");
+        assertEquals(1, veiculoController.getAgendaReservas().reservas("RES-001").size());
+        verify(veiculoController, times(2)).carregarLocacoes();
+    }
+
+    @Test
+    @Order(30)
+    @DisplayName("Reserva futura passa a ser locacao ativa quando a data de inicio chega")
+    void testReservaPassaASerAtiva() {
+        Instant[] instante = {Instant.parse("2030-01-10T12:00:00Z")};
+        Clock relogio = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneId.of("UTC");
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return instante[0];
+            }
+        };
+        LocalDateTime agora = LocalDateTime.now(relogio);
+        Carro carro = createTestCarro("RES-010", 100.0);
+        Locacao reserva = createTestLocacao(carro, null);
+        reserva.setDataLocacao(agora.plusHours(2));
+        reserva.setDataPrevistaDevolucao(agora.plusDays(3));
+
+        IndiceLocacoesAtivas indice = new IndiceLocacoesAtivas(relogio);
+        indice.carregar(List.of(reserva));
+        assertFalse(indice.estaLocado("RES-010"));
+        assertEquals(0, indice.tamanho());
+
+        instante[0] = instante[0].plusSeconds(3 * 3600);
+        assertTrue(indice.estaLocado("RES-010"));
+        assertSame(reserva, indice.getLocacaoAtiva("RES-010"));
+
+        Locacao cancelada = createTestLocacao(carro, null);
+        cancelada.setDataLocacao(agora.plusDays(5));
+        cancelada.setDataPrevistaDevolucao(agora.plusDays(6));
+        indice.registrarLocacao(cancelada);
+        indice.registrarDevolucao(cancelada);
+        instante[0] = instante[0].plusSeconds(10 * 86400);
+        assertSame(reserva, indice.getLocacaoAtiva("RES-010"), "A reserva cancelada não deveria ser ativada");
+    }
+
+    @Test
+    @Order(31)
+    @DisplayName("Utilizacao, calendario e mapa de calor saem dos bitmaps de horas ocupadas")
+    void testOcupacaoPorHora() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        Caminhao k1 = createTestCaminhao("OCP-001", 500.0);
+        Caminhao k2 = createTestCaminhao("OCP-002", 500.0);
+        Carro carro = createTestCarro("OCP-003", 100.0);
+
+        Locacao devolvidaNoPrazo = createTestLocacao(k1, null);
+        devolvidaNoPrazo.setDataLocacao(base);
+        devolvidaNoPrazo.setDataPrevistaDevolucao(base.plusHours(48));
+        devolvidaNoPrazo.setDataDevolucao(base.plusHours(24));
+        Locacao devolvidaComAtraso = createTestLocacao(k2, null);
+        devolvidaComAtraso.setDataLocacao(base.plusHours(12));
+        devolvidaComAtraso.setDataPrevistaDevolucao(base.plusHours(36));
+        devolvidaComAtraso.setDataDevolucao(base.plusHours(40).plusMinutes(30));
+        Locacao doCarro = createTestLocacao(carro, null);
+        doCarro.setDataLocacao(base);
+        doCarro.setDataDevolucao(base.plusHours(96));
+
+        veiculoController.addAllVeiculos(List.of(k1, k2, carro));
+        doReturn(new ArrayList<>(List.of(devolvidaNoPrazo, devolvidaComAtraso, doCarro))).when(veiculoController).carregarLocacoes();
+
+        Map<Veiculo, Double> utilizacao = veiculoController.getUtilizacao("Caminhão", base, base.plusHours(96));
+        assertEquals(List.of(k1, k2), new ArrayList<>(utilizacao.keySet()));
+        assertEquals(24 / 96.0, utilizacao.get(k1), 1e-9);
+        assertEquals(29 / 96.0, utilizacao.get(k2), 1e-9, "A hora parcial da devolução atrasada deveria contar");
+
+        int[] calor = veiculoController.getOcupacaoDaFrota("Caminhão", base, base.plusHours(48));
+        assertEquals(48, calor.length);
+        assertEquals(1, calor[0]);
+        assertEquals(2, calor[12]);
+        assertEquals(1, calor[30]);
+        assertEquals(1, calor[40]);
+        assertEquals(0, calor[41]);
+
+        BitSet calendario = veiculoController.getCalendarioOcupacao(k1, base, base.plusHours(48));
+        assertEquals(24, calendario.cardinality());
+        assertEquals(24, calendario.nextClearBit(0));
+
+        Locacao nova = createTestLocacao(k1, null);
+        nova.setDataLocacao(base.plusHours(72));
+        nova.setDataPrevistaDevolucao(base.plusHours(96));
+        veiculoController.registrarLocacaoAtiva(nova);
+        assertEquals(48 / 96.0, veiculoController.getUtilizacao("Caminhão", base, base.plusHours(96)).get(k1), 1e-9);
+
+        nova.setDataDevolucao(base.plusHours(80).plusMinutes(15));
+        veiculoController.registrarDevolucao(nova);
+        assertEquals(33 / 96.0, veiculoController.getUtilizacao("Caminhão", base, base.plusHours(96)).get(k1), 1e-9,
+                "A devolução antecipada deveria liberar as horas inteiras até a data prevista");
+
+        assertEquals(base.plusHours(24), veiculoController.getProximoHorarioLivre(k1, base, 48));
+        assertEquals(base.plusHours(81), veiculoController.getProximoHorarioLivre(k1, base, 49));
+        assertEquals(base.plusHours(25), veiculoController.getProximoHorarioLivre(k1, base.plusHours(24).plusMinutes(1), 2));
+        // Uma leitura para o mapa de ocupação e uma para o índice de locações ativas.
+        verify(veiculoController, times(2)).carregarLocacoes();
+    }
+
+    @Test
+    @Order(32)
+    @DisplayName("Reserva que começa com a locação anterior atrasada aguarda a devolução")
+    void testReservaAguardaLocacaoAtrasada() {
+        Instant[] instante = {Instant.parse("2030-01-10T12:00:00Z")};
+        Clock relogio = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneId.of("UTC");
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return instante[0];
+            }
+        };
+        LocalDateTime t0 = LocalDateTime.now(relogio);
+        Carro carro = createTestCarro("RES-020", 100.0);
+        Locacao atrasada = createTestLocacao(carro, null);
+        atrasada.setDataLocacao(t0);
+        atrasada.setDataPrevistaDevolucao(t0.plusDays(2));
+        Locacao reserva = createTestLocacao(carro, null);
+        reserva.setDataLocacao(t0.plusDays(3));
+        reserva.setDataPrevistaDevolucao(t0.plusDays(5));
+
+        IndiceLocacoesAtivas indice = new IndiceLocacoesAtivas(relogio);
+        indice.registrarLocacao(atrasada);
+        indice.registrarLocacao(reserva);
+
+        instante[0] = instante[0].plusSeconds(4 * 86400);
+        List<Locacao> atrasadas = indice.atrasadas(LocalDateTime.now(relogio));
+        assertEquals(1, atrasadas.size(), "A locação atrasada não pode ser substituída pela reserva");
+        assertSame(atrasada, atrasadas.get(0));
+        assertSame(atrasada, indice.getLocacaoAtiva("RES-020"));
+
+        Locacao relida = createTestLocacao(carro, null);
+        relida.setDataLocacao(t0);
+        relida.setDataPrevistaDevolucao(t0.plusDays(2));
+        relida.setDataDevolucao(LocalDateTime.now(relogio));
+        indice.registrarDevolucao(relida);
+
+        assertTrue(indice.estaLocado("RES-020"), "A reserva deveria passar a ativa após a devolução da anterior");
+        assertSame(reserva, indice.getLocacaoAtiva("RES-020"));
+        assertTrue(indice.atrasadas(LocalDateTime.now(relogio)).isEmpty());
+
+        indice.registrarDevolucao(reserva);
+        assertFalse(indice.estaLocado("RES-020"));
+        assertEquals(0, indice.tamanho());
+    }
+}
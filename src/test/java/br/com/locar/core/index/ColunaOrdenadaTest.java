@@ -0,0 +1,108 @@
+package br.com.locar.core.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A coluna é interna ao pacote de índices, por isso o teste fica no mesmo pacote.
+ */
+class ColunaOrdenadaTest {
+
+    private static BitSet ids(int... ids) {
+        BitSet bits = new BitSet();
+        for (int id : ids) {
+            bits.set(id);
+        }
+        return bits;
+    }
+
+    @Test
+    @DisplayName("Faixa fechada inclui os valores iguais aos limites")
+    void testFaixaFechada() {
+        ColunaOrdenada coluna = new ColunaOrdenada();
+        coluna.inserir(100.0, 0);
+        coluna.inserir(150.0, 1);
+        coluna.inserir(150.0, 2);
+        coluna.inserir(200.0, 3);
+
+        assertEquals(ids(1, 2), coluna.faixa(150.0, 150.0));
+        assertEquals(ids(0, 1, 2), coluna.faixa(null, 150.0));
+        assertEquals(ids(1, 2, 3), coluna.faixa(120.0, null));
+        assertEquals(ids(0, 1, 2, 3), coluna.faixa(null, null));
+        assertEquals(new BitSet(), coluna.faixa(201.0, null));
+        assertEquals(new BitSet(), coluna.faixa(160.0, 140.0));
+    }
+
+    @Test
+    @DisplayName("Inserções repetidas são ignoradas e a remoção exige valor e identificador")
+    void testInserirERemover() {
+        ColunaOrdenada coluna = new ColunaOrdenada();
+        coluna.inserir(10.0, 5);
+        coluna.inserir(10.0, 5);
+        coluna.inserir(10.0, 4);
+        assertEquals(2, coluna.tamanho());
+        assertEquals(4, coluna.idNa(0), "Valores iguais ficam ordenados pelo identificador");
+
+        assertFalse(coluna.remover(11.0, 5));
+        assertFalse(coluna.remover(10.0, 6));
+        assertTrue(coluna.remover(10.0, 5));
+        assertEquals(ids(4), coluna.faixa(null, null));
+
+        assertEquals(1, coluna.posicaoApos(10.0, 4));
+        assertEquals(-1, coluna.posicaoAntes(10.0, 4));
+        assertEquals(0, coluna.posicaoApos(10.0, 3));
+        assertEquals(0, coluna.posicaoAntes(10.0, 9));
+    }
+
+    @Test
+    @DisplayName("Construção em lote, inserções além da capacidade inicial e faixas aleatórias coincidem com uma varredura")
+    void testAleatorioContraVarredura() {
+        Random random = new Random(11);
+        double[] valoresPorId = new double[200];
+        BitSet presentes = new BitSet();
+        for (int id = 0; id < valoresPorId.length; id += 2) {
+            valoresPorId[id] = random.nextInt(50);
+            presentes.set(id);
+        }
+        ColunaOrdenada coluna = new ColunaOrdenada();
+        coluna.construir(valoresPorId, presentes);
+
+        Map<Integer, Double> referencia = new HashMap<>();
+        presentes.stream().forEach(id -> referencia.put(id, valoresPorId[id]));
+        for (int id = 1; id < valoresPorId.length; id += 2) {
+            double valor = random.nextInt(50);
+            coluna.inserir(valor, id);
+            referencia.put(id, valor);
+        }
+        for (int i = 0; i < 50; i++) {
+            int id = random.nextInt(valoresPorId.length);
+            Double valor = referencia.remove(id);
+            if (valor != null) {
+                assertTrue(coluna.remover(valor, id));
+            }
+        }
+        assertEquals(referencia.size(), coluna.tamanho());
+        for (int i = 1; i < coluna.tamanho(); i++) {
+            assertTrue(coluna.valorNa(i - 1) <= coluna.valorNa(i), "A coluna deveria continuar ordenada");
+        }
+
+        for (int i = 0; i < 200; i++) {
+            double minimo = random.nextInt(55) - 2;
+            double maximo = minimo + random.nextInt(20);
+            BitSet esperado = new BitSet();
+            referencia.forEach((id, valor) -> {
+                if (valor >= minimo && valor <= maximo) {
+                    esperado.set(id);
+                }
+            });
+            assertEquals(esperado, coluna.faixa(minimo, maximo), "Faixa [" + minimo + ", " + maximo + "]");
+        }
+    }
+}
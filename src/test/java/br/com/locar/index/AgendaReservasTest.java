@@ -0,0 +1,75 @@
+package br.com.locar.index;
+
+import br.com.locar.core.entities.Locacao;
+import br.com.locar.core.index.AgendaReservas;
+import br.com.locar.entities.TestVehicle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgendaReservasTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 3, 1, 10, 0);
+
+    private Locacao reserva(TestVehicle veiculo, LocalDateTime inicio, LocalDateTime fim) {
+        return new Locacao(inicio, fim, veiculo, null);
+    }
+
+    @Test
+    @DisplayName("Reserva que começa na devolução prevista da anterior não conflita")
+    void testReservasEncostadas() {
+        TestVehicle veiculo = new TestVehicle("AGD-001", 100.0);
+        AgendaReservas agenda = new AgendaReservas();
+        agenda.registrar(reserva(veiculo, BASE, BASE.plusDays(2)));
+
+        assertFalse(agenda.estaOcupado("AGD-001", BASE.plusDays(2), BASE.plusDays(3)));
+        assertFalse(agenda.estaOcupado("AGD-001", BASE.minusDays(1), BASE));
+        assertTrue(agenda.estaOcupado("AGD-001", BASE.plusDays(2).minusSeconds(1), BASE.plusDays(3)));
+        assertTrue(agenda.estaOcupado("AGD-001", BASE.minusDays(1), BASE.plusSeconds(1)));
+        assertFalse(agenda.estaOcupado("OUTRA-01", BASE, BASE.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Devoluções e reservas canceladas são removidas pela data de locação, mesmo relidas do disco")
+    void testRemocaoPorDataDeLocacao() {
+        TestVehicle veiculo = new TestVehicle("AGD-002", 100.0);
+        AgendaReservas agenda = new AgendaReservas();
+        Locacao primeira = reserva(veiculo, BASE, BASE.plusDays(1));
+        Locacao segunda = reserva(veiculo, BASE.plusDays(3), BASE.plusDays(4));
+        Locacao devolvida = reserva(veiculo, BASE.minusDays(5), BASE.minusDays(4));
+        devolvida.setDataDevolucao(BASE.minusDays(4));
+        agenda.carregar(List.of(primeira, segunda, devolvida));
+
+        assertEquals(List.of(primeira, segunda), agenda.reservas("AGD-002"), "Locações devolvidas não entram na agenda");
+
+        Locacao relida = reserva(new TestVehicle("AGD-002", 100.0), BASE.plusDays(3), BASE.plusDays(4));
+        assertTrue(agenda.remover(relida));
+        assertFalse(agenda.remover(relida), "A reserva já foi removida");
+        assertEquals(List.of(primeira), agenda.reservas("AGD-002"));
+
+        assertTrue(agenda.remover(primeira));
+        assertEquals(0, agenda.veiculosComReservas(), "Veículos sem reservas saem da agenda");
+    }
+
+    @Test
+    @DisplayName("Ocupados no período pela frota e apenas entre os candidatos")
+    void testOcupadosEntre() {
+        TestVehicle a = new TestVehicle("AGD-010", 100.0);
+        TestVehicle b = new TestVehicle("AGD-011", 100.0);
+        TestVehicle c = new TestVehicle("AGD-012", 100.0);
+        AgendaReservas agenda = new AgendaReservas();
+        agenda.registrar(reserva(a, BASE, BASE.plusDays(1)));
+        agenda.registrar(reserva(b, BASE.plusDays(1), BASE.plusDays(2)));
+        agenda.registrar(reserva(c, BASE.plusDays(5), BASE.plusDays(6)));
+
+        assertEquals(Set.of("AGD-010"), agenda.ocupadosEntre(BASE, BASE.plusDays(1)));
+        assertEquals(Set.of("AGD-010", "AGD-011"), agenda.ocupadosEntre(BASE.plusHours(12), BASE.plusDays(1).plusHours(1)));
+        assertEquals(Set.of("AGD-011"), agenda.ocupadosEntre(List.of("AGD-011", "AGD-012"), BASE, BASE.plusDays(3)));
+        assertEquals(1, agenda.conflitos("AGD-012", BASE, BASE.plusDays(10)).size());
+    }
+}
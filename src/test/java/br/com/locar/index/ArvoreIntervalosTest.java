@@ -0,0 +1,122 @@
+package br.com.locar.index;
+
+import br.com.locar.core.index.ArvoreIntervalos;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArvoreIntervalosTest {
+
+    /**
+     * Altura máxima de uma árvore AVL com {@code n} nós.
+     */
+    private static int alturaMaximaAvl(int n) {
+        return (int) Math.floor(1.45 * (Math.log(n + 2) / Math.log(2)));
+    }
+
+    @Test
+    @DisplayName("Sobreposição respeita os limites semiabertos")
+    void testSobreposicaoNasBordas() {
+        ArvoreIntervalos<String> arvore = new ArvoreIntervalos<>();
+        arvore.inserir(10, 20, "a");
+
+        assertFalse(arvore.sobrepoe(20, 30), "Um período que começa no fim do intervalo não se sobrepõe");
+        assertFalse(arvore.sobrepoe(0, 10), "Um período que termina no início do intervalo não se sobrepõe");
+        assertTrue(arvore.sobrepoe(19, 20));
+        assertTrue(arvore.sobrepoe(9, 11));
+        assertTrue(arvore.sobrepoe(12, 15), "Um período contido no intervalo se sobrepõe");
+        assertTrue(arvore.sobrepoe(0, 100), "Um período que contém o intervalo se sobrepõe");
+        assertEquals(List.of(), arvore.sobrepostos(20, 21));
+        assertEquals(List.of("a"), arvore.sobrepostos(19, 21));
+        assertThrows(IllegalArgumentException.class, () -> arvore.inserir(5, 5, "vazio"));
+    }
+
+    @Test
+    @DisplayName("Inserções em ordem crescente e decrescente mantêm a árvore balanceada")
+    void testRotacoesMantemBalanceamento() {
+        ArvoreIntervalos<Integer> crescente = new ArvoreIntervalos<>();
+        ArvoreIntervalos<Integer> decrescente = new ArvoreIntervalos<>();
+        int n = 1_000;
+        for (int i = 0; i < n; i++) {
+            crescente.inserir(i * 10L, i * 10L + 5, i);
+            decrescente.inserir((n - i) * 10L, (n - i) * 10L + 5, i);
+        }
+
+        assertEquals(n, crescente.tamanho());
+        assertTrue(crescente.altura() <= alturaMaximaAvl(n), "Altura " + crescente.altura() + " para " + n + " nós");
+        assertTrue(decrescente.altura() <= alturaMaximaAvl(n), "Altura " + decrescente.altura() + " para " + n + " nós");
+
+        // O maior fim de cada subárvore precisa sobreviver às rotações para que as consultas desçam pelo lado certo.
+        assertTrue(crescente.sobrepoe(9_994, 9_996));
+        assertFalse(crescente.sobrepoe(9_995, 10_000));
+        assertEquals(List.of(0, 1), crescente.sobrepostos(3, 12));
+
+        for (int i = 0; i < n; i += 2) {
+            int valor = i;
+            assertTrue(crescente.remover(i * 10L, v -> v == valor));
+        }
+        assertEquals(n / 2, crescente.tamanho());
+        assertTrue(crescente.altura() <= alturaMaximaAvl(n / 2), "Altura após remoções: " + crescente.altura());
+        assertFalse(crescente.sobrepoe(0, 5));
+        assertTrue(crescente.sobrepoe(10, 11));
+    }
+
+    @Test
+    @DisplayName("Remoção com inícios repetidos remove exatamente o valor indicado")
+    void testRemocaoComIniciosRepetidos() {
+        ArvoreIntervalos<String> arvore = new ArvoreIntervalos<>();
+        for (int i = 0; i < 50; i++) {
+            arvore.inserir(100, 101 + i, "r" + i);
+        }
+        arvore.inserir(50, 60, "antes");
+        arvore.inserir(200, 210, "depois");
+
+        assertFalse(arvore.remover(100, "inexistente"::equals));
+        assertFalse(arvore.remover(99, "r0"::equals), "O início precisa coincidir");
+        for (int i = 49; i >= 0; i -= 3) {
+            assertTrue(arvore.remover(100, ("r" + i)::equals), "Deveria remover r" + i);
+        }
+
+        List<String> restantes = arvore.valores();
+        assertEquals(52 - 17, restantes.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals((49 - i) % 3 != 0, restantes.contains("r" + i), "r" + i);
+        }
+        assertTrue(restantes.contains("antes"));
+        assertTrue(restantes.contains("depois"));
+        assertTrue(arvore.sobrepoe(148, 149), "r47 [100, 148) foi removido, mas r48 [100, 149) permanece");
+        assertTrue(arvore.remover(100, "r48"::equals));
+        assertFalse(arvore.sobrepoe(148, 149));
+    }
+
+    @Test
+    @DisplayName("Operações aleatórias coincidem com a varredura de uma lista")
+    void testAleatorioContraLista() {
+        Random random = new Random(42);
+        ArvoreIntervalos<long[]> arvore = new ArvoreIntervalos<>();
+        List<long[]> lista = new ArrayList<>();
+        for (int passo = 0; passo < 5_000; passo++) {
+            if (!lista.isEmpty() && random.nextInt(3) == 0) {
+                long[] removido = lista.remove(random.nextInt(lista.size()));
+                assertTrue(arvore.remover(removido[0], v -> v == removido));
+            } else {
+                long inicio = random.nextInt(1_000);
+                long[] intervalo = {inicio, inicio + 1 + random.nextInt(50)};
+                lista.add(intervalo);
+                arvore.inserir(intervalo[0], intervalo[1], intervalo);
+            }
+            long de = random.nextInt(1_100);
+            long ate = de + 1 + random.nextInt(30);
+            long esperados = lista.stream().filter(v -> v[0] < ate && de < v[1]).count();
+            assertEquals(esperados > 0, arvore.sobrepoe(de, ate), "Passo " + passo);
+            assertEquals(esperados, arvore.sobrepostos(de, ate).size(), "Passo " + passo);
+        }
+        assertEquals(lista.size(), arvore.tamanho());
+        assertTrue(arvore.altura() <= alturaMaximaAvl(lista.size()));
+    }
+}
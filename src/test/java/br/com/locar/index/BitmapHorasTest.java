@@ -0,0 +1,94 @@
+package br.com.locar.index;
+
+import br.com.locar.core.index.BitmapHoras;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitmapHorasTest {
+
+    private static final int BLOCO = BitmapHoras.HORAS_POR_BLOCO;
+
+    @Test
+    @DisplayName("Intervalo que atravessa a fronteira de um bloco")
+    void testFronteiraDeBloco() {
+        BitmapHoras bitmap = new BitmapHoras();
+        bitmap.marcar(BLOCO - 6, BLOCO + 4);
+
+        assertEquals(2, bitmap.blocosAlocados());
+        assertEquals(10, bitmap.contar(0, 3 * BLOCO));
+        assertEquals(6, bitmap.contar(0, BLOCO));
+        assertEquals(4, bitmap.contar(BLOCO, 2 * BLOCO));
+        assertFalse(bitmap.marcada(BLOCO - 7));
+        assertTrue(bitmap.marcada(BLOCO - 6));
+        assertTrue(bitmap.marcada(BLOCO + 3));
+        assertFalse(bitmap.marcada(BLOCO + 4));
+
+        BitSet calendario = bitmap.copiar(BLOCO - 10, BLOCO + 10);
+        BitSet esperado = new BitSet();
+        esperado.set(4, 14);
+        assertEquals(esperado, calendario);
+
+        assertEquals(BLOCO + 4, bitmap.proximaSequenciaLivre(BLOCO - 6, 1));
+        assertEquals(BLOCO - 20, bitmap.proximaSequenciaLivre(BLOCO - 20, 14));
+        assertEquals(BLOCO + 4, bitmap.proximaSequenciaLivre(BLOCO - 20, 15));
+
+        bitmap.desmarcar(BLOCO - 6, BLOCO);
+        assertEquals(1, bitmap.blocosAlocados(), "O bloco que ficou vazio deveria ser descartado");
+        bitmap.desmarcar(BLOCO, BLOCO + 4);
+        assertTrue(bitmap.vazio());
+        assertEquals(0, bitmap.contar(0, 3 * BLOCO));
+    }
+
+    @Test
+    @DisplayName("Horas negativas e busca que pula blocos inteiros")
+    void testHorasNegativasEBlocosDistantes() {
+        BitmapHoras bitmap = new BitmapHoras();
+        bitmap.marcar(-3, 2);
+        bitmap.marcar(10L * BLOCO, 10L * BLOCO + 1);
+
+        assertEquals(5, bitmap.contar(-100, 100));
+        assertTrue(bitmap.marcada(-1));
+        assertEquals(2, bitmap.proximaSequenciaLivre(-3, 5));
+        assertEquals(10L * BLOCO + 1, bitmap.proximaSequenciaLivre(10L * BLOCO - 1, 2));
+        assertEquals(-10, bitmap.proximaSequenciaLivre(-10, 7));
+        assertEquals(2, bitmap.proximaSequenciaLivre(-10, 8));
+    }
+
+    @Test
+    @DisplayName("Operações aleatórias coincidem com um BitSet")
+    void testAleatorioContraBitSet() {
+        Random random = new Random(7);
+        BitmapHoras bitmap = new BitmapHoras();
+        BitSet referencia = new BitSet();
+        int universo = 3 * BLOCO;
+        for (int passo = 0; passo < 2_000; passo++) {
+            int de = random.nextInt(universo);
+            int ate = Math.min(universo, de + 1 + random.nextInt(300));
+            if (random.nextBoolean()) {
+                bitmap.marcar(de, ate);
+                referencia.set(de, ate);
+            } else {
+                bitmap.desmarcar(de, ate);
+                referencia.clear(de, ate);
+            }
+
+            int inicio = random.nextInt(universo);
+            int fim = Math.min(universo, inicio + 1 + random.nextInt(5_000));
+            assertEquals(referencia.get(inicio, fim).cardinality(), bitmap.contar(inicio, fim), "Passo " + passo);
+            assertEquals(referencia.get(inicio, fim), bitmap.copiar(inicio, fim), "Passo " + passo);
+
+            int horas = 1 + random.nextInt(20);
+            int livre = referencia.nextClearBit(inicio);
+            while (referencia.nextSetBit(livre) >= 0 && referencia.nextSetBit(livre) - livre < horas) {
+                livre = referencia.nextClearBit(referencia.nextSetBit(livre));
+            }
+            assertEquals(livre, bitmap.proximaSequenciaLivre(inicio, horas), "Passo " + passo);
+        }
+        assertEquals(referencia.isEmpty(), bitmap.vazio());
+    }
+}
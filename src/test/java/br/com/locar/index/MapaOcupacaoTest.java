@@ -0,0 +1,73 @@
+package br.com.locar.index;
+
+import br.com.locar.core.entities.Locacao;
+import br.com.locar.core.index.MapaOcupacao;
+import br.com.locar.entities.TestVehicle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaOcupacaoTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 5, 1, 10, 0);
+
+    @Test
+    @DisplayName("Devolução antecipada libera as horas restantes e mantém a hora compartilhada com a próxima locação")
+    void testDevolucaoAntecipada() {
+        TestVehicle veiculo = new TestVehicle("MAP-001", 100.0);
+        MapaOcupacao mapa = new MapaOcupacao();
+        Locacao atual = new Locacao(BASE, BASE.plusDays(2).plusMinutes(30), veiculo, null);
+        Locacao seguinte = new Locacao(BASE.plusDays(2).plusMinutes(30), BASE.plusDays(3), veiculo, null);
+        mapa.carregar(List.of(atual, seguinte));
+        assertEquals(72, mapa.horasOcupadas("MAP-001", BASE, BASE.plusDays(3)));
+
+        atual.setDataDevolucao(BASE.plusDays(1).minusMinutes(30));
+        mapa.registrarDevolucao(atual);
+
+        assertEquals(24, mapa.horasOcupadas("MAP-001", BASE, BASE.plusDays(1)), "A hora da devolução continua ocupada");
+        assertEquals(0, mapa.horasOcupadas("MAP-001", BASE.plusDays(1), BASE.plusDays(2)));
+        assertEquals(1, mapa.horasOcupadas("MAP-001", BASE.plusDays(2), BASE.plusDays(2).plusHours(1)),
+                "A hora compartilhada com a locação seguinte não pode ser liberada");
+        assertEquals(24, mapa.horasOcupadas("MAP-001", BASE.plusDays(2), BASE.plusDays(3)));
+        assertEquals(BASE.plusDays(1), mapa.proximoHorarioLivre("MAP-001", BASE, 24));
+        assertEquals(BASE.plusDays(3), mapa.proximoHorarioLivre("MAP-001", BASE, 25));
+    }
+
+    @Test
+    @DisplayName("Devolução atrasada marca as horas do atraso")
+    void testDevolucaoAtrasada() {
+        TestVehicle veiculo = new TestVehicle("MAP-002", 100.0);
+        MapaOcupacao mapa = new MapaOcupacao();
+        Locacao locacao = new Locacao(BASE, BASE.plusDays(1), veiculo, null);
+        mapa.registrarLocacao(locacao);
+
+        locacao.setDataDevolucao(BASE.plusDays(1).plusHours(3).plusMinutes(15));
+        mapa.registrarDevolucao(locacao);
+
+        assertEquals(28, mapa.horasOcupadas("MAP-002", BASE, BASE.plusDays(2)));
+        assertEquals(28.0 / 48, mapa.utilizacao("MAP-002", BASE, BASE.plusDays(2)), 1e-9);
+        assertEquals(BASE.plusDays(1).plusHours(4), mapa.proximoHorarioLivre("MAP-002", BASE.plusMinutes(1), 1));
+    }
+
+    @Test
+    @DisplayName("Calendário e mapa de calor da frota")
+    void testCalendarioEMapaDeCalor() {
+        TestVehicle a = new TestVehicle("MAP-010", 100.0);
+        TestVehicle b = new TestVehicle("MAP-011", 100.0);
+        MapaOcupacao mapa = new MapaOcupacao();
+        mapa.registrarLocacao(new Locacao(BASE, BASE.plusHours(3), a, null));
+        mapa.registrarLocacao(new Locacao(BASE.plusHours(2), BASE.plusHours(4), b, null));
+
+        assertEquals(3, mapa.calendario("MAP-010", BASE.minusHours(1), BASE.plusHours(5)).cardinality());
+        assertTrue(mapa.calendario("MAP-010", BASE.minusHours(1), BASE.plusHours(5)).get(1));
+        assertArrayEquals(new int[]{0, 1, 1, 2, 1, 0}, mapa.mapaDeCalor(List.of("MAP-010", "MAP-011", "MAP-999"),
+                BASE.minusHours(1), BASE.plusHours(5)));
+
+        mapa.removerVeiculo("MAP-010");
+        assertEquals(0, mapa.horasOcupadas("MAP-010", BASE, BASE.plusDays(1)));
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.locar.index;
+
+import br.com.locar.core.entities.Locacao;
+import br.com.locar.core.index.RankingLocacoes;
+import br.com.locar.core.index.RankingLocacoes.Periodo;
+import br.com.locar.entities.TestVehicle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankingLocacoesTest {
+
+    private final Instant[] instante = {Instant.parse("2030-01-10T12:00:00Z")};
+    private final Clock relogio = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instante[0];
+        }
+    };
+
+    private void avancarDias(int dias) {
+        instante[0] = instante[0].plusSeconds(dias * 86400L);
+    }
+
+    @Test
+    @DisplayName("Reserva futura só conta na janela quando começa e não impede a expiração das anteriores")
+    void testReservaFuturaNaJanela() {
+        LocalDateTime t0 = LocalDateTime.now(relogio);
+        TestVehicle veiculo = new TestVehicle("RNK-001", 100.0);
+        RankingLocacoes ranking = new RankingLocacoes(relogio);
+        ranking.carregar(List.of(veiculo));
+
+        ranking.registrarLocacao(new Locacao(t0.plusDays(20), t0.plusDays(22), veiculo, null));
+        ranking.registrarLocacao(new Locacao(t0, t0.plusDays(2), veiculo, null));
+        assertEquals(1, ranking.contagem("RNK-001", Periodo.ULTIMOS_7_DIAS), "A reserva futura ainda não começou");
+
+        avancarDias(10);
+        assertEquals(0, ranking.contagem("RNK-001", Periodo.ULTIMOS_7_DIAS), "A locação imediata já saiu da janela");
+        assertEquals(1, ranking.contagem("RNK-001", Periodo.ULTIMOS_30_DIAS));
+        assertTrue(ranking.maisAlugados(5, null, Periodo.ULTIMOS_7_DIAS).isEmpty());
+
+        avancarDias(11);
+        assertEquals(1, ranking.contagem("RNK-001", Periodo.ULTIMOS_7_DIAS), "A reserva começou e passa a contar");
+        assertEquals(2, ranking.contagem("RNK-001", Periodo.ULTIMOS_30_DIAS));
+        assertEquals(List.of(veiculo), ranking.maisAlugados(5, null, Periodo.ULTIMOS_7_DIAS));
+
+        avancarDias(8);
+        assertEquals(0, ranking.contagem("RNK-001", Periodo.ULTIMOS_7_DIAS));
+    }
+
+    @Test
+    @DisplayName("Histórico fora de ordem expira cada locação na sua data")
+    void testHistoricoForaDeOrdem() {
+        LocalDateTime t0 = LocalDateTime.now(relogio);
+        TestVehicle a = new TestVehicle("RNK-010", 100.0);
+        TestVehicle b = new TestVehicle("RNK-011", 100.0);
+        RankingLocacoes ranking = new RankingLocacoes(relogio);
+        ranking.carregar(List.of(a, b));
+        ranking.carregarHistorico(List.of(
+                new Locacao(t0.minusDays(1), t0.plusDays(1), a, null),
+                new Locacao(t0.minusDays(6), t0.minusDays(5), b, null),
+                new Locacao(t0.minusDays(2), t0.minusDays(1), b, null)));
+
+        assertEquals(List.of(b, a), ranking.maisAlugados(5, null, Periodo.ULTIMOS_7_DIAS));
+
+        avancarDias(2);
+        assertEquals(1, ranking.contagem("RNK-010", Periodo.ULTIMOS_7_DIAS));
+        assertEquals(1, ranking.contagem("RNK-011", Periodo.ULTIMOS_7_DIAS));
+        assertEquals(List.of(a, b), ranking.maisAlugados(5, null, Periodo.ULTIMOS_7_DIAS));
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.locar.persistence;
+
+import br.com.locar.core.entities.Veiculo;
+import br.com.locar.core.entities.enums.*;
+import br.com.locar.core.persistence.ArquivoRegistrosVeiculos;
+import br.com.locar.core.persistence.VeiculoCodec;
+import br.com.locar.terrestre.entities.Carro;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArquivoRegistrosVeiculosTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Carro createTestCarro(String placa, double valorDiario) {
+        return new Carro("Desc", placa, "MarcaCarro", "NomeCarro", "ModeloCarro", 2020, Cor.PRETO, Funcao.PASSEIO,
+                10000, 5, 10.0, 180.0, true, Combustivel.GASOLINA, Tracao.DIANTEIRA,
+                5, true, null, 150.0, true, false, true, false,
+                true, 1200.0, false, true, valorDiario, 4, true);
+    }
+
+    private List<Carro> criarFrota(int quantidade) {
+        List<Carro> carros = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            carros.add(createTestCarro(String.format("REG-%04d", i), 100.0 + i));
+        }
+        return carros;
+    }
+
+    @Test
+    @DisplayName("Inserir, atualizar e excluir registros por placa")
+    void testSalvarAtualizarExcluir() throws Exception {
+        Path caminho = tempDir.resolve("carros.dat");
+        ArquivoRegistrosVeiculos arquivo = ArquivoRegistrosVeiculos.abrir(caminho.toString());
+
+        arquivo.salvar(createTestCarro("REG-0001", 100.0));
+        arquivo.salvar(createTestCarro("REG-0002", 200.0));
+
+        Carro atualizado = createTestCarro("REG-0001", 150.0);
+        atualizado.setLocacoes(3);
+        arquivo.salvar(atualizado);
+
+        assertTrue(arquivo.excluir("REG-0002"));
+        assertFalse(arquivo.excluir("REG-9999"));
+
+        arquivo.fechar();
+        List<Veiculo> lidos = ArquivoRegistrosVeiculos.abrir(caminho.toString()).listar();
+        assertEquals(1, lidos.size());
+        assertEquals("REG-0001", lidos.get(0).getPlaca());
+        assertEquals(150.0, lidos.get(0).getValorDiario());
+        assertEquals(3, lidos.get(0).getLocacoes());
+    }
+
+    @Test
+    @DisplayName("Atualizar um veiculo nao regrava o arquivo inteiro")
+    void testAtualizacaoReaproveitaSlots() throws Exception {
+        Path caminho = tempDir.resolve("frota.dat");
+        ArquivoRegistrosVeiculos arquivo = ArquivoRegistrosVeiculos.abrir(caminho.toString());
+        arquivo.substituirTodos(criarFrota(500));
+
+        Carro carro = createTestCarro("REG-0250", 100.0);
+        arquivo.salvar(carro);
+        long tamanhoAposPrimeiraAtualizacao = Files.size(caminho);
+
+        for (int i = 1; i <= 50; i++) {
+            carro.setLocacoes(i);
+            arquivo.salvar(carro);
+        }
+
+        assertEquals(tamanhoAposPrimeiraAtualizacao, Files.size(caminho), "As atualizações seguintes deveriam reaproveitar slots livres");
+        assertEquals(500, arquivo.tamanho());
+        Veiculo lido = arquivo.listar().stream().filter(v -> v.getPlaca().equals("REG-0250")).findFirst().orElseThrow();
+        assertEquals(50, lido.getLocacoes());
+    }
+
+    @Test
+    @DisplayName("Arquivo no formato de lista e convertido na primeira escrita")
+    void testConversaoDeFormatoAntigo() throws Exception {
+        Path caminho = tempDir.resolve("lista.dat");
+        VeiculoCodec.salvarArquivo(criarFrota(3), caminho.toString());
+        ArquivoRegistrosVeiculos arquivo = ArquivoRegistrosVeiculos.abrir(caminho.toString());
+
+        assertEquals(3, arquivo.listar().size());
+        assertTrue(arquivo.excluir("REG-0001"));
+
+        byte[] inicio = Files.readAllBytes(caminho);
+        assertEquals('R', inicio[3], "O arquivo deveria ter sido convertido para o formato de registros");
+        List<Veiculo> lidos = arquivo.listar();
+        assertEquals(List.of("REG-0000", "REG-0002"), lidos.stream().map(Veiculo::getPlaca).toList());
+    }
+
+    @Test
+    @DisplayName("Registro incompleto no final do arquivo e descartado")
+    void testRegistroIncompletoDescartado() throws Exception {
+        Path caminho = tempDir.resolve("truncado.dat");
+        ArquivoRegistrosVeiculos arquivo = ArquivoRegistrosVeiculos.abrir(caminho.toString());
+        arquivo.salvar(createTestCarro("REG-0001", 100.0));
+        arquivo.salvar(createTestCarro("REG-0002", 200.0));
+        arquivo.fechar();
+
+        try (RandomAccessFile raf = new RandomAccessFile(caminho.toFile(), "rw")) {
+            raf.setLength(raf.length() - 10);
+        }
+
+        List<Veiculo> lidos = arquivo.listar();
+        assertEquals(1, lidos.size());
+        assertEquals("REG-0001", lidos.get(0).getPlaca());
+
+        arquivo.salvar(createTestCarro("REG-0003", 300.0));
+        assertEquals(2, arquivo.listar().size());
+    }
+
+    @Test
+    @DisplayName("Remocao externa do arquivo e detectada")
+    void testArquivoRemovidoExternamente() throws Exception {
+        Path caminho = tempDir.resolve("removido.dat");
+        ArquivoRegistrosVeiculos arquivo = ArquivoRegistrosVeiculos.abrir(caminho.toString());
+        arquivo.salvar(createTestCarro("REG-0001", 100.0));
+
+        Files.delete(caminho);
+
+        assertTrue(arquivo.listar().isEmpty());
+        arquivo.salvar(createTestCarro("REG-0002", 200.0));
+        assertEquals(List.of("REG-0002"), arquivo.listar().stream().map(Veiculo::getPlaca).toList());
+    }
+
+    @Test
+    @DisplayName("Copia antiga deixada por uma queda e liberada e nao volta apos a exclusao")
+    void testCopiaSuperadaNaoRessuscita() throws Exception {
+        Path caminho = tempDir.resolve("queda.dat");
+        ArquivoRegistrosVeiculos arquivo = ArquivoRegistrosVeiculos.abrir(caminho.toString());
+        arquivo.salvar(createTestCarro("REG-0001", 100.0));
+        arquivo.salvar(createTestCarro("REG-0001", 150.0));
+        arquivo.fechar();
+
+        // Simula a queda entre gravar a nova cópia e liberar a antiga: o primeiro slot volta a ficar ocupado.
+        try (RandomAccessFile raf = new RandomAccessFile(caminho.toFile(), "rw")) {
+            raf.seek(5 + 4);
+            raf.write(1);
+        }
+
+        List<Veiculo> lidos = arquivo.listar();
+        assertEquals(1, lidos.size());
+        assertEquals(150.0, lidos.get(0).getValorDiario(), "A cópia de maior sequência deveria prevalecer");
+
+        assertTrue(arquivo.excluir("REG-0001"));
+        arquivo.fechar();
+        assertTrue(ArquivoRegistrosVeiculos.abrir(caminho.toString()).listar().isEmpty(),
+                "A cópia antiga não deveria voltar depois da exclusão");
+    }
+}
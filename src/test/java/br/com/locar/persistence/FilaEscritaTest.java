@@ -0,0 +1,107 @@
+package br.com.locar.persistence;
+
+import br.com.locar.core.persistence.FilaEscrita;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilaEscritaTest {
+
+    private FilaEscrita fila;
+
+    @AfterEach
+    void tearDown() {
+        fila.encerrar(1000);
+    }
+
+    @Test
+    @DisplayName("Gravacoes da mesma chave dentro da janela sao coalescidas")
+    void testCoalescencia() {
+        fila = new FilaEscrita(200);
+        List<Integer> gravados = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Void> primeiro = null;
+        for (int i = 1; i <= 10; i++) {
+            CompletableFuture<Void> futuro = fila.agendar("arquivo", i, gravados::add);
+            if (primeiro == null) {
+                primeiro = futuro;
+            }
+            assertSame(primeiro, futuro, "Gravações pendentes da mesma chave deveriam compartilhar o futuro");
+        }
+        primeiro.join();
+
+        assertEquals(List.of(10), gravados, "Apenas o valor mais recente deveria ser gravado");
+        assertEquals(10, fila.getEscritasAgendadas());
+        assertEquals(9, fila.getEscritasCoalescidas());
+        assertEquals(1, fila.getEscritasExecutadas());
+    }
+
+    @Test
+    @DisplayName("Falha de gravacao e entregue pelo futuro")
+    void testFalhaNoFuturo() {
+        fila = new FilaEscrita(10);
+        CompletableFuture<Void> futuro = fila.agendar("arquivo", "x", valor -> {
+            throw new IOException("disco cheio");
+        });
+
+        CompletionException erro = assertThrows(CompletionException.class, futuro::join);
+        assertInstanceOf(IOException.class, erro.getCause());
+        assertEquals(1, fila.getFalhas());
+    }
+
+    @Test
+    @DisplayName("Gravacao imediata antecipa a janela e mantem a ordem da chave")
+    void testGravarAgora() throws Exception {
+        fila = new FilaEscrita(10_000);
+        List<String> gravados = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Void> assincrona = fila.agendar("arquivo", "antigo", gravados::add);
+        long inicio = System.nanoTime();
+        fila.gravarAgora("arquivo", "novo", gravados::add);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 5000, "Não deveria esperar a janela");
+        assertTrue(assincrona.isDone());
+        assertEquals(List.of("novo"), gravados);
+    }
+
+    @Test
+    @DisplayName("Contador de gravacoes concluidas por chave ignora as coalescidas e as que falharam")
+    void testGravacoesConcluidas() throws Exception {
+        fila = new FilaEscrita(10_000);
+        assertEquals(0, fila.gravacoesConcluidas("arquivo"));
+
+        fila.agendar("arquivo", 1, valor -> { });
+        fila.agendar("arquivo", 2, valor -> { });
+        fila.descarregar("arquivo").join();
+        fila.gravarAgora("arquivo", 3, valor -> { });
+        CompletableFuture<Void> falha = fila.agendar("arquivo", 4, valor -> {
+            throw new IOException("disco cheio");
+        });
+        assertThrows(CompletionException.class, () -> fila.descarregar("arquivo").join());
+
+        assertTrue(falha.isCompletedExceptionally());
+        assertEquals(2, fila.gravacoesConcluidas("arquivo"));
+        assertEquals(0, fila.gravacoesConcluidas("outro"));
+    }
+
+    @Test
+    @DisplayName("Encerrar descarrega as gravacoes pendentes")
+    void testEncerrarDescarrega() throws Exception {
+        fila = new FilaEscrita(10_000);
+        CountDownLatch gravou = new CountDownLatch(2);
+        fila.agendar("a", 1, v -> gravou.countDown());
+        fila.agendar("b", 2, v -> gravou.countDown());
+
+        fila.encerrar(1000);
+
+        assertTrue(gravou.await(1, TimeUnit.SECONDS));
+    }
+}
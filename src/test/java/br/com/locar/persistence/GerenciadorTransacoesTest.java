@@ -0,0 +1,212 @@
+package br.com.locar.persistence;
+
+import br.com.locar.core.persistence.GerenciadorTransacoes;
+import br.com.locar.core.persistence.UnidadeDeTrabalho;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GerenciadorTransacoesTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<String> aplicados;
+    private AtomicInteger sincronizacoes;
+
+    @BeforeEach
+    void setUp() {
+        aplicados = new CopyOnWriteArrayList<>();
+        sincronizacoes = new AtomicInteger();
+    }
+
+    private GerenciadorTransacoes criarGerenciador(AtomicBoolean falhar) {
+        GerenciadorTransacoes gerenciador = new GerenciadorTransacoes(tempDir.toString());
+        gerenciador.registrarParticipante("a", dados -> aplicados.add("a:" + dados), sincronizacoes::incrementAndGet);
+        gerenciador.registrarParticipante("b", dados -> {
+            if (falhar.get()) {
+                throw new IOException("falha simulada");
+            }
+            aplicados.add("b:" + dados);
+        }, sincronizacoes::incrementAndGet);
+        return gerenciador;
+    }
+
+    private long contarArquivos(String extensao) throws IOException {
+        try (Stream<Path> arquivos = Files.list(tempDir)) {
+            return arquivos.filter(p -> p.toString().endsWith(extensao)).count();
+        }
+    }
+
+    @Test
+    @DisplayName("Confirmar aplica as operacoes em ordem e o checkpoint apaga a intencao")
+    void testConfirmarECheckpoint() throws IOException {
+        GerenciadorTransacoes gerenciador = criarGerenciador(new AtomicBoolean(false));
+
+        gerenciador.confirmar(gerenciador.iniciar().registrar("a", "1").registrar("b", "2"));
+
+        assertEquals(List.of("a:1", "b:2"), aplicados);
+        gerenciador.checkpoint();
+        assertTrue(sincronizacoes.get() >= 2, "Os participantes deveriam ser sincronizados no checkpoint");
+        assertEquals(0, contarArquivos(".intent"), "A intenção aplicada e sincronizada deveria ser apagada");
+        assertEquals(0, contarArquivos(".tmp"));
+        assertEquals(1, gerenciador.getTransacoesConfirmadas());
+    }
+
+    @Test
+    @DisplayName("Intencao confirmada mas nao aplicada e reaplicada na recuperacao")
+    void testRecuperacaoAposFalha() throws IOException {
+        AtomicBoolean falhar = new AtomicBoolean(true);
+        GerenciadorTransacoes gerenciador = criarGerenciador(falhar);
+
+        gerenciador.confirmar(gerenciador.iniciar().registrar("a", "1").registrar("b", "2"));
+        gerenciador.confirmar(gerenciador.iniciar().registrar("a", "3"));
+        gerenciador.checkpoint();
+        assertTrue(gerenciador.possuiPendentes(), "A transação não aplicada deveria permanecer pendente");
+
+        aplicados.clear();
+        falhar.set(false);
+        GerenciadorTransacoes reiniciado = criarGerenciador(falhar);
+        assertEquals(1, reiniciado.recuperar());
+
+        assertEquals(List.of("a:1", "b:2"), aplicados, "Apenas a transação pendente deveria ser reaplicada");
+        assertFalse(reiniciado.possuiPendentes());
+    }
+
+    @Test
+    @DisplayName("Arquivo temporario de transacao nao confirmada e descartado")
+    void testTemporarioDescartado() throws IOException {
+        Files.write(tempDir.resolve("0000000000000000001.tmp"), new byte[]{1, 2, 3});
+        GerenciadorTransacoes gerenciador = criarGerenciador(new AtomicBoolean(false));
+
+        assertFalse(gerenciador.possuiPendentes());
+        assertEquals(0, gerenciador.recuperar());
+        assertTrue(aplicados.isEmpty());
+        assertEquals(0, contarArquivos(".tmp"), "O temporário não confirmado deveria ser apagado");
+    }
+
+    @Test
+    @DisplayName("Participante desconhecido impede a confirmacao")
+    void testParticipanteDesconhecido() throws IOException {
+        GerenciadorTransacoes gerenciador = criarGerenciador(new AtomicBoolean(false));
+        UnidadeDeTrabalho unidade = gerenciador.iniciar().registrar("a", "1").registrar("x", "2");
+
+        assertThrows(IOException.class, () -> gerenciador.confirmar(unidade));
+        assertTrue(aplicados.isEmpty(), "Nenhuma operação deveria ser aplicada");
+        assertFalse(gerenciador.possuiPendentes());
+    }
+
+    @Test
+    @DisplayName("Confirmacoes concorrentes sao agrupadas em menos gravacoes, na ordem de cada thread")
+    void testConfirmacaoEmLote() throws Exception {
+        GerenciadorTransacoes gerenciador = new GerenciadorTransacoes(tempDir.toString());
+        gerenciador.registrarParticipante("a", dados -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            aplicados.add((String) dados);
+        }, sincronizacoes::incrementAndGet);
+        int threads = 8;
+        int porThread = 25;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < porThread; i++) {
+                        gerenciador.confirmar(gerenciador.iniciar().registrar("a", thread + ":" + i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * porThread, gerenciador.getTransacoesConfirmadas());
+        assertEquals(threads * porThread, aplicados.size());
+        assertTrue(gerenciador.getGravacoes() < gerenciador.getTransacoesConfirmadas(),
+                "Confirmações concorrentes deveriam compartilhar registros de intenção");
+        for (int t = 0; t < threads; t++) {
+            int anterior = -1;
+            for (String aplicado : aplicados) {
+                if (aplicado.startsWith(t + ":")) {
+                    int atual = Integer.parseInt(aplicado.substring(aplicado.indexOf(':') + 1));
+                    assertEquals(anterior + 1, atual, "As transações de uma thread deveriam ser aplicadas em ordem");
+                    anterior = atual;
+                }
+            }
+        }
+        gerenciador.checkpoint();
+        assertFalse(gerenciador.possuiPendentes());
+    }
+
+    @Test
+    @DisplayName("Lote nao aplicado e reaplicado por inteiro, em ordem, na recuperacao")
+    void testRecuperacaoDeLote() throws Exception {
+        AtomicBoolean falhar = new AtomicBoolean(true);
+        GerenciadorTransacoes gerenciador = criarGerenciador(falhar);
+        CountDownLatch aplicando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        gerenciador.registrarParticipante("lento", dados -> {
+            aplicando.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, sincronizacoes::incrementAndGet);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> primeira = executor.submit(() -> gerenciador.confirmar(gerenciador.iniciar().registrar("lento", "0")));
+            aplicando.await(10, TimeUnit.SECONDS);
+            Future<?> segunda = executor.submit(() -> gerenciador.confirmar(gerenciador.iniciar().registrar("a", "1")));
+            // A primeira transação está sendo aplicada: as duas seguintes esperam na fila e formam um único lote.
+            Thread.sleep(50);
+            Future<?> terceira = executor.submit(() -> gerenciador.confirmar(gerenciador.iniciar().registrar("a", "2").registrar("b", "3")));
+            Thread.sleep(50);
+            liberar.countDown();
+            primeira.get(10, TimeUnit.SECONDS);
+            segunda.get(10, TimeUnit.SECONDS);
+            terceira.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of("a:1", "a:2"), aplicados);
+        assertEquals(2, gerenciador.getGravacoes(), "A segunda e a terceira transações deveriam formar um lote");
+        gerenciador.checkpoint();
+        assertTrue(gerenciador.possuiPendentes(), "O lote com a transação não aplicada deveria permanecer pendente");
+
+        aplicados.clear();
+        falhar.set(false);
+        GerenciadorTransacoes reiniciado = criarGerenciador(falhar);
+        reiniciado.registrarParticipante("lento", dados -> aplicados.add("lento:" + dados), sincronizacoes::incrementAndGet);
+        assertEquals(1, reiniciado.recuperar());
+        assertEquals(List.of("a:1", "a:2", "b:3"), aplicados, "O lote deveria ser reaplicado por inteiro, em ordem");
+        assertFalse(reiniciado.possuiPendentes());
+    }
+}
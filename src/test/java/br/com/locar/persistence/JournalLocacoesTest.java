@@ -0,0 +1,113 @@
+package br.com.locar.persistence;
+
+import br.com.locar.core.entities.Cliente;
+import br.com.locar.core.entities.Endereco;
+import br.com.locar.core.entities.Locacao;
+import br.com.locar.core.entities.enums.Sexo;
+import br.com.locar.core.persistence.JournalLocacoes;
+import br.com.locar.entities.TestVehicle;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalLocacoesTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String snapshot;
+    private String journalPath;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = tempDir.resolve("locacoes.dat").toString();
+        journalPath = tempDir.resolve("locacoes.journal").toString();
+    }
+
+    private Locacao createTestLocacao(String placa, LocalDateTime inicio) {
+        Cliente cliente = new Cliente(
+                "Cliente Journal", "123.456.789-00", "9999-8888", "journal@test.com", "hash",
+                new Endereco("Cidade", "UF", "Bairro", "Rua", 1, "00000-000"),
+                LocalDateTime.of(1990, 1, 1, 0, 0), Sexo.FEMININO, null
+        );
+        return new Locacao(inicio, inicio.plusDays(2), new TestVehicle(placa, 100.0), cliente);
+    }
+
+    @Test
+    @DisplayName("Journal reaplica locacoes e devolucoes sobre o snapshot")
+    void testCarregarReaplicaJournal() throws Exception {
+        LocalDateTime inicio = LocalDateTime.of(2025, 1, 10, 10, 0);
+        Locacao antiga = createTestLocacao("SNAP-001", inicio.minusDays(10));
+        Locacao nova = createTestLocacao("JRNL-001", inicio);
+
+        try (JournalLocacoes journal = new JournalLocacoes(snapshot, journalPath)) {
+            journal.compactar(List.of(antiga));
+            journal.registrarLocacao(nova);
+            nova.setDataDevolucao(inicio.plusDays(1));
+            journal.registrarDevolucao(nova);
+            assertEquals(2, journal.getRegistrosDesdeSnapshot());
+        }
+
+        List<Locacao> carregadas = new JournalLocacoes(snapshot, journalPath).carregar();
+        assertEquals(2, carregadas.size(), "A devolução deve substituir a locação, não duplicá-la");
+        assertEquals("SNAP-001", carregadas.get(0).getVeiculo().getPlaca());
+        assertEquals("JRNL-001", carregadas.get(1).getVeiculo().getPlaca());
+        assertEquals(inicio.plusDays(1), carregadas.get(1).getDataDevolucao());
+    }
+
+    @Test
+    @DisplayName("Registro incompleto no final do journal e descartado")
+    void testRegistroIncompletoDescartado() throws Exception {
+        LocalDateTime inicio = LocalDateTime.of(2025, 2, 1, 8, 0);
+        try (JournalLocacoes journal = new JournalLocacoes(snapshot, journalPath)) {
+            journal.registrarLocacao(createTestLocacao("TORN-001", inicio));
+            journal.registrarLocacao(createTestLocacao("TORN-002", inicio.plusHours(1)));
+        }
+        long tamanho = Files.size(Path.of(journalPath));
+        try (RandomAccessFile raf = new RandomAccessFile(journalPath, "rw")) {
+            raf.setLength(tamanho - 3);
+        }
+
+        List<Locacao> carregadas = new JournalLocacoes(snapshot, journalPath).carregar();
+        assertEquals(1, carregadas.size(), "Somente o registro completo deveria ser reaplicado");
+
+        try (JournalLocacoes journal = new JournalLocacoes(snapshot, journalPath)) {
+            journal.registrarLocacao(createTestLocacao("TORN-003", inicio.plusHours(2)));
+        }
+        List<Locacao> aposNovaEscrita = new JournalLocacoes(snapshot, journalPath).carregar();
+        assertEquals(2, aposNovaEscrita.size(), "Nova escrita deveria continuar após o último registro válido");
+        assertEquals("TORN-003", aposNovaEscrita.get(1).getVeiculo().getPlaca());
+    }
+
+    @Test
+    @DisplayName("Compactacao grava snapshot e esvazia o journal")
+    void testCompactacao() throws Exception {
+        LocalDateTime inicio = LocalDateTime.of(2025, 3, 1, 8, 0);
+        try (JournalLocacoes journal = new JournalLocacoes(snapshot, journalPath, 3)) {
+            for (int i = 0; i < 3; i++) {
+                journal.registrarLocacao(createTestLocacao("COMP-00" + i, inicio.plusHours(i)));
+            }
+            assertTrue(journal.precisaCompactar());
+
+            journal.compactar();
+
+            assertFalse(journal.precisaCompactar());
+            assertEquals(0, Files.size(Path.of(journalPath)), "O journal deveria estar vazio após a compactação");
+        }
+        assertEquals(3, new JournalLocacoes(snapshot, journalPath).carregar().size());
+    }
+
+    @Test
+    @DisplayName("Carregar sem arquivos retorna lista vazia")
+    void testCarregarSemArquivos() throws IOException, ClassNotFoundException {
+        assertTrue(new JournalLocacoes(snapshot, journalPath).carregar().isEmpty());
+    }
+}
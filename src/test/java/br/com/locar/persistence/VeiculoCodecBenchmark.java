@@ -0,0 +1,90 @@
+package br.com.locar.persistence;
+
+import br.com.locar.core.controller.VeiculoController;
+import br.com.locar.core.entities.Veiculo;
+import br.com.locar.core.entities.enums.*;
+import br.com.locar.core.persistence.VeiculoCodec;
+import br.com.locar.terrestre.entities.Carro;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark manual que compara o caminho legado (serialização Java lida por
+ * {@link VeiculoController#carregarVeiculosDeArquivo(String, Class)}) com o formato binário do {@link VeiculoCodec}.
+ * <p>
+ * Execução: {@code java -cp <classpath de teste> br.com.locar.persistence.VeiculoCodecBenchmark [quantidade]}.
+ * </p>
+ */
+public class VeiculoCodecBenchmark {
+
+    private static final int REPETICOES = 10;
+
+    public static void main(String[] args) throws Exception {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        List<Carro> carros = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            carros.add(new Carro("Carro de benchmark número " + i, String.format("BEN%04d", i), "Marca" + (i % 20), "Nome" + (i % 50), "Modelo", 2000 + i % 25,
+                    Cor.values()[i % 11], Funcao.PASSEIO, i * 10.0, 5, 10.0, 180.0, i % 2 == 0, Combustivel.FLEX, Tracao.DIANTEIRA,
+                    5, true, "dump/vehicle_pics/BEN" + i + ".jpg", 120.0, true, true, i % 3 == 0, true, false, 1200.0, false, true,
+                    100.0 + i % 400, 4, false));
+        }
+
+        Path dir = Files.createTempDirectory("locar-bench");
+        Path legado = dir.resolve("legado.dat");
+        Path binario = dir.resolve("binario.dat");
+        VeiculoController controller = new VeiculoController();
+
+        for (int aquecimento = 0; aquecimento < 3; aquecimento++) {
+            salvarLegado(carros, legado);
+            controller.carregarVeiculosDeArquivo(legado.toString(), Carro.class);
+            VeiculoCodec.salvarArquivo(carros, binario.toString());
+            controller.carregarVeiculosDeArquivo(binario.toString(), Carro.class);
+        }
+
+        long salvarLegado = 0, carregarLegado = 0, salvarBinario = 0, carregarBinario = 0;
+        for (int r = 0; r < REPETICOES; r++) {
+            long t0 = System.nanoTime();
+            salvarLegado(carros, legado);
+            long t1 = System.nanoTime();
+            List<Carro> a = controller.carregarVeiculosDeArquivo(legado.toString(), Carro.class);
+            long t2 = System.nanoTime();
+            VeiculoCodec.salvarArquivo(carros, binario.toString());
+            long t3 = System.nanoTime();
+            List<Carro> b = controller.carregarVeiculosDeArquivo(binario.toString(), Carro.class);
+            long t4 = System.nanoTime();
+            if (a.size() != quantidade || b.size() != quantidade) {
+                throw new IllegalStateException("Quantidade lida diferente da gravada");
+            }
+            salvarLegado += t1 - t0;
+            carregarLegado += t2 - t1;
+            salvarBinario += t3 - t2;
+            carregarBinario += t4 - t3;
+        }
+
+        System.out.printf("Veículos: %d, repetições: %d%n", quantidade, REPETICOES);
+        System.out.printf("%-22s %12s %12s %12s%n", "Formato", "Tamanho(KB)", "Salvar(ms)", "Carregar(ms)");
+        imprimir("Serialização Java", Files.size(legado), salvarLegado, carregarLegado);
+        imprimir("VeiculoCodec", Files.size(binario), salvarBinario, carregarBinario);
+
+        Files.deleteIfExists(legado);
+        Files.deleteIfExists(binario);
+        Files.deleteIfExists(dir);
+    }
+
+    private static void salvarLegado(List<? extends Veiculo> veiculos, Path caminho) throws IOException {
+        try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(caminho.toFile())))) {
+            oos.writeObject(veiculos);
+        }
+    }
+
+    private static void imprimir(String nome, long bytes, long salvarNs, long carregarNs) {
+        System.out.printf("%-22s %12d %12.2f %12.2f%n", nome, bytes / 1024, salvarNs / 1e6 / REPETICOES, carregarNs / 1e6 / REPETICOES);
+    }
+}
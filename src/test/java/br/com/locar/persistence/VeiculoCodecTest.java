@@ -0,0 +1,129 @@
+package br.com.locar.persistence;
+
+import br.com.locar.core.entities.Veiculo;
+import br.com.locar.core.entities.enums.*;
+import br.com.locar.core.persistence.VeiculoCodec;
+import br.com.locar.entities.TestVehicle;
+import br.com.locar.terrestre.entities.Caminhao;
+import br.com.locar.terrestre.entities.Carro;
+import br.com.locar.terrestre.entities.Moto;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VeiculoCodecTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Carro createTestCarro(String placa) {
+        Carro carro = new Carro("Descrição com acentuação", placa, "MarcaCarro", "NomeCarro", "ModeloCarro", 2020, Cor.PRETO, Funcao.PASSEIO,
+                10000, 5, 10.0, 180.0, true, Combustivel.GASOLINA, Tracao.DIANTEIRA,
+                5, true, null, 150.0, true, false, true, false,
+                true, 1200.0, false, true, 210.5, 4, true);
+        carro.setLocacoes(7);
+        return carro;
+    }
+
+    private Moto createTestMoto(String placa) {
+        return new Moto("DescMoto", placa, "MarcaMoto", "NomeMoto", "ModeloMoto", 2022, Cor.AZUL, Funcao.PASSEIO,
+                5000, 2, 25.0, 150, false, Combustivel.GASOLINA, Tracao.TRASEIRA,
+                2, false, "foto_moto.jpg", 20.0, false, false, false, true,
+                false, 200, false, false, 80.0, 250, true, 17);
+    }
+
+    private Caminhao createTestCaminhao(String placa) {
+        return new Caminhao("DescCaminhao", placa, "MarcaCaminhao", "NomeCaminhao", "ModeloCaminhao", 2018, Cor.BRANCO, Funcao.CARGA,
+                50000, 3, 4.0, 100, false, Combustivel.DIESEL, Tracao.INTEGRAL,
+                3, true, "foto_caminhao.jpg", 400.0, true, true, false, false,
+                false, 10000, true, true, 500.0, 20000, 4.0, 2.5, 7.0, Vagao.BAU_SECO);
+    }
+
+    @Test
+    @DisplayName("Codec preserva todos os campos de Carro, Moto e Caminhao")
+    void testRoundTrip() throws Exception {
+        String caminho = tempDir.resolve("veiculos.dat").toString();
+        VeiculoCodec.salvarArquivo(List.of(createTestCarro("COD-0001"), createTestMoto("COD-0002"), createTestCaminhao("COD-0003")), caminho);
+
+        List<Veiculo> lidos = VeiculoCodec.carregarArquivo(caminho);
+        assertEquals(3, lidos.size());
+
+        Carro carro = (Carro) lidos.get(0);
+        assertEquals("Descrição com acentuação", carro.getDescricao());
+        assertNull(carro.getCaminhoFoto());
+        assertEquals(Cor.PRETO, carro.getCor());
+        assertEquals(210.5, carro.getValorDiario());
+        assertTrue(carro.isAutomatico());
+        assertFalse(carro.isArCondicionado());
+        assertTrue(carro.isVidroFume());
+        assertEquals(7, carro.getLocacoes());
+        assertEquals(4, carro.getPortas());
+        assertTrue(carro.isAerofolio());
+
+        Moto moto = (Moto) lidos.get(1);
+        assertEquals(250, moto.getCilindradas());
+        assertTrue(moto.isPortaCarga());
+        assertEquals(17, moto.getRaioPneu());
+        assertTrue(moto.isEntradaUSB());
+
+        Caminhao caminhao = (Caminhao) lidos.get(2);
+        assertEquals(Vagao.BAU_SECO, caminhao.getTipoVagao());
+        assertEquals(20000, caminhao.getCargaMaxima());
+        assertEquals(7.0, caminhao.getComprimento());
+        assertEquals(Tracao.INTEGRAL, caminhao.getTracao());
+    }
+
+    @Test
+    @DisplayName("Arquivo no formato legado de serializacao Java continua legivel")
+    void testLeituraFormatoLegado() throws Exception {
+        String caminho = tempDir.resolve("legado.dat").toString();
+        List<Carro> carros = new ArrayList<>(List.of(createTestCarro("LEG-0001"), createTestCarro("LEG-0002")));
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(caminho))) {
+            oos.writeObject(carros);
+        }
+
+        List<Veiculo> lidos = VeiculoCodec.carregarArquivo(caminho);
+        assertEquals(2, lidos.size());
+        assertEquals("LEG-0002", lidos.get(1).getPlaca());
+    }
+
+    @Test
+    @DisplayName("Formato binario e menor que a serializacao Java")
+    void testFormatoMenorQueLegado() throws Exception {
+        List<Carro> carros = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            carros.add(createTestCarro("SIZ-" + i));
+        }
+        Path legado = tempDir.resolve("legado.dat");
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(legado.toFile()))) {
+            oos.writeObject(carros);
+        }
+        Path binario = tempDir.resolve("binario.dat");
+        VeiculoCodec.salvarArquivo(carros, binario.toString());
+
+        assertTrue(Files.size(binario) < Files.size(legado), "O formato binário deveria ocupar menos espaço");
+    }
+
+    @Test
+    @DisplayName("Tipo de veiculo sem codec registrado - Lanca IOException")
+    void testTipoSemCodec() {
+        assertThrows(IOException.class, () -> VeiculoCodec.codificar(new TestVehicle("SEM-CODEC", 10.0)));
+    }
+
+    @Test
+    @DisplayName("Versao de arquivo mais nova que a suportada - Lanca IOException")
+    void testVersaoNaoSuportada() throws Exception {
+        Path caminho = tempDir.resolve("futuro.dat");
+        Files.write(caminho, new byte[]{'L', 'C', 'V', 'B', (byte) (VeiculoCodec.VERSAO_ATUAL + 1), 0, 0, 0, 0});
+        assertThrows(IOException.class, () -> VeiculoCodec.carregarArquivo(caminho.toString()));
+    }
+}
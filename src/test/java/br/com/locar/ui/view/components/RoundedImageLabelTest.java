@@ -0,0 +1,76 @@
+package br.com.locar.ui.view.components;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.MultiResolutionImage;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * O cache de imagens arredondadas é interno ao pacote de componentes, por isso o teste fica no mesmo pacote.
+ */
+class RoundedImageLabelTest {
+
+    private static BufferedImage imagem(int largura, int altura) {
+        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = imagem.createGraphics();
+        g2.setColor(Color.RED);
+        g2.fillRect(0, 0, largura, altura);
+        g2.dispose();
+        return imagem;
+    }
+
+    private static List<Image> versoes(Image arredondada) {
+        return ((MultiResolutionImage) arredondada).getResolutionVariants();
+    }
+
+    private static int alfa(Image versao, int x, int y) {
+        return ((BufferedImage) versao).getRGB(x, y) >>> 24;
+    }
+
+    @Test
+    @DisplayName("Mesma imagem, tamanho e raio reutilizam a imagem gerada")
+    void testCacheReutilizaImagem() {
+        BufferedImage origem = imagem(200, 200);
+
+        Image primeira = RoundedImageLabel.arredondada(origem, 100, 100, 20);
+
+        assertSame(primeira, RoundedImageLabel.arredondada(origem, 100, 100, 20));
+        assertNotSame(primeira, RoundedImageLabel.arredondada(origem, 100, 100, 30), "Outro raio deveria gerar outra imagem");
+        assertNotSame(primeira, RoundedImageLabel.arredondada(origem, 80, 100, 20), "Outro tamanho deveria gerar outra imagem");
+        assertNotSame(primeira, RoundedImageLabel.arredondada(imagem(200, 200), 100, 100, 20),
+                "Outra imagem de origem deveria gerar outra imagem");
+    }
+
+    @Test
+    @DisplayName("Cantos transparentes e centro opaco")
+    void testMascaraArredondada() {
+        Image arredondada = RoundedImageLabel.arredondada(imagem(100, 60), 100, 60, 40);
+        Image base = versoes(arredondada).get(0);
+
+        assertEquals(100, base.getWidth(null));
+        assertEquals(60, base.getHeight(null));
+        assertEquals(0, alfa(base, 0, 0));
+        assertEquals(0, alfa(base, 99, 0));
+        assertEquals(0, alfa(base, 0, 59));
+        assertEquals(0, alfa(base, 99, 59));
+        assertEquals(255, alfa(base, 50, 30));
+        assertEquals(255, alfa(base, 50, 0), "O meio da borda fica fora do arco e deveria continuar opaco");
+        assertEquals(Color.RED.getRGB(), ((BufferedImage) base).getRGB(50, 30));
+    }
+
+    @Test
+    @DisplayName("Versao 2x so e gerada quando a origem tem pixels suficientes")
+    void testVersoesLimitadasPelaOrigem() {
+        List<Image> pequena = versoes(RoundedImageLabel.arredondada(imagem(100, 100), 100, 100, 10));
+        List<Image> grande = versoes(RoundedImageLabel.arredondada(imagem(400, 400), 100, 100, 10));
+
+        assertTrue(pequena.stream().allMatch(versao -> versao.getWidth(null) == 100),
+                "Sem pixels além do tamanho exibido, não deveria haver versão ampliada");
+        assertTrue(grande.stream().anyMatch(versao -> versao.getWidth(null) == 200), "Deveria haver a versão 2x");
+    }
+}
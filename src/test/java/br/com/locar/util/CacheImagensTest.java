@@ -0,0 +1,94 @@
+package br.com.locar.util;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheImagensTest {
+
+    private final List<String> lidos = new CopyOnWriteArrayList<>();
+
+    private CacheImagens criarCache(long limiteBytes) {
+        return new CacheImagens(limiteBytes, caminho -> {
+            lidos.add(caminho);
+            return caminho.equals("inexistente") ? null : new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        });
+    }
+
+    @Test
+    @DisplayName("Mesmo caminho e tamanho e lido uma vez; tamanhos diferentes sao entradas diferentes")
+    void testAcertosEFalhas() {
+        CacheImagens cache = criarCache(CacheImagens.LIMITE_PADRAO_BYTES);
+
+        BufferedImage primeira = cache.obter("foto", 20, 10);
+        BufferedImage segunda = cache.obter("foto", 20, 10);
+        BufferedImage outroTamanho = cache.obter("foto", 40, 20);
+
+        assertSame(primeira, segunda);
+        assertEquals(20, primeira.getWidth());
+        assertEquals(40, outroTamanho.getWidth());
+        assertEquals(List.of("foto", "foto"), lidos);
+        assertEquals(1, cache.getAcertos());
+        assertEquals(2, cache.getFalhas());
+        assertEquals(2, cache.getQuantidade());
+        assertEquals(20 * 10 * 4 + 40 * 20 * 4, cache.getBytesEmUso());
+    }
+
+    @Test
+    @DisplayName("Imagem ilegivel nao e guardada")
+    void testImagemInexistente() {
+        CacheImagens cache = criarCache(CacheImagens.LIMITE_PADRAO_BYTES);
+
+        assertNull(cache.obter("inexistente", 10, 10));
+        assertNull(cache.obter("inexistente", 10, 10));
+
+        assertEquals(2, lidos.size());
+        assertEquals(0, cache.getQuantidade());
+        assertNull(cache.obter(null, 10, 10));
+    }
+
+    @Test
+    @DisplayName("O limite de bytes descarta as imagens usadas ha mais tempo")
+    void testLimiteDeBytes() {
+        CacheImagens cache = criarCache(3 * 10 * 10 * 4);
+
+        cache.obter("a", 10, 10);
+        cache.obter("b", 10, 10);
+        cache.obter("c", 10, 10);
+        cache.obter("a", 10, 10);
+        cache.obter("d", 10, 10);
+
+        assertEquals(1, cache.getRemocoes());
+        assertEquals(3 * 10 * 10 * 4, cache.getBytesEmUso());
+        assertNotNull(cache.emCache("a", 10, 10), "A imagem usada recentemente deveria permanecer");
+        assertNull(cache.emCache("b", 10, 10), "A imagem usada há mais tempo deveria ser descartada");
+        assertNotNull(cache.emCache("d", 10, 10));
+    }
+
+    @Test
+    @DisplayName("Invalidar descarta todos os tamanhos do arquivo substituido")
+    void testInvalidar(@TempDir Path pasta) throws Exception {
+        File arquivo = pasta.resolve("ABC1234.png").toFile();
+        ImageIO.write(new BufferedImage(30, 30, BufferedImage.TYPE_INT_RGB), "png", arquivo);
+        CacheImagens cache = new CacheImagens(CacheImagens.LIMITE_PADRAO_BYTES);
+
+        BufferedImage antiga = cache.obter(arquivo.getPath(), 10, 10);
+        cache.obter(arquivo.getPath(), 0, 0);
+        cache.obter("outra", 10, 10);
+        assertSame(antiga, cache.emCache(arquivo.getAbsolutePath(), 10, 10), "Caminhos equivalentes deveriam ter a mesma chave");
+
+        cache.invalidar(arquivo.getAbsolutePath());
+
+        assertNull(cache.emCache(arquivo.getPath(), 10, 10));
+        assertNull(cache.emCache(arquivo.getPath(), 0, 0));
+        assertNotSame(antiga, cache.obter(arquivo.getPath(), 10, 10));
+    }
+}
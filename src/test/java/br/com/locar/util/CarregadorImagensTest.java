@@ -0,0 +1,146 @@
+package br.com.locar.util;
+
+import org.junit.jupiter.api.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarregadorImagensTest {
+
+    private final List<String> lidos = new CopyOnWriteArrayList<>();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private final CountDownLatch primeiraIniciada = new CountDownLatch(1);
+    private CarregadorImagens carregador;
+
+    @BeforeEach
+    void setUp() {
+        carregador = new CarregadorImagens(1, new CacheImagens(CacheImagens.LIMITE_PADRAO_BYTES, caminho -> {
+            lidos.add(caminho);
+            if (caminho.equals("bloqueio")) {
+                primeiraIniciada.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return caminho.equals("inexistente") ? null : new BufferedImage(40, 20, BufferedImage.TYPE_INT_ARGB);
+        }));
+    }
+
+    @AfterEach
+    void tearDown() {
+        carregador.encerrar();
+    }
+
+    /**
+     * Ocupa a única thread de leitura até {@link #liberar} ser liberado.
+     */
+    private void ocuparThread() throws InterruptedException {
+        carregador.carregar("bloqueio", 0, 0, CarregadorImagens.Prioridade.VISIVEL, imagem -> { });
+        assertTrue(primeiraIniciada.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Espera as entregas já agendadas na EDT serem executadas.
+     */
+    private void esperarEdt() throws Exception {
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+
+    @Test
+    @DisplayName("Pedidos visiveis sao atendidos antes dos de segundo plano")
+    void testPrioridade() throws Exception {
+        ocuparThread();
+        CountDownLatch entregues = new CountDownLatch(3);
+        carregador.carregar("fundo", 0, 0, CarregadorImagens.Prioridade.SEGUNDO_PLANO, imagem -> entregues.countDown());
+        carregador.carregar("adiantado", 0, 0, CarregadorImagens.Prioridade.ADIANTADO, imagem -> entregues.countDown());
+        carregador.carregar("visivel", 0, 0, CarregadorImagens.Prioridade.VISIVEL, imagem -> entregues.countDown());
+        liberar.countDown();
+
+        assertTrue(entregues.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("bloqueio", "visivel", "adiantado", "fundo"), lidos);
+    }
+
+    @Test
+    @DisplayName("Repriorizar um pedido pendente o adianta na fila")
+    void testRepriorizar() throws Exception {
+        ocuparThread();
+        CountDownLatch entregues = new CountDownLatch(2);
+        carregador.carregar("primeiro", 0, 0, CarregadorImagens.Prioridade.ADIANTADO, imagem -> entregues.countDown());
+        CarregadorImagens.Pedido segundo = carregador.carregar("segundo", 0, 0, CarregadorImagens.Prioridade.SEGUNDO_PLANO, imagem -> entregues.countDown());
+        segundo.repriorizar(CarregadorImagens.Prioridade.VISIVEL);
+        liberar.countDown();
+
+        assertTrue(entregues.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("bloqueio", "segundo", "primeiro"), lidos);
+    }
+
+    @Test
+    @DisplayName("Pedido cancelado nao e lido nem entregue")
+    void testCancelamento() throws Exception {
+        ocuparThread();
+        List<String> entregues = new CopyOnWriteArrayList<>();
+        CountDownLatch ultimo = new CountDownLatch(1);
+        CarregadorImagens.Pedido cancelado = carregador.carregar("fora-da-tela", 0, 0, CarregadorImagens.Prioridade.VISIVEL, imagem -> entregues.add("fora-da-tela"));
+        carregador.carregar("na-tela", 0, 0, CarregadorImagens.Prioridade.SEGUNDO_PLANO, imagem -> {
+            entregues.add("na-tela");
+            ultimo.countDown();
+        });
+        cancelado.cancelar();
+        liberar.countDown();
+
+        assertTrue(ultimo.await(5, TimeUnit.SECONDS));
+        esperarEdt();
+        assertTrue(cancelado.isCancelado());
+        assertFalse(lidos.contains("fora-da-tela"), "A leitura cancelada não deveria ser executada");
+        assertEquals(List.of("na-tela"), entregues);
+        assertEquals(1, carregador.getPedidosCancelados());
+    }
+
+    @Test
+    @DisplayName("Pedidos iguais compartilham a leitura e recebem a imagem escalada na EDT")
+    void testLeituraCompartilhada() throws Exception {
+        ocuparThread();
+        List<Image> recebidas = new CopyOnWriteArrayList<>();
+        List<Boolean> naEdt = new CopyOnWriteArrayList<>();
+        CountDownLatch entregues = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            carregador.carregar("foto", 10, 5, CarregadorImagens.Prioridade.VISIVEL, imagem -> {
+                recebidas.add(imagem);
+                naEdt.add(SwingUtilities.isEventDispatchThread());
+                entregues.countDown();
+            });
+        }
+        liberar.countDown();
+
+        assertTrue(entregues.await(5, TimeUnit.SECONDS));
+        assertEquals(1, lidos.stream().filter("foto"::equals).count());
+        assertEquals(1, carregador.getLeiturasCompartilhadas());
+        assertSame(recebidas.get(0), recebidas.get(1));
+        assertEquals(10, recebidas.get(0).getWidth(null));
+        assertEquals(5, recebidas.get(0).getHeight(null));
+        assertEquals(List.of(true, true), naEdt);
+    }
+
+    @Test
+    @DisplayName("Imagem que nao pode ser lida e entregue como null")
+    void testImagemInexistente() throws Exception {
+        CountDownLatch entregue = new CountDownLatch(1);
+        Image[] recebida = {new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB)};
+        carregador.carregar("inexistente", 10, 10, CarregadorImagens.Prioridade.VISIVEL, imagem -> {
+            recebida[0] = imagem;
+            entregue.countDown();
+        });
+
+        assertTrue(entregue.await(5, TimeUnit.SECONDS));
+        assertNull(recebida[0]);
+    }
+}
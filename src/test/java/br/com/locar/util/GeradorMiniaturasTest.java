@@ -0,0 +1,146 @@
+package br.com.locar.util;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeradorMiniaturasTest {
+
+    @TempDir
+    Path pasta;
+
+    private File criarFoto(String nome, int tipo) throws Exception {
+        File arquivo = pasta.resolve(nome).toFile();
+        ImageIO.write(new BufferedImage(800, 600, tipo), nome.endsWith(".png") ? "png" : "jpg", arquivo);
+        return arquivo;
+    }
+
+    @Test
+    @DisplayName("Gera as miniaturas de veiculo nos tamanhos exibidos")
+    void testGerarMiniaturasVeiculo() throws Exception {
+        File foto = criarFoto("ABC1234.jpg", BufferedImage.TYPE_INT_RGB);
+
+        assertTrue(GeradorMiniaturas.gerar(foto, GeradorMiniaturas.TAMANHOS_VEICULO));
+
+        for (GeradorMiniaturas.Tamanho tamanho : GeradorMiniaturas.TAMANHOS_VEICULO) {
+            String miniatura = GeradorMiniaturas.miniaturaDe(foto.getPath(), tamanho.getLargura(), tamanho.getAltura());
+            assertNotNull(miniatura, "Deveria haver miniatura " + tamanho);
+            assertTrue(miniatura.endsWith(".jpg"), "Foto sem transparência deveria gerar JPEG");
+            BufferedImage lida = ImageIO.read(new File(miniatura));
+            assertEquals(tamanho.getLargura(), lida.getWidth());
+            assertEquals(tamanho.getAltura(), lida.getHeight());
+        }
+        assertNull(GeradorMiniaturas.miniaturaDe(foto.getPath(), 123, 45), "Tamanho não gerado não deveria ter miniatura");
+    }
+
+    @Test
+    @DisplayName("Foto com transparencia gera miniaturas PNG")
+    void testGerarMiniaturaTransparente() throws Exception {
+        File foto = criarFoto("12345678900.png", BufferedImage.TYPE_INT_ARGB);
+
+        assertTrue(GeradorMiniaturas.gerar(foto, GeradorMiniaturas.TAMANHOS_PERFIL));
+
+        String miniatura = GeradorMiniaturas.miniaturaDe(foto.getPath(), 50, 50);
+        assertNotNull(miniatura);
+        assertTrue(miniatura.endsWith(".png"));
+    }
+
+    @Test
+    @DisplayName("Miniatura mais antiga que a foto original e ignorada")
+    void testMiniaturaDesatualizada() throws Exception {
+        File foto = criarFoto("ABC1234.jpg", BufferedImage.TYPE_INT_RGB);
+        GeradorMiniaturas.gerar(foto, EnumSet.of(GeradorMiniaturas.Tamanho.CARTAO));
+        assertNotNull(GeradorMiniaturas.miniaturaDe(foto.getPath(), 250, 150));
+
+        assertTrue(foto.setLastModified(System.currentTimeMillis() + 60_000));
+
+        assertNull(GeradorMiniaturas.miniaturaDe(foto.getPath(), 250, 150));
+    }
+
+    @Test
+    @DisplayName("O preenchimento gera apenas as miniaturas que faltam")
+    void testPreencher() throws Exception {
+        criarFoto("AAA0001.jpg", BufferedImage.TYPE_INT_RGB);
+        criarFoto("AAA0002.jpg", BufferedImage.TYPE_INT_RGB);
+        File pronta = criarFoto("AAA0003.png", BufferedImage.TYPE_INT_ARGB);
+        GeradorMiniaturas.gerar(pronta, GeradorMiniaturas.TAMANHOS_VEICULO);
+        assertTrue(pasta.resolve("notas.txt").toFile().createNewFile());
+
+        int geradas = GeradorMiniaturas.preencher(pasta.toString(), GeradorMiniaturas.TAMANHOS_VEICULO).join();
+
+        assertEquals(2, geradas);
+        assertNotNull(GeradorMiniaturas.miniaturaDe(pasta.resolve("AAA0001.jpg").toString(), 500, 350));
+        assertEquals(0, GeradorMiniaturas.preencher(pasta.toString(), GeradorMiniaturas.TAMANHOS_VEICULO).join());
+        assertEquals(0, GeradorMiniaturas.preencher(pasta.resolve("inexistente").toString(), GeradorMiniaturas.TAMANHOS_VEICULO).join());
+    }
+
+    @Test
+    @DisplayName("Geracao em segundo plano entrega o resultado pelo futuro")
+    void testGerarEmSegundoPlano() throws Exception {
+        File foto = criarFoto("ABC1234.jpg", BufferedImage.TYPE_INT_RGB);
+
+        assertTrue(GeradorMiniaturas.gerarEmSegundoPlano(foto, EnumSet.of(GeradorMiniaturas.Tamanho.CARTAO))
+                .get(60, TimeUnit.SECONDS));
+        assertNotNull(GeradorMiniaturas.miniaturaDe(foto.getPath(), 250, 150));
+        assertFalse(GeradorMiniaturas.gerarEmSegundoPlano(pasta.resolve("inexistente.jpg").toFile(),
+                EnumSet.of(GeradorMiniaturas.Tamanho.CARTAO)).get(60, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Geracoes simultaneas da mesma foto publicam miniaturas completas")
+    void testGeracoesSimultaneas() throws Exception {
+        File foto = criarFoto("ABC1234.jpg", BufferedImage.TYPE_INT_RGB);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> tarefas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tarefas.add(executor.submit(() -> GeradorMiniaturas.gerar(foto, GeradorMiniaturas.TAMANHOS_VEICULO)));
+            }
+            for (Future<Boolean> tarefa : tarefas) {
+                assertTrue(tarefa.get(60, TimeUnit.SECONDS), "Nenhuma gravação concorrente deveria falhar");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (GeradorMiniaturas.Tamanho tamanho : GeradorMiniaturas.TAMANHOS_VEICULO) {
+            BufferedImage lida = ImageIO.read(new File(GeradorMiniaturas.miniaturaDe(foto.getPath(), tamanho.getLargura(), tamanho.getAltura())));
+            assertEquals(tamanho.getLargura(), lida.getWidth());
+            assertEquals(tamanho.getAltura(), lida.getHeight());
+        }
+        String[] temporarios = pasta.resolve(GeradorMiniaturas.PASTA_MINIATURAS).toFile().list((dir, nome) -> nome.endsWith(".tmp"));
+        assertEquals(0, temporarios.length, "Os arquivos temporários deveriam ter sido renomeados");
+    }
+
+    @Test
+    @DisplayName("O cache de imagens le a miniatura no lugar da foto original")
+    void testCacheLeMiniatura() throws Exception {
+        File foto = criarFoto("ABC1234.jpg", BufferedImage.TYPE_INT_RGB);
+        GeradorMiniaturas.gerar(foto, EnumSet.of(GeradorMiniaturas.Tamanho.CARTAO));
+        List<String> lidos = new CopyOnWriteArrayList<>();
+        CacheImagens cache = new CacheImagens(CacheImagens.LIMITE_PADRAO_BYTES, caminho -> {
+            lidos.add(caminho);
+            return CarregadorImagens.lerImagem(caminho);
+        });
+
+        BufferedImage cartao = cache.obter(foto.getPath(), 250, 150);
+        cache.obter(foto.getPath(), 500, 350);
+
+        assertEquals(250, cartao.getWidth());
+        assertEquals(List.of(GeradorMiniaturas.miniaturaDe(foto.getPath(), 250, 150), foto.getPath()), lidos);
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.locar.util;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark manual do {@link ImageScaler} contra a implementação anterior (um único {@code drawImage} bicúbico
+ * para um destino ARGB), sobre as fotos de {@code ui/images/veiculos}, nos tamanhos exibidos pela aplicação.
+ * <p>
+ * Além do tempo médio, mostra a distância média de cada resultado para uma referência de alta qualidade
+ * ({@link Image#SCALE_AREA_AVERAGING}), em níveis de cor por canal: quanto menor, mais fiel.
+ * </p>
+ * <p>
+ * Execução: {@code java -cp <classpath de teste> br.com.locar.util.ImageScalerBenchmark [pasta das imagens]}.
+ * </p>
+ */
+public class ImageScalerBenchmark {
+
+    private static final String PASTA_PADRAO = "src/main/java/br/com/locar/ui/images/veiculos";
+    private static final int REPETICOES = 20;
+    private static final int[][] TAMANHOS = {{1200, 600}, {500, 350}, {250, 150}, {150, 100}, {50, 50}};
+
+    public static void main(String[] args) throws Exception {
+        File pasta = new File(args.length > 0 ? args[0] : PASTA_PADRAO);
+        File[] arquivos = pasta.listFiles((dir, nome) -> nome.matches("(?i).+\\.(jpe?g|png)"));
+        if (arquivos == null || arquivos.length == 0) {
+            System.err.println("Nenhuma imagem encontrada em " + pasta.getAbsolutePath());
+            return;
+        }
+        List<BufferedImage> imagens = new ArrayList<>();
+        for (File arquivo : arquivos) {
+            BufferedImage imagem = ImageIO.read(arquivo);
+            if (imagem != null) {
+                imagens.add(imagem);
+                System.out.printf("%s: %dx%d%n", arquivo.getName(), imagem.getWidth(), imagem.getHeight());
+            }
+        }
+
+        System.out.printf("%n%-10s %-12s %12s %12s %10s %10s%n", "Destino", "Algoritmo", "Anterior ms", "Novo ms", "Dist. ant.", "Dist. nova");
+        for (int[] tamanho : TAMANHOS) {
+            int w = tamanho[0];
+            int h = tamanho[1];
+            aquecer(imagens, w, h);
+
+            long inicio = System.nanoTime();
+            for (int i = 0; i < REPETICOES; i++) {
+                for (BufferedImage imagem : imagens) {
+                    escalarAnterior(imagem, w, h);
+                }
+            }
+            double anterior = (System.nanoTime() - inicio) / 1e6 / REPETICOES / imagens.size();
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < REPETICOES; i++) {
+                for (BufferedImage imagem : imagens) {
+                    ImageScaler.getScaledImage(imagem, w, h);
+                }
+            }
+            double novo = (System.nanoTime() - inicio) / 1e6 / REPETICOES / imagens.size();
+
+            double distanciaAnterior = 0;
+            double distanciaNova = 0;
+            for (BufferedImage imagem : imagens) {
+                BufferedImage referencia = referencia(imagem, w, h);
+                distanciaAnterior += distancia(escalarAnterior(imagem, w, h), referencia);
+                distanciaNova += distancia(ImageScaler.getScaledImage(imagem, w, h), referencia);
+            }
+
+            BufferedImage exemplo = imagens.get(0);
+            ImageScaler.Algoritmo algoritmo = ImageScaler.escolherAlgoritmo(exemplo.getWidth(), exemplo.getHeight(), w, h);
+            System.out.printf("%-10s %-12s %12.2f %12.2f %10.2f %10.2f%n", w + "x" + h, algoritmo, anterior, novo,
+                    distanciaAnterior / imagens.size(), distanciaNova / imagens.size());
+        }
+
+        BufferedImage primeira = imagens.get(0);
+        BufferedImage reaproveitada = null;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES * 10; i++) {
+            reaproveitada = ImageScaler.escalar(primeira, 1100 + i % 2, 540, ImageScaler.Algoritmo.RAPIDO, reaproveitada);
+        }
+        double rapido = (System.nanoTime() - inicio) / 1e6 / (REPETICOES * 10);
+        System.out.printf("%nPrévia de redimensionamento (vizinho mais próximo, ~1100x540): %.2f ms%n", rapido);
+    }
+
+    private static void aquecer(List<BufferedImage> imagens, int w, int h) {
+        for (int i = 0; i < 3; i++) {
+            for (BufferedImage imagem : imagens) {
+                escalarAnterior(imagem, w, h);
+                ImageScaler.getScaledImage(imagem, w, h);
+            }
+        }
+    }
+
+    /**
+     * A implementação anterior de {@link ImageScaler#getScaledImage(Image, int, int)}.
+     */
+    private static BufferedImage escalarAnterior(Image srcImg, int w, int h) {
+        BufferedImage resizedImg = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = resizedImg.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.drawImage(srcImg, 0, 0, w, h, null);
+        g2.dispose();
+        return resizedImg;
+    }
+
+    private static BufferedImage referencia(BufferedImage imagem, int w, int h) {
+        Image escalada = imagem.getScaledInstance(w, h, Image.SCALE_AREA_AVERAGING);
+        BufferedImage referencia = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = referencia.createGraphics();
+        g2.drawImage(escalada, 0, 0, null);
+        g2.dispose();
+        return referencia;
+    }
+
+    /**
+     * Diferença absoluta média por canal de cor entre duas imagens do mesmo tamanho.
+     */
+    private static double distancia(BufferedImage a, BufferedImage b) {
+        long soma = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                int p = a.getRGB(x, y);
+                int q = b.getRGB(x, y);
+                soma += Math.abs(((p >> 16) & 0xFF) - ((q >> 16) & 0xFF))
+                        + Math.abs(((p >> 8) & 0xFF) - ((q >> 8) & 0xFF))
+                        + Math.abs((p & 0xFF) - (q & 0xFF));
+            }
+        }
+        return (double) soma / (3L * a.getWidth() * a.getHeight());
+    }
+}
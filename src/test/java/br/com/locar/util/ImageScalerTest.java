@@ -0,0 +1,84 @@
+package br.com.locar.util;
+
+import org.junit.jupiter.api.*;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageScalerTest {
+
+    private BufferedImage xadrez(int largura, int altura, int tipo) {
+        BufferedImage imagem = new BufferedImage(largura, altura, tipo);
+        for (int y = 0; y < altura; y++) {
+            for (int x = 0; x < largura; x++) {
+                imagem.setRGB(x, y, (x + y) % 2 == 0 ? 0xFFFFFFFF : 0xFF000000);
+            }
+        }
+        return imagem;
+    }
+
+    @Test
+    @DisplayName("Escolhe o algoritmo pela razao de reducao")
+    void testEscolherAlgoritmo() {
+        assertEquals(ImageScaler.Algoritmo.BICUBICO, ImageScaler.escolherAlgoritmo(1000, 500, 1200, 600));
+        assertEquals(ImageScaler.Algoritmo.BICUBICO, ImageScaler.escolherAlgoritmo(1000, 500, 500, 250));
+        assertEquals(ImageScaler.Algoritmo.PROGRESSIVO, ImageScaler.escolherAlgoritmo(1000, 500, 300, 150));
+        assertEquals(ImageScaler.Algoritmo.MEDIA_AREA, ImageScaler.escolherAlgoritmo(1000, 500, 100, 50));
+    }
+
+    @Test
+    @DisplayName("Imagem opaca continua RGB e imagem com transparencia continua ARGB")
+    void testPreservaTipo() {
+        for (ImageScaler.Algoritmo algoritmo : ImageScaler.Algoritmo.values()) {
+            BufferedImage opaca = ImageScaler.escalar(new BufferedImage(400, 300, BufferedImage.TYPE_3BYTE_BGR), 50, 40, algoritmo);
+            BufferedImage transparente = ImageScaler.escalar(new BufferedImage(400, 300, BufferedImage.TYPE_INT_ARGB), 50, 40, algoritmo);
+
+            assertEquals(50, opaca.getWidth(), algoritmo.name());
+            assertEquals(40, opaca.getHeight(), algoritmo.name());
+            assertEquals(BufferedImage.TYPE_INT_RGB, opaca.getType(), algoritmo.name());
+            assertEquals(BufferedImage.TYPE_INT_ARGB, transparente.getType(), algoritmo.name());
+        }
+    }
+
+    @Test
+    @DisplayName("A media por area de um xadrez e cinza")
+    void testMediaPorArea() {
+        BufferedImage resultado = ImageScaler.escalar(xadrez(400, 400, BufferedImage.TYPE_INT_RGB), 10, 10, ImageScaler.Algoritmo.MEDIA_AREA);
+
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 10; x++) {
+                int vermelho = (resultado.getRGB(x, y) >> 16) & 0xFF;
+                assertTrue(Math.abs(vermelho - 128) <= 1, "Pixel (" + x + ", " + y + ") deveria ser cinza: " + vermelho);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Pixels transparentes nao escurecem a media por area")
+    void testMediaPorAreaTransparente() {
+        BufferedImage origem = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 20; x++) {
+                origem.setRGB(x, y, 0xFFFF0000);
+            }
+        }
+
+        int pixel = ImageScaler.escalar(origem, 1, 1, ImageScaler.Algoritmo.MEDIA_AREA).getRGB(0, 0);
+
+        assertEquals(0xFF, (pixel >> 16) & 0xFF, "A cor deveria continuar vermelha pura");
+        assertTrue(Math.abs((pixel >>> 24) - 128) <= 1, "A opacidade deveria ser a media");
+    }
+
+    @Test
+    @DisplayName("Reaproveita o destino apenas com mesmo tamanho e tipo")
+    void testReaproveitarDestino() {
+        BufferedImage origem = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+        BufferedImage anterior = ImageScaler.escalar(origem, 100, 80, ImageScaler.Algoritmo.RAPIDO);
+
+        assertSame(anterior, ImageScaler.escalar(origem, 100, 80, ImageScaler.Algoritmo.RAPIDO, anterior));
+        assertNotSame(anterior, ImageScaler.escalar(origem, 101, 80, ImageScaler.Algoritmo.RAPIDO, anterior));
+        assertNotSame(anterior, ImageScaler.escalar(new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB), 100, 80,
+                ImageScaler.Algoritmo.RAPIDO, anterior));
+    }
+}
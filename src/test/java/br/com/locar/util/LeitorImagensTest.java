@@ -0,0 +1,79 @@
+package br.com.locar.util;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorImagensTest {
+
+    @TempDir
+    Path pasta;
+
+    private File criarFoto(int largura, int altura) throws Exception {
+        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = imagem.createGraphics();
+        g2.setColor(Color.RED);
+        g2.fillRect(0, 0, largura / 2, altura);
+        g2.dispose();
+        File arquivo = pasta.resolve("foto.png").toFile();
+        ImageIO.write(imagem, "png", arquivo);
+        return arquivo;
+    }
+
+    @Test
+    @DisplayName("O fator de subamostragem mantem a imagem com o dobro do tamanho pedido")
+    void testFatorSubamostragem() {
+        assertEquals(13, LeitorImagens.fatorSubamostragem(4000, 3000, 150, 100));
+        assertEquals(2, LeitorImagens.fatorSubamostragem(1280, 720, 250, 150));
+        assertEquals(1, LeitorImagens.fatorSubamostragem(1280, 720, 500, 350));
+        assertEquals(1, LeitorImagens.fatorSubamostragem(100, 100, 1200, 600));
+        assertEquals(1, LeitorImagens.fatorSubamostragem(4000, 3000, 0, 0));
+    }
+
+    @Test
+    @DisplayName("A foto e decodificada subamostrada para o tamanho pedido")
+    void testLerSubamostrada() throws Exception {
+        File foto = criarFoto(2000, 1000);
+
+        BufferedImage miniatura = LeitorImagens.ler(foto.getPath(), 100, 50);
+        BufferedImage cheia = LeitorImagens.ler(foto.getPath(), 0, 0);
+
+        assertEquals(200, miniatura.getWidth());
+        assertEquals(100, miniatura.getHeight());
+        assertEquals(2000, cheia.getWidth());
+        assertEquals(0xFFFF0000, miniatura.getRGB(10, 10));
+        assertEquals(0xFF000000, miniatura.getRGB(190, 10));
+    }
+
+    @Test
+    @DisplayName("Le apenas a regiao pedida")
+    void testLerRegiao() throws Exception {
+        File foto = criarFoto(2000, 1000);
+
+        BufferedImage direita = LeitorImagens.ler(foto.getPath(), new Rectangle(1000, 0, 1000, 1000), 100, 100);
+        BufferedImage fora = LeitorImagens.ler(foto.getPath(), new Rectangle(3000, 0, 10, 10), 10, 10);
+
+        assertEquals(200, direita.getWidth());
+        assertEquals(200, direita.getHeight());
+        assertEquals(0xFF000000, direita.getRGB(0, 0), "A regiao nao deveria incluir a metade vermelha");
+        assertNull(fora);
+    }
+
+    @Test
+    @DisplayName("Arquivo que nao e imagem ou caminho inexistente devolvem null")
+    void testArquivoInvalido() throws Exception {
+        Path texto = Files.writeString(pasta.resolve("notas.png"), "nao e imagem");
+
+        assertNull(LeitorImagens.ler(texto.toString(), 100, 100));
+        assertNull(LeitorImagens.ler(pasta.resolve("inexistente.png").toString(), 100, 100));
+        assertNull(LeitorImagens.ler((String) null, 100, 100));
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.locar.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TravasPorChaveTest {
+
+    @Test
+    @DisplayName("Listras arredondadas para potência de 2 e estáveis por chave")
+    void testListras() {
+        TravasPorChave travas = new TravasPorChave(100);
+
+        assertEquals(128, travas.getListras());
+        assertEquals(travas.listraDe("veiculo:ABC-1234"), travas.listraDe("veiculo:ABC-1234"));
+        assertTrue(travas.listraDe("veiculo:ABC-1234") < travas.getListras());
+        assertEquals(1, new TravasPorChave(1).getListras());
+    }
+
+    @Test
+    @DisplayName("Operações sobre a mesma chave são serializadas")
+    void testMesmaChaveSerializada() throws Exception {
+        TravasPorChave travas = new TravasPorChave();
+        AtomicInteger dentro = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        int[] contador = {0};
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] tarefas = new Future<?>[8];
+            for (int t = 0; t < tarefas.length; t++) {
+                tarefas[t] = executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        travas.executar(() -> {
+                            maximo.accumulateAndGet(dentro.incrementAndGet(), Math::max);
+                            contador[0]++;
+                            dentro.decrementAndGet();
+                            return null;
+                        }, "veiculo:ABC-1234");
+                    }
+                });
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, maximo.get(), "Apenas uma thread deveria executar por vez");
+        assertEquals(8_000, contador[0]);
+    }
+
+    @Test
+    @DisplayName("Chaves em ordens opostas não entram em impasse")
+    void testSemImpasse() throws Exception {
+        TravasPorChave travas = new TravasPorChave();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> ida = executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 10_000; i++) {
+                    travas.executar(() -> null, "veiculo:AAA-0001", "cliente:111");
+                }
+                return null;
+            });
+            Future<?> volta = executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 10_000; i++) {
+                    travas.executar(() -> null, "cliente:111", "veiculo:AAA-0001", null);
+                }
+                return null;
+            });
+            largada.countDown();
+            ida.get(30, TimeUnit.SECONDS);
+            volta.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Exceção da ação é propagada e as travas são liberadas")
+    void testExcecaoLiberaTravas() {
+        TravasPorChave travas = new TravasPorChave();
+
+        assertThrows(IllegalStateException.class, () -> travas.executar(() -> {
+            throw new IllegalStateException("falha");
+        }, "veiculo:ABC-1234"));
+        assertEquals("ok", travas.executar(() -> "ok", "veiculo:ABC-1234"));
+    }
+}